@@ -88,6 +88,17 @@
         | 06/07/25	| CREATE TABLE ATENDIFISIO									| FISIOTERAPIA					|
         | 06/07/25	| CREATE TABLE TOKENFISIO									| FISIOTERAPIA					|
         | 09/07/25	| ADD COLUMN OBSERVACAO IN EXERCREALIZADO					| FISIOTERAPIA					|
+        | 16/10/26	| CREATE INDEX IDX_ESTOQUE_PRODUTO, IDX_ESTOQUE_LOTE		| ESTOQUE						|
+        | 16/10/26	| CREATE INDEX IDX_PRODUTO_ALMOX							| ESTOQUE, COMPRAS				|
+        | 16/10/26	| CREATE TABLE MOVIMENTACAO_SEQ							| ESTOQUE						|
+        | 16/10/26	| CREATE TABLE ESTOQUE_SEQ, LOTE_SEQ						| ESTOQUE, COMPRAS				|
+        | 16/10/26	| CREATE INDEX IDX_ORDEMCOMPRA_STATUS_DATA					| COMPRAS					|
+        | 16/10/26	| CREATE INDEX IDX_ORDEMCOMPRA_DATAORDEM						| COMPRAS					|
+        | 16/10/26	| CREATE INDEX IDX_ORDEMCOMPRA_DATAPREV						| COMPRAS					|
+        | 16/10/26	| CREATE TABLE SALDOPRODUTO, SALDOALMOX						| ESTOQUE						|
+        | 16/10/26	| ADD CONSTRAINT UQ_PRODUTO_CODBARRAS, CODBARRAS NOT NULL	| ESTOQUE						|
+        | 16/10/26	| IDESTOQUE, IDMOVIMENTACAO SEM AUTO_INCREMENT (SEQUÊNCIAS)	| ESTOQUE						|
+        | 16/10/26	| IDLOTE SEM AUTO_INCREMENT (LOTE_SEQ)						| ESTOQUE, COMPRAS				|
         ´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´´
 */
 START TRANSACTION;
@@ -456,7 +467,7 @@ CREATE TABLE PRODUTO(
 	DESCRICAO VARCHAR(250) NOT NULL,
     ID_ALMOX INT,
 	ID_UNMEDI INT NOT NULL,
-    CODBARRAS VARCHAR(250),
+    CODBARRAS VARCHAR(250) NOT NULL,
     TEMPIDEAL DECIMAL(3,1),
 	STQMAX INT NOT NULL,
 	STQMIN INT NOT NULL,
@@ -474,7 +485,7 @@ TABLESPACE TS_COMPRA
 STORAGE DISK;
 
 CREATE TABLE ESTOQUE(
-	IDESTOQUE INT PRIMARY KEY AUTO_INCREMENT,
+	IDESTOQUE INT PRIMARY KEY,
 	ID_PRODUTO INT NOT NULL,
 	ID_LOTE INT NOT NULL,
 	QTDESTOQUE INT NOT NULL
@@ -482,8 +493,36 @@ CREATE TABLE ESTOQUE(
 TABLESPACE TS_COMPRA
 STORAGE DISK;
 
+-- Sequência emulada (Hibernate) dos IDs de ESTOQUE, permite inserts em lote no recebimento de ordens
+-- O otimizador pooled entrega os IDs de next_val - 49 a next_val: o valor inicial fica um bloco acima do maior ID
+CREATE TABLE ESTOQUE_SEQ(
+	next_val BIGINT NOT NULL
+)
+TABLESPACE TS_COMPRA
+STORAGE DISK;
+
+INSERT INTO ESTOQUE_SEQ(next_val) SELECT COALESCE(MAX(IDESTOQUE), 0) + 51 FROM ESTOQUE;
+
+-- Saldo materializado por produto (soma de QTDESTOQUE), mantido na mesma transação das escritas em ESTOQUE
+CREATE TABLE SALDOPRODUTO(
+	ID_PRODUTO INT PRIMARY KEY,
+	QTDTOTAL BIGINT NOT NULL
+)
+TABLESPACE TS_COMPRA
+STORAGE DISK;
+
+-- Saldo materializado por almoxarifado e produto
+CREATE TABLE SALDOALMOX(
+	ID_ALMOX INT NOT NULL,
+	ID_PRODUTO INT NOT NULL,
+	QTDTOTAL BIGINT NOT NULL,
+	PRIMARY KEY (ID_ALMOX, ID_PRODUTO)
+)
+TABLESPACE TS_COMPRA
+STORAGE DISK;
+
 CREATE TABLE MOVIMENTACAO(
-	IDMOVIMENTACAO INT PRIMARY KEY AUTO_INCREMENT,
+	IDMOVIMENTACAO INT PRIMARY KEY,
 	ID_ESTOQUE INT NOT NULL,
 	ID_USUARIO INT NOT NULL,
 	ID_SETOR_ORIGEM INT NOT NULL,
@@ -495,6 +534,16 @@ CREATE TABLE MOVIMENTACAO(
 TABLESPACE TS_COMPRA
 STORAGE DISK;
 
+-- Sequência emulada (Hibernate) dos IDs de MOVIMENTACAO, alocados em blocos de 50
+-- O valor inicial fica um bloco acima do maior ID, como em ESTOQUE_SEQ
+CREATE TABLE MOVIMENTACAO_SEQ(
+	next_val BIGINT NOT NULL
+)
+TABLESPACE TS_COMPRA
+STORAGE DISK;
+
+INSERT INTO MOVIMENTACAO_SEQ(next_val) SELECT COALESCE(MAX(IDMOVIMENTACAO), 0) + 51 FROM MOVIMENTACAO;
+
 CREATE TABLE PRODSOLIC(
 	IDPRODSOLIC INT PRIMARY KEY AUTO_INCREMENT,
 	ID_ESTOQUE INT NOT NULL,
@@ -594,7 +643,7 @@ TABLESPACE TS_COMPRA
 STORAGE DISK;
 
 CREATE TABLE LOTE(
-	IDLOTE INT PRIMARY KEY AUTO_INCREMENT,
+	IDLOTE INT PRIMARY KEY,
 	ID_ORDCOMP INT NOT NULL,
     DATAVENC DATE NOT NULL,
 	QNTD INT NOT NULL
@@ -602,6 +651,16 @@ CREATE TABLE LOTE(
 TABLESPACE TS_COMPRA
 STORAGE DISK;
 
+-- Sequência emulada (Hibernate) dos IDs de LOTE, permite inserts em lote no recebimento de ordens
+-- O valor inicial fica um bloco acima do maior ID, como em ESTOQUE_SEQ
+CREATE TABLE LOTE_SEQ(
+	next_val BIGINT NOT NULL
+)
+TABLESPACE TS_COMPRA
+STORAGE DISK;
+
+INSERT INTO LOTE_SEQ(next_val) SELECT COALESCE(MAX(IDLOTE), 0) + 51 FROM LOTE;
+
 CREATE TABLE SETOR(
 	IDSETOR INT PRIMARY KEY AUTO_INCREMENT,
 	ID_PROFISSIO INT NOT NULL,
@@ -1497,6 +1556,18 @@ CREATE INDEX IDX_PROCEDIMENTO_DESCRPROC ON PROCEDIMENTO(DESCRPROC);
 
 CREATE INDEX IDX_PRODUTO_NOME ON PRODUTO(NOME);
 
+CREATE INDEX IDX_PRODUTO_ALMOX ON PRODUTO(ID_ALMOX);
+
+CREATE INDEX IDX_ESTOQUE_PRODUTO ON ESTOQUE(ID_PRODUTO, ID_LOTE, QTDESTOQUE);
+
+CREATE INDEX IDX_ESTOQUE_LOTE ON ESTOQUE(ID_LOTE, ID_PRODUTO, QTDESTOQUE);
+
+CREATE INDEX IDX_ORDEMCOMPRA_STATUS_DATA ON ORDEMCOMPRA(STATUSORD, DATAORDEM);
+
+CREATE INDEX IDX_ORDEMCOMPRA_DATAORDEM ON ORDEMCOMPRA(DATAORDEM);
+
+CREATE INDEX IDX_ORDEMCOMPRA_DATAPREV ON ORDEMCOMPRA(DATAPREV);
+
 CREATE INDEX IDX_PERGUNTA_PERGUNTA ON PERGUNTA(PERGUNTA);
 
 -- UNIQUES --
@@ -1533,6 +1604,10 @@ ALTER TABLE FORNECPROD
 	ADD CONSTRAINT UQ_FORNECPROD
     UNIQUE (ID_FORNECEDOR, ID_PRODUTO);
 
+ALTER TABLE PRODUTO
+	ADD CONSTRAINT UQ_PRODUTO_CODBARRAS
+    UNIQUE (CODBARRAS);
+
 ALTER TABLE USUARIO
 ADD CONSTRAINT CK_USUARIO_IDPESSOAFIS_IDPROFISSIO
 CHECK (
@@ -0,0 +1,32 @@
+package com.br.fasipe.estoque.ordemcompra.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Execução de ações após o commit da transação corrente
+ * Usada pelas invalidações de cache e pelo descarte do índice FEFO;
+ * fora de transação a ação é executada imediatamente
+ */
+public final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    /**
+     * Executa a ação após o commit da transação ativa (ou imediatamente, fora de transação)
+     * @param acao Ação executada; não roda se a transação for desfeita
+     */
+    public static void executar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.br.fasipe.estoque.ordemcompra.cache;
+
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de dependências dos caches rastreados
+ * Registra, para cada entrada em cache, as tags das quais ela depende:
+ * - a tag de filtro derivada da chave (produto_5, lote_7, status_PEND, listagem)
+ * - nas listagens, a tag do campo de ordenação (ordenacao_id, ordenacao_nome)
+ * - uma tag id_X para cada entidade contida no valor (página, lista ou entidade)
+ * - uma tag produto_X para cada item que exibe dados do produto X (idProduto),
+ *   como os detalhes e resumos de estoque
+ * Uma escrita invalida apenas as entradas ligadas às tags que ela afeta
+ */
+@Slf4j
+@Component
+public class CacheDependencias {
+
+    public static final String TAG_LISTAGEM = "listagem";
+    public static final String TAG_ORDENACAO = "ordenacao_";
+
+    private static final Pattern SUFIXO_PAGINACAO = Pattern.compile("_\\d+_\\d+$");
+    private static final int HISTORICO_MAXIMO = 50;
+
+    private final Map<String, RastreadorCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, NavigableMap<String, Set<Object>>> chavesPorTag = new ConcurrentHashMap<>();
+    private final Map<String, Map<Object, Set<String>>> tagsPorChave = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalInvalidacoes = new AtomicLong();
+    private final AtomicLong totalEntradasRemovidas = new AtomicLong();
+    private final Deque<Map<String, Object>> historico = new ArrayDeque<>();
+
+    private final ClassValue<Method> acessorId = acessor("getId", "id");
+    private final ClassValue<Method> acessorProduto = acessor("getIdProduto", "idProduto");
+
+    /**
+     * Cria uma invalidação para uma operação de escrita
+     * @param descricao Descrição da escrita (usada no log e no histórico)
+     * @return Invalidação a ser configurada e executada
+     */
+    public Invalidacao invalidacao(String descricao) {
+        return new Invalidacao(this, descricao);
+    }
+
+    void registrarCache(RastreadorCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Registra as tags de uma entrada recém colocada em cache
+     */
+    void registrar(String cache, Object chave, Object valor) {
+        Set<String> tags = new HashSet<>();
+        tags.add(tagDaChave(chave));
+        String ordenacao = tagDeOrdenacao(chave);
+        if (ordenacao != null) {
+            tags.add(ordenacao);
+        }
+        coletarIds(valor, tags);
+
+        esquecer(cache, chave);
+        tagsPorChave.computeIfAbsent(cache, c -> new ConcurrentHashMap<>()).put(chave, tags);
+        NavigableMap<String, Set<Object>> indice = chavesPorTag.computeIfAbsent(cache, c -> new ConcurrentSkipListMap<>());
+        for (String tag : tags) {
+            indice.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(chave);
+        }
+    }
+
+    /**
+     * Remove uma entrada do índice (remoção explícita, expiração ou limite de peso)
+     */
+    public void esquecer(String cache, Object chave) {
+        Map<Object, Set<String>> porChave = tagsPorChave.get(cache);
+        Set<String> tags = porChave != null ? porChave.remove(chave) : null;
+        if (tags == null) {
+            return;
+        }
+        NavigableMap<String, Set<Object>> indice = chavesPorTag.get(cache);
+        for (String tag : tags) {
+            indice.computeIfPresent(tag, (t, chaves) -> {
+                chaves.remove(chave);
+                return chaves.isEmpty() ? null : chaves;
+            });
+        }
+    }
+
+    void esquecerTudo(String cache) {
+        tagsPorChave.remove(cache);
+        chavesPorTag.remove(cache);
+    }
+
+    /**
+     * Remove as entradas ligadas a uma tag
+     * @return Quantidade de entradas removidas
+     */
+    int invalidarTag(String cache, String tag) {
+        NavigableMap<String, Set<Object>> indice = chavesPorTag.get(cache);
+        if (indice == null) {
+            return 0;
+        }
+        Set<Object> chaves = indice.get(tag);
+        return chaves == null ? 0 : evictar(cache, new ArrayList<>(chaves));
+    }
+
+    /**
+     * Remove as entradas ligadas às tags que começam com o prefixo
+     * e cujo sufixo atende ao filtro
+     * @return Quantidade de entradas removidas
+     */
+    int invalidarPrefixo(String cache, String prefixo, Predicate<String> filtroSufixo) {
+        NavigableMap<String, Set<Object>> indice = chavesPorTag.get(cache);
+        if (indice == null) {
+            return 0;
+        }
+        List<Object> chaves = new ArrayList<>();
+        indice.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).forEach((tag, doTag) -> {
+            if (filtroSufixo.test(tag.substring(prefixo.length()))) {
+                chaves.addAll(doTag);
+            }
+        });
+        return evictar(cache, chaves);
+    }
+
+    /**
+     * Remove uma chave específica
+     * @return 1 se a entrada existia, 0 caso contrário
+     */
+    int invalidarChave(String cache, Object chave) {
+        RastreadorCache rastreado = caches.get(cache);
+        return rastreado != null && rastreado.evictIfPresent(chave) ? 1 : 0;
+    }
+
+    void registrarResultado(String descricao, int removidas) {
+        totalInvalidacoes.incrementAndGet();
+        totalEntradasRemovidas.addAndGet(removidas);
+
+        Map<String, Object> registro = new LinkedHashMap<>();
+        registro.put("descricao", descricao);
+        registro.put("entradasRemovidas", removidas);
+        registro.put("dataHora", LocalDateTime.now());
+        synchronized (historico) {
+            historico.addFirst(registro);
+            if (historico.size() > HISTORICO_MAXIMO) {
+                historico.removeLast();
+            }
+        }
+        log.info("Invalidação '{}' removeu {} entradas de cache", descricao, removidas);
+    }
+
+    /**
+     * Retorna as estatísticas de invalidação direcionada
+     * @return Totais acumulados, tamanho do índice e últimas invalidações
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("invalidacoes", totalInvalidacoes.get());
+        estatisticas.put("entradasRemovidas", totalEntradasRemovidas.get());
+
+        Map<String, Integer> entradasRastreadas = new LinkedHashMap<>();
+        tagsPorChave.forEach((cache, chaves) -> entradasRastreadas.put(cache, chaves.size()));
+        estatisticas.put("entradasRastreadas", entradasRastreadas);
+
+        synchronized (historico) {
+            estatisticas.put("ultimas", new ArrayList<>(historico));
+        }
+        return estatisticas;
+    }
+
+    private int evictar(String cache, Collection<Object> chaves) {
+        RastreadorCache rastreado = caches.get(cache);
+        if (rastreado == null) {
+            return 0;
+        }
+        int removidas = 0;
+        for (Object chave : chaves) {
+            if (rastreado.evictIfPresent(chave)) {
+                removidas++;
+            }
+        }
+        return removidas;
+    }
+
+    /**
+     * Deriva a tag de filtro de uma chave de cache
+     * "produto_5_0_20" -> "produto_5", "0_20_id_ASC" -> "listagem", 5 -> "id_5"
+     */
+    static String tagDaChave(Object chave) {
+        if (!(chave instanceof String texto)) {
+            return "id_" + chave;
+        }
+        if (!texto.isEmpty() && Character.isDigit(texto.charAt(0))) {
+            return TAG_LISTAGEM;
+        }
+        return SUFIXO_PAGINACAO.matcher(texto).replaceFirst("");
+    }
+
+    /**
+     * Deriva a tag do campo de ordenação de uma chave de listagem
+     * "0_20_nome_ASC" -> "ordenacao_nome", "0_20_default" -> "ordenacao_id", "produto_5_0_20" -> null
+     */
+    static String tagDeOrdenacao(Object chave) {
+        if (!(chave instanceof String texto) || !TAG_LISTAGEM.equals(tagDaChave(texto))) {
+            return null;
+        }
+        String[] partes = texto.split("_");
+        if (partes.length == 3 && partes[2].equals("default")) {
+            return TAG_ORDENACAO + "id";
+        }
+        if (partes.length < 4) {
+            return null;
+        }
+        return TAG_ORDENACAO + String.join("_", Arrays.copyOfRange(partes, 2, partes.length - 1));
+    }
+
+    private void coletarIds(Object valor, Set<String> tags) {
+        if (valor instanceof Page<?> page) {
+            page.getContent().forEach(item -> coletarId(item, tags));
+        } else if (valor instanceof Collection<?> colecao) {
+            colecao.forEach(item -> coletarId(item, tags));
+        } else {
+            coletarId(valor, tags);
+        }
+    }
+
+    private void coletarId(Object item, Set<String> tags) {
+        if (item == null || item instanceof Number || item instanceof Boolean || item instanceof CharSequence) {
+            return;
+        }
+        coletarTag(item, acessorId.get(item.getClass()), "id_", tags);
+        coletarTag(item, acessorProduto.get(item.getClass()), "produto_", tags);
+    }
+
+    private void coletarTag(Object item, Method acessor, String prefixo, Set<String> tags) {
+        if (acessor == null) {
+            return;
+        }
+        try {
+            Object id = acessor.invoke(item);
+            if (id != null) {
+                tags.add(prefixo + id);
+            }
+        } catch (ReflectiveOperationException e) {
+            log.debug("Não foi possível obter {} de {}", acessor.getName(), item.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Acessor público com o primeiro dos nomes encontrado em cada tipo (null se nenhum)
+     */
+    private static ClassValue<Method> acessor(String... nomes) {
+        return new ClassValue<>() {
+            @Override
+            protected Method computeValue(Class<?> tipo) {
+                for (String nome : nomes) {
+                    try {
+                        return tipo.getMethod(nome);
+                    } catch (NoSuchMethodException e) {
+                        // tenta o próximo padrão de acessor
+                    }
+                }
+                return null;
+            }
+        };
+    }
+}
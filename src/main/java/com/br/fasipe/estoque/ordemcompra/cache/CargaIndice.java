@@ -0,0 +1,121 @@
+package com.br.fasipe.estoque.ordemcompra.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Estado da carga de um índice em memória mantido por ajustes após o commit
+ * Cada transação que ajusta o índice obtém a leitura no beforeCommit, aplica o
+ * ajuste no afterCommit e a libera no afterCompletion; a recarga completa é
+ * exclusiva. Uma recarga nunca roda entre um commit e o seu ajuste: ou leu o
+ * banco antes do commit (e o ajuste soma a escrita a ela), ou espera o ajuste
+ * ser aplicado e lê o estado já confirmado, então nenhuma escrita é contada
+ * duas vezes nem perdida
+ */
+public final class CargaIndice {
+
+    private static final long ESPERA_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final ReentrantReadWriteLock exclusao = new ReentrantReadWriteLock();
+    private volatile boolean carregada;
+
+    /**
+     * Indica se a última recarga terminou com sucesso
+     */
+    public boolean carregada() {
+        return carregada;
+    }
+
+    /**
+     * Executa uma recarga completa com exclusão, esperando os commits em andamento
+     * Se a recarga falhar, o índice volta a ser considerado não carregado e a
+     * próxima consulta carrega de novo
+     * @param carga Leitura do banco e reconstrução do índice
+     */
+    public void recarregar(Runnable carga) {
+        obterExclusao();
+        try {
+            carga.run();
+            carregada = true;
+        } catch (RuntimeException e) {
+            carregada = false;
+            throw e;
+        } finally {
+            exclusao.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agenda um ajuste para após o commit da transação corrente (ou o aplica
+     * imediatamente, fora de transação). Enquanto o índice não estiver carregado
+     * o ajuste é descartado: a carga seguinte lê o estado confirmado
+     * @param ajuste Ajuste do índice; os ajustes de transações diferentes rodam em paralelo
+     */
+    public void aposCommit(Runnable ajuste) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            exclusao.readLock().lock();
+            try {
+                aplicar(ajuste);
+            } finally {
+                exclusao.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean bloqueada;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                exclusao.readLock().lock();
+                bloqueada = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                aplicar(ajuste);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (bloqueada) {
+                    bloqueada = false;
+                    exclusao.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Um ajuste que falha deixa o índice divergente do banco: a próxima consulta recarrega
+     */
+    private void aplicar(Runnable ajuste) {
+        if (!carregada) {
+            return;
+        }
+        try {
+            ajuste.run();
+        } catch (RuntimeException e) {
+            carregada = false;
+            throw e;
+        }
+    }
+
+    /**
+     * Obtém a exclusão sem entrar na fila do bloqueio. Um escritor na fila barraria
+     * novas leituras: uma transação que, já com a leitura, espera no commit o bloqueio
+     * de linha de outra transação que chegou ao beforeCommit depois travaria as duas
+     */
+    private void obterExclusao() {
+        if (exclusao.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Recarga solicitada durante o commit de um ajuste do próprio índice");
+        }
+        while (!exclusao.writeLock().tryLock()) {
+            LockSupport.parkNanos(ESPERA_NANOS);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.br.fasipe.estoque.ordemcompra.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Conjunto de entradas de cache afetadas por uma escrita
+ * Montada pelos services com as tags/chaves atingidas e executada após o
+ * commit da transação corrente (ou imediatamente, fora de transação)
+ */
+public class Invalidacao {
+
+    private final CacheDependencias dependencias;
+    private final String descricao;
+    private final List<IntSupplier> alvos = new ArrayList<>();
+
+    Invalidacao(CacheDependencias dependencias, String descricao) {
+        this.dependencias = dependencias;
+        this.descricao = descricao;
+    }
+
+    /**
+     * Invalida as entradas ligadas às tags informadas (valores nulos são ignorados)
+     * @param cache Nome do cache
+     * @param tags Tags afetadas (ex.: id_5, produto_3, listagem)
+     * @return Esta invalidação
+     */
+    public Invalidacao tags(String cache, String... tags) {
+        for (String tag : tags) {
+            if (tag != null) {
+                alvos.add(() -> dependencias.invalidarTag(cache, tag));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Invalida a tag prefixo + valor para cada valor não nulo e distinto
+     * @param cache Nome do cache
+     * @param prefixo Prefixo da tag (ex.: "produto_")
+     * @param valores Valores anterior e atual do atributo filtrado
+     * @return Esta invalidação
+     */
+    public Invalidacao tagsDeFiltro(String cache, String prefixo, Object... valores) {
+        List<Object> distintos = new ArrayList<>();
+        for (Object valor : valores) {
+            if (valor != null && !distintos.contains(valor)) {
+                distintos.add(valor);
+            }
+        }
+        distintos.forEach(valor -> tags(cache, prefixo + valor));
+        return this;
+    }
+
+    /**
+     * Invalida todas as tags que começam com o prefixo
+     * @param cache Nome do cache
+     * @param prefixo Prefixo das tags
+     * @return Esta invalidação
+     */
+    public Invalidacao prefixo(String cache, String prefixo) {
+        return prefixo(cache, prefixo, sufixo -> true);
+    }
+
+    /**
+     * Invalida as tags que começam com o prefixo e cujo sufixo atende ao filtro
+     * (ex.: limiares de quantidadeBaixa_ atravessados pela nova quantidade)
+     * @param cache Nome do cache
+     * @param prefixo Prefixo das tags
+     * @param filtroSufixo Filtro aplicado ao restante da tag
+     * @return Esta invalidação
+     */
+    public Invalidacao prefixo(String cache, String prefixo, Predicate<String> filtroSufixo) {
+        alvos.add(() -> dependencias.invalidarPrefixo(cache, prefixo, filtroSufixo));
+        return this;
+    }
+
+    /**
+     * Invalida as listagens ordenadas por um campo diferente do ID
+     * A alteração do campo de ordenação move a entidade para páginas que não a contêm
+     * @param cache Nome do cache
+     * @return Esta invalidação
+     */
+    public Invalidacao listagensOrdenadas(String cache) {
+        return prefixo(cache, CacheDependencias.TAG_ORDENACAO, campo -> !campo.equals("id"));
+    }
+
+    /**
+     * Invalida chaves específicas do cache
+     * @param cache Nome do cache
+     * @param chaves Chaves a remover
+     * @return Esta invalidação
+     */
+    public Invalidacao chaves(String cache, Object... chaves) {
+        for (Object chave : chaves) {
+            if (chave != null) {
+                alvos.add(() -> dependencias.invalidarChave(cache, chave));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Executa a invalidação após o commit da transação ativa, evitando que
+     * uma leitura concorrente recoloque em cache o estado anterior
+     */
+    public void executar() {
+        AposCommit.executar(this::aplicar);
+    }
+
+    /**
+     * Aplica a invalidação imediatamente
+     * @return Quantidade de entradas removidas
+     */
+    public int aplicar() {
+        int removidas = alvos.stream().mapToInt(IntSupplier::getAsInt).sum();
+        dependencias.registrarResultado(Objects.requireNonNullElse(descricao, "escrita"), removidas);
+        return removidas;
+    }
+}
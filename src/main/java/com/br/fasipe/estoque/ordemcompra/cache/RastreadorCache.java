@@ -0,0 +1,78 @@
+package com.br.fasipe.estoque.ordemcompra.cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita.LeituraPrimaria;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache Caffeine que registra as dependências de cada entrada
+ * no índice de {@link CacheDependencias} ao ser preenchido.
+ * Os valores são carregados da primária, nunca da réplica de leitura
+ */
+public class RastreadorCache extends CaffeineCache {
+
+    private final CacheDependencias dependencias;
+
+    public RastreadorCache(String name, Cache<Object, Object> cache, boolean allowNullValues,
+                           CacheDependencias dependencias) {
+        super(name, cache, allowNullValues);
+        this.dependencias = dependencias;
+        dependencias.registrarCache(this);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return super.get(key, () -> {
+            try (LeituraPrimaria primaria = RoteamentoLeituraEscrita.lerDaPrimaria()) {
+                T valor = valueLoader.call();
+                dependencias.registrar(getName(), key, valor);
+                return valor;
+            }
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        dependencias.registrar(getName(), key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existente = super.putIfAbsent(key, value);
+        if (existente == null) {
+            dependencias.registrar(getName(), key, value);
+        }
+        return existente;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        dependencias.esquecer(getName(), key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean removida = super.evictIfPresent(key);
+        dependencias.esquecer(getName(), key);
+        return removida;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        dependencias.esquecerTudo(getName());
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean existiam = super.invalidate();
+        dependencias.esquecerTudo(getName());
+        return existiam;
+    }
+}
@@ -0,0 +1,98 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CacheDependencias;
+import com.br.fasipe.estoque.ordemcompra.cache.RastreadorCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+
+/**
+ * Configuração do cache da aplicação
+ * Habilita as anotações @Cacheable/@CachePut/@CacheEvict dos services com
+ * backend Caffeine limitado por peso, com expiração e estatísticas por cache.
+ * Os caches com especificação nomeada são rastreados por {@link CacheDependencias}
+ * para invalidação direcionada nas escritas
+ */
+@Slf4j
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
+public class CacheConfig {
+
+    /**
+     * Peso de uma entrada: quantidade de registros carregados por ela.
+     * Páginas e listas pesam o número de elementos, demais valores pesam 1
+     */
+    static final Weigher<Object, Object> PESO_POR_REGISTROS = (key, value) -> {
+        if (value instanceof Page<?> page) {
+            return Math.max(1, page.getNumberOfElements());
+        }
+        if (value instanceof Collection<?> colecao) {
+            return Math.max(1, colecao.size());
+        }
+        return 1;
+    };
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties properties, CacheDependencias dependencias,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                if (properties.getSpecs().containsKey(name)) {
+                    return new RastreadorCache(name, cache, isAllowNullValues(), dependencias);
+                }
+                // Os caches das specs existem na inicialização e são publicados pelo Spring Boot
+                // (cache.gets, cache.puts...); os demais surgem no primeiro uso e são publicados aqui
+                meterRegistry.ifAvailable(registry ->
+                        CaffeineCacheMetrics.monitor(registry, cache, name, "cache.manager", "cacheManager"));
+                return super.adaptCaffeineCache(name, cache);
+            }
+        };
+        // Caches não declarados nas specs usam a especificação padrão
+        cacheManager.setCaffeine(builder(properties.getPadrao()));
+
+        properties.getSpecs().forEach((nome, spec) -> {
+            // Expiração e remoção por peso também retiram a entrada do índice de dependências
+            Cache<Object, Object> cache = builder(spec)
+                    .evictionListener((chave, valor, causa) -> dependencias.esquecer(nome, chave))
+                    .build();
+            cacheManager.registerCustomCache(nome, cache);
+            log.info("Cache '{}' configurado - Peso máximo: {}, Expiração: {}",
+                    nome, spec.getMaximumWeight(), spec.getExpireAfterWrite());
+        });
+
+        return cacheManager;
+    }
+
+    /**
+     * Cria o builder Caffeine de uma especificação
+     * A proteção contra stampede vem do carregamento atômico por chave do
+     * Caffeine, acionado pelas anotações @Cacheable(sync = true)
+     * @param spec Especificação do cache
+     * @return Builder configurado
+     */
+    private Caffeine<Object, Object> builder(CacheSpecProperties.Spec spec) {
+        return Caffeine.newBuilder()
+                .maximumWeight(spec.getMaximumWeight())
+                .weigher(PESO_POR_REGISTROS)
+                .expireAfterWrite(spec.getExpireAfterWrite())
+                .recordStats();
+    }
+}
@@ -0,0 +1,50 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Especificações dos caches da aplicação (prefixo fasiclin.cache)
+ * Cada cache nomeado possui limite de peso e tempo de expiração próprios
+ */
+@Data
+@ConfigurationProperties(prefix = "fasiclin.cache")
+public class CacheSpecProperties {
+
+    /**
+     * Especificação usada por caches sem configuração explícita
+     */
+    private Spec padrao = new Spec();
+
+    /**
+     * Especificações por nome de cache (estoque, estoques, produto, ...)
+     */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    /**
+     * Especificações das regiões do cache de segundo nível do Hibernate
+     * (entidades de referência e consultas). Cada entrada é um registro,
+     * então o peso máximo é a quantidade de registros da região
+     */
+    private Map<String, Spec> segundoNivel = new LinkedHashMap<>();
+
+    @Data
+    public static class Spec {
+
+        /**
+         * Peso máximo do cache. O peso de uma entrada é a quantidade de
+         * registros que ela carrega (uma página de 50 itens pesa 50)
+         */
+        private long maximumWeight = 5_000;
+
+        /**
+         * Tempo de vida de uma entrada após a escrita
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
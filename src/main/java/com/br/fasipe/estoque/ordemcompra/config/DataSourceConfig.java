@@ -0,0 +1,65 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração dos pools primário e réplica
+ * Ativada quando fasiclin.datasource.replica.jdbc-url é informada; sem ela a
+ * aplicação usa o pool único configurado pelo Spring Boot. O pool primário
+ * continua configurado por spring.datasource e spring.datasource.hikari; a
+ * réplica por fasiclin.datasource.replica (propriedades do HikariCP). As
+ * transações readOnly (consultas e relatórios) usam a réplica e deixam as
+ * conexões da primária para as movimentações de estoque
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "fasiclin.datasource.replica", name = "jdbc-url")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("fasiclin.datasource.replica")
+    public HikariDataSource dataSourceReplica() {
+        // Valores padrão, sobrescritos pelas propriedades da réplica
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("FasiclinReplicaPool");
+        replica.setMaximumPoolSize(10);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario,
+                                 @Qualifier("dataSourceReplica") DataSource replica) {
+        RoteamentoLeituraEscrita roteamento = new RoteamentoLeituraEscrita();
+        roteamento.setTargetDataSources(Map.of(
+                RoteamentoLeituraEscrita.Destino.PRIMARIA, primario,
+                RoteamentoLeituraEscrita.Destino.REPLICA, replica));
+        roteamento.setDefaultTargetDataSource(primario);
+        roteamento.afterPropertiesSet();
+        log.info("Transações somente leitura roteadas para a réplica");
+
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+}
@@ -0,0 +1,23 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+
+/**
+ * Configuração da serialização JSON das entidades
+ * Associações LAZY não carregadas pelo plano de busca do endpoint são escritas
+ * apenas com o ID ({"id": 5}), sem inicializar o proxy: a serialização não gera
+ * consultas extras nem falha fora da sessão (por exemplo, páginas vindas do cache)
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        return new Hibernate6Module()
+                .configure(Hibernate6Module.Feature.FORCE_LAZY_LOADING, false)
+                .configure(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS, true);
+    }
+}
@@ -0,0 +1,144 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+/**
+ * Limitador de conexões na frente de um pool
+ * Um semáforo justo com uma permissão por conexão do pool: cada conexão
+ * obtida consome uma permissão, devolvida quando a conexão é fechada. Com
+ * threads virtuais milhares de requisições podem chegar ao banco ao mesmo
+ * tempo; elas aguardam na fila do semáforo, em ordem de chegada e pelo
+ * tempo configurado, em vez de disputar o pool até o connection-timeout
+ */
+public class LimitadorConexoes extends DelegatingDataSource {
+
+    private final String nome;
+    private final Semaphore permissoes;
+    private final Duration esperaMaxima;
+
+    /**
+     * @param alvo Pool de conexões
+     * @param nome Nome usado nas mensagens de erro (nome do pool)
+     * @param limite Conexões simultâneas (tamanho máximo do pool)
+     * @param esperaMaxima Tempo máximo na fila antes de recusar a conexão
+     */
+    public LimitadorConexoes(DataSource alvo, String nome, int limite, Duration esperaMaxima) {
+        super(alvo);
+        this.nome = nome;
+        this.permissoes = new Semaphore(limite, true);
+        this.esperaMaxima = esperaMaxima;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obterAlvo().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return liberarAoFechar(obterAlvo().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Nome do pool limitado
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Permissões livres no momento
+     */
+    public int getDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    /**
+     * Estimativa de threads aguardando uma conexão
+     */
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(nome + " - nenhuma conexão liberada em "
+                        + esperaMaxima.toMillis() + "ms (" + permissoes.getQueueLength() + " aguardando)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(nome + " - espera por conexão interrompida", e);
+        }
+    }
+
+    private DataSource obterAlvo() {
+        DataSource alvo = getTargetDataSource();
+        if (alvo == null) {
+            throw new IllegalStateException("Limitador de conexões sem DataSource alvo");
+        }
+        return alvo;
+    }
+
+    /**
+     * Envolve a conexão para devolver a permissão no primeiro close
+     */
+    private Connection liberarAoFechar(Connection conexao) {
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(LimitadorConexoes.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "close" -> {
+                            if (liberada.compareAndSet(false, true)) {
+                                try {
+                                    conexao.close();
+                                } finally {
+                                    permissoes.release();
+                                }
+                            }
+                            return null;
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "Conexão limitada [" + conexao + "]";
+                        }
+                        default -> {
+                            try {
+                                return metodo.invoke(conexao, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,98 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração do limitador de conexões
+ * Cada pool HikariCP da aplicação (o pool único ou a primária e a réplica)
+ * passa a ser acessado através de um {@link LimitadorConexoes} com uma
+ * permissão por conexão do pool
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "fasiclin.limitador", name = "habilitado", havingValue = "true")
+public class LimitadorConexoesConfig {
+
+    @Bean
+    public static BeanPostProcessor limitadorConexoesPostProcessor(Environment environment) {
+        Duration esperaMaxima = environment.getProperty("fasiclin.limitador.espera-maxima", Duration.class,
+                Duration.ofSeconds(60));
+        // Ordered: aplicado antes dos post-processors sem ordem, como o do profiler de SQL,
+        // que envolve o pool já limitado
+        return new PostProcessorOrdenado() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                // Propriedades do pool já vinculadas: o limite acompanha maximum-pool-size
+                String nome = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+                log.info("Limitador de conexões '{}' configurado - Permissões: {}, Espera máxima: {}",
+                        nome, pool.getMaximumPoolSize(), esperaMaxima);
+                return new LimitadorConexoes(pool, nome, pool.getMaximumPoolSize(), esperaMaxima);
+            }
+        };
+    }
+
+    /**
+     * Permissões livres e threads na fila de cada limitador, com a tag pool;
+     * as métricas do pool em si são as hikaricp.connections.*
+     */
+    @Bean
+    public MeterBinder limitadorConexoesMetricas(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.stream()
+                .map(LimitadorConexoesConfig::limitador)
+                .flatMap(Optional::stream)
+                .distinct()
+                .forEach(limitador -> {
+                    Gauge.builder("fasiclin.limitador.disponiveis", limitador, LimitadorConexoes::getDisponiveis)
+                            .description("Permissões livres do limitador de conexões")
+                            .tag("pool", limitador.getNome())
+                            .register(registry);
+                    Gauge.builder("fasiclin.limitador.aguardando", limitador, LimitadorConexoes::getAguardando)
+                            .description("Threads aguardando uma conexão no limitador")
+                            .tag("pool", limitador.getNome())
+                            .register(registry);
+                });
+    }
+
+    /**
+     * Limitador por trás do DataSource, que pode estar envolvido pelo profiler de SQL
+     */
+    private static Optional<LimitadorConexoes> limitador(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(LimitadorConexoes.class)
+                    ? Optional.of(dataSource.unwrap(LimitadorConexoes.class))
+                    : Optional.empty();
+        } catch (SQLException e) {
+            return Optional.empty();
+        }
+    }
+
+    private interface PostProcessorOrdenado extends BeanPostProcessor, Ordered {
+    }
+}
@@ -0,0 +1,67 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.br.fasipe.estoque.ordemcompra.sql.FiltroPerfilSql;
+import com.br.fasipe.estoque.ordemcompra.sql.ProfiladorSql;
+import com.br.fasipe.estoque.ordemcompra.sql.RegistroConsultas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração do profiler de SQL
+ * O DataSource usado pelo Hibernate e pelo JdbcTemplate (bean dataSource:
+ * o pool único ou o roteamento entre primária e réplica) passa a ser acessado
+ * através de um {@link ProfiladorSql}. Cada requisição HTTP ganha um perfil
+ * com a contagem e o tempo dos seus comandos
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "fasiclin.sql.profiler", name = "habilitado", havingValue = "true")
+public class ProfiladorSqlConfig {
+
+    @Bean
+    public static RegistroConsultas registroConsultas(Environment environment) {
+        Duration limiarLento = environment.getProperty("fasiclin.sql.profiler.limiar-lento", Duration.class,
+                Duration.ofMillis(100));
+        int limiarRepeticoes = environment.getProperty("fasiclin.sql.profiler.limiar-repeticoes", Integer.class, 5);
+        int capacidade = environment.getProperty("fasiclin.sql.profiler.capacidade", Integer.class, 100);
+        boolean parametros = environment.getProperty("fasiclin.sql.profiler.parametros", Boolean.class, false);
+        log.info("Profiler de SQL configurado - Limiar lento: {}, Repetições para N+1: {}, Capacidade: {}, "
+                + "Parâmetros: {}", limiarLento, limiarRepeticoes, capacidade, parametros);
+        return new RegistroConsultas(limiarLento, limiarRepeticoes, capacidade, parametros);
+    }
+
+    /**
+     * Sem ordem: roda depois do limitador de conexões (Ordered), então no pool
+     * único o profiler envolve o limitador e mede só o tempo do comando, não a
+     * espera por conexão
+     */
+    @Bean
+    public static BeanPostProcessor profiladorSqlPostProcessor(RegistroConsultas registroConsultas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return new ProfiladorSql(dataSource, registroConsultas);
+            }
+        };
+    }
+
+    @Bean
+    public FiltroPerfilSql filtroPerfilSql(RegistroConsultas registroConsultas, MeterRegistry meterRegistry) {
+        return new FiltroPerfilSql(registroConsultas, meterRegistry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+/**
+ * DataSource que escolhe o pool de cada conexão pela transação corrente
+ * Transações somente leitura vão para a réplica; escritas e acessos sem
+ * transação vão para a primária. Depois que uma requisição abre uma transação
+ * de escrita, as leituras seguintes da mesma requisição também usam a
+ * primária, então a réplica atrasada nunca esconde o que a requisição acabou
+ * de gravar. Deve ficar atrás de um LazyConnectionDataSourceProxy, para que
+ * a escolha aconteça no primeiro comando, com a transação já iniciada.
+ * As leituras que preenchem caches e índices em memória sempre usam a primária
+ * ({@link #lerDaPrimaria()}): as invalidações acontecem no commit da primária,
+ * e um valor lido da réplica atrasada ficaria preso no cache
+ */
+public class RoteamentoLeituraEscrita extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIA, REPLICA
+    }
+
+    static final String ESCRITA_NA_REQUISICAO = RoteamentoLeituraEscrita.class.getName() + ".ESCRITA";
+
+    private static final ThreadLocal<Boolean> LEITURA_NA_PRIMARIA = new ThreadLocal<>();
+
+    /**
+     * Direciona para a primária as conexões abertas na thread até o fechamento do escopo
+     * Como a conexão é escolhida no primeiro comando da transação, a leitura
+     * deve começar dentro do escopo. Sem réplica configurada não tem efeito
+     * @return Escopo a ser fechado ao fim da leitura (try-with-resources)
+     */
+    public static LeituraPrimaria lerDaPrimaria() {
+        Boolean anterior = LEITURA_NA_PRIMARIA.get();
+        LEITURA_NA_PRIMARIA.set(Boolean.TRUE);
+        return () -> {
+            if (anterior == null) {
+                LEITURA_NA_PRIMARIA.remove();
+            }
+        };
+    }
+
+    /**
+     * Executa uma leitura na primária (carga de índices em memória)
+     * @param leitura Leitura a executar
+     * @return Resultado da leitura
+     */
+    public static <T> T naPrimaria(Supplier<T> leitura) {
+        try (LeituraPrimaria primaria = lerDaPrimaria()) {
+            return leitura.get();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return houveEscritaNaRequisicao() || LEITURA_NA_PRIMARIA.get() != null
+                    ? Destino.PRIMARIA : Destino.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            registrarEscrita();
+        }
+        return Destino.PRIMARIA;
+    }
+
+    private static boolean houveEscritaNaRequisicao() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        return requisicao != null
+                && requisicao.getAttribute(ESCRITA_NA_REQUISICAO, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private static void registrarEscrita() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        if (requisicao != null) {
+            requisicao.setAttribute(ESCRITA_NA_REQUISICAO, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Escopo de {@link #lerDaPrimaria()}
+     */
+    @FunctionalInterface
+    public interface LeituraPrimaria extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
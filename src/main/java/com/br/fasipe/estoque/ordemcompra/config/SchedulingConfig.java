@@ -0,0 +1,13 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas (@Scheduled) dos services,
+ * como a virada de dia das faixas de vencimento
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
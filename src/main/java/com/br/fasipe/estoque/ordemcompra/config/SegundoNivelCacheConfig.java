@@ -0,0 +1,86 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+
+/**
+ * Configuração do cache de segundo nível do Hibernate
+ * As regiões (entidades de referência e resultados de consultas) são caches
+ * Caffeine via JCache, dimensionadas pelas especificações fasiclin.cache.segundo-nivel.
+ * Cada contexto da aplicação tem o seu próprio provedor, então contextos
+ * diferentes na mesma JVM (ex.: testes) nunca compartilham regiões
+ */
+@Slf4j
+@Configuration
+public class SegundoNivelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CachingProvider provedorSegundoNivel() {
+        return new CaffeineCachingProvider();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(CachingProvider provedorSegundoNivel, CacheSpecProperties properties) {
+        CacheManager cacheManager = provedorSegundoNivel.getCacheManager(provedorSegundoNivel.getDefaultURI(),
+                getClass().getClassLoader());
+
+        properties.getSegundoNivel().forEach((nome, spec) -> {
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setMaximumSize(OptionalLong.of(spec.getMaximumWeight()));
+            configuracao.setExpireAfterWrite(OptionalLong.of(spec.getExpireAfterWrite().toNanos()));
+            configuracao.setStatisticsEnabled(true);
+            cacheManager.createCache(nome, configuracao);
+            log.info("Região de segundo nível '{}' configurada - Registros máximos: {}, Expiração: {}",
+                    nome, spec.getMaximumWeight(), spec.getExpireAfterWrite());
+        });
+
+        // Os timestamps de atualização das tabelas validam o cache de consultas:
+        // uma entrada expirada ou removida tornaria resultados antigos válidos novamente
+        String timestamps = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+        if (cacheManager.getCache(timestamps) == null) {
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setStatisticsEnabled(true);
+            cacheManager.createCache(timestamps, configuracao);
+        }
+
+        return cacheManager;
+    }
+
+    /**
+     * Entrega ao Hibernate o CacheManager com as regiões já dimensionadas
+     */
+    @Bean
+    public HibernatePropertiesCustomizer segundoNivelHibernateCustomizer(CacheManager cacheManagerSegundoNivel) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+    }
+
+    /**
+     * Publica as estatísticas do Hibernate (hibernate.generate_statistics) como métricas:
+     * acertos, faltas e inclusões por região (hibernate.second.level.cache.*) e consultas
+     */
+    @Bean
+    public MeterBinder segundoNivelMetricas(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return registry -> new HibernateMetrics(entityManagerFactory.getObject().unwrap(SessionFactory.class),
+                "fasiclin", Tags.empty()).bindTo(registry);
+    }
+}
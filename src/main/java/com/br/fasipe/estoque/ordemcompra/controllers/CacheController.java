@@ -0,0 +1,71 @@
+package com.br.fasipe.estoque.ordemcompra.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.br.fasipe.estoque.ordemcompra.services.CacheService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+
+/**
+ * Controller para monitoramento dos caches
+ * Endpoints de estatísticas de acerto/falha/remoção por cache
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private CacheService cacheService;
+
+    /**
+     * Lista as estatísticas de todos os caches
+     * Endpoint para acompanhamento da eficiência do cache
+     */
+    @GetMapping("/estatisticas")
+    public ResponseEntity<Map<String, Map<String, Object>>> listarEstatisticas() {
+        log.info("Listando estatísticas dos caches");
+
+        return ResponseEntity.ok(cacheService.getEstatisticas());
+    }
+
+    /**
+     * Busca as estatísticas de um cache específico
+     * Endpoint para análise de um cache nomeado
+     */
+    @GetMapping("/estatisticas/{nome}")
+    public ResponseEntity<Map<String, Object>> buscarEstatisticas(@PathVariable String nome) {
+        log.info("Buscando estatísticas do cache: {}", nome);
+
+        return cacheService.getEstatisticas(nome)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Lista as estatísticas das invalidações direcionadas
+     * Endpoint para verificar quantas entradas cada escrita removeu
+     */
+    @GetMapping("/invalidacoes")
+    public ResponseEntity<Map<String, Object>> listarInvalidacoes() {
+        log.info("Listando estatísticas de invalidação dos caches");
+
+        return ResponseEntity.ok(cacheService.getEstatisticasInvalidacao());
+    }
+
+    /**
+     * Lista as estatísticas do cache de segundo nível do Hibernate
+     * Endpoint para acompanhar a taxa de acerto das entidades de referência e das consultas
+     */
+    @GetMapping("/segundo-nivel")
+    public ResponseEntity<Map<String, Map<String, Object>>> listarEstatisticasSegundoNivel() {
+        log.info("Listando estatísticas do cache de segundo nível");
+
+        return ResponseEntity.ok(cacheService.getEstatisticasSegundoNivel());
+    }
+}
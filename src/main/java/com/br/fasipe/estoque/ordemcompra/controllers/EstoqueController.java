@@ -3,14 +3,39 @@ package com.br.fasipe.estoque.ordemcompra.controllers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.Dispensacao;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.FaixaVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.FormatoExportacao;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.ResumoVencimentos;
+import com.br.fasipe.estoque.ordemcompra.dto.SaldoEstoque;
 import com.br.fasipe.estoque.ordemcompra.models.Estoque;
+import com.br.fasipe.estoque.ordemcompra.models.Movimentacao;
+import com.br.fasipe.estoque.ordemcompra.models.SaldoAlmoxarifado;
+import com.br.fasipe.estoque.ordemcompra.models.SaldoConsolidado;
+import com.br.fasipe.estoque.ordemcompra.services.DispensacaoService;
 import com.br.fasipe.estoque.ordemcompra.services.EstoqueService;
+import com.br.fasipe.estoque.ordemcompra.services.ExportacaoService;
+import com.br.fasipe.estoque.ordemcompra.services.MovimentacaoService;
+import com.br.fasipe.estoque.ordemcompra.services.SaldoConsolidadoService;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,22 +51,65 @@ public class EstoqueController {
     @Autowired
     private EstoqueService estoqueService;
 
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private DispensacaoService dispensacaoService;
+
+    @Autowired
+    private SaldoConsolidadoService saldoConsolidadoService;
+
     /**
      * Lista todos os estoques com paginação
      * Endpoint principal para visualização do estoque atual
+     * Com "after" (vazio na primeira página) usa paginação por cursor: o token
+     * "proximo" da resposta leva à página seguinte e "total=true" inclui a contagem
      */
     @GetMapping
-    public ResponseEntity<Page<Estoque>> listarEstoques(
+    public ResponseEntity<Pagina<EstoqueResumo>> listarEstoques(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "ASC") Sort.Direction direction) {
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean total) {
+        
+        if (after != null) {
+            // Paginação por cursor: ordenada pelo ID, total contado apenas quando pedido
+            if (!"id".equals(sortBy)) {
+                return ResponseEntity.badRequest().build();
+            }
+            log.info("Listando estoques por cursor - Tamanho: {}", size);
+            return ResponseEntity.ok(estoqueService.findAllPorCursor(after, size, direction, total));
+        }
         
         log.info("Listando estoques - Página: {}, Tamanho: {}, Ordenação: {}", page, size, sortBy);
         
-        Page<Estoque> estoques = estoqueService.findAllPaginated(page, size, sortBy, direction);
+        Page<EstoqueResumo> estoques = estoqueService.findAllPaginated(page, size, sortBy, direction);
         
-        return ResponseEntity.ok(estoques);
+        return ResponseEntity.ok(Pagina.de(estoques));
+    }
+
+    /**
+     * Exporta todos os estoques em CSV ou NDJSON
+     * Os registros são escritos na resposta à medida que são lidos do banco, sem paginação
+     */
+    @GetMapping("/exportacao")
+    public void exportarEstoques(
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+            HttpServletResponse response) throws IOException {
+        
+        log.info("Exportando todos os estoques - Formato: {}", formato);
+        
+        response.setContentType(formato.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("estoques." + formato.extensao()).build().toString());
+        exportacaoService.exportarEstoques(formato, response.getOutputStream());
     }
 
     /**
@@ -49,10 +117,10 @@ public class EstoqueController {
      * Endpoint para detalhamento de estoque específico
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Estoque> buscarEstoquePorId(@PathVariable Integer id) {
+    public ResponseEntity<EstoqueDetalhe> buscarEstoquePorId(@PathVariable Integer id) {
         log.info("Buscando estoque por ID: {}", id);
         
-        Optional<Estoque> estoque = estoqueService.findById(id);
+        Optional<EstoqueDetalhe> estoque = estoqueService.findById(id);
         
         return estoque.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
@@ -63,16 +131,16 @@ public class EstoqueController {
      * Endpoint CRÍTICO para verificar quantidade de um produto específico
      */
     @GetMapping("/produto/{idProduto}")
-    public ResponseEntity<Page<Estoque>> listarEstoquesPorProduto(
+    public ResponseEntity<Pagina<EstoqueResumo>> listarEstoquesPorProduto(
             @PathVariable Integer idProduto,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando estoques do produto {} - Página: {}", idProduto, page);
         
-        Page<Estoque> estoques = estoqueService.findByProduto(idProduto, page, size);
+        Page<EstoqueResumo> estoques = estoqueService.findByProduto(idProduto, page, size);
         
-        return ResponseEntity.ok(estoques);
+        return ResponseEntity.ok(Pagina.de(estoques));
     }
 
     /**
@@ -80,16 +148,16 @@ public class EstoqueController {
      * Endpoint para controle por localização física
      */
     @GetMapping("/almoxarifado/{idAlmoxarifado}")
-    public ResponseEntity<Page<Estoque>> listarEstoquesPorAlmoxarifado(
+    public ResponseEntity<Pagina<EstoqueResumo>> listarEstoquesPorAlmoxarifado(
             @PathVariable Integer idAlmoxarifado,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando estoques do almoxarifado {} - Página: {}", idAlmoxarifado, page);
         
-        Page<Estoque> estoques = estoqueService.findByAlmoxarifado(idAlmoxarifado, page, size);
+        Page<EstoqueResumo> estoques = estoqueService.findByAlmoxarifado(idAlmoxarifado, page, size);
         
-        return ResponseEntity.ok(estoques);
+        return ResponseEntity.ok(Pagina.de(estoques));
     }
 
     /**
@@ -97,16 +165,113 @@ public class EstoqueController {
      * Endpoint CRÍTICO para alertas de reposição
      */
     @GetMapping("/quantidade-baixa")
-    public ResponseEntity<Page<Estoque>> listarEstoquesComQuantidadeBaixa(
+    public ResponseEntity<Pagina<EstoqueResumo>> listarEstoquesComQuantidadeBaixa(
             @RequestParam(defaultValue = "10") Integer quantidadeMinima,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando estoques com quantidade baixa (menor que {}) - Página: {}", quantidadeMinima, page);
         
-        Page<Estoque> estoques = estoqueService.findEstoquesComQuantidadeBaixa(quantidadeMinima, page, size);
+        Page<EstoqueResumo> estoques = estoqueService.findEstoquesComQuantidadeBaixa(quantidadeMinima, page, size);
+        
+        return ResponseEntity.ok(Pagina.de(estoques));
+    }
+
+    /**
+     * Totais por faixa de vencimento de cada almoxarifado
+     * Endpoint para o painel de vencimentos
+     */
+    @GetMapping("/vencimentos")
+    public ResponseEntity<List<ResumoVencimentos>> resumirVencimentos() {
+        log.info("Resumindo vencimentos de todos os almoxarifados");
+        
+        return ResponseEntity.ok(estoqueService.findResumosVencimento());
+    }
+
+    /**
+     * Totais por faixa de vencimento de um almoxarifado
+     * Endpoint para o painel de vencimentos por localização física
+     */
+    @GetMapping("/vencimentos/almoxarifado/{idAlmoxarifado}")
+    public ResponseEntity<ResumoVencimentos> resumirVencimentosPorAlmoxarifado(@PathVariable Integer idAlmoxarifado) {
+        log.info("Resumindo vencimentos do almoxarifado {}", idAlmoxarifado);
+        
+        return ResponseEntity.ok(estoqueService.findResumoVencimento(idAlmoxarifado));
+    }
+
+    /**
+     * Lista estoques de um almoxarifado em uma faixa de vencimento
+     * Endpoint CRÍTICO para alertas de vencimento (ex.: faixa ATE_30_DIAS)
+     * Paginação por cursor em ordem de vencimento: "after" vazio na primeira página
+     * e o token "proximo" da resposta leva à página seguinte
+     */
+    @GetMapping("/vencimentos/almoxarifado/{idAlmoxarifado}/{faixa}")
+    public ResponseEntity<Pagina<LoteVencimento>> listarEstoquesPorFaixaVencimento(
+            @PathVariable Integer idAlmoxarifado,
+            @PathVariable FaixaVencimento faixa,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Listando estoques do almoxarifado {} na faixa {} por cursor - Tamanho: {}", idAlmoxarifado, faixa, size);
+        
+        return ResponseEntity.ok(estoqueService.findByFaixaVencimento(idAlmoxarifado, faixa, after, size));
+    }
+
+    /**
+     * Busca o saldo total de um produto
+     * Endpoint CRÍTICO para consulta de disponibilidade (leitura do saldo materializado)
+     */
+    @GetMapping("/saldos/produto/{idProduto}")
+    public ResponseEntity<SaldoConsolidado> buscarSaldoPorProduto(@PathVariable Integer idProduto) {
+        log.info("Buscando saldo do produto ID: {}", idProduto);
+        
+        return saldoConsolidadoService.findByProduto(idProduto)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Lista os saldos por produto de um almoxarifado
+     * Endpoint para inventário por localização física
+     */
+    @GetMapping("/saldos/almoxarifado/{idAlmoxarifado}")
+    public ResponseEntity<Pagina<SaldoAlmoxarifado>> listarSaldosPorAlmoxarifado(
+            @PathVariable Integer idAlmoxarifado,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Listando saldos do almoxarifado {} - Página: {}", idAlmoxarifado, page);
+        
+        Page<SaldoAlmoxarifado> saldos = saldoConsolidadoService.findByAlmoxarifado(idAlmoxarifado, page, size);
+        
+        return ResponseEntity.ok(Pagina.de(saldos));
+    }
+
+    /**
+     * Busca o saldo de um produto em um almoxarifado
+     * Endpoint para consulta de disponibilidade por localização física
+     */
+    @GetMapping("/saldos/almoxarifado/{idAlmoxarifado}/produto/{idProduto}")
+    public ResponseEntity<SaldoAlmoxarifado> buscarSaldoPorAlmoxarifadoEProduto(
+            @PathVariable Integer idAlmoxarifado,
+            @PathVariable Integer idProduto) {
+        
+        log.info("Buscando saldo do produto ID {} no almoxarifado {}", idProduto, idAlmoxarifado);
         
-        return ResponseEntity.ok(estoques);
+        return saldoConsolidadoService.findByAlmoxarifadoEProduto(idAlmoxarifado, idProduto)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Recalcula os saldos materializados a partir de ESTOQUE
+     * Endpoint administrativo (reconciliação e carga inicial)
+     */
+    @PostMapping("/saldos/reconstrucao")
+    public ResponseEntity<Long> reconstruirSaldos() {
+        log.info("Reconstruindo saldos materializados");
+        
+        return ResponseEntity.ok(saldoConsolidadoService.reconstruir());
     }
 
     /**
@@ -114,16 +279,16 @@ public class EstoqueController {
      * Endpoint para controle de lotes específicos
      */
     @GetMapping("/lote/{idLote}")
-    public ResponseEntity<Page<Estoque>> listarEstoquesPorLote(
+    public ResponseEntity<Pagina<EstoqueResumo>> listarEstoquesPorLote(
             @PathVariable Integer idLote,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando estoques do lote {} - Página: {}", idLote, page);
         
-        Page<Estoque> estoques = estoqueService.findByLote(idLote, page, size);
+        Page<EstoqueResumo> estoques = estoqueService.findByLote(idLote, page, size);
         
-        return ResponseEntity.ok(estoques);
+        return ResponseEntity.ok(Pagina.de(estoques));
     }
 
     /**
@@ -144,7 +309,7 @@ public class EstoqueController {
      * Endpoint para edição de informações do estoque
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Estoque> atualizarEstoque(@PathVariable Integer id, @RequestBody Estoque estoque) {
+    public ResponseEntity<Estoque> atualizarEstoque(@PathVariable Integer id, @Valid @RequestBody Estoque estoque) {
         log.info("Atualizando estoque ID: {}", id);
         
         estoque.setId(id);
@@ -160,11 +325,15 @@ public class EstoqueController {
     @PutMapping("/{id}/quantidade")
     public ResponseEntity<Estoque> atualizarQuantidade(
             @PathVariable Integer id,
-            @RequestParam Integer novaQuantidade) {
+            @RequestParam Integer novaQuantidade,
+            @RequestParam(required = false) Integer idUsuario,
+            @RequestParam(required = false) Integer idSetorOrigem,
+            @RequestParam(required = false) Integer idSetorDestino) {
         
         log.info("Atualizando quantidade do estoque ID: {} para {}", id, novaQuantidade);
         
-        Estoque estoqueAtualizado = estoqueService.updateQuantidade(id, novaQuantidade);
+        Estoque estoqueAtualizado = estoqueService.updateQuantidade(id, novaQuantidade,
+                new ContextoMovimentacao(idUsuario, idSetorOrigem, idSetorDestino));
         
         if (estoqueAtualizado != null) {
             return ResponseEntity.ok(estoqueAtualizado);
@@ -173,9 +342,97 @@ public class EstoqueController {
         }
     }
 
+    /**
+     * Registra a entrada de uma quantidade no estoque
+     * Endpoint de movimentação atômica: soma a quantidade ao saldo atual
+     */
+    @PostMapping("/{id}/entrada")
+    public ResponseEntity<SaldoEstoque> registrarEntrada(
+            @PathVariable Integer id,
+            @RequestParam Integer quantidade,
+            @RequestParam(required = false) Integer idUsuario,
+            @RequestParam(required = false) Integer idSetorOrigem,
+            @RequestParam(required = false) Integer idSetorDestino) {
+        
+        log.info("Registrando entrada de {} no estoque ID: {}", quantidade, id);
+        
+        if (quantidade == null || quantidade <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return estoqueService.registrarEntrada(id, quantidade,
+                new ContextoMovimentacao(idUsuario, idSetorOrigem, idSetorDestino))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Registra a saída de uma quantidade do estoque
+     * Endpoint de movimentação atômica: responde 409 se o saldo ficaria negativo
+     */
+    @PostMapping("/{id}/saida")
+    public ResponseEntity<SaldoEstoque> registrarSaida(
+            @PathVariable Integer id,
+            @RequestParam Integer quantidade,
+            @RequestParam(required = false) Integer idUsuario,
+            @RequestParam(required = false) Integer idSetorOrigem,
+            @RequestParam(required = false) Integer idSetorDestino) {
+        
+        log.info("Registrando saída de {} do estoque ID: {}", quantidade, id);
+        
+        if (quantidade == null || quantidade <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return estoqueService.registrarSaida(id, quantidade,
+                new ContextoMovimentacao(idUsuario, idSetorOrigem, idSetorDestino))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Dispensa uma quantidade de um produto pelos lotes que vencem primeiro (FEFO)
+     * Endpoint de movimentação atômica: responde 409 se os lotes dentro da validade não bastam
+     */
+    @PostMapping("/produto/{idProduto}/dispensacao")
+    public ResponseEntity<Dispensacao> dispensarProduto(
+            @PathVariable Integer idProduto,
+            @RequestParam Integer quantidade,
+            @RequestParam(required = false) Integer idUsuario,
+            @RequestParam(required = false) Integer idSetorOrigem,
+            @RequestParam(required = false) Integer idSetorDestino) {
+        
+        log.info("Dispensando {} do produto ID: {}", quantidade, idProduto);
+        
+        if (quantidade == null || quantidade <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(dispensacaoService.dispensar(idProduto, quantidade,
+                new ContextoMovimentacao(idUsuario, idSetorOrigem, idSetorDestino)));
+    }
+
+    /**
+     * Lista as movimentações de um estoque, mais recentes primeiro
+     * Endpoint de consulta ao histórico (livro MOVIMENTACAO)
+     */
+    @GetMapping("/{id}/movimentacoes")
+    public ResponseEntity<Pagina<Movimentacao>> listarMovimentacoes(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Listando movimentações do estoque ID: {} - Página: {}", id, page);
+        
+        Page<Movimentacao> movimentacoes = movimentacaoService.findByEstoque(id, page, size);
+        
+        return ResponseEntity.ok(Pagina.de(movimentacoes));
+    }
+
     /**
      * Remove um estoque
      * Endpoint para exclusão de registros de estoque (usar com cuidado)
+     * Retorna 409 se o estoque tiver movimentações: zere o saldo em vez de removê-lo
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> removerEstoque(@PathVariable Integer id) {
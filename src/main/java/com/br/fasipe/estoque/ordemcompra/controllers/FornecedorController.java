@@ -6,6 +6,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.br.fasipe.estoque.ordemcompra.dto.FornecedorDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.FornecedorResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
 import com.br.fasipe.estoque.ordemcompra.models.Fornecedor;
 import com.br.fasipe.estoque.ordemcompra.services.FornecedorService;
 
@@ -32,7 +35,7 @@ public class FornecedorController {
      * Endpoint principal para visualização de fornecedores
      */
     @GetMapping
-    public ResponseEntity<Page<Fornecedor>> listarFornecedores(
+    public ResponseEntity<Pagina<FornecedorResumo>> listarFornecedores(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -40,9 +43,9 @@ public class FornecedorController {
         
         log.info("Listando fornecedores - Página: {}, Tamanho: {}, Ordenação: {}", page, size, sortBy);
         
-        Page<Fornecedor> fornecedores = fornecedorService.findAllPaginated(page, size, sortBy, direction);
+        Page<FornecedorResumo> fornecedores = fornecedorService.findAllPaginated(page, size, sortBy, direction);
         
-        return ResponseEntity.ok(fornecedores);
+        return ResponseEntity.ok(Pagina.de(fornecedores));
     }
 
     /**
@@ -50,10 +53,10 @@ public class FornecedorController {
      * Endpoint para detalhamento de fornecedor específico
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Fornecedor> buscarFornecedorPorId(@PathVariable Integer id) {
+    public ResponseEntity<FornecedorDetalhe> buscarFornecedorPorId(@PathVariable Integer id) {
         log.info("Buscando fornecedor por ID: {}", id);
         
-        Optional<Fornecedor> fornecedor = fornecedorService.findById(id);
+        Optional<FornecedorDetalhe> fornecedor = fornecedorService.findById(id);
         
         return fornecedor.map(ResponseEntity::ok)
                          .orElse(ResponseEntity.notFound().build());
@@ -64,10 +67,10 @@ public class FornecedorController {
      * Endpoint para busca por contato
      */
     @GetMapping("/representante/{representante}")
-    public ResponseEntity<List<Fornecedor>> listarFornecedoresPorRepresentante(@PathVariable String representante) {
+    public ResponseEntity<List<FornecedorResumo>> listarFornecedoresPorRepresentante(@PathVariable String representante) {
         log.info("Listando fornecedores por representante: {}", representante);
         
-        List<Fornecedor> fornecedores = fornecedorService.findByRepresentante(representante);
+        List<FornecedorResumo> fornecedores = fornecedorService.findByRepresentante(representante);
         
         return ResponseEntity.ok(fornecedores);
     }
@@ -77,10 +80,10 @@ public class FornecedorController {
      * Endpoint para busca por telefone/contato
      */
     @GetMapping("/contato/{contatoRepresentante}")
-    public ResponseEntity<List<Fornecedor>> listarFornecedoresPorContato(@PathVariable String contatoRepresentante) {
+    public ResponseEntity<List<FornecedorResumo>> listarFornecedoresPorContato(@PathVariable String contatoRepresentante) {
         log.info("Listando fornecedores por contato: {}", contatoRepresentante);
         
-        List<Fornecedor> fornecedores = fornecedorService.findByContatoRepresentante(contatoRepresentante);
+        List<FornecedorResumo> fornecedores = fornecedorService.findByContatoRepresentante(contatoRepresentante);
         
         return ResponseEntity.ok(fornecedores);
     }
@@ -90,15 +93,15 @@ public class FornecedorController {
      * Endpoint para visualização de fornecedores disponíveis
      */
     @GetMapping("/ativos")
-    public ResponseEntity<Page<Fornecedor>> listarFornecedoresAtivos(
+    public ResponseEntity<Pagina<FornecedorResumo>> listarFornecedoresAtivos(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando fornecedores ativos - Página: {}", page);
         
-        Page<Fornecedor> fornecedores = fornecedorService.findFornecedoresAtivos(page, size);
+        Page<FornecedorResumo> fornecedores = fornecedorService.findFornecedoresAtivos(page, size);
         
-        return ResponseEntity.ok(fornecedores);
+        return ResponseEntity.ok(Pagina.de(fornecedores));
     }
 
     /**
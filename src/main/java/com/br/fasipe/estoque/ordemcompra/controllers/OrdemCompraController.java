@@ -3,16 +3,31 @@ package com.br.fasipe.estoque.ordemcompra.controllers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.br.fasipe.estoque.ordemcompra.dto.FormatoExportacao;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteRecebimento;
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.RecebimentoOrdem;
 import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra;
 import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.services.ExportacaoService;
 import com.br.fasipe.estoque.ordemcompra.services.OrdemCompraService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -28,22 +43,56 @@ public class OrdemCompraController {
     @Autowired
     private OrdemCompraService ordemCompraService;
 
+    @Autowired
+    private ExportacaoService exportacaoService;
+
     /**
      * Lista todas as ordens de compra com paginação
      * Endpoint principal para visualização de ordens
+     * Com "after" (vazio na primeira página) usa paginação por cursor: o token
+     * "proximo" da resposta leva à página seguinte e "total=true" inclui a contagem
      */
     @GetMapping
-    public ResponseEntity<Page<OrdemCompra>> listarOrdensCompra(
+    public ResponseEntity<Pagina<OrdemCompraResumo>> listarOrdensCompra(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean total) {
+        
+        if (after != null) {
+            // Paginação por cursor: ordenada pelo ID, total contado apenas quando pedido
+            if (!"id".equals(sortBy)) {
+                return ResponseEntity.badRequest().build();
+            }
+            log.info("Listando ordens de compra por cursor - Tamanho: {}", size);
+            return ResponseEntity.ok(ordemCompraService.findAllPorCursor(after, size, direction, total));
+        }
         
         log.info("Listando ordens de compra - Página: {}, Tamanho: {}, Ordenação: {}", page, size, sortBy);
         
-        Page<OrdemCompra> ordens = ordemCompraService.findAllPaginated(page, size, sortBy, direction);
+        Page<OrdemCompraResumo> ordens = ordemCompraService.findAllPaginated(page, size, sortBy, direction);
         
-        return ResponseEntity.ok(ordens);
+        return ResponseEntity.ok(Pagina.de(ordens));
+    }
+
+    /**
+     * Exporta todas as ordens de compra em CSV ou NDJSON
+     * Os registros são escritos na resposta à medida que são lidos do banco, sem paginação
+     */
+    @GetMapping("/exportacao")
+    public void exportarOrdensCompra(
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+            HttpServletResponse response) throws IOException {
+        
+        log.info("Exportando todas as ordens de compra - Formato: {}", formato);
+        
+        response.setContentType(formato.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("ordens-compra." + formato.extensao()).build().toString());
+        exportacaoService.exportarOrdensCompra(formato, response.getOutputStream());
     }
 
     /**
@@ -51,10 +100,10 @@ public class OrdemCompraController {
      * Endpoint para detalhamento de ordem específica
      */
     @GetMapping("/{id}")
-    public ResponseEntity<OrdemCompra> buscarOrdemCompraPorId(@PathVariable Integer id) {
+    public ResponseEntity<OrdemCompraDetalhe> buscarOrdemCompraPorId(@PathVariable Integer id) {
         log.info("Buscando ordem de compra por ID: {}", id);
         
-        Optional<OrdemCompra> ordem = ordemCompraService.findById(id);
+        Optional<OrdemCompraDetalhe> ordem = ordemCompraService.findById(id);
         
         return ordem.map(ResponseEntity::ok)
                    .orElse(ResponseEntity.notFound().build());
@@ -65,16 +114,16 @@ public class OrdemCompraController {
      * Endpoint CRÍTICO para acompanhamento de workflow
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<OrdemCompra>> listarOrdensPorStatus(
+    public ResponseEntity<Pagina<OrdemCompraResumo>> listarOrdensPorStatus(
             @PathVariable StatusOrdem status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando ordens de compra com status: {} - Página: {}", status, page);
         
-        Page<OrdemCompra> ordens = ordemCompraService.findByStatus(status, page, size);
+        Page<OrdemCompraResumo> ordens = ordemCompraService.findByStatus(status, page, size);
         
-        return ResponseEntity.ok(ordens);
+        return ResponseEntity.ok(Pagina.de(ordens));
     }
 
     /**
@@ -82,15 +131,15 @@ public class OrdemCompraController {
      * Endpoint CRÍTICO para acompanhamento de ordens em andamento
      */
     @GetMapping("/pendentes")
-    public ResponseEntity<Page<OrdemCompra>> listarOrdensPendentes(
+    public ResponseEntity<Pagina<OrdemCompraResumo>> listarOrdensPendentes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando ordens de compra pendentes - Página: {}", page);
         
-        Page<OrdemCompra> ordens = ordemCompraService.findOrdensPendentes(page, size);
+        Page<OrdemCompraResumo> ordens = ordemCompraService.findOrdensPendentes(page, size);
         
-        return ResponseEntity.ok(ordens);
+        return ResponseEntity.ok(Pagina.de(ordens));
     }
 
     /**
@@ -98,7 +147,7 @@ public class OrdemCompraController {
      * Endpoint para relatórios e análise temporal
      */
     @GetMapping("/periodo")
-    public ResponseEntity<Page<OrdemCompra>> listarOrdensPorPeriodo(
+    public ResponseEntity<Pagina<OrdemCompraResumo>> listarOrdensPorPeriodo(
             @RequestParam LocalDate dataInicio,
             @RequestParam LocalDate dataFim,
             @RequestParam(defaultValue = "0") int page,
@@ -106,9 +155,9 @@ public class OrdemCompraController {
         
         log.info("Listando ordens de compra no período: {} a {} - Página: {}", dataInicio, dataFim, page);
         
-        Page<OrdemCompra> ordens = ordemCompraService.findOrdensPorPeriodo(dataInicio, dataFim, page, size);
+        Page<OrdemCompraResumo> ordens = ordemCompraService.findOrdensPorPeriodo(dataInicio, dataFim, page, size);
         
-        return ResponseEntity.ok(ordens);
+        return ResponseEntity.ok(Pagina.de(ordens));
     }
 
     /**
@@ -116,16 +165,16 @@ public class OrdemCompraController {
      * Endpoint para planejamento de entregas
      */
     @GetMapping("/previsao/{dataPrevisao}")
-    public ResponseEntity<Page<OrdemCompra>> listarOrdensPorDataPrevisao(
+    public ResponseEntity<Pagina<OrdemCompraResumo>> listarOrdensPorDataPrevisao(
             @PathVariable LocalDate dataPrevisao,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando ordens de compra com previsão: {} - Página: {}", dataPrevisao, page);
         
-        Page<OrdemCompra> ordens = ordemCompraService.findByDataPrevisao(dataPrevisao, page, size);
+        Page<OrdemCompraResumo> ordens = ordemCompraService.findByDataPrevisao(dataPrevisao, page, size);
         
-        return ResponseEntity.ok(ordens);
+        return ResponseEntity.ok(Pagina.de(ordens));
     }
 
     /**
@@ -133,16 +182,16 @@ public class OrdemCompraController {
      * Endpoint para análise por data de criação
      */
     @GetMapping("/data-ordem/{dataOrdem}")
-    public ResponseEntity<Page<OrdemCompra>> listarOrdensPorDataOrdem(
+    public ResponseEntity<Pagina<OrdemCompraResumo>> listarOrdensPorDataOrdem(
             @PathVariable LocalDate dataOrdem,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando ordens de compra da data: {} - Página: {}", dataOrdem, page);
         
-        Page<OrdemCompra> ordens = ordemCompraService.findByDataOrdem(dataOrdem, page, size);
+        Page<OrdemCompraResumo> ordens = ordemCompraService.findByDataOrdem(dataOrdem, page, size);
         
-        return ResponseEntity.ok(ordens);
+        return ResponseEntity.ok(Pagina.de(ordens));
     }
 
     /**
@@ -150,16 +199,16 @@ public class OrdemCompraController {
      * Endpoint para controle de entregas
      */
     @GetMapping("/entrega/{dataEntrega}")
-    public ResponseEntity<Page<OrdemCompra>> listarOrdensPorDataEntrega(
+    public ResponseEntity<Pagina<OrdemCompraResumo>> listarOrdensPorDataEntrega(
             @PathVariable LocalDate dataEntrega,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando ordens de compra com entrega: {} - Página: {}", dataEntrega, page);
         
-        Page<OrdemCompra> ordens = ordemCompraService.findByDataEntrega(dataEntrega, page, size);
+        Page<OrdemCompraResumo> ordens = ordemCompraService.findByDataEntrega(dataEntrega, page, size);
         
-        return ResponseEntity.ok(ordens);
+        return ResponseEntity.ok(Pagina.de(ordens));
     }
 
     /**
@@ -209,6 +258,23 @@ public class OrdemCompraController {
         }
     }
 
+    /**
+     * Recebe uma ordem de compra entregue
+     * Gera os lotes e estoques de todos os itens numa única transação e conclui a ordem
+     */
+    @PostMapping("/{id}/recebimento")
+    public ResponseEntity<RecebimentoOrdem> receberOrdemCompra(
+            @PathVariable Integer id,
+            @RequestBody(required = false) List<LoteRecebimento> lotes,
+            @RequestParam(required = false) Integer idUsuario) {
+        
+        log.info("Recebendo ordem de compra ID: {}", id);
+        
+        return ordemCompraService.receber(id, lotes, idUsuario)
+                   .map(ResponseEntity::ok)
+                   .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Remove uma ordem de compra
      * Endpoint para cancelamento de ordens (usar com cuidado)
@@ -248,6 +314,19 @@ public class OrdemCompraController {
         return ResponseEntity.ok(total);
     }
 
+    /**
+     * Conta ordens de compra de todos os status em uma única chamada
+     * Endpoint do painel de compras
+     */
+    @GetMapping("/total-status")
+    public ResponseEntity<Map<StatusOrdem, Long>> contarOrdensAgrupadasPorStatus() {
+        log.info("Contando ordens de compra agrupadas por status");
+        
+        Map<StatusOrdem, Long> totais = ordemCompraService.countAgrupadoPorStatus();
+        
+        return ResponseEntity.ok(totais);
+    }
+
     /**
      * Conta ordens de compra por status
      * Endpoint para estatísticas de workflow
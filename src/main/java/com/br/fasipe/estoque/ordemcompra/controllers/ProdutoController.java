@@ -3,15 +3,29 @@ package com.br.fasipe.estoque.ordemcompra.controllers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.br.fasipe.estoque.ordemcompra.dto.FormatoExportacao;
+import com.br.fasipe.estoque.ordemcompra.dto.LeituraCodigosBarras;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoSugestao;
 import com.br.fasipe.estoque.ordemcompra.models.Produto;
+import com.br.fasipe.estoque.ordemcompra.services.ExportacaoService;
 import com.br.fasipe.estoque.ordemcompra.services.ProdutoService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,12 +41,15 @@ public class ProdutoController {
     @Autowired
     private ProdutoService produtoService;
 
+    @Autowired
+    private ExportacaoService exportacaoService;
+
     /**
      * Lista todos os produtos com paginação
      * Endpoint principal para visualização de produtos em estoque
      */
     @GetMapping
-    public ResponseEntity<Page<Produto>> listarProdutos(
+    public ResponseEntity<Pagina<ProdutoResumo>> listarProdutos(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -40,9 +57,27 @@ public class ProdutoController {
         
         log.info("Listando produtos - Página: {}, Tamanho: {}, Ordenação: {}", page, size, sortBy);
         
-        Page<Produto> produtos = produtoService.findAllPaginated(page, size, sortBy, direction);
+        Page<ProdutoResumo> produtos = produtoService.findAllPaginated(page, size, sortBy, direction);
+        
+        return ResponseEntity.ok(Pagina.de(produtos));
+    }
+
+    /**
+     * Exporta todos os produtos em CSV ou NDJSON
+     * Os registros são escritos na resposta à medida que são lidos do banco, sem paginação
+     */
+    @GetMapping("/exportacao")
+    public void exportarProdutos(
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+            HttpServletResponse response) throws IOException {
+        
+        log.info("Exportando todos os produtos - Formato: {}", formato);
         
-        return ResponseEntity.ok(produtos);
+        response.setContentType(formato.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("produtos." + formato.extensao()).build().toString());
+        exportacaoService.exportarProdutos(formato, response.getOutputStream());
     }
 
     /**
@@ -50,10 +85,10 @@ public class ProdutoController {
      * Endpoint para detalhamento de produto específico
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Produto> buscarProdutoPorId(@PathVariable Integer id) {
+    public ResponseEntity<ProdutoDetalhe> buscarProdutoPorId(@PathVariable Integer id) {
         log.info("Buscando produto por ID: {}", id);
         
-        Optional<Produto> produto = produtoService.findById(id);
+        Optional<ProdutoDetalhe> produto = produtoService.findById(id);
         
         return produto.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
@@ -64,24 +99,49 @@ public class ProdutoController {
      * Endpoint CRÍTICO para entrada rápida de produtos no estoque
      */
     @GetMapping("/codigo-barras/{codBarras}")
-    public ResponseEntity<Produto> buscarProdutoPorCodigoBarras(@PathVariable String codBarras) {
+    public ResponseEntity<ProdutoDetalhe> buscarProdutoPorCodigoBarras(@PathVariable String codBarras) {
         log.info("Buscando produto por código de barras: {}", codBarras);
         
-        Optional<Produto> produto = produtoService.findByCodBarras(codBarras);
+        Optional<ProdutoDetalhe> produto = produtoService.findByCodBarras(codBarras);
         
         return produto.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Busca produtos por uma leitura em lote de códigos de barras
+     * Endpoint para o balcão resolver a cesta inteira em uma chamada
+     */
+    @PostMapping("/codigo-barras/lote")
+    public ResponseEntity<LeituraCodigosBarras> buscarProdutosPorCodigosBarras(@RequestBody List<String> codigos) {
+        log.info("Buscando produtos por {} códigos de barras", codigos.size());
+        
+        return ResponseEntity.ok(produtoService.findByCodigosBarras(codigos));
+    }
+
+    /**
+     * Sugere produtos pelo texto digitado (autocompletar)
+     * Endpoint chamado a cada tecla: busca por prefixo em nome, descrição e código de barras, tolerando erros
+     */
+    @GetMapping("/busca")
+    public ResponseEntity<List<ProdutoSugestao>> buscarProdutos(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        
+        log.debug("Buscando produtos pelo texto: {}", q);
+        
+        return ResponseEntity.ok(produtoService.buscar(q, limite));
+    }
+
     /**
      * Busca produto por nome
      * Endpoint para busca textual de produtos
      */
     @GetMapping("/nome/{nome}")
-    public ResponseEntity<Produto> buscarProdutoPorNome(@PathVariable String nome) {
+    public ResponseEntity<ProdutoDetalhe> buscarProdutoPorNome(@PathVariable String nome) {
         log.info("Buscando produto por nome: {}", nome);
         
-        Optional<Produto> produto = produtoService.findByNome(nome);
+        Optional<ProdutoDetalhe> produto = produtoService.findByNome(nome);
         
         return produto.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
@@ -90,33 +150,32 @@ public class ProdutoController {
     /**
      * Lista produtos com estoque baixo
      * Endpoint CRÍTICO para alertas de reposição
+     * Paginação por cursor na ordem do ID: "after" vazio na primeira página e o
+     * token "proximo" da resposta leva à página seguinte
      */
     @GetMapping("/estoque-baixo")
-    public ResponseEntity<Page<Produto>> listarProdutosComEstoqueBaixo(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<Pagina<ProdutoResumo>> listarProdutosComEstoqueBaixo(
+            @RequestParam(defaultValue = "") String after,
             @RequestParam(defaultValue = "20") int size) {
         
-        log.info("Listando produtos com estoque baixo - Página: {}", page);
+        log.info("Listando produtos com estoque baixo por cursor - Tamanho: {}", size);
         
-        Page<Produto> produtos = produtoService.findProdutosComEstoqueBaixo(page, size);
-        
-        return ResponseEntity.ok(produtos);
+        return ResponseEntity.ok(produtoService.findProdutosComEstoqueBaixo(after, size));
     }
 
     /**
      * Lista produtos próximos do ponto de pedido
      * Endpoint para planejamento de compras
+     * Paginação por cursor na ordem do ID, como a listagem de estoque baixo
      */
     @GetMapping("/proximos-pedido")
-    public ResponseEntity<Page<Produto>> listarProdutosProximosDoPedido(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<Pagina<ProdutoResumo>> listarProdutosProximosDoPedido(
+            @RequestParam(defaultValue = "") String after,
             @RequestParam(defaultValue = "20") int size) {
         
-        log.info("Listando produtos próximos do ponto de pedido - Página: {}", page);
-        
-        Page<Produto> produtos = produtoService.findProdutosProximosDoPedido(page, size);
+        log.info("Listando produtos próximos do ponto de pedido por cursor - Tamanho: {}", size);
         
-        return ResponseEntity.ok(produtos);
+        return ResponseEntity.ok(produtoService.findProdutosProximosDoPedido(after, size));
     }
 
     /**
@@ -124,16 +183,16 @@ public class ProdutoController {
      * Endpoint para controle por localização
      */
     @GetMapping("/almoxarifado/{idAlmoxarifado}")
-    public ResponseEntity<Page<Produto>> listarProdutosPorAlmoxarifado(
+    public ResponseEntity<Pagina<ProdutoResumo>> listarProdutosPorAlmoxarifado(
             @PathVariable Integer idAlmoxarifado,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando produtos do almoxarifado {} - Página: {}", idAlmoxarifado, page);
         
-        Page<Produto> produtos = produtoService.findByAlmoxarifado(idAlmoxarifado, page, size);
+        Page<ProdutoResumo> produtos = produtoService.findByAlmoxarifado(idAlmoxarifado, page, size);
         
-        return ResponseEntity.ok(produtos);
+        return ResponseEntity.ok(Pagina.de(produtos));
     }
 
     /**
@@ -141,16 +200,16 @@ public class ProdutoController {
      * Endpoint para controle de produtos refrigerados
      */
     @GetMapping("/temperatura/{tempIdeal}")
-    public ResponseEntity<Page<Produto>> listarProdutosPorTemperatura(
+    public ResponseEntity<Pagina<ProdutoResumo>> listarProdutosPorTemperatura(
             @PathVariable BigDecimal tempIdeal,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         log.info("Listando produtos com temperatura ideal {} - Página: {}", tempIdeal, page);
         
-        Page<Produto> produtos = produtoService.findByTempIdeal(tempIdeal, page, size);
+        Page<ProdutoResumo> produtos = produtoService.findByTempIdeal(tempIdeal, page, size);
         
-        return ResponseEntity.ok(produtos);
+        return ResponseEntity.ok(Pagina.de(produtos));
     }
 
     /**
@@ -0,0 +1,57 @@
+package com.br.fasipe.estoque.ordemcompra.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import com.br.fasipe.estoque.ordemcompra.services.ProfiladorSqlService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Endpoint de administração do profiler de SQL, no actuator (/actuator/sql)
+ * Fica fora da API pública: só é publicado quando incluído em
+ * management.endpoints.web.exposure.include, junto às demais métricas
+ */
+@Slf4j
+@Component
+@Endpoint(id = "sql")
+public class ProfiladorSqlEndpoint {
+
+    @Autowired
+    private ProfiladorSqlService profiladorSqlService;
+
+    /**
+     * Lista um dos registros do profiler
+     * GET /actuator/sql/lentas: comandos que passaram do limiar de lentidão
+     * GET /actuator/sql/n-mais-um: comandos repetidos dentro de uma mesma requisição
+     * @param registro "lentas" ou "n-mais-um"
+     * @return Entradas do registro, ou null (404) para um registro desconhecido
+     */
+    @ReadOperation
+    public List<?> listar(@Selector String registro) {
+        log.info("Listando registro do profiler de SQL: {}", registro);
+
+        return switch (registro) {
+            case "lentas" -> profiladorSqlService.getConsultasLentas();
+            case "n-mais-um" -> profiladorSqlService.getSuspeitasNMaisUm();
+            default -> null;
+        };
+    }
+
+    /**
+     * Esvazia os registros do profiler
+     * DELETE /actuator/sql para recomeçar a coleta depois de uma correção
+     */
+    @DeleteOperation
+    public void limpar() {
+        log.info("Limpando registros do profiler de SQL");
+
+        profiladorSqlService.limpar();
+    }
+}
@@ -0,0 +1,9 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Quantidade retirada de um lote numa dispensação
+ */
+public record AlocacaoLote(Integer idEstoque, Integer idLote, LocalDate dataVencimento, int quantidade) {
+}
@@ -0,0 +1,7 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Código de barras de um produto, lido por projeção na carga do índice
+ */
+public record CodigoBarrasProduto(String codBarras, Integer idProduto) {
+}
@@ -0,0 +1,13 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Comando SQL que passou do limiar de lentidão do profiler
+ * Em lotes (executeBatch) os parâmetros são os do último registro do lote;
+ * a lista fica vazia quando o profiler não guarda parâmetros
+ */
+public record ConsultaLenta(LocalDateTime instante, double duracaoMs, String sql, List<String> parametros,
+                            int lote, String requisicao) {
+}
@@ -0,0 +1,11 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Responsável e setores de uma movimentação de estoque
+ * Valores nulos são preenchidos pelo {@code MovimentacaoService}: o usuário do
+ * sistema e o setor do almoxarifado do produto
+ */
+public record ContextoMovimentacao(Integer idUsuario, Integer idSetorOrigem, Integer idSetorDestino) {
+
+    public static final ContextoMovimentacao SISTEMA = new ContextoMovimentacao(null, null, null);
+}
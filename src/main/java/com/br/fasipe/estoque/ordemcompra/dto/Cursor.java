@@ -0,0 +1,56 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por cursor (keyset): direção da varredura e último ID entregue
+ * O token é opaco para o cliente (Base64 URL); a página seguinte continua da
+ * chave primária do último registro, sem OFFSET, então qualquer página custa o
+ * mesmo que a primeira
+ */
+public record Cursor(Sort.Direction direcao, int ultimoId) {
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    /**
+     * Posição anterior ao primeiro registro na direção pedida
+     */
+    public static Cursor inicio(Sort.Direction direcao) {
+        return direcao == Sort.Direction.DESC
+                ? new Cursor(Sort.Direction.DESC, Integer.MAX_VALUE)
+                : new Cursor(Sort.Direction.ASC, 0);
+    }
+
+    /**
+     * Lê um token recebido do cliente
+     * @throws IllegalArgumentException se o token não foi gerado por {@link #codificar()}
+     */
+    public static Cursor decodificar(String token) {
+        String texto = new String(DECODIFICADOR.decode(token), StandardCharsets.UTF_8);
+        int separador = texto.indexOf(':');
+        if (separador < 0) {
+            throw new IllegalArgumentException("Cursor sem separador");
+        }
+        return new Cursor(Sort.Direction.fromString(texto.substring(0, separador)),
+                Integer.parseInt(texto.substring(separador + 1)));
+    }
+
+    /**
+     * Cursor posicionado após o registro informado, na mesma direção
+     */
+    public Cursor apos(int id) {
+        return new Cursor(direcao, id);
+    }
+
+    public boolean crescente() {
+        return direcao.isAscending();
+    }
+
+    public String codificar() {
+        return CODIFICADOR.encodeToString((direcao.name() + ":" + ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,54 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por cursor das faixas de vencimento: vencimento e ID do
+ * último estoque entregue, a mesma chave da ordem {@link LoteVencimento#ORDEM_VENCIMENTO}.
+ * A página seguinte continua logo após essa chave, mesmo que o estoque tenha
+ * saído da faixa entre as duas consultas
+ */
+public record CursorVencimento(LocalDate dataVencimento, int ultimoIdEstoque) {
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    /**
+     * Lê um token recebido do cliente
+     * @throws IllegalArgumentException se o token não foi gerado por {@link #codificar()}
+     */
+    public static CursorVencimento decodificar(String token) {
+        String texto = new String(DECODIFICADOR.decode(token), StandardCharsets.UTF_8);
+        int separador = texto.indexOf(':');
+        if (separador < 0) {
+            throw new IllegalArgumentException("Cursor sem separador");
+        }
+        try {
+            return new CursorVencimento(LocalDate.parse(texto.substring(0, separador)),
+                    Integer.parseInt(texto.substring(separador + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Vencimento inválido no cursor", e);
+        }
+    }
+
+    /**
+     * Cursor posicionado após o estoque informado
+     */
+    public static CursorVencimento apos(LoteVencimento lote) {
+        return new CursorVencimento(lote.dataVencimento(), lote.idEstoque());
+    }
+
+    /**
+     * Chave de comparação com os registros da faixa
+     */
+    public LoteVencimento chave() {
+        return new LoteVencimento(ultimoIdEstoque, null, null, null, dataVencimento);
+    }
+
+    public String codificar() {
+        return CODIFICADOR.encodeToString((dataVencimento + ":" + ultimoIdEstoque).getBytes(StandardCharsets.UTF_8));
+    }
+}
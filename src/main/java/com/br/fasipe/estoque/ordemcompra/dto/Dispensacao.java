@@ -0,0 +1,9 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.util.List;
+
+/**
+ * Resultado da dispensação de um produto: lotes consumidos em ordem de vencimento
+ */
+public record Dispensacao(Integer idProduto, int quantidade, List<AlocacaoLote> lotes) {
+}
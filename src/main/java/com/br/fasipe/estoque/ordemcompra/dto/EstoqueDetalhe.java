@@ -0,0 +1,40 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import com.br.fasipe.estoque.ordemcompra.models.Estoque;
+import com.br.fasipe.estoque.ordemcompra.models.Lote;
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra;
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.models.Produto;
+
+import java.time.LocalDate;
+
+/**
+ * Detalhe de um estoque com o produto e o lote de origem
+ */
+public record EstoqueDetalhe(Integer id, Integer quantidadeEstoque, Integer idProduto, String nomeProduto,
+                             String codBarras, String unidadeMedida, Integer idAlmoxarifado, String nomeAlmoxarifado,
+                             Integer idLote, LocalDate dataVencimento, Integer idOrdemCompra,
+                             StatusOrdem statusOrdemCompra) {
+
+    /**
+     * Monta o detalhe de um estoque carregado pelo plano Estoque.detalhe
+     */
+    public static EstoqueDetalhe de(Estoque estoque) {
+        Produto produto = estoque.getProduto();
+        Lote lote = estoque.getLote();
+        OrdemCompra ordem = lote != null ? lote.getOrdemCompra() : null;
+        return new EstoqueDetalhe(
+                estoque.getId(),
+                estoque.getQuantidadeEstoque(),
+                produto != null ? produto.getId() : null,
+                produto != null ? produto.getNome() : null,
+                produto != null ? produto.getCodBarras() : null,
+                produto != null && produto.getUnidadeMedida() != null ? produto.getUnidadeMedida().getAbreviacao() : null,
+                produto != null && produto.getAlmoxarifado() != null ? produto.getAlmoxarifado().getId() : null,
+                produto != null && produto.getAlmoxarifado() != null ? produto.getAlmoxarifado().getNome() : null,
+                lote != null ? lote.getId() : null,
+                lote != null ? lote.getDataVencimento() : null,
+                ordem != null ? ordem.getId() : null,
+                ordem != null ? ordem.getStatus() : null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Linha das listagens de estoque: apenas as colunas exibidas, lidas por projeção
+ */
+public record EstoqueResumo(Integer id, Integer idProduto, String nomeProduto, Integer idLote,
+                            LocalDate dataVencimento, Integer quantidadeEstoque) {
+}
@@ -0,0 +1,41 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Faixas de vencimento dos lotes, em dias a partir de hoje
+ * Lotes que vencem hoje ainda estão na faixa de até 30 dias
+ */
+public enum FaixaVencimento {
+
+    VENCIDO(Long.MIN_VALUE, -1),
+    ATE_30_DIAS(0, 30),
+    DE_31_A_60_DIAS(31, 60),
+    DE_61_A_90_DIAS(61, 90),
+    ACIMA_DE_90_DIAS(91, Long.MAX_VALUE);
+
+    private final long diasMinimo;
+    private final long diasMaximo;
+
+    FaixaVencimento(long diasMinimo, long diasMaximo) {
+        this.diasMinimo = diasMinimo;
+        this.diasMaximo = diasMaximo;
+    }
+
+    /**
+     * Faixa de um vencimento na data de referência
+     * @param dataVencimento Data de vencimento do lote
+     * @param hoje Data de referência
+     * @return Faixa correspondente
+     */
+    public static FaixaVencimento de(LocalDate dataVencimento, LocalDate hoje) {
+        long dias = ChronoUnit.DAYS.between(hoje, dataVencimento);
+        for (FaixaVencimento faixa : values()) {
+            if (dias >= faixa.diasMinimo && dias <= faixa.diasMaximo) {
+                return faixa;
+            }
+        }
+        throw new IllegalStateException("Sem faixa para " + dias + " dias");
+    }
+}
@@ -0,0 +1,27 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Formatos dos endpoints de exportação
+ * CSV com cabeçalho (RFC 4180) ou NDJSON, um objeto JSON por linha
+ */
+public enum FormatoExportacao {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extensao() {
+        return extensao;
+    }
+}
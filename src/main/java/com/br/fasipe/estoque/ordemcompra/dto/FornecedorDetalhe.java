@@ -0,0 +1,8 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Detalhe de um fornecedor com os dados da pessoa jurídica, lido por projeção
+ */
+public record FornecedorDetalhe(Integer id, Integer idPessoaJuridica, String razaoSocial, String nomeFantasia,
+                                String cnpj, String representante, String contatoRepresentante, String descricao) {
+}
@@ -0,0 +1,8 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Linha das listagens de fornecedores com os dados da pessoa jurídica, lida por projeção
+ */
+public record FornecedorResumo(Integer id, String nomeFantasia, String cnpj, String representante,
+                               String contatoRepresentante) {
+}
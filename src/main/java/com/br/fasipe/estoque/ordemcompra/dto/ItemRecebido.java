@@ -0,0 +1,10 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Lote e estoque gerados para um item no recebimento da ordem de compra
+ */
+public record ItemRecebido(Integer idItem, Integer idProduto, Integer idLote, Integer idEstoque,
+                           LocalDate dataVencimento, int quantidade) {
+}
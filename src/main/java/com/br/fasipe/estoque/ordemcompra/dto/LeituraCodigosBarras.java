@@ -0,0 +1,11 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado da leitura em lote de códigos de barras (cesta do balcão)
+ * Produtos por código na ordem da leitura; códigos repetidos aparecem uma vez
+ */
+public record LeituraCodigosBarras(Map<String, ProdutoDetalhe> produtos, List<String> naoEncontrados) {
+}
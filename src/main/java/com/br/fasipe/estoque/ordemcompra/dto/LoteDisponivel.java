@@ -0,0 +1,15 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Registro de estoque com saldo de um produto, identificado pelo lote e seu vencimento
+ * A ordem natural do índice FEFO é o vencimento e, no mesmo vencimento, o ID do estoque
+ */
+public record LoteDisponivel(Integer idEstoque, Integer idLote, LocalDate dataVencimento) {
+
+    public static final Comparator<LoteDisponivel> ORDEM_FEFO = Comparator
+            .comparing(LoteDisponivel::dataVencimento)
+            .thenComparing(LoteDisponivel::idEstoque);
+}
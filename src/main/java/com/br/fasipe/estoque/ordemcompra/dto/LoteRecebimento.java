@@ -0,0 +1,11 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Dados do lote entregue para um item da ordem de compra
+ * Campos nulos assumem os valores do próprio item (vencimento e quantidade pedidos);
+ * várias entradas para o mesmo item geram um lote para cada uma
+ */
+public record LoteRecebimento(Integer idItem, LocalDate dataVencimento, Integer quantidade) {
+}
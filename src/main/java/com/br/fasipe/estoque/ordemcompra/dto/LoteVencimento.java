@@ -0,0 +1,15 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Registro de estoque com saldo e o vencimento do seu lote, no almoxarifado do produto
+ */
+public record LoteVencimento(Integer idEstoque, Integer idLote, Integer idProduto, Integer idAlmoxarifado,
+                             LocalDate dataVencimento) {
+
+    public static final Comparator<LoteVencimento> ORDEM_VENCIMENTO = Comparator
+            .comparing(LoteVencimento::dataVencimento)
+            .thenComparing(LoteVencimento::idEstoque);
+}
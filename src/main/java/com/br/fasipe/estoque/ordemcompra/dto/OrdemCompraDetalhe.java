@@ -0,0 +1,39 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import com.br.fasipe.estoque.ordemcompra.models.ItemOrdemCompra;
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra;
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.models.Produto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Detalhe de uma ordem de compra com seus itens
+ */
+public record OrdemCompraDetalhe(Integer id, StatusOrdem status, BigDecimal valor, LocalDate dataPrevisao,
+                                 LocalDate dataOrdem, LocalDate dataEntrega, List<Item> itens) {
+
+    /**
+     * Item da ordem com o nome do produto
+     */
+    public record Item(Integer id, Integer idProduto, String nomeProduto, int quantidade, BigDecimal valor,
+                       LocalDate dataVencimento) {
+
+        static Item de(ItemOrdemCompra item) {
+            Produto produto = item.getProduto();
+            return new Item(item.getId(), produto != null ? produto.getId() : null,
+                    produto != null ? produto.getNome() : null, item.getQuantidade(), item.getValor(),
+                    item.getDataVencimento());
+        }
+    }
+
+    /**
+     * Monta o detalhe de uma ordem carregada pelo plano OrdemCompra.detalhe
+     */
+    public static OrdemCompraDetalhe de(OrdemCompra ordem) {
+        return new OrdemCompraDetalhe(ordem.getId(), ordem.getStatus(), ordem.getValor(), ordem.getDataPrevisao(),
+                ordem.getDataOrdem(), ordem.getDataEntrega(), ordem.getItens().stream().map(Item::de).toList());
+    }
+}
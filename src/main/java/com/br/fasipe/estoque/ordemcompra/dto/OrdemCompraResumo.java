@@ -0,0 +1,13 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Linha das listagens de ordens de compra: apenas as colunas da ordem, sem itens
+ */
+public record OrdemCompraResumo(Integer id, StatusOrdem status, BigDecimal valor, LocalDate dataPrevisao,
+                                LocalDate dataOrdem, LocalDate dataEntrega) {
+}
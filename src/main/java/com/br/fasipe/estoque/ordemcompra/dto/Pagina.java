@@ -0,0 +1,35 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import org.springframework.data.domain.Page;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Página devolvida pelas listagens da API
+ * Formato JSON estável, independente da serialização interna de {@link Page}.
+ * Na paginação por cursor não há número de página; "proximo" é o token da
+ * página seguinte (ausente na última) e os totais só vêm quando pedidos
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Pagina<T>(List<T> content, Integer number, int size, Long totalElements, Integer totalPages,
+                        String proximo) {
+
+    public static <T> Pagina<T> de(Page<T> page) {
+        return new Pagina<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), null);
+    }
+
+    /**
+     * Página da paginação por cursor
+     * @param content Registros da página
+     * @param size Tamanho da página
+     * @param proximo Token da página seguinte (null na última página)
+     * @param total Total de registros (null quando não solicitado)
+     */
+    public static <T> Pagina<T> porCursor(List<T> content, int size, String proximo, Long total) {
+        Integer totalPages = total != null ? (int) ((total + size - 1) / size) : null;
+        return new Pagina<>(content, null, size, total, totalPages, proximo);
+    }
+}
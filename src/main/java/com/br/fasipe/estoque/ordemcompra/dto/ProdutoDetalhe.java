@@ -0,0 +1,39 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import com.br.fasipe.estoque.ordemcompra.models.Almoxarifado;
+import com.br.fasipe.estoque.ordemcompra.models.Produto;
+import com.br.fasipe.estoque.ordemcompra.models.UnidadeMedida;
+
+import java.math.BigDecimal;
+
+/**
+ * Detalhe de um produto com almoxarifado, setor e unidade de medida
+ */
+public record ProdutoDetalhe(Integer id, String nome, String descricao, String codBarras, BigDecimal tempIdeal,
+                             Integer stqMax, Integer stqMin, Integer ptnPedido, Integer idAlmoxarifado,
+                             String nomeAlmoxarifado, Integer idSetor, String nomeSetor, String unidadeMedida,
+                             String descricaoUnidadeMedida) {
+
+    /**
+     * Monta o detalhe de um produto carregado pelo plano Produto.detalhe
+     */
+    public static ProdutoDetalhe de(Produto produto) {
+        Almoxarifado almoxarifado = produto.getAlmoxarifado();
+        UnidadeMedida unidade = produto.getUnidadeMedida();
+        return new ProdutoDetalhe(
+                produto.getId(),
+                produto.getNome(),
+                produto.getDescricao(),
+                produto.getCodBarras(),
+                produto.getTempIdeal(),
+                produto.getStqMax(),
+                produto.getStqMin(),
+                produto.getPtnPedido(),
+                almoxarifado != null ? almoxarifado.getId() : null,
+                almoxarifado != null ? almoxarifado.getNome() : null,
+                almoxarifado != null && almoxarifado.getSetor() != null ? almoxarifado.getSetor().getId() : null,
+                almoxarifado != null && almoxarifado.getSetor() != null ? almoxarifado.getSetor().getNome() : null,
+                unidade != null ? unidade.getAbreviacao() : null,
+                unidade != null ? unidade.getDescricao() : null);
+    }
+}
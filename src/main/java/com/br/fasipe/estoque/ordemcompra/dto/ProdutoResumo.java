@@ -0,0 +1,8 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Linha das listagens de produtos: apenas as colunas exibidas, lidas por projeção
+ */
+public record ProdutoResumo(Integer id, String nome, String codBarras, String nomeAlmoxarifado,
+                            String unidadeMedida, Integer stqMin, Integer stqMax, Integer ptnPedido) {
+}
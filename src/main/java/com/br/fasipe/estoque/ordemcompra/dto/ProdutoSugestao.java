@@ -0,0 +1,7 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Produto sugerido pela busca por prefixo, com a relevância usada na ordenação
+ */
+public record ProdutoSugestao(Integer id, String nome, String codBarras, double relevancia) {
+}
@@ -0,0 +1,12 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resultado do recebimento de uma ordem de compra
+ */
+public record RecebimentoOrdem(Integer idOrdem, StatusOrdem status, LocalDate dataEntrega, List<ItemRecebido> itens) {
+}
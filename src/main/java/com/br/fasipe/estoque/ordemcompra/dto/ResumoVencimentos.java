@@ -0,0 +1,9 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.util.Map;
+
+/**
+ * Quantidade de estoques com saldo em cada faixa de vencimento de um almoxarifado
+ */
+public record ResumoVencimentos(Integer idAlmoxarifado, Map<FaixaVencimento, Integer> totais) {
+}
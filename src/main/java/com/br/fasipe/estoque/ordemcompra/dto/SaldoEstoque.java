@@ -0,0 +1,7 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Saldo de um registro de estoque após uma movimentação
+ */
+public record SaldoEstoque(Integer idEstoque, Integer idProduto, Integer quantidade) {
+}
@@ -0,0 +1,37 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Saldo agregado de um produto: soma de QTDESTOQUE de todos os lotes
+ * comparada com o estoque mínimo (STQMIN) e o ponto de pedido (PNTPEDIDO)
+ */
+public record SaldoProduto(Integer idProduto, Integer stqMin, Integer ptnPedido, Long quantidadeTotal) {
+
+    /**
+     * Produto sem registros de estoque: SUM retorna null na consulta agrupada
+     */
+    public SaldoProduto {
+        quantidadeTotal = quantidadeTotal != null ? quantidadeTotal : 0L;
+    }
+
+    /**
+     * @return true se o saldo total está abaixo do estoque mínimo
+     */
+    public boolean abaixoDoMinimo() {
+        return stqMin != null && quantidadeTotal < stqMin;
+    }
+
+    /**
+     * @return true se o saldo total atingiu o ponto de pedido
+     */
+    public boolean noPontoDePedido() {
+        return ptnPedido != null && quantidadeTotal <= ptnPedido;
+    }
+
+    public SaldoProduto comVariacao(long variacao) {
+        return new SaldoProduto(idProduto, stqMin, ptnPedido, quantidadeTotal + variacao);
+    }
+
+    public SaldoProduto comLimites(Integer novoStqMin, Integer novoPtnPedido) {
+        return new SaldoProduto(idProduto, novoStqMin, novoPtnPedido, quantidadeTotal);
+    }
+}
@@ -0,0 +1,10 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comando SQL idêntico executado repetidas vezes na mesma requisição (suspeita de N+1)
+ */
+public record SuspeitaNMaisUm(LocalDateTime instante, String requisicao, String sql, int execucoes,
+                              double tempoMs) {
+}
@@ -0,0 +1,7 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+/**
+ * Campos pesquisáveis de um produto, lidos por projeção na carga do índice de busca
+ */
+public record TextoProduto(Integer idProduto, String nome, String descricao, String codBarras) {
+}
@@ -0,0 +1,9 @@
+package com.br.fasipe.estoque.ordemcompra.dto;
+
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+
+/**
+ * Quantidade de ordens de compra em um status, resultado da contagem agrupada
+ */
+public record TotalStatus(StatusOrdem status, Long total) {
+}
@@ -3,7 +3,13 @@ package com.br.fasipe.estoque.ordemcompra.models;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -17,7 +23,30 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 
 @Entity
-@Table(name = "ESTOQUE")
+// Planos de busca: cada endpoint carrega na mesma consulta apenas as associações que devolve
+// (as listagens usam projeções e não carregam a entidade)
+@NamedEntityGraph(name = "Estoque.detalhe", attributeNodes = {
+    @NamedAttributeNode(value = "produto", subgraph = "produto"),
+    @NamedAttributeNode(value = "lote", subgraph = "lote")
+}, subgraphs = {
+    @NamedSubgraph(name = "produto", attributeNodes = {
+        @NamedAttributeNode("almoxarifado"),
+        @NamedAttributeNode("unidadeMedida")
+    }),
+    @NamedSubgraph(name = "lote", attributeNodes = @NamedAttributeNode("ordemCompra"))
+})
+@NamedEntityGraph(name = "Estoque.exportacao", attributeNodes = {
+    @NamedAttributeNode(value = "produto", subgraph = "produto"),
+    @NamedAttributeNode("lote")
+}, subgraphs = @NamedSubgraph(name = "produto", attributeNodes = {
+    @NamedAttributeNode("almoxarifado"),
+    @NamedAttributeNode("unidadeMedida")
+}))
+@Table(name = "ESTOQUE", indexes = {
+    // Índices cobrindo as consultas paginadas por produto e por lote
+    @Index(name = "IDX_ESTOQUE_PRODUTO", columnList = "ID_PRODUTO, ID_LOTE, QTDESTOQUE"),
+    @Index(name = "IDX_ESTOQUE_LOTE", columnList = "ID_LOTE, ID_PRODUTO, QTDESTOQUE")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,7 +55,9 @@ import jakarta.persistence.ManyToOne;
 public class Estoque {
 
     @Id
-    @GeneratedValue
+    // IDs por sequência em blocos: o recebimento de ordens insere os estoques em lote JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estoque_seq")
+    @SequenceGenerator(name = "estoque_seq", sequenceName = "ESTOQUE_SEQ", allocationSize = 50)
     @Column(name = "IDESTOQUE")
     private Integer id;
 
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -32,13 +33,15 @@ import jakarta.persistence.JoinColumn;
 public class Lote {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDs por sequência em blocos: o recebimento de ordens insere os lotes em lote JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lote_seq")
+    @SequenceGenerator(name = "lote_seq", sequenceName = "LOTE_SEQ", allocationSize = 50)
     @Column(name = "IDLOTE")
     private Integer id;
 
     @NotNull(message = "A ordem de compra deve ser informada.")
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "ID_ORDENCOMPRA", nullable = false)
+    @JoinColumn(name = "ID_ORDCOMP", nullable = false)
     private OrdemCompra ordemCompra;
 
     @NotNull(message = "A data de vencimento é obrigatória.")
@@ -0,0 +1,81 @@
+package com.br.fasipe.estoque.ordemcompra.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import org.hibernate.annotations.Immutable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Registro do livro de movimentações de estoque (somente inclusão)
+ * As referências são mantidas como IDs: cada linha é um fato histórico e
+ * não é navegada nem alterada depois de gravada
+ */
+@Entity
+@Immutable
+@Table(name = "MOVIMENTACAO")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class Movimentacao {
+
+    // IDs alocados em blocos (pooled) para permitir inserts em lote JDBC;
+    // no MySQL a sequência é emulada pela tabela MOVIMENTACAO_SEQ
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentacao_seq")
+    @SequenceGenerator(name = "movimentacao_seq", sequenceName = "MOVIMENTACAO_SEQ", allocationSize = 50)
+    @Column(name = "IDMOVIMENTACAO")
+    private Integer id;
+
+    @NotNull(message = "O estoque deve ser informado.")
+    @Column(name = "ID_ESTOQUE", nullable = false, updatable = false)
+    private Integer idEstoque;
+
+    @NotNull(message = "O usuário deve ser informado.")
+    @Column(name = "ID_USUARIO", nullable = false, updatable = false)
+    private Integer idUsuario;
+
+    @NotNull(message = "O setor de origem deve ser informado.")
+    @Column(name = "ID_SETOR_ORIGEM", nullable = false, updatable = false)
+    private Integer idSetorOrigem;
+
+    @NotNull(message = "O setor de destino deve ser informado.")
+    @Column(name = "ID_SETOR_DESTINO", nullable = false, updatable = false)
+    private Integer idSetorDestino;
+
+    @NotNull(message = "A quantidade deve ser informada.")
+    @Positive(message = "A quantidade movimentada deve ser positiva.")
+    @Column(name = "QTDMOVIM", nullable = false, updatable = false)
+    private Integer quantidade;
+
+    @NotNull(message = "A data da movimentação é obrigatória.")
+    @Column(name = "DATAMOVIM", nullable = false, updatable = false)
+    private LocalDate dataMovimentacao;
+
+    @NotNull(message = "O tipo da movimentação é obrigatório.")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TIPOMOVIM", nullable = false, updatable = false)
+    private TipoMovimentacao tipo;
+
+    public enum TipoMovimentacao {
+        ENTRADA, SAIDA
+    }
+}
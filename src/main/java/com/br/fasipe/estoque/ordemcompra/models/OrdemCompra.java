@@ -2,6 +2,7 @@ package com.br.fasipe.estoque.ordemcompra.models;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Index;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,6 +12,11 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+
+import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.validation.constraints.NotNull;
 
@@ -30,7 +36,24 @@ import jakarta.validation.constraints.FutureOrPresent;
 
 
 @Entity
-@Table(name = "ORDEMCOMPRA")
+// Planos de busca: detalhe e exportação trazem itens e produtos na mesma consulta
+// (a listagem usa projeção sem itens: a coleção paginada obrigaria a paginar em memória)
+@NamedEntityGraph(name = "OrdemCompra.detalhe", attributeNodes = {
+    @NamedAttributeNode(value = "itens", subgraph = "itens")
+}, subgraphs = @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode("produto")))
+@NamedEntityGraph(name = "OrdemCompra.exportacao", attributeNodes = {
+    @NamedAttributeNode(value = "itens", subgraph = "itens")
+}, subgraphs = {
+    @NamedSubgraph(name = "itens", attributeNodes = @NamedAttributeNode(value = "produto", subgraph = "produto")),
+    @NamedSubgraph(name = "produto", attributeNodes = @NamedAttributeNode("unidadeMedida"))
+})
+@Table(name = "ORDEMCOMPRA", indexes = {
+    // Filtro por status já ordenado pela data da ordem (pendentes e contagem por status)
+    @Index(name = "IDX_ORDEMCOMPRA_STATUS_DATA", columnList = "STATUSORD, DATAORDEM"),
+    // Data da ordem isolada: consulta por dia e faixa do relatório por período
+    @Index(name = "IDX_ORDEMCOMPRA_DATAORDEM", columnList = "DATAORDEM"),
+    @Index(name = "IDX_ORDEMCOMPRA_DATAPREV", columnList = "DATAPREV")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -66,6 +89,7 @@ public class OrdemCompra {
     @Column(name = "DATAENTRE", nullable = false)
     private LocalDate dataEntrega;
     
+    @JsonManagedReference
     @OneToMany(mappedBy = "ordemCompra", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<ItemOrdemCompra> itens = new ArrayList<>();
 
@@ -3,11 +3,15 @@ package com.br.fasipe.estoque.ordemcompra.models;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.FetchType;
 
 import jakarta.validation.constraints.NotBlank;
@@ -23,7 +27,20 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Entity
-@Table(name = "PRODUTO")
+// Planos de busca: cada endpoint carrega na mesma consulta apenas as associações que devolve
+// (as listagens usam projeções e não carregam a entidade)
+@NamedEntityGraph(name = "Produto.detalhe", attributeNodes = {
+    @NamedAttributeNode(value = "almoxarifado", subgraph = "almoxarifado"),
+    @NamedAttributeNode("unidadeMedida")
+}, subgraphs = @NamedSubgraph(name = "almoxarifado", attributeNodes = @NamedAttributeNode("setor")))
+@NamedEntityGraph(name = "Produto.exportacao", attributeNodes = {
+    @NamedAttributeNode("almoxarifado"),
+    @NamedAttributeNode("unidadeMedida")
+})
+@Table(name = "PRODUTO", indexes = {
+    @Index(name = "IDX_PRODUTO_NOME", columnList = "NOME"),
+    @Index(name = "IDX_PRODUTO_ALMOX", columnList = "ID_ALMOX")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,51 @@
+package com.br.fasipe.estoque.ordemcompra.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.Immutable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Saldo materializado de um produto em um almoxarifado
+ * Variante do {@link SaldoConsolidado} por localização física, mantida na mesma transação
+ */
+@Entity
+@Immutable
+@IdClass(SaldoAlmoxarifado.Chave.class)
+@Table(name = "SALDOALMOX")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = { "idAlmoxarifado", "idProduto" })
+public class SaldoAlmoxarifado {
+
+    @Id
+    @Column(name = "ID_ALMOX")
+    private Integer idAlmoxarifado;
+
+    @Id
+    @Column(name = "ID_PRODUTO")
+    private Integer idProduto;
+
+    @Column(name = "QTDTOTAL", nullable = false)
+    private long quantidade;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+
+        private Integer idAlmoxarifado;
+        private Integer idProduto;
+    }
+}
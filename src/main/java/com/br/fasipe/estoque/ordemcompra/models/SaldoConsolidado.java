@@ -0,0 +1,35 @@
+package com.br.fasipe.estoque.ordemcompra.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.Immutable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Saldo materializado de um produto: soma de QTDESTOQUE de todos os seus estoques
+ * Mantido pelo {@code SaldoConsolidadoService} na mesma transação de cada
+ * escrita em ESTOQUE, então a consulta do saldo é uma leitura pela chave primária
+ */
+@Entity
+@Immutable
+@Table(name = "SALDOPRODUTO")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "idProduto")
+public class SaldoConsolidado {
+
+    @Id
+    @Column(name = "ID_PRODUTO")
+    private Integer idProduto;
+
+    @Column(name = "QTDTOTAL", nullable = false)
+    private long quantidade;
+}
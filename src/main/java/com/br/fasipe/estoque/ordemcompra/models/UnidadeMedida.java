@@ -1,16 +1,27 @@
 package com.br.fasipe.estoque.ordemcompra.models;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Unidade de medida dos produtos
+ * Tabela de referência mantida fora da aplicação: cache de segundo nível somente leitura
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "unidadeMedida")
 @Table(name = "UNIMEDIDA")
 @Data
 @NoArgsConstructor
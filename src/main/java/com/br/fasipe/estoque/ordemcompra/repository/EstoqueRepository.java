@@ -1,30 +1,87 @@
 package com.br.fasipe.estoque.ordemcompra.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteDisponivel;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.SaldoEstoque;
 import com.br.fasipe.estoque.ordemcompra.models.Estoque;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 
 @Repository
 public interface EstoqueRepository extends JpaRepository<Estoque, Integer> {
    
+    //LISTAGEM paginada: projeção só com as colunas exibidas
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l",
+           countQuery = "SELECT COUNT(e) FROM Estoque e")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<EstoqueResumo> findResumos(Pageable pageable);
+
+    //EXPORTAÇÃO: leitura única em ordem de chave primária, consumida linha a linha (sem COUNT nem timeout)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l ORDER BY e.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+    })
+    Stream<EstoqueResumo> streamResumos();
+
+    //LISTAGEM por cursor crescente: faixa da chave primária após o último ID, sem OFFSET nem contagem
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l WHERE e.id > :apos ORDER BY e.id ASC")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<EstoqueResumo> findResumosApos(@Param("apos") Integer apos, Limit limite);
+
+    //LISTAGEM por cursor decrescente: faixa da chave primária antes do último ID
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l WHERE e.id < :antes ORDER BY e.id DESC")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<EstoqueResumo> findResumosAntes(@Param("antes") Integer antes, Limit limite);
+
+    //DETALHE com produto (almoxarifado, unidade de medida) e lote (ordem de compra)
+    @EntityGraph("Estoque.detalhe")
+    @Query("SELECT e FROM Estoque e WHERE e.id = :id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<Estoque> findDetalheById(@Param("id") Integer id);
+
     //POR IDESTOQUE
     @Query("SELECT e FROM Estoque e WHERE e.id = :id")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Estoque findByIdEstoque(@Param("id") Integer id);
@@ -34,9 +91,6 @@ public interface EstoqueRepository extends JpaRepository<Estoque, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     List<Estoque> findByIdProduto(@Param("idProduto") Integer idProduto);
@@ -46,36 +100,136 @@ public interface EstoqueRepository extends JpaRepository<Estoque, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     List<Estoque> findByIdLote(@Param("idLote") Integer idLote);
 
+    //POR ID_PRODUTO paginado (IDX_ESTOQUE_PRODUTO), projeção da listagem
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l WHERE e.produto.id = :idProduto",
+           countQuery = "SELECT COUNT(e) FROM Estoque e WHERE e.produto.id = :idProduto")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<EstoqueResumo> findByIdProduto(@Param("idProduto") Integer idProduto, Pageable pageable);
+
+    //POR ID_LOTE paginado (IDX_ESTOQUE_LOTE), projeção da listagem
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l WHERE e.lote.id = :idLote",
+           countQuery = "SELECT COUNT(e) FROM Estoque e WHERE e.lote.id = :idLote")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<EstoqueResumo> findByIdLote(@Param("idLote") Integer idLote, Pageable pageable);
+
+    //FEFO: estoques com saldo de um produto e o vencimento do lote (IDX_ESTOQUE_PRODUTO)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.LoteDisponivel(e.id, l.id, l.dataVencimento) " +
+           "FROM Estoque e JOIN e.lote l WHERE e.produto.id = :idProduto AND e.quantidadeEstoque > 0")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<LoteDisponivel> findLotesDisponiveis(@Param("idProduto") Integer idProduto);
+
+    //VENCIMENTOS: estoques com saldo, vencimento do lote e almoxarifado do produto (carga das faixas)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.LoteVencimento(e.id, l.id, p.id, p.almoxarifado.id, l.dataVencimento) " +
+           "FROM Estoque e JOIN e.lote l JOIN e.produto p WHERE e.quantidadeEstoque > 0")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+    })
+    List<LoteVencimento> findLotesVencimento();
+
+    //VENCIMENTOS dos estoques informados, se ainda tiverem saldo
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.LoteVencimento(e.id, l.id, p.id, p.almoxarifado.id, l.dataVencimento) " +
+           "FROM Estoque e JOIN e.lote l JOIN e.produto p WHERE e.id IN :ids AND e.quantidadeEstoque > 0")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<LoteVencimento> findLotesVencimentoByIds(@Param("ids") Collection<Integer> ids);
+
+    //POR ID_ALMOX do produto paginado (IDX_PRODUTO_ALMOX -> IDX_ESTOQUE_PRODUTO), projeção da listagem
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l WHERE p.almoxarifado.id = :idAlmoxarifado",
+           countQuery = "SELECT COUNT(e) FROM Estoque e JOIN e.produto p WHERE p.almoxarifado.id = :idAlmoxarifado")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<EstoqueResumo> findByIdAlmoxarifado(@Param("idAlmoxarifado") Integer idAlmoxarifado, Pageable pageable);
+
     //por QTDESTOQUE
     @Query("SELECT e FROM Estoque e WHERE e.quantidadeEstoque = :quantidadeEstoque")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     List<Estoque> findByQuantidadeEstoque(@Param("quantidadeEstoque") Integer quantidadeEstoque);
 
-    //Atualizar Estoque 
-    @Query("UPDATE Estoque e SET e.quantidadeEstoque = :quantidadeEstoque WHERE e.id = :id")
+    //por QTDESTOQUE abaixo do limite paginado, projeção da listagem
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo(e.id, p.id, p.nome, l.id, l.dataVencimento, e.quantidadeEstoque) " +
+           "FROM Estoque e LEFT JOIN e.produto p LEFT JOIN e.lote l WHERE e.quantidadeEstoque < :quantidadeMinima",
+           countQuery = "SELECT COUNT(e) FROM Estoque e WHERE e.quantidadeEstoque < :quantidadeMinima")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<EstoqueResumo> findComQuantidadeAbaixoDe(@Param("quantidadeMinima") Integer quantidadeMinima, Pageable pageable);
+
+    //CONTAGEM por QTDESTOQUE abaixo do limite
+    @Query("SELECT COUNT(e) FROM Estoque e WHERE e.quantidadeEstoque < :quantidadeMinima")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    long countComQuantidadeAbaixoDe(@Param("quantidadeMinima") Integer quantidadeMinima);
+
+    //BLOQUEIO da linha para atualização com valor absoluto (evita perda de atualização)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Estoque e WHERE e.id = :id")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000")
+    })
+    Optional<Estoque> findByIdParaAtualizacao(@Param("id") Integer id);
+
+    //Atualizar Estoque 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Estoque e SET e.quantidadeEstoque = :quantidadeEstoque WHERE e.id = :id")
+    @QueryHints({
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     int updateQuantidadeEstoque(@Param("quantidadeEstoque") Integer quantidadeEstoque, @Param("id") Integer id);
 
-    
+    //MOVIMENTAÇÃO por variação: a condição do próprio UPDATE rejeita saldo negativo
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Estoque e SET e.quantidadeEstoque = e.quantidadeEstoque + :delta " +
+           "WHERE e.id = :id AND e.quantidadeEstoque + :delta >= 0")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    int movimentarQuantidade(@Param("id") Integer id, @Param("delta") int delta);
+
+    //SALDO de um estoque (após a movimentação a linha segue bloqueada pela transação)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.SaldoEstoque(e.id, e.produto.id, e.quantidadeEstoque) " +
+           "FROM Estoque e WHERE e.id = :id")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<SaldoEstoque> findSaldoById(@Param("id") Integer id);
+
+    //SETOR do almoxarifado do produto (origem/destino padrão das movimentações)
+    @Query("SELECT a.setor.id FROM Estoque e JOIN e.produto p JOIN p.almoxarifado a WHERE e.id = :id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<Integer> findIdSetorById(@Param("id") Integer id);
 }
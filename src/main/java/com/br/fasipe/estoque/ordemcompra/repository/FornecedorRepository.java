@@ -1,7 +1,11 @@
 package com.br.fasipe.estoque.ordemcompra.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import com.br.fasipe.estoque.ordemcompra.dto.FornecedorDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.FornecedorResumo;
 import com.br.fasipe.estoque.ordemcompra.models.Fornecedor;
 import com.br.fasipe.estoque.ordemcompra.models.PessoaJuridica;
 import org.springframework.data.jpa.repository.Query;
@@ -9,12 +13,52 @@ import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
 
 
 @Repository
 public interface FornecedorRepository extends JpaRepository<Fornecedor, Integer> {
     
+    //LISTAGEM paginada: projeção com os dados da pessoa jurídica na mesma consulta
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.FornecedorResumo(f.id, pj.nomeFantasia, pj.cnpj, " +
+           "f.representante, f.contatoRepresentante) FROM Fornecedor f LEFT JOIN f.pessoasJuridica pj",
+           countQuery = "SELECT COUNT(f) FROM Fornecedor f")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<FornecedorResumo> findResumos(Pageable pageable);
+
+    //DETALHE com os dados da pessoa jurídica
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.FornecedorDetalhe(f.id, pj.id, pj.razaoSocial, " +
+           "pj.nomeFantasia, pj.cnpj, f.representante, f.contatoRepresentante, f.descricao) " +
+           "FROM Fornecedor f LEFT JOIN f.pessoasJuridica pj WHERE f.id = :id")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<FornecedorDetalhe> findDetalheById(@Param("id") Integer id);
+
+    //LISTAGEM por REPRESENT
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.FornecedorResumo(f.id, pj.nomeFantasia, pj.cnpj, " +
+           "f.representante, f.contatoRepresentante) FROM Fornecedor f LEFT JOIN f.pessoasJuridica pj " +
+           "WHERE f.representante = :representante")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<FornecedorResumo> findResumosByRepresentante(@Param("representante") String representante);
+
+    //LISTAGEM por CONTREPRE
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.FornecedorResumo(f.id, pj.nomeFantasia, pj.cnpj, " +
+           "f.representante, f.contatoRepresentante) FROM Fornecedor f LEFT JOIN f.pessoasJuridica pj " +
+           "WHERE f.contatoRepresentante = :contatoRepresentante")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<FornecedorResumo> findResumosByContatoRepresentante(@Param("contatoRepresentante") String contatoRepresentante);
+
     //Por IDFORNECEDOR
     @Query("SELECT f FROM Fornecedor f WHERE f.id = :id")
     @QueryHints({
@@ -14,6 +14,7 @@ import jakarta.persistence.QueryHint;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -28,9 +29,6 @@ public interface ItemOrdemCompraRepository extends JpaRepository<ItemOrdemCompra
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<ItemOrdemCompra> findByIDITEMORD(@Param("IDITEMORD") Integer IDITEMORD);
@@ -40,9 +38,6 @@ public interface ItemOrdemCompraRepository extends JpaRepository<ItemOrdemCompra
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<ItemOrdemCompra> findByID_ORDCOMP(@Param("ID_ORDCOMP") Integer ID_ORDCOMP);
@@ -52,9 +47,6 @@ public interface ItemOrdemCompraRepository extends JpaRepository<ItemOrdemCompra
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<ItemOrdemCompra> findByID_PRODUTO(@Param("ID_PRODUTO") Integer ID_PRODUTO);
@@ -64,9 +56,6 @@ public interface ItemOrdemCompraRepository extends JpaRepository<ItemOrdemCompra
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<ItemOrdemCompra> findByQNTD(@Param("QNTD") Integer QNTD);
@@ -76,9 +65,6 @@ public interface ItemOrdemCompraRepository extends JpaRepository<ItemOrdemCompra
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<ItemOrdemCompra> findByVALOR(@Param("VALOR") BigDecimal VALOR);
@@ -88,12 +74,18 @@ public interface ItemOrdemCompraRepository extends JpaRepository<ItemOrdemCompra
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<ItemOrdemCompra> findByDATAVENC(@Param("DATAVENC") LocalDate DATAVENC);
 
+    //ITENS DA ORDEM com produto e almoxarifado, em uma única consulta para o recebimento
+    @Query("SELECT i FROM ItemOrdemCompra i JOIN FETCH i.produto p LEFT JOIN FETCH p.almoxarifado " +
+           "WHERE i.ordemCompra.id = :idOrdem ORDER BY i.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<ItemOrdemCompra> findParaRecebimento(@Param("idOrdem") Integer idOrdem);
+
      
 }
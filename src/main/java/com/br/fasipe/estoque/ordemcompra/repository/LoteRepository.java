@@ -22,9 +22,6 @@ public interface LoteRepository extends JpaRepository<Lote, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Lote> findByIDLOTE(@Param("id") Integer id);
@@ -35,9 +32,6 @@ public interface LoteRepository extends JpaRepository<Lote, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Lote> findByIDORDCOMP(@Param("idOrdemCompra") Integer idOrdemCompra);
@@ -47,9 +41,6 @@ public interface LoteRepository extends JpaRepository<Lote, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Lote> findByDATAVENC(@Param("dataVencimento") LocalDate dataVencimento);
@@ -59,9 +50,6 @@ public interface LoteRepository extends JpaRepository<Lote, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Lote> findByQNTD(@Param("quantidade") Integer quantidade);
@@ -0,0 +1,49 @@
+package com.br.fasipe.estoque.ordemcompra.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.stereotype.Repository;
+import com.br.fasipe.estoque.ordemcompra.models.Movimentacao;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repositório do livro de movimentações
+ * Expõe apenas inclusão e leitura: não há update nem delete
+ */
+@Repository
+@RepositoryDefinition(domainClass = Movimentacao.class, idClass = Integer.class)
+public interface MovimentacaoRepository {
+
+    <S extends Movimentacao> S save(S movimentacao);
+
+    <S extends Movimentacao> List<S> saveAll(Iterable<S> movimentacoes);
+
+    Optional<Movimentacao> findById(Integer id);
+
+    //POR ID_ESTOQUE paginado, mais recentes primeiro
+    @Query(value = "SELECT m FROM Movimentacao m WHERE m.idEstoque = :idEstoque ORDER BY m.id DESC",
+           countQuery = "SELECT COUNT(m) FROM Movimentacao m WHERE m.idEstoque = :idEstoque")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<Movimentacao> findByIdEstoque(@Param("idEstoque") Integer idEstoque, Pageable pageable);
+
+    //EXISTE movimentação do estoque (FK_MOVIMENTACAO_ESTOQUE impede remover o estoque)
+    @Query("SELECT COUNT(m) > 0 FROM Movimentacao m WHERE m.idEstoque = :idEstoque")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    boolean existsByIdEstoque(@Param("idEstoque") Integer idEstoque);
+}
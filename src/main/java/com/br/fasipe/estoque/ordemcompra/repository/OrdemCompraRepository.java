@@ -1,13 +1,20 @@
 package com.br.fasipe.estoque.ordemcompra.repository;
 
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import org.springframework.stereotype.Repository;
 
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.TotalStatus;
 import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra;
 import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
@@ -16,84 +23,150 @@ import jakarta.persistence.QueryHint;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 
 
 @Repository
 public interface OrdemCompraRepository extends JpaRepository<OrdemCompra, Integer> {
+
+    //LISTAGEM paginada: projeção só com as colunas da ordem, sem itens
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+                   "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o",
+           countQuery = "SELECT COUNT(o) FROM OrdemCompra o")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<OrdemCompraResumo> findResumos(Pageable pageable);
     
+    //LISTAGEM por cursor crescente: faixa da chave primária após o último ID, sem OFFSET nem contagem
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+           "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o WHERE o.id > :apos ORDER BY o.id ASC")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<OrdemCompraResumo> findResumosApos(@Param("apos") Integer apos, Limit limite);
+
+    //EXPORTAÇÃO: leitura única em ordem de chave primária, consumida linha a linha (sem COUNT nem timeout)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+           "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o ORDER BY o.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+    })
+    Stream<OrdemCompraResumo> streamResumos();
+
+    //LISTAGEM por cursor decrescente: faixa da chave primária antes do último ID
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+           "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o WHERE o.id < :antes ORDER BY o.id DESC")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<OrdemCompraResumo> findResumosAntes(@Param("antes") Integer antes, Limit limite);
+
     //POR IDORDCOMP
+    @EntityGraph("OrdemCompra.detalhe")
     @Query("SELECT o FROM OrdemCompra o WHERE o.id = :IDORDCOMP")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<OrdemCompra> findByIDORDCOMP(@Param("IDORDCOMP") Integer IDORDCOMP);
 
-    //POR STATUSORD
-    @Query("SELECT o FROM OrdemCompra o WHERE o.status = :STATUSORD")
+    //POR STATUSORD: igualdade na primeira coluna de IDX_ORDEMCOMPRA_STATUS_DATA; a ordenação
+    //pela data (desempate pelo ID da página) segue a ordem do próprio índice, sem filesort
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+                   "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o WHERE o.status = :STATUSORD " +
+                   "ORDER BY o.dataOrdem",
+           countQuery = "SELECT COUNT(o) FROM OrdemCompra o WHERE o.status = :STATUSORD")
     @QueryHints({
-        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
-    Optional<OrdemCompra> findBySTATUSORD(@Param("STATUSORD") StatusOrdem STATUSORD);
+    Page<OrdemCompraResumo> findBySTATUSORD(@Param("STATUSORD") StatusOrdem STATUSORD, Pageable pageable);
 
-    //POR VALOR
-    @Query("SELECT o FROM OrdemCompra o WHERE o.valor = :VALOR")
+    //CONTAGEM POR STATUSORD: resolvida apenas no índice
+    @Query("SELECT COUNT(o) FROM OrdemCompra o WHERE o.status = :STATUSORD")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    long countBySTATUSORD(@Param("STATUSORD") StatusOrdem STATUSORD);
+
+    //CONTAGEM AGRUPADA: todos os status em uma única leitura de IDX_ORDEMCOMPRA_STATUS_DATA
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.TotalStatus(o.status, COUNT(o)) " +
+           "FROM OrdemCompra o GROUP BY o.status")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<TotalStatus> countAgrupadoPorStatus();
+
+    //POR VALOR: filtro eventual de conferência, sem índice próprio
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+                   "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o WHERE o.valor = :VALOR",
+           countQuery = "SELECT COUNT(o) FROM OrdemCompra o WHERE o.valor = :VALOR")
+    @QueryHints({
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
-    Optional<OrdemCompra> findByVALOR(@Param("VALOR") BigDecimal VALOR);
+    Page<OrdemCompraResumo> findByVALOR(@Param("VALOR") BigDecimal VALOR, Pageable pageable);
 
-    //POR DATAPREV
-    @Query("SELECT o FROM OrdemCompra o WHERE o.dataPrevisao = :DATAPREV")
+    //POR DATAPREV: IDX_ORDEMCOMPRA_DATAPREV já guarda a chave primária, então a ordem por ID também vem do índice
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+                   "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o WHERE o.dataPrevisao = :DATAPREV",
+           countQuery = "SELECT COUNT(o) FROM OrdemCompra o WHERE o.dataPrevisao = :DATAPREV")
     @QueryHints({
-        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
-    Optional<OrdemCompra> findByDATAPREV(@Param("DATAPREV") LocalDate DATAPREV);
+    Page<OrdemCompraResumo> findByDATAPREV(@Param("DATAPREV") LocalDate DATAPREV, Pageable pageable);
 
-    //POR DATAORDEM
-    @Query("SELECT o FROM OrdemCompra o WHERE o.dataOrdem = :DATAORDEM")
+    //POR DATAORDEM: IDX_ORDEMCOMPRA_DATAORDEM, com a chave primária já na ordem do índice
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+                   "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o WHERE o.dataOrdem = :DATAORDEM",
+           countQuery = "SELECT COUNT(o) FROM OrdemCompra o WHERE o.dataOrdem = :DATAORDEM")
     @QueryHints({
-        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
-    Optional<OrdemCompra> findByDATAORDEM(@Param("DATAORDEM") LocalDate DATAORDEM);
+    Page<OrdemCompraResumo> findByDATAORDEM(@Param("DATAORDEM") LocalDate DATAORDEM, Pageable pageable);
 
-    //DATAENTRE
-    @Query("SELECT o FROM OrdemCompra o WHERE o.dataEntrega = :DATAENTRE")
+    //PERÍODO DE DATAORDEM: faixa de IDX_ORDEMCOMPRA_DATAORDEM lida já na ordem da página
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+                   "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o " +
+                   "WHERE o.dataOrdem BETWEEN :INICIO AND :FIM ORDER BY o.dataOrdem",
+           countQuery = "SELECT COUNT(o) FROM OrdemCompra o WHERE o.dataOrdem BETWEEN :INICIO AND :FIM")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<OrdemCompraResumo> findByDATAORDEMEntre(@Param("INICIO") LocalDate INICIO, @Param("FIM") LocalDate FIM,
+                                                 Pageable pageable);
+
+    //DATAENTRE: filtro eventual de conferência, sem índice próprio
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo(o.id, o.status, o.valor, " +
+                   "o.dataPrevisao, o.dataOrdem, o.dataEntrega) FROM OrdemCompra o WHERE o.dataEntrega = :DATAENTRE",
+           countQuery = "SELECT COUNT(o) FROM OrdemCompra o WHERE o.dataEntrega = :DATAENTRE")
     @QueryHints({
-        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
-    Optional<OrdemCompra> findByDATAENTRE(@Param("DATAENTRE") LocalDate DATAENTRE);
+    Page<OrdemCompraResumo> findByDATAENTRE(@Param("DATAENTRE") LocalDate DATAENTRE, Pageable pageable);
+
+    //RECEBIMENTO: a condição do próprio UPDATE impede que a mesma ordem seja recebida duas vezes
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE OrdemCompra o SET o.status = :status, o.dataEntrega = :dataEntrega " +
+           "WHERE o.id = :id AND o.status <> :status")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    int concluir(@Param("id") Integer id, @Param("status") StatusOrdem status, @Param("dataEntrega") LocalDate dataEntrega);
   
 }
@@ -1,37 +1,82 @@
 package com.br.fasipe.estoque.ordemcompra.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import com.br.fasipe.estoque.ordemcompra.dto.CodigoBarrasProduto;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.SaldoProduto;
+import com.br.fasipe.estoque.ordemcompra.dto.TextoProduto;
 import com.br.fasipe.estoque.ordemcompra.models.Produto;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import java.math.BigDecimal;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
+    //LISTAGEM paginada: projeção só com as colunas exibidas
+    @Query(value = "SELECT new com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo(p.id, p.nome, p.codBarras, a.nome, " +
+                   "u.abreviacao, p.stqMin, p.stqMax, p.ptnPedido) " +
+                   "FROM Produto p LEFT JOIN p.almoxarifado a LEFT JOIN p.unidadeMedida u",
+           countQuery = "SELECT COUNT(p) FROM Produto p")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<ProdutoResumo> findResumos(Pageable pageable);
+
+    //EXPORTAÇÃO: leitura única em ordem de chave primária, consumida linha a linha (sem COUNT nem timeout)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo(p.id, p.nome, p.codBarras, a.nome, " +
+           "u.abreviacao, p.stqMin, p.stqMax, p.ptnPedido) " +
+           "FROM Produto p LEFT JOIN p.almoxarifado a LEFT JOIN p.unidadeMedida u ORDER BY p.id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+    })
+    Stream<ProdutoResumo> streamResumos();
+
+    //LISTAGEM por IDs (páginas montadas a partir do motor de estoque baixo)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo(p.id, p.nome, p.codBarras, a.nome, " +
+           "u.abreviacao, p.stqMin, p.stqMax, p.ptnPedido) " +
+           "FROM Produto p LEFT JOIN p.almoxarifado a LEFT JOIN p.unidadeMedida u WHERE p.id IN :ids ORDER BY p.id")
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<ProdutoResumo> findResumosByIdIn(@Param("ids") Collection<Integer> ids);
+
     //POR IDPRODUTO
+    @EntityGraph("Produto.detalhe")
     @Query("SELECT p FROM Produto p WHERE p.id = :id")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByIdProduto(@Param("id") Integer id);
 
+    //POR IDs com o plano de detalhe (leitura em lote de códigos de barras)
+    @EntityGraph("Produto.detalhe")
+    @Query("SELECT p FROM Produto p WHERE p.id IN :ids")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    List<Produto> findDetalhesByIdIn(@Param("ids") Collection<Integer> ids);
+
     //POR NOME
+    @EntityGraph("Produto.detalhe")
     @Query("SELECT p FROM Produto p WHERE p.nome = :nome")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByNome(@Param("nome") String nome);
@@ -41,9 +86,6 @@ public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByIdAlmoxarifado(@Param("idAlmoxarifado") Integer idAlmoxarifado);
@@ -53,33 +95,43 @@ public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByIdUnidadeMedida(@Param("idUnidadeMedida") Integer idUnidadeMedida);
 
     //POR CODBARRAS
+    @EntityGraph("Produto.detalhe")
     @Query("SELECT p FROM Produto p WHERE p.codBarras = :codBarras")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByCodBarras(@Param("codBarras") String codBarras);
 
+    //CÓDIGOS DE BARRAS de todos os produtos (carga do índice em memória)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.CodigoBarrasProduto(p.codBarras, p.id) " +
+           "FROM Produto p WHERE p.codBarras IS NOT NULL")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+    })
+    List<CodigoBarrasProduto> findCodigosBarras();
+
+    //TEXTOS de todos os produtos (carga do índice de busca em memória)
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.TextoProduto(p.id, p.nome, p.descricao, p.codBarras) " +
+           "FROM Produto p")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+    })
+    List<TextoProduto> findTextos();
+
     //POR TEMPIDEAL
     @Query("SELECT p FROM Produto p WHERE p.tempIdeal = :tempIdeal")
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByTempIdeal(@Param("tempIdeal") BigDecimal tempIdeal);
@@ -89,9 +141,6 @@ public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByStqMax(@Param("stqMax") Integer stqMax);
@@ -101,9 +150,6 @@ public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByStqMin(@Param("stqMin") Integer stqMin);
@@ -113,11 +159,44 @@ public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
     @QueryHints({
         @QueryHint(name = "org.hibernate.readOnly", value = "true"),
         @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
-        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
-        @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-        @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"), 
         @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
     })
     Optional<Produto> findByPtnPedido(@Param("ptnPedido") Integer ptnPedido);
 
+    //SALDO por produto: soma de QTDESTOQUE de todos os lotes em uma única consulta agrupada
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.SaldoProduto(p.id, p.stqMin, p.ptnPedido, SUM(e.quantidadeEstoque)) " +
+           "FROM Produto p LEFT JOIN Estoque e ON e.produto = p " +
+           "GROUP BY p.id, p.stqMin, p.ptnPedido")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500")
+    })
+    List<SaldoProduto> findSaldos();
+
+    //SALDO de um produto
+    @Query("SELECT new com.br.fasipe.estoque.ordemcompra.dto.SaldoProduto(p.id, p.stqMin, p.ptnPedido, SUM(e.quantidadeEstoque)) " +
+           "FROM Produto p LEFT JOIN Estoque e ON e.produto = p " +
+           "WHERE p.id = :id " +
+           "GROUP BY p.id, p.stqMin, p.ptnPedido")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<SaldoProduto> findSaldoByIdProduto(@Param("id") Integer id);
+
+    //ALMOXARIFADO de um produto (saldo materializado por almoxarifado)
+    @Query("SELECT p.almoxarifado.id FROM Produto p WHERE p.id = :id")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<Integer> findIdAlmoxarifadoById(@Param("id") Integer id);
+
+    //FAIXA de IDs de produto (partições da reconstrução dos saldos materializados)
+    @Query("SELECT MIN(p.id) FROM Produto p")
+    Optional<Integer> findMenorId();
+
+    @Query("SELECT MAX(p.id) FROM Produto p")
+    Optional<Integer> findMaiorId();
+
 }
@@ -0,0 +1,73 @@
+package com.br.fasipe.estoque.ordemcompra.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.stereotype.Repository;
+import com.br.fasipe.estoque.ordemcompra.models.SaldoAlmoxarifado;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repositório do saldo materializado por almoxarifado e produto
+ * Leitura pela chave primária; as escritas são somas atômicas no próprio banco
+ */
+@Repository
+@RepositoryDefinition(domainClass = SaldoAlmoxarifado.class, idClass = SaldoAlmoxarifado.Chave.class)
+public interface SaldoAlmoxarifadoRepository {
+
+    //POR ID_ALMOX e ID_PRODUTO (chave primária)
+    @Query("SELECT s FROM SaldoAlmoxarifado s WHERE s.idAlmoxarifado = :idAlmoxarifado AND s.idProduto = :idProduto")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<SaldoAlmoxarifado> findByChave(@Param("idAlmoxarifado") Integer idAlmoxarifado,
+                                            @Param("idProduto") Integer idProduto);
+
+    //POR ID_ALMOX paginado (prefixo da chave primária)
+    @Query(value = "SELECT s FROM SaldoAlmoxarifado s WHERE s.idAlmoxarifado = :idAlmoxarifado",
+           countQuery = "SELECT COUNT(s) FROM SaldoAlmoxarifado s WHERE s.idAlmoxarifado = :idAlmoxarifado")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "org.hibernate.fetchSize", value = "50"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Page<SaldoAlmoxarifado> findByIdAlmoxarifado(@Param("idAlmoxarifado") Integer idAlmoxarifado, Pageable pageable);
+
+    //SOMA da variação, criando a linha na primeira movimentação do produto no almoxarifado
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO SALDOALMOX (ID_ALMOX, ID_PRODUTO, QTDTOTAL) VALUES (:idAlmoxarifado, :idProduto, :variacao) " +
+                   "ON DUPLICATE KEY UPDATE QTDTOTAL = QTDTOTAL + :variacao", nativeQuery = true)
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    int somar(@Param("idAlmoxarifado") Integer idAlmoxarifado, @Param("idProduto") Integer idProduto,
+              @Param("variacao") long variacao);
+
+    //TRANSFERÊNCIA do saldo quando o produto muda de almoxarifado
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE SALDOALMOX SET ID_ALMOX = :novo WHERE ID_PRODUTO = :idProduto AND ID_ALMOX = :anterior",
+           nativeQuery = true)
+    int transferir(@Param("idProduto") Integer idProduto, @Param("anterior") Integer anterior, @Param("novo") Integer novo);
+
+    //RECONSTRUÇÃO de uma faixa de produtos: remove os saldos da faixa...
+    @Modifying
+    @Query(value = "DELETE FROM SALDOALMOX WHERE ID_PRODUTO BETWEEN :inicio AND :fim", nativeQuery = true)
+    int deleteFaixa(@Param("inicio") Integer inicio, @Param("fim") Integer fim);
+
+    //...e os recalcula a partir de ESTOQUE agrupado pelo almoxarifado do produto
+    @Modifying
+    @Query(value = "INSERT INTO SALDOALMOX (ID_ALMOX, ID_PRODUTO, QTDTOTAL) " +
+                   "SELECT p.ID_ALMOX, e.ID_PRODUTO, SUM(e.QTDESTOQUE) FROM ESTOQUE e " +
+                   "JOIN PRODUTO p ON p.IDPRODUTO = e.ID_PRODUTO WHERE e.ID_PRODUTO BETWEEN :inicio AND :fim AND p.ID_ALMOX IS NOT NULL " +
+                   "GROUP BY p.ID_ALMOX, e.ID_PRODUTO", nativeQuery = true)
+    int insertFaixa(@Param("inicio") Integer inicio, @Param("fim") Integer fim);
+}
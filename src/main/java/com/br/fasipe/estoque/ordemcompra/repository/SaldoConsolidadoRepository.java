@@ -0,0 +1,52 @@
+package com.br.fasipe.estoque.ordemcompra.repository;
+
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.stereotype.Repository;
+import com.br.fasipe.estoque.ordemcompra.models.SaldoConsolidado;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repositório do saldo materializado por produto
+ * Leitura pela chave primária; as escritas são somas atômicas no próprio banco
+ */
+@Repository
+@RepositoryDefinition(domainClass = SaldoConsolidado.class, idClass = Integer.class)
+public interface SaldoConsolidadoRepository {
+
+    //POR ID_PRODUTO (chave primária)
+    @Query("SELECT s FROM SaldoConsolidado s WHERE s.idProduto = :idProduto")
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    Optional<SaldoConsolidado> findByIdProduto(@Param("idProduto") Integer idProduto);
+
+    //SOMA da variação, criando a linha na primeira movimentação do produto
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO SALDOPRODUTO (ID_PRODUTO, QTDTOTAL) VALUES (:idProduto, :variacao) " +
+                   "ON DUPLICATE KEY UPDATE QTDTOTAL = QTDTOTAL + :variacao", nativeQuery = true)
+    @QueryHints({
+        @QueryHint(name = "jakarta.persistence.query.timeout", value = "2000")
+    })
+    int somar(@Param("idProduto") Integer idProduto, @Param("variacao") long variacao);
+
+    //RECONSTRUÇÃO de uma faixa de produtos: remove os saldos da faixa...
+    @Modifying
+    @Query(value = "DELETE FROM SALDOPRODUTO WHERE ID_PRODUTO BETWEEN :inicio AND :fim", nativeQuery = true)
+    int deleteFaixa(@Param("inicio") Integer inicio, @Param("fim") Integer fim);
+
+    //...e os recalcula a partir de ESTOQUE (IDX_ESTOQUE_PRODUTO)
+    @Modifying
+    @Query(value = "INSERT INTO SALDOPRODUTO (ID_PRODUTO, QTDTOTAL) " +
+                   "SELECT ID_PRODUTO, SUM(QTDESTOQUE) FROM ESTOQUE WHERE ID_PRODUTO BETWEEN :inicio AND :fim " +
+                   "GROUP BY ID_PRODUTO", nativeQuery = true)
+    int insertFaixa(@Param("inicio") Integer inicio, @Param("fim") Integer fim);
+}
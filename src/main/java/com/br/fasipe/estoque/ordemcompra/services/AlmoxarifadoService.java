@@ -13,6 +13,8 @@ import org.springframework.cache.annotation.CachePut;
 import com.br.fasipe.estoque.ordemcompra.models.Almoxarifado;
 import com.br.fasipe.estoque.ordemcompra.repository.AlmoxarifadoRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
@@ -24,6 +26,7 @@ import java.util.List;
  */
 @Slf4j
 @Service
+@Timed("fasiclin.servico")
 @Transactional(readOnly = true)
 public class AlmoxarifadoService extends BaseService {
 
@@ -38,15 +41,14 @@ public class AlmoxarifadoService extends BaseService {
      * @param direction Direção da ordenação
      * @return Página de almoxarifados
      */
-    @Cacheable(value = "almoxarifados", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction")
+    @Cacheable(value = "almoxarifados", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction", sync = true)
     public Page<Almoxarifado> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
-        long startTime = System.currentTimeMillis();
         log.info("Iniciando busca paginada de almoxarifados - Página: {}, Tamanho: {}", page, size);
         
         Pageable pageable = createOptimizedPageable(page, size, sortBy, direction);
         Page<Almoxarifado> almoxarifados = almoxarifadoRepository.findAll(pageable);
         
-        logPerformanceInfo("Almoxarifados", almoxarifados, startTime);
+        registrarConsulta("Almoxarifados", almoxarifados);
         return almoxarifados;
     }
 
@@ -56,7 +58,7 @@ public class AlmoxarifadoService extends BaseService {
      * @param size Tamanho da página
      * @return Página de almoxarifados ordenados por ID
      */
-    @Cacheable(value = "almoxarifados", key = "#page + '_' + #size + '_default'")
+    @Cacheable(value = "almoxarifados", key = "#page + '_' + #size + '_default'", sync = true)
     public Page<Almoxarifado> findAllPaginated(int page, int size) {
         return findAllPaginated(page, size, "id", Sort.Direction.ASC);
     }
@@ -66,16 +68,12 @@ public class AlmoxarifadoService extends BaseService {
      * @param id ID do almoxarifado
      * @return Optional contendo o almoxarifado se encontrado
      */
-    @Cacheable(value = "almoxarifado", key = "#id")
+    @Cacheable(value = "almoxarifado", key = "#id", sync = true)
     public Optional<Almoxarifado> findById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Buscando almoxarifado por ID: {}", id);
         
         Optional<Almoxarifado> almoxarifado = almoxarifadoRepository.findById(id);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de almoxarifado por ID {} executada em {}ms", id, endTime - startTime);
-        
         return almoxarifado;
     }
 
@@ -84,16 +82,12 @@ public class AlmoxarifadoService extends BaseService {
      * @param nome Nome do almoxarifado
      * @return Optional contendo o almoxarifado se encontrado
      */
-    @Cacheable(value = "almoxarifado", key = "'nome_' + #nome")
+    @Cacheable(value = "almoxarifado", key = "'nome_' + #nome", sync = true)
     public Optional<Almoxarifado> findByNome(String nome) {
-        long startTime = System.currentTimeMillis();
         log.info("Buscando almoxarifado por nome: {}", nome);
         
         Optional<Almoxarifado> almoxarifado = almoxarifadoRepository.findByNOMEALMO(nome);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de almoxarifado por nome '{}' executada em {}ms", nome, endTime - startTime);
-        
         return almoxarifado;
     }
 
@@ -104,16 +98,15 @@ public class AlmoxarifadoService extends BaseService {
      * @param size Tamanho da página
      * @return Página de almoxarifados do setor
      */
-    @Cacheable(value = "almoxarifados", key = "'setor_' + #idSetor + '_' + #page + '_' + #size")
+    @Cacheable(value = "almoxarifados", key = "'setor_' + #idSetor + '_' + #page + '_' + #size", sync = true)
     public Page<Almoxarifado> findBySetor(Integer idSetor, int page, int size) {
-        long startTime = System.currentTimeMillis();
         log.info("Buscando almoxarifados por setor: {}, Página: {}", idSetor, page);
         
         Pageable pageable = createDefaultPageable(page, size);
         // Implementar método no repository se necessário
         Page<Almoxarifado> almoxarifados = almoxarifadoRepository.findAll(pageable);
         
-        logPerformanceInfo("Almoxarifados por Setor", almoxarifados, startTime);
+        registrarConsulta("Almoxarifados por Setor", almoxarifados);
         return almoxarifados;
     }
 
@@ -123,16 +116,15 @@ public class AlmoxarifadoService extends BaseService {
      * @param size Tamanho da página
      * @return Página de almoxarifados ativos
      */
-    @Cacheable(value = "almoxarifados", key = "'ativos_' + #page + '_' + #size")
+    @Cacheable(value = "almoxarifados", key = "'ativos_' + #page + '_' + #size", sync = true)
     public Page<Almoxarifado> findAlmoxarifadosAtivos(int page, int size) {
-        long startTime = System.currentTimeMillis();
         log.info("Buscando almoxarifados ativos - Página: {}", page);
         
         Pageable pageable = createDefaultPageable(page, size);
         // Implementar método específico no repository se necessário
         Page<Almoxarifado> almoxarifados = almoxarifadoRepository.findAll(pageable);
         
-        logPerformanceInfo("Almoxarifados Ativos", almoxarifados, startTime);
+        registrarConsulta("Almoxarifados Ativos", almoxarifados);
         return almoxarifados;
     }
 
@@ -144,13 +136,11 @@ public class AlmoxarifadoService extends BaseService {
     @Transactional
     @CacheEvict(value = {"almoxarifados", "almoxarifado"}, allEntries = true)
     public Almoxarifado save(Almoxarifado almoxarifado) {
-        long startTime = System.currentTimeMillis();
         log.info("Salvando novo almoxarifado: {}", almoxarifado.getNome());
         
         Almoxarifado almoxarifadoSalvo = almoxarifadoRepository.save(almoxarifado);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Almoxarifado '{}' salvo em {}ms", almoxarifado.getNome(), endTime - startTime);
+        log.info("Almoxarifado '{}' salvo", almoxarifado.getNome());
         
         return almoxarifadoSalvo;
     }
@@ -164,13 +154,11 @@ public class AlmoxarifadoService extends BaseService {
     @CachePut(value = "almoxarifado", key = "#almoxarifado.id")
     @CacheEvict(value = "almoxarifados", allEntries = true)
     public Almoxarifado update(Almoxarifado almoxarifado) {
-        long startTime = System.currentTimeMillis();
         log.info("Atualizando almoxarifado ID: {}", almoxarifado.getId());
         
         Almoxarifado almoxarifadoAtualizado = almoxarifadoRepository.save(almoxarifado);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Almoxarifado ID {} atualizado em {}ms", almoxarifado.getId(), endTime - startTime);
+        log.info("Almoxarifado ID {} atualizado", almoxarifado.getId());
         
         return almoxarifadoAtualizado;
     }
@@ -182,13 +170,11 @@ public class AlmoxarifadoService extends BaseService {
     @Transactional
     @CacheEvict(value = {"almoxarifados", "almoxarifado"}, allEntries = true)
     public void deleteById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Removendo almoxarifado ID: {}", id);
         
         almoxarifadoRepository.deleteById(id);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Almoxarifado ID {} removido em {}ms", id, endTime - startTime);
+        log.info("Almoxarifado ID {} removido", id);
     }
 
     /**
@@ -196,7 +182,7 @@ public class AlmoxarifadoService extends BaseService {
      * @param id ID do almoxarifado
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "almoxarifado", key = "'exists_' + #id")
+    @Cacheable(value = "almoxarifado", key = "'exists_' + #id", sync = true)
     public boolean existsById(Integer id) {
         return almoxarifadoRepository.existsById(id);
     }
@@ -206,7 +192,7 @@ public class AlmoxarifadoService extends BaseService {
      * @param nome Nome do almoxarifado
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "almoxarifado", key = "'exists_nome_' + #nome")
+    @Cacheable(value = "almoxarifado", key = "'exists_nome_' + #nome", sync = true)
     public boolean existsByNome(String nome) {
         return almoxarifadoRepository.findByNOMEALMO(nome).isPresent();
     }
@@ -215,7 +201,7 @@ public class AlmoxarifadoService extends BaseService {
      * Conta o total de almoxarifados
      * @return Total de almoxarifados
      */
-    @Cacheable(value = "almoxarifado", key = "'count'")
+    @Cacheable(value = "almoxarifado", key = "'count'", sync = true)
     public long count() {
         return almoxarifadoRepository.count();
     }
@@ -224,7 +210,7 @@ public class AlmoxarifadoService extends BaseService {
      * Conta almoxarifados ativos
      * @return Total de almoxarifados ativos
      */
-    @Cacheable(value = "almoxarifado", key = "'count_ativos'")
+    @Cacheable(value = "almoxarifado", key = "'count_ativos'", sync = true)
     public long countAtivos() {
         // Implementar método específico no repository se necessário
         return almoxarifadoRepository.count();
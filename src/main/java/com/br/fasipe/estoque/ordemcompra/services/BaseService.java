@@ -1,5 +1,7 @@
 package com.br.fasipe.estoque.ordemcompra.services;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -10,8 +12,19 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 
+import com.br.fasipe.estoque.ordemcompra.dto.Cursor;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
 /**
  * Classe base para services com métodos comuns de paginação e otimização
  * Fornece funcionalidades reutilizáveis para todos os services
@@ -20,6 +33,9 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public abstract class BaseService {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Cria um Pageable otimizado com configurações de performance
      * @param page Número da página (0-based)
@@ -35,10 +51,7 @@ public abstract class BaseService {
             page = 0;
         }
         
-        if (size <= 0 || size > 100) {
-            log.warn("Tamanho de página inválido: {}. Ajustando para 20", size);
-            size = 20;
-        }
+        size = tamanhoValido(size);
         
         // Criação do Sort com fallback para ID se o campo não existir
         Sort sort = Sort.by(direction != null ? direction : Sort.Direction.ASC, 
@@ -57,6 +70,42 @@ public abstract class BaseService {
         return createOptimizedPageable(page, size, "id", Sort.Direction.ASC);
     }
 
+    /**
+     * Busca uma página por cursor (keyset) ordenada pelo ID
+     * Lê um registro além do tamanho para saber se há página seguinte, então não
+     * executa COUNT; o total só é contado quando solicitado
+     * @param after Token recebido do cliente (null ou vazio = primeira página)
+     * @param size Tamanho da página
+     * @param direction Direção da primeira página (as seguintes seguem o token)
+     * @param busca Consulta dos registros após o cursor, limitada à quantidade informada
+     * @param id Acessor do ID de cada registro
+     * @param contagem Contagem total, null quando não solicitada
+     * @return Página com o token da página seguinte
+     * @throws CursorInvalidoException se o token não puder ser lido
+     */
+    protected <T> Pagina<T> buscarPorCursor(String after, int size, Sort.Direction direction,
+                                            BiFunction<Cursor, Limit, List<T>> busca, ToIntFunction<T> id,
+                                            LongSupplier contagem) {
+        int tamanho = tamanhoValido(size);
+        Cursor cursor;
+        try {
+            cursor = after == null || after.isBlank()
+                    ? Cursor.inicio(direction != null ? direction : Sort.Direction.ASC)
+                    : Cursor.decodificar(after);
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException(after, e);
+        }
+
+        List<T> registros = busca.apply(cursor, Limit.of(tamanho + 1));
+        String proximo = null;
+        if (registros.size() > tamanho) {
+            registros = registros.subList(0, tamanho);
+            proximo = cursor.apos(id.applyAsInt(registros.get(tamanho - 1))).codificar();
+        }
+        return Pagina.porCursor(List.copyOf(registros), tamanho, proximo,
+                contagem != null ? contagem.getAsLong() : null);
+    }
+
     /**
      * Valida se uma página contém dados
      * @param page Página a ser validada
@@ -67,17 +116,47 @@ public abstract class BaseService {
     }
 
     /**
-     * Loga informações de performance da consulta
+     * Registra a quantidade de registros devolvida por uma consulta paginada
+     * O tempo da consulta é medido pelo timer fasiclin.servico (@Timed)
      * @param entityName Nome da entidade consultada
      * @param page Página resultante
-     * @param startTime Tempo de início da consulta
      */
-    protected void logPerformanceInfo(String entityName, Page<?> page, long startTime) {
-        long endTime = System.currentTimeMillis();
-        long duration = endTime - startTime;
-        
-        log.info("Consulta de {} executada em {}ms. Página: {}/{}, Total: {}, Tamanho: {}", 
-                entityName, duration, page.getNumber(), page.getTotalPages(), 
+    protected void registrarConsulta(String entityName, Page<?> page) {
+        registrosPorConsulta(entityName).record(page.getNumberOfElements());
+
+        log.debug("Consulta de {} executada. Página: {}/{}, Total: {}, Tamanho: {}",
+                entityName, page.getNumber(), page.getTotalPages(),
                 page.getTotalElements(), page.getSize());
     }
+
+    /**
+     * Registra a quantidade de registros devolvida por uma consulta por cursor
+     * @param entityName Nome da entidade consultada
+     * @param pagina Página resultante
+     */
+    protected void registrarConsulta(String entityName, Pagina<?> pagina) {
+        registrosPorConsulta(entityName).record(pagina.content().size());
+
+        log.debug("Consulta de {} por cursor executada. Registros: {}, Total: {}, Há próxima: {}",
+                entityName, pagina.content().size(),
+                pagina.totalElements() != null ? pagina.totalElements() : "não contado", pagina.proximo() != null);
+    }
+
+    private DistributionSummary registrosPorConsulta(String entityName) {
+        return DistributionSummary.builder("fasiclin.consulta.registros")
+                .description("Registros devolvidos por consulta paginada")
+                .tag("entidade", entityName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Limita o tamanho de página ao intervalo aceito (1 a 100)
+     */
+    protected int tamanhoValido(int size) {
+        if (size <= 0 || size > 100) {
+            log.warn("Tamanho de página inválido: {}. Ajustando para 20", size);
+            return 20;
+        }
+        return size;
+    }
 }
@@ -0,0 +1,402 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CargaIndice;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoSugestao;
+import com.br.fasipe.estoque.ordemcompra.dto.TextoProduto;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Busca de produtos por prefixo (autocompletar), tolerante a erros de digitação
+ * Mantém em memória um índice invertido dos termos de nome, descrição e código
+ * de barras, sem acentos e em minúsculas, carregado por uma única consulta e
+ * ajustado após o commit das inclusões, alterações e remoções de produtos.
+ * O vocabulário ordenado expande as palavras digitadas em prefixos e os
+ * trigramas de cada termo encontram as palavras com um ou dois erros.
+ * Todas as palavras da busca precisam corresponder a algum termo do produto;
+ * a relevância soma as notas das palavras, pesadas pelo campo do termo
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class BuscaProdutosService {
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private static final int MINIMO_CARACTERES = 2;
+    // Prefixos curtos cobrem boa parte do vocabulário: a expansão para nos primeiros termos
+    private static final int MAXIMO_TERMOS_POR_PALAVRA = 2_000;
+
+    private static final double PESO_NOME = 3.0;
+    private static final double PESO_CODIGO = 2.0;
+    private static final double PESO_DESCRICAO = 1.0;
+    private static final double BONUS_INICIO_NOME = 2.0;
+
+    // Mais relevante primeiro; no empate, o nome mais curto (mais próximo do digitado)
+    private static final Comparator<ProdutoSugestao> ORDEM = Comparator
+            .comparingDouble(ProdutoSugestao::relevancia).reversed()
+            .thenComparingInt(sugestao -> sugestao.nome().length())
+            .thenComparing(ProdutoSugestao::id);
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    private final Map<Integer, Documento> documentos = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, Set<Integer>> termos = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> indiceTrigramas = new ConcurrentHashMap<>();
+
+    // As buscas leem sem bloqueio; os ajustes incrementais se revezam em escrita e a recarga é exclusiva
+    private final Object escrita = new Object();
+    private final CargaIndice carga = new CargaIndice();
+
+    /**
+     * Carrega o índice ao iniciar a aplicação
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            recarregar();
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível carregar o índice de busca de produtos na inicialização: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarrega os textos de todos os produtos a partir do banco
+     */
+    public void recarregar() {
+        long startTime = System.currentTimeMillis();
+        carga.recarregar(() -> {
+            List<TextoProduto> textos = RoteamentoLeituraEscrita.naPrimaria(produtoRepository::findTextos);
+            synchronized (escrita) {
+                documentos.clear();
+                termos.clear();
+                indiceTrigramas.clear();
+                textos.forEach(this::indexar);
+            }
+
+            log.info("Índice de busca de produtos carregado em {}ms: {} produtos, {} termos",
+                    System.currentTimeMillis() - startTime, documentos.size(), termos.size());
+        });
+    }
+
+    /**
+     * Busca produtos pelo texto digitado
+     * @param texto Texto digitado: palavras inteiras ou iniciais, com ou sem acentos
+     * @param limite Quantidade máxima de sugestões
+     * @return Sugestões da mais para a menos relevante
+     */
+    public List<ProdutoSugestao> buscar(String texto, int limite) {
+        garantirCarga();
+        String consulta = normalizar(texto);
+        List<String> palavras = palavras(consulta);
+        if (limite <= 0 || consulta.replace(" ", "").length() < MINIMO_CARACTERES) {
+            return List.of();
+        }
+
+        List<Map<String, Double>> correspondencias = new ArrayList<>(palavras.size());
+        for (String palavra : palavras) {
+            Map<String, Double> notas = corresponder(palavra);
+            if (notas.isEmpty()) {
+                return List.of();
+            }
+            correspondencias.add(notas);
+        }
+
+        // Os candidatos vêm da palavra mais seletiva; as demais são conferidas nos termos de cada candidato
+        int seletiva = maisSeletiva(correspondencias);
+        Set<Integer> candidatos = new HashSet<>();
+        for (String termo : correspondencias.get(seletiva).keySet()) {
+            Set<Integer> ids = termos.get(termo);
+            if (ids != null) {
+                candidatos.addAll(ids);
+            }
+        }
+
+        PriorityQueue<ProdutoSugestao> melhores = new PriorityQueue<>(limite + 1, ORDEM.reversed());
+        candidatos.forEach(id -> {
+            Documento documento = documentos.get(id);
+            if (documento == null) {
+                return;
+            }
+            double relevancia = 0;
+            for (Map<String, Double> notas : correspondencias) {
+                double nota = documento.nota(notas);
+                if (nota == 0) {
+                    return;
+                }
+                relevancia += nota;
+            }
+            if (documento.nomeNormalizado().startsWith(consulta)) {
+                relevancia += BONUS_INICIO_NOME;
+            }
+            melhores.add(new ProdutoSugestao(id, documento.nome(), documento.codBarras(),
+                    Math.round(relevancia * 100) / 100.0));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        });
+
+        List<ProdutoSugestao> sugestoes = new ArrayList<>(melhores);
+        sugestoes.sort(ORDEM);
+        return sugestoes;
+    }
+
+    /**
+     * Registra os textos de um produto incluído ou alterado após o commit
+     * @param idProduto ID do produto
+     * @param nome Nome após a escrita
+     * @param descricao Descrição após a escrita
+     * @param codBarras Código de barras após a escrita
+     */
+    public void registrar(Integer idProduto, String nome, String descricao, String codBarras) {
+        if (idProduto == null) {
+            return;
+        }
+        TextoProduto texto = new TextoProduto(idProduto, nome, descricao, codBarras);
+        carga.aposCommit(() -> ajustar(() -> indexar(texto)));
+    }
+
+    /**
+     * Retira um produto removido do índice após o commit
+     * @param idProduto ID do produto
+     */
+    public void remover(Integer idProduto) {
+        if (idProduto == null) {
+            return;
+        }
+        carga.aposCommit(() -> ajustar(() -> desindexar(idProduto)));
+    }
+
+    private void garantirCarga() {
+        if (!carga.carregada()) {
+            synchronized (this) {
+                if (!carga.carregada()) {
+                    recarregar();
+                }
+            }
+        }
+    }
+
+    private void ajustar(Runnable ajuste) {
+        synchronized (escrita) {
+            ajuste.run();
+        }
+    }
+
+    private void indexar(TextoProduto texto) {
+        Map<String, Double> pesos = new HashMap<>();
+        palavras(normalizar(texto.descricao())).forEach(termo -> pesos.merge(termo, PESO_DESCRICAO, Math::max));
+        // O código de barras é um termo só, buscado pelo prefixo
+        String codigo = normalizar(texto.codBarras()).replace(" ", "");
+        if (!codigo.isEmpty()) {
+            pesos.merge(codigo, PESO_CODIGO, Math::max);
+        }
+        String nomeNormalizado = normalizar(texto.nome());
+        palavras(nomeNormalizado).forEach(termo -> pesos.merge(termo, PESO_NOME, Math::max));
+
+        desindexar(texto.idProduto());
+        documentos.put(texto.idProduto(), new Documento(texto.nome(), texto.codBarras(), nomeNormalizado, pesos));
+        pesos.keySet().forEach(termo -> termos.computeIfAbsent(termo, novo -> {
+            trigramas(novo).forEach(trigrama ->
+                    indiceTrigramas.computeIfAbsent(trigrama, t -> ConcurrentHashMap.newKeySet()).add(novo));
+            return ConcurrentHashMap.newKeySet();
+        }).add(texto.idProduto()));
+    }
+
+    private void desindexar(Integer idProduto) {
+        Documento anterior = documentos.remove(idProduto);
+        if (anterior == null) {
+            return;
+        }
+        for (String termo : anterior.pesos().keySet()) {
+            Set<Integer> ids = termos.get(termo);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(idProduto);
+            if (ids.isEmpty()) {
+                // Termo fora do vocabulário deixa de ser sugerido pelos trigramas
+                termos.remove(termo);
+                for (String trigrama : trigramas(termo)) {
+                    Set<String> termosDoTrigrama = indiceTrigramas.get(trigrama);
+                    if (termosDoTrigrama != null) {
+                        termosDoTrigrama.remove(termo);
+                        if (termosDoTrigrama.isEmpty()) {
+                            indiceTrigramas.remove(trigrama);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Termos do vocabulário que correspondem a uma palavra digitada, com a nota de cada um:
+     * 1.0 para o termo igual, de 0.7 a 1.0 para termos que começam com a palavra (quanto
+     * mais do termo ela cobre, maior a nota), 0.6 e 0.4 para termos com um e dois erros
+     */
+    private Map<String, Double> corresponder(String palavra) {
+        Map<String, Double> notas = new HashMap<>();
+        for (String termo : termos.subMap(palavra, true, palavra + Character.MAX_VALUE, false).keySet()) {
+            notas.put(termo, 0.7 + 0.3 * palavra.length() / termo.length());
+            if (notas.size() >= MAXIMO_TERMOS_POR_PALAVRA) {
+                return notas;
+            }
+        }
+        // Palavras curtas com erro casariam com quase tudo; código com erro é outro produto
+        boolean numero = palavra.chars().allMatch(Character::isDigit);
+        int distanciaMaxima = numero ? 0 : palavra.length() >= 8 ? 2 : palavra.length() >= 4 ? 1 : 0;
+        if (distanciaMaxima > 0) {
+            parecidos(palavra, distanciaMaxima, notas);
+        }
+        return notas;
+    }
+
+    private void parecidos(String palavra, int distanciaMaxima, Map<String, Double> notas) {
+        List<String> trigramasDaPalavra = trigramas(palavra);
+        // Cada edição altera no máximo três trigramas da palavra
+        int minimoEmComum = Math.max(1, trigramasDaPalavra.size() - 3 * distanciaMaxima);
+        Map<String, Integer> emComum = new HashMap<>();
+        for (String trigrama : trigramasDaPalavra) {
+            Set<String> termosDoTrigrama = indiceTrigramas.get(trigrama);
+            if (termosDoTrigrama != null) {
+                termosDoTrigrama.forEach(termo -> emComum.merge(termo, 1, Integer::sum));
+            }
+        }
+        emComum.forEach((termo, quantidade) -> {
+            if (quantidade < minimoEmComum || notas.containsKey(termo)) {
+                return;
+            }
+            int distancia = distanciaDoInicio(palavra, termo, distanciaMaxima);
+            if (distancia <= distanciaMaxima) {
+                notas.put(termo, distancia == 1 ? 0.6 : 0.4);
+            }
+        });
+    }
+
+    /**
+     * Menor distância de edição (troca, inclusão, omissão ou inversão de letras vizinhas)
+     * entre a palavra e os inícios do termo com tamanho próximo ao dela, já que a palavra
+     * pode ser só o começo do que está sendo digitado
+     * @return A distância, ou distanciaMaxima + 1 se passar dela
+     */
+    private static int distanciaDoInicio(String palavra, String termo, int distanciaMaxima) {
+        int n = palavra.length();
+        int m = Math.min(termo.length(), n + distanciaMaxima);
+        if (m < n - distanciaMaxima) {
+            return distanciaMaxima + 1;
+        }
+        int[][] d = new int[n + 1][m + 1];
+        for (int i = 0; i <= n; i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            for (int j = 1; j <= m; j++) {
+                int troca = palavra.charAt(i - 1) == termo.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + troca);
+                if (i > 1 && j > 1 && palavra.charAt(i - 1) == termo.charAt(j - 2)
+                        && palavra.charAt(i - 2) == termo.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        int menor = distanciaMaxima + 1;
+        for (int j = Math.max(0, n - distanciaMaxima); j <= m; j++) {
+            menor = Math.min(menor, d[n][j]);
+        }
+        return menor;
+    }
+
+    private int maisSeletiva(List<Map<String, Double>> correspondencias) {
+        int seletiva = 0;
+        long menor = Long.MAX_VALUE;
+        for (int i = 0; i < correspondencias.size(); i++) {
+            long produtos = 0;
+            for (String termo : correspondencias.get(i).keySet()) {
+                Set<Integer> ids = termos.get(termo);
+                produtos += ids != null ? ids.size() : 0;
+            }
+            if (produtos < menor) {
+                menor = produtos;
+                seletiva = i;
+            }
+        }
+        return seletiva;
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    private static List<String> palavras(String normalizado) {
+        Set<String> palavras = new LinkedHashSet<>();
+        for (String palavra : normalizado.split(" ")) {
+            if (!palavra.isEmpty()) {
+                palavras.add(palavra);
+            }
+        }
+        return List.copyOf(palavras);
+    }
+
+    // Trigramas com marca de início, para que a primeira letra também conte
+    private static List<String> trigramas(String termo) {
+        String marcado = "^" + termo;
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= marcado.length(); i++) {
+            trigramas.add(marcado.substring(i, i + 3));
+        }
+        return List.copyOf(trigramas);
+    }
+
+    /**
+     * Produto indexado: textos exibidos na sugestão e o maior peso de cada termo
+     */
+    private record Documento(String nome, String codBarras, String nomeNormalizado, Map<String, Double> pesos) {
+
+        double nota(Map<String, Double> notas) {
+            double melhor = 0;
+            for (Map.Entry<String, Double> peso : pesos.entrySet()) {
+                Double nota = notas.get(peso.getKey());
+                if (nota != null) {
+                    melhor = Math.max(melhor, nota * peso.getValue());
+                }
+            }
+            return melhor;
+        }
+    }
+}
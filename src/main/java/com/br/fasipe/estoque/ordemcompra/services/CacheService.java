@@ -0,0 +1,141 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CacheDependencias;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service para monitoramento dos caches da aplicação
+ * Expõe estatísticas de acerto, falha e remoção de cada cache nomeado
+ * e o resultado das invalidações direcionadas feitas pelas escritas.
+ * Também expõe as estatísticas do cache de segundo nível do Hibernate
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class CacheService {
+
+    private static final Set<String> REGIOES_DE_CONSULTA = Set.of(
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+            RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheDependencias cacheDependencias;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Retorna as estatísticas de todos os caches
+     * @return Mapa nome do cache -> estatísticas
+     */
+    public Map<String, Map<String, Object>> getEstatisticas() {
+        Map<String, Map<String, Object>> estatisticas = new LinkedHashMap<>();
+        for (String nome : new TreeSet<>(cacheManager.getCacheNames())) {
+            getEstatisticas(nome).ifPresent(stats -> estatisticas.put(nome, stats));
+        }
+        return estatisticas;
+    }
+
+    /**
+     * Retorna as estatísticas de um cache específico
+     * @param nome Nome do cache
+     * @return Optional contendo as estatísticas se o cache existir
+     */
+    public Optional<Map<String, Object>> getEstatisticas(String nome) {
+        Cache cache = cacheManager.getCache(nome);
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            return Optional.empty();
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativo = caffeineCache.getNativeCache();
+        CacheStats stats = nativo.stats();
+
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("acertos", stats.hitCount());
+        valores.put("falhas", stats.missCount());
+        valores.put("taxaAcerto", stats.hitRate());
+        valores.put("remocoes", stats.evictionCount());
+        valores.put("pesoRemovido", stats.evictionWeight());
+        valores.put("carregamentos", stats.loadCount());
+        valores.put("tempoMedioCarregamentoMs", stats.averageLoadPenalty() / 1_000_000.0);
+        valores.put("entradas", nativo.estimatedSize());
+        nativo.policy().eviction().ifPresent(eviction -> {
+            valores.put("pesoAtual", eviction.weightedSize().orElse(0));
+            valores.put("pesoMaximo", eviction.getMaximum());
+        });
+        return Optional.of(valores);
+    }
+
+    /**
+     * Retorna as estatísticas das invalidações direcionadas
+     * @return Totais de invalidações, entradas removidas e últimas escritas
+     */
+    public Map<String, Object> getEstatisticasInvalidacao() {
+        return cacheDependencias.getEstatisticas();
+    }
+
+    /**
+     * Retorna as estatísticas do cache de segundo nível do Hibernate
+     * Acertos, falhas e registros de cada região de entidade e do cache de consultas
+     * @return Mapa região -> estatísticas, mais os totais do cache de consultas
+     */
+    public Map<String, Map<String, Object>> getEstatisticasSegundoNivel() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Map<String, Object>> estatisticas = new LinkedHashMap<>();
+        for (String regiao : new TreeSet<>(List.of(statistics.getSecondLevelCacheRegionNames()))) {
+            // Regiões de consulta e de timestamps entram nos totais do cache de consultas
+            if (REGIOES_DE_CONSULTA.contains(regiao)) {
+                continue;
+            }
+            CacheRegionStatistics regionStats = statistics.getDomainDataRegionStatistics(regiao);
+            Map<String, Object> valores = new LinkedHashMap<>();
+            valores.put("acertos", regionStats.getHitCount());
+            valores.put("falhas", regionStats.getMissCount());
+            valores.put("taxaAcerto", taxaAcerto(regionStats.getHitCount(), regionStats.getMissCount()));
+            valores.put("inclusoes", regionStats.getPutCount());
+            valores.put("entradas", regionStats.getElementCountInMemory());
+            estatisticas.put(regiao, valores);
+        }
+
+        Map<String, Object> consultas = new LinkedHashMap<>();
+        consultas.put("acertos", statistics.getQueryCacheHitCount());
+        consultas.put("falhas", statistics.getQueryCacheMissCount());
+        consultas.put("taxaAcerto", taxaAcerto(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        consultas.put("inclusoes", statistics.getQueryCachePutCount());
+        consultas.put("timestampsAcertos", statistics.getUpdateTimestampsCacheHitCount());
+        consultas.put("timestampsFalhas", statistics.getUpdateTimestampsCacheMissCount());
+        estatisticas.put("consultas", consultas);
+        return estatisticas;
+    }
+
+    private static double taxaAcerto(long acertos, long falhas) {
+        long total = acertos + falhas;
+        return total == 0 ? 0.0 : (double) acertos / total;
+    }
+}
@@ -0,0 +1,162 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CargaIndice;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.dto.CodigoBarrasProduto;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de códigos de barras
+ * Mantém em memória o ID do produto de cada código de barras, carregado por
+ * uma única consulta e ajustado após o commit das inclusões, alterações e
+ * remoções de produtos. A leitura no balcão resolve o código sem ir ao banco,
+ * inclusive quando o código não existe. CODBARRAS é único (UQ_PRODUTO_CODBARRAS),
+ * então cada código aponta para um único produto
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class CodigoBarrasService {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    private final Map<String, Integer> produtos = new ConcurrentHashMap<>();
+
+    // Ajustes incrementais rodam em paralelo; a recarga completa é exclusiva
+    private final CargaIndice carga = new CargaIndice();
+
+    /**
+     * Carrega o índice ao iniciar a aplicação
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            recarregar();
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível carregar o índice de códigos de barras na inicialização: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarrega todos os códigos de barras a partir do banco
+     */
+    public void recarregar() {
+        long startTime = System.currentTimeMillis();
+        carga.recarregar(() -> {
+            List<CodigoBarrasProduto> codigos = RoteamentoLeituraEscrita.naPrimaria(produtoRepository::findCodigosBarras);
+            produtos.clear();
+            codigos.forEach(codigo -> ocupar(codigo.codBarras(), codigo.idProduto()));
+
+            log.info("Índice de códigos de barras carregado em {}ms: {} códigos de {} produtos",
+                    System.currentTimeMillis() - startTime, produtos.size(), codigos.size());
+        });
+    }
+
+    /**
+     * Busca o produto de um código de barras
+     * @param codBarras Código lido
+     * @return Optional contendo o ID do produto se o código existir
+     */
+    public Optional<Integer> findIdProduto(String codBarras) {
+        garantirCarga();
+        String codigo = normalizar(codBarras);
+        return codigo != null ? Optional.ofNullable(produtos.get(codigo)) : Optional.empty();
+    }
+
+    /**
+     * Busca os produtos de vários códigos de barras
+     * @param codigos Códigos lidos
+     * @return Mapa código -> ID do produto, na ordem da leitura, só com os códigos existentes
+     */
+    public Map<String, Integer> findIdsProdutos(Collection<String> codigos) {
+        garantirCarga();
+        Map<String, Integer> encontrados = new LinkedHashMap<>();
+        for (String codBarras : codigos) {
+            String codigo = normalizar(codBarras);
+            Integer idProduto = codigo != null ? produtos.get(codigo) : null;
+            if (idProduto != null) {
+                encontrados.putIfAbsent(codBarras, idProduto);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Registra o código de barras de um produto incluído ou alterado após o commit
+     * @param idProduto ID do produto
+     * @param anterior Código antes da escrita (null em inclusões)
+     * @param atual Código após a escrita
+     */
+    public void registrar(Integer idProduto, String anterior, String atual) {
+        if (idProduto == null || Objects.equals(normalizar(anterior), normalizar(atual))) {
+            return;
+        }
+        carga.aposCommit(() -> {
+            liberar(anterior, idProduto);
+            ocupar(atual, idProduto);
+        });
+    }
+
+    /**
+     * Retira o código de barras de um produto removido após o commit
+     * @param idProduto ID do produto
+     * @param codBarras Código do produto removido
+     */
+    public void remover(Integer idProduto, String codBarras) {
+        if (idProduto == null) {
+            return;
+        }
+        carga.aposCommit(() -> liberar(codBarras, idProduto));
+    }
+
+    private void garantirCarga() {
+        if (!carga.carregada()) {
+            synchronized (this) {
+                if (!carga.carregada()) {
+                    recarregar();
+                }
+            }
+        }
+    }
+
+    private void ocupar(String codBarras, Integer idProduto) {
+        String codigo = normalizar(codBarras);
+        if (codigo != null) {
+            produtos.put(codigo, idProduto);
+        }
+    }
+
+    private void liberar(String codBarras, Integer idProduto) {
+        String codigo = normalizar(codBarras);
+        if (codigo != null) {
+            produtos.remove(codigo, idProduto);
+        }
+    }
+
+    private static String normalizar(String codBarras) {
+        if (codBarras == null) {
+            return null;
+        }
+        String codigo = codBarras.strip();
+        return codigo.isEmpty() ? null : codigo;
+    }
+}
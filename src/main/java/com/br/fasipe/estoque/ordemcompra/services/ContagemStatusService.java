@@ -0,0 +1,127 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CargaIndice;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.dto.TotalStatus;
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.repository.OrdemCompraRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contadores de ordens de compra por status
+ * Carregados por uma única contagem agrupada e ajustados a cada inclusão,
+ * remoção ou troca de status confirmada, de forma que o painel de compras
+ * lê os totais sem consultar o banco
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class ContagemStatusService {
+
+    private static final StatusOrdem[] STATUS = StatusOrdem.values();
+
+    @Autowired
+    private OrdemCompraRepository ordemCompraRepository;
+
+    private final AtomicLongArray totais = new AtomicLongArray(STATUS.length);
+
+    // Ajustes rodam em paralelo; a recarga completa é exclusiva
+    private final CargaIndice carga = new CargaIndice();
+
+    /**
+     * Carrega os contadores ao iniciar a aplicação
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            recarregar();
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível carregar os contadores de ordens de compra na inicialização: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula todos os contadores a partir do banco
+     */
+    public void recarregar() {
+        long startTime = System.currentTimeMillis();
+        carga.recarregar(() -> {
+            List<TotalStatus> atuais = RoteamentoLeituraEscrita.naPrimaria(ordemCompraRepository::countAgrupadoPorStatus);
+            for (int i = 0; i < STATUS.length; i++) {
+                totais.set(i, 0);
+            }
+            atuais.stream()
+                    .filter(total -> total.status() != null)
+                    .forEach(total -> totais.set(total.status().ordinal(), total.total()));
+
+            log.info("Contadores de ordens de compra carregados em {}ms: {}",
+                    System.currentTimeMillis() - startTime, totais);
+        });
+    }
+
+    /**
+     * Registra a transição de uma ordem após o commit da transação
+     * @param anterior Status antes da escrita (null em inclusões)
+     * @param atual Status após a escrita (null em remoções)
+     */
+    public void registrarTransicao(StatusOrdem anterior, StatusOrdem atual) {
+        if (anterior == atual) {
+            return;
+        }
+        carga.aposCommit(() -> {
+            if (anterior != null) {
+                totais.decrementAndGet(anterior.ordinal());
+            }
+            if (atual != null) {
+                totais.incrementAndGet(atual.ordinal());
+            }
+        });
+    }
+
+    /**
+     * Total de ordens de cada status, em ordem de declaração
+     * @return Mapa de status para quantidade, com todos os status presentes
+     */
+    public Map<StatusOrdem, Long> totais() {
+        garantirCarga();
+        Map<StatusOrdem, Long> resultado = new EnumMap<>(StatusOrdem.class);
+        for (StatusOrdem status : STATUS) {
+            resultado.put(status, totais.get(status.ordinal()));
+        }
+        return resultado;
+    }
+
+    /**
+     * Total de ordens em um status
+     * @param status Status das ordens
+     * @return Quantidade de ordens
+     */
+    public long total(StatusOrdem status) {
+        garantirCarga();
+        return totais.get(status.ordinal());
+    }
+
+    private void garantirCarga() {
+        if (!carga.carregada()) {
+            synchronized (this) {
+                if (!carga.carregada()) {
+                    recarregar();
+                }
+            }
+        }
+    }
+}
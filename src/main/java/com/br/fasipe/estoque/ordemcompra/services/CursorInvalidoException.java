@@ -0,0 +1,15 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Token de paginação por cursor adulterado ou gerado por outra versão da API
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class CursorInvalidoException extends RuntimeException {
+
+    public CursorInvalidoException(String token, Throwable causa) {
+        super("Cursor de paginação inválido: " + token, causa);
+    }
+}
@@ -0,0 +1,90 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.fasipe.estoque.ordemcompra.dto.AlocacaoLote;
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.Dispensacao;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteDisponivel;
+import com.br.fasipe.estoque.ordemcompra.models.Estoque;
+import com.br.fasipe.estoque.ordemcompra.repository.EstoqueRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service de dispensação de produtos por FEFO (primeiro a vencer, primeiro a sair)
+ * Consome a quantidade pedida percorrendo os lotes do produto na ordem do
+ * índice FEFO; cada lote é bloqueado antes da retirada, na mesma ordem em
+ * todas as dispensações, então duas dispensações simultâneas nunca retiram
+ * o mesmo saldo e não entram em deadlock. Tudo ocorre numa única transação:
+ * se os lotes não somam a quantidade pedida nada é retirado
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+@Transactional(readOnly = true)
+public class DispensacaoService {
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private LotesFefoService lotesFefoService;
+
+    /**
+     * Dispensa uma quantidade de um produto a partir dos lotes que vencem primeiro
+     * Lotes vencidos não são consumidos
+     * @param idProduto ID do produto
+     * @param quantidade Quantidade a dispensar (positiva)
+     * @param contexto Responsável e setores das movimentações
+     * @return Lotes consumidos e a quantidade retirada de cada um
+     * @throws EstoqueInsuficienteException se os lotes dentro da validade não somam a quantidade
+     */
+    @Transactional
+    public Dispensacao dispensar(Integer idProduto, int quantidade, ContextoMovimentacao contexto) {
+        log.info("Dispensando {} do produto ID: {}", quantidade, idProduto);
+
+        int restante = quantidade;
+        List<AlocacaoLote> alocacoes = new ArrayList<>();
+        for (LoteDisponivel lote : lotesFefoService.findLotesDisponiveis(idProduto, LocalDate.now())) {
+            if (restante == 0) {
+                break;
+            }
+            // Bloqueia a linha até o commit: o saldo lido não pode ser retirado por outra dispensação
+            Optional<Estoque> estoque = estoqueRepository.findByIdParaAtualizacao(lote.idEstoque());
+            int saldo = estoque.map(Estoque::getQuantidadeEstoque).orElse(0);
+            if (saldo <= 0) {
+                // Índice desatualizado (lote zerado por outra transação já confirmada)
+                lotesFefoService.registrarSaldo(idProduto, lote.idEstoque(), 1, 0);
+                continue;
+            }
+
+            int retirada = Math.min(saldo, restante);
+            estoqueService.movimentar(lote.idEstoque(), -retirada, contexto);
+            alocacoes.add(new AlocacaoLote(lote.idEstoque(), lote.idLote(), lote.dataVencimento(), retirada));
+            restante -= retirada;
+        }
+
+        if (restante > 0) {
+            log.warn("Dispensação de {} do produto ID {} recusada: apenas {} disponível", quantidade, idProduto,
+                    quantidade - restante);
+            throw new EstoqueInsuficienteException(idProduto, quantidade, quantidade - restante);
+        }
+
+        log.info("Produto ID {} dispensado a partir de {} lotes", idProduto, alocacoes.size());
+
+        return new Dispensacao(idProduto, quantidade, alocacoes);
+    }
+}
@@ -0,0 +1,253 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CargaIndice;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.dto.Cursor;
+import com.br.fasipe.estoque.ordemcompra.dto.SaldoProduto;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Motor de estoque baixo
+ * Mantém em memória o saldo total de cada produto (soma de todos os lotes),
+ * carregado por uma única consulta agrupada e atualizado incrementalmente a
+ * cada movimentação confirmada. Os conjuntos de produtos abaixo do mínimo e
+ * no ponto de pedido são ordenados por ID e paginados por cursor a partir do
+ * último ID entregue, então os painéis de reposição leem apenas a página pedida
+ * em vez de varrer a tabela ESTOQUE
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class EstoqueBaixoService {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    private final Map<Integer, SaldoProduto> saldos = new ConcurrentHashMap<>();
+    private final ConjuntoIds abaixoDoMinimo = new ConjuntoIds();
+    private final ConjuntoIds noPontoDePedido = new ConjuntoIds();
+
+    // Atualizações incrementais rodam em paralelo; a recarga completa é exclusiva
+    private final CargaIndice carga = new CargaIndice();
+
+    /**
+     * Carrega os saldos ao iniciar a aplicação
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            recarregar();
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível carregar os saldos de estoque na inicialização: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula todos os saldos a partir do banco
+     */
+    public void recarregar() {
+        long startTime = System.currentTimeMillis();
+        carga.recarregar(() -> {
+            List<SaldoProduto> atuais = RoteamentoLeituraEscrita.naPrimaria(produtoRepository::findSaldos);
+            saldos.clear();
+            abaixoDoMinimo.limpar();
+            noPontoDePedido.limpar();
+            atuais.forEach(saldo -> saldos.put(saldo.idProduto(), indexar(saldo.idProduto(), saldo)));
+
+            log.info("Saldos de {} produtos carregados em {}ms. Abaixo do mínimo: {}, No ponto de pedido: {}",
+                    atuais.size(), System.currentTimeMillis() - startTime, abaixoDoMinimo.tamanho(),
+                    noPontoDePedido.tamanho());
+        });
+    }
+
+    /**
+     * Registra a variação de quantidade de um produto após o commit da transação
+     * @param idProduto ID do produto
+     * @param variacao Quantidade somada (positiva) ou retirada (negativa)
+     */
+    public void registrarVariacao(Integer idProduto, long variacao) {
+        if (idProduto == null || variacao == 0) {
+            return;
+        }
+        carga.aposCommit(() -> atualizar(idProduto, saldo -> saldo.comVariacao(variacao)));
+    }
+
+    /**
+     * Registra um produto recém cadastrado (ainda sem estoque) após o commit
+     * @param idProduto ID do produto
+     * @param stqMin Estoque mínimo
+     * @param ptnPedido Ponto de pedido
+     */
+    public void registrarProduto(Integer idProduto, Integer stqMin, Integer ptnPedido) {
+        if (idProduto == null) {
+            return;
+        }
+        carga.aposCommit(() -> saldos.compute(idProduto, (id, saldo) -> indexar(id,
+                saldo != null ? saldo.comLimites(stqMin, ptnPedido) : new SaldoProduto(id, stqMin, ptnPedido, 0L))));
+    }
+
+    /**
+     * Registra os novos limites (estoque mínimo e ponto de pedido) de um produto após o commit
+     * @param idProduto ID do produto
+     * @param stqMin Estoque mínimo
+     * @param ptnPedido Ponto de pedido
+     */
+    public void registrarLimites(Integer idProduto, Integer stqMin, Integer ptnPedido) {
+        if (idProduto == null) {
+            return;
+        }
+        carga.aposCommit(() -> atualizar(idProduto, saldo -> saldo.comLimites(stqMin, ptnPedido)));
+    }
+
+    /**
+     * Retira um produto removido dos saldos após o commit
+     * @param idProduto ID do produto
+     */
+    public void removerProduto(Integer idProduto) {
+        if (idProduto == null) {
+            return;
+        }
+        carga.aposCommit(() -> saldos.compute(idProduto, (id, saldo) -> indexar(id, null)));
+    }
+
+    /**
+     * IDs de produtos com saldo abaixo do estoque mínimo após o cursor, na direção do cursor
+     * @param cursor Último ID entregue
+     * @param limite Quantidade máxima de IDs
+     * @return IDs da página
+     */
+    public List<Integer> findIdsAbaixoDoMinimo(Cursor cursor, Limit limite) {
+        garantirCarga();
+        return abaixoDoMinimo.apos(cursor, limite);
+    }
+
+    /**
+     * Quantidade de produtos com saldo abaixo do estoque mínimo
+     */
+    public long countAbaixoDoMinimo() {
+        garantirCarga();
+        return abaixoDoMinimo.tamanho();
+    }
+
+    /**
+     * IDs de produtos com saldo no ponto de pedido ou abaixo após o cursor, na direção do cursor
+     * @param cursor Último ID entregue
+     * @param limite Quantidade máxima de IDs
+     * @return IDs da página
+     */
+    public List<Integer> findIdsNoPontoDePedido(Cursor cursor, Limit limite) {
+        garantirCarga();
+        return noPontoDePedido.apos(cursor, limite);
+    }
+
+    /**
+     * Quantidade de produtos com saldo no ponto de pedido ou abaixo
+     */
+    public long countNoPontoDePedido() {
+        garantirCarga();
+        return noPontoDePedido.tamanho();
+    }
+
+    /**
+     * Busca o saldo agregado de um produto
+     * @param idProduto ID do produto
+     * @return Optional contendo o saldo se o produto existir
+     */
+    public Optional<SaldoProduto> findSaldo(Integer idProduto) {
+        garantirCarga();
+        return Optional.ofNullable(saldos.get(idProduto));
+    }
+
+    private void garantirCarga() {
+        if (!carga.carregada()) {
+            synchronized (this) {
+                if (!carga.carregada()) {
+                    recarregar();
+                }
+            }
+        }
+    }
+
+    private void atualizar(Integer idProduto, UnaryOperator<SaldoProduto> alteracao) {
+        SaldoProduto atualizado = saldos.computeIfPresent(idProduto,
+                (id, saldo) -> indexar(id, alteracao.apply(saldo)));
+        if (atualizado == null) {
+            // Produto fora do mapa (cadastrado fora da aplicação): o banco já reflete o estado confirmado
+            RoteamentoLeituraEscrita.naPrimaria(() -> produtoRepository.findSaldoByIdProduto(idProduto))
+                    .ifPresent(saldo -> saldos.computeIfAbsent(idProduto, id -> indexar(id, saldo)));
+        }
+    }
+
+    /**
+     * Atualiza a pertinência do produto nos conjuntos de acordo com o novo saldo
+     */
+    private SaldoProduto indexar(Integer idProduto, SaldoProduto saldo) {
+        abaixoDoMinimo.atualizar(idProduto, saldo != null && saldo.abaixoDoMinimo());
+        noPontoDePedido.atualizar(idProduto, saldo != null && saldo.noPontoDePedido());
+        return saldo;
+    }
+
+    /**
+     * Conjunto ordenado de IDs com a quantidade mantida a cada inclusão e retirada
+     * (o size() do ConcurrentSkipListSet percorre o conjunto inteiro)
+     */
+    private static final class ConjuntoIds {
+
+        private final NavigableSet<Integer> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger tamanho = new AtomicInteger();
+
+        /**
+         * Inclui ou retira o ID; as chamadas para um mesmo ID são serializadas pelo
+         * compute do mapa de saldos, então a quantidade acompanha o conjunto
+         */
+        void atualizar(Integer id, boolean pertence) {
+            if (pertence) {
+                if (ids.add(id)) {
+                    tamanho.incrementAndGet();
+                }
+            } else if (ids.remove(id)) {
+                tamanho.decrementAndGet();
+            }
+        }
+
+        /**
+         * IDs após o cursor: a navegação parte da posição do último ID entregue,
+         * então qualquer página custa o mesmo que a primeira
+         */
+        List<Integer> apos(Cursor cursor, Limit limite) {
+            NavigableSet<Integer> restantes = cursor.crescente()
+                    ? ids.tailSet(cursor.ultimoId(), false)
+                    : ids.headSet(cursor.ultimoId(), false).descendingSet();
+            return restantes.stream().limit(limite.max()).toList();
+        }
+
+        int tamanho() {
+            return tamanho.get();
+        }
+
+        void limpar() {
+            ids.clear();
+            tamanho.set(0);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exclusão rejeitada: o estoque tem movimentações no livro, que nunca são apagadas
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EstoqueComMovimentacoesException extends RuntimeException {
+
+    private final Integer idEstoque;
+
+    public EstoqueComMovimentacoesException(Integer idEstoque) {
+        super("O estoque " + idEstoque + " possui movimentações e não pode ser removido");
+        this.idEstoque = idEstoque;
+    }
+
+    public Integer getIdEstoque() {
+        return idEstoque;
+    }
+}
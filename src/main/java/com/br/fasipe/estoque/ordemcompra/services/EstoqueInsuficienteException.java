@@ -0,0 +1,35 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Dispensação rejeitada: os lotes dentro da validade não somam a quantidade pedida
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EstoqueInsuficienteException extends RuntimeException {
+
+    private final Integer idProduto;
+    private final int quantidade;
+    private final int disponivel;
+
+    public EstoqueInsuficienteException(Integer idProduto, int quantidade, int disponivel) {
+        super("Estoque insuficiente do produto " + idProduto + " para dispensar " + quantidade
+                + " (disponível: " + disponivel + ")");
+        this.idProduto = idProduto;
+        this.quantidade = quantidade;
+        this.disponivel = disponivel;
+    }
+
+    public Integer getIdProduto() {
+        return idProduto;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public int getDisponivel() {
+        return disponivel;
+    }
+}
@@ -5,18 +5,38 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 
+import com.br.fasipe.estoque.ordemcompra.cache.CacheDependencias;
+import com.br.fasipe.estoque.ordemcompra.cache.Invalidacao;
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.CursorVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.FaixaVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.ResumoVencimentos;
+import com.br.fasipe.estoque.ordemcompra.dto.SaldoEstoque;
 import com.br.fasipe.estoque.ordemcompra.models.Estoque;
+import com.br.fasipe.estoque.ordemcompra.models.Movimentacao;
+import com.br.fasipe.estoque.ordemcompra.models.Produto;
 import com.br.fasipe.estoque.ordemcompra.repository.EstoqueRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Service para gerenciamento de estoques com otimizações de performance
@@ -24,12 +44,31 @@ import java.util.List;
  */
 @Slf4j
 @Service
+@Timed("fasiclin.servico")
 @Transactional(readOnly = true)
 public class EstoqueService extends BaseService {
 
     @Autowired
     private EstoqueRepository estoqueRepository;
 
+    @Autowired
+    private CacheDependencias cacheDependencias;
+
+    @Autowired
+    private EstoqueBaixoService estoqueBaixoService;
+
+    @Autowired
+    private MovimentacaoService movimentacaoService;
+
+    @Autowired
+    private LotesFefoService lotesFefoService;
+
+    @Autowired
+    private VencimentoLotesService vencimentoLotesService;
+
+    @Autowired
+    private SaldoConsolidadoService saldoConsolidadoService;
+
     /**
      * Busca todos os estoques com paginação otimizada
      * @param page Número da página (0-based)
@@ -38,15 +77,14 @@ public class EstoqueService extends BaseService {
      * @param direction Direção da ordenação
      * @return Página de estoques
      */
-    @Cacheable(value = "estoques", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction")
-    public Page<Estoque> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "estoques", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction", sync = true)
+    public Page<EstoqueResumo> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
         log.info("Iniciando busca paginada de estoques - Página: {}, Tamanho: {}", page, size);
         
         Pageable pageable = createOptimizedPageable(page, size, sortBy, direction);
-        Page<Estoque> estoques = estoqueRepository.findAll(pageable);
+        Page<EstoqueResumo> estoques = estoqueRepository.findResumos(pageable);
         
-        logPerformanceInfo("Estoques", estoques, startTime);
+        registrarConsulta("Estoques", estoques);
         return estoques;
     }
 
@@ -56,25 +94,45 @@ public class EstoqueService extends BaseService {
      * @param size Tamanho da página
      * @return Página de estoques ordenados por ID
      */
-    @Cacheable(value = "estoques", key = "#page + '_' + #size + '_default'")
-    public Page<Estoque> findAllPaginated(int page, int size) {
+    @Cacheable(value = "estoques", key = "#page + '_' + #size + '_default'", sync = true)
+    public Page<EstoqueResumo> findAllPaginated(int page, int size) {
         return findAllPaginated(page, size, "id", Sort.Direction.ASC);
     }
 
+    /**
+     * Busca estoques por cursor (keyset) na ordem do ID
+     * Cada página percorre apenas a faixa da chave primária após o último registro
+     * entregue, então a página N custa o mesmo que a primeira; não é cacheada
+     * porque o custo já é constante e inclusões mudariam o final da varredura
+     * @param after Token da página anterior (null ou vazio = primeira página)
+     * @param size Tamanho da página (máximo 100)
+     * @param direction Direção da primeira página
+     * @param total true para incluir a contagem total (um COUNT adicional)
+     * @return Página com o token da página seguinte
+     */
+    public Pagina<EstoqueResumo> findAllPorCursor(String after, int size, Sort.Direction direction, boolean total) {
+        log.info("Iniciando busca de estoques por cursor - Tamanho: {}, Total: {}", size, total);
+
+        Pagina<EstoqueResumo> estoques = buscarPorCursor(after, size, direction,
+                (cursor, limite) -> cursor.crescente()
+                        ? estoqueRepository.findResumosApos(cursor.ultimoId(), limite)
+                        : estoqueRepository.findResumosAntes(cursor.ultimoId(), limite),
+                EstoqueResumo::id, total ? estoqueRepository::count : null);
+
+        registrarConsulta("Estoques", estoques);
+        return estoques;
+    }
+
     /**
      * Busca estoque por ID com cache otimizado
      * @param id ID do estoque
      * @return Optional contendo o estoque se encontrado
      */
-    @Cacheable(value = "estoque", key = "#id")
-    public Optional<Estoque> findById(Integer id) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "estoque", key = "#id", sync = true)
+    public Optional<EstoqueDetalhe> findById(Integer id) {
         log.info("Buscando estoque por ID: {}", id);
         
-        Optional<Estoque> estoque = estoqueRepository.findById(id);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de estoque por ID {} executada em {}ms", id, endTime - startTime);
+        Optional<EstoqueDetalhe> estoque = estoqueRepository.findDetalheById(id).map(EstoqueDetalhe::de);
         
         return estoque;
     }
@@ -86,16 +144,14 @@ public class EstoqueService extends BaseService {
      * @param size Tamanho da página
      * @return Página de estoques do produto
      */
-    @Cacheable(value = "estoques", key = "'produto_' + #idProduto + '_' + #page + '_' + #size")
-    public Page<Estoque> findByProduto(Integer idProduto, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "estoques", key = "'produto_' + #idProduto + '_' + #page + '_' + #size", sync = true)
+    public Page<EstoqueResumo> findByProduto(Integer idProduto, int page, int size) {
         log.info("Buscando estoques por produto: {}, Página: {}", idProduto, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<Estoque> estoques = estoqueRepository.findAll(pageable);
+        Page<EstoqueResumo> estoques = estoqueRepository.findByIdProduto(idProduto, pageable);
         
-        logPerformanceInfo("Estoques por Produto", estoques, startTime);
+        registrarConsulta("Estoques por Produto", estoques);
         return estoques;
     }
 
@@ -106,16 +162,14 @@ public class EstoqueService extends BaseService {
      * @param size Tamanho da página
      * @return Página de estoques do almoxarifado
      */
-    @Cacheable(value = "estoques", key = "'almoxarifado_' + #idAlmoxarifado + '_' + #page + '_' + #size")
-    public Page<Estoque> findByAlmoxarifado(Integer idAlmoxarifado, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "estoques", key = "'almoxarifado_' + #idAlmoxarifado + '_' + #page + '_' + #size", sync = true)
+    public Page<EstoqueResumo> findByAlmoxarifado(Integer idAlmoxarifado, int page, int size) {
         log.info("Buscando estoques por almoxarifado: {}, Página: {}", idAlmoxarifado, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<Estoque> estoques = estoqueRepository.findAll(pageable);
+        Page<EstoqueResumo> estoques = estoqueRepository.findByIdAlmoxarifado(idAlmoxarifado, pageable);
         
-        logPerformanceInfo("Estoques por Almoxarifado", estoques, startTime);
+        registrarConsulta("Estoques por Almoxarifado", estoques);
         return estoques;
     }
 
@@ -126,16 +180,14 @@ public class EstoqueService extends BaseService {
      * @param size Tamanho da página
      * @return Página de estoques com quantidade baixa
      */
-    @Cacheable(value = "estoques", key = "'quantidadeBaixa_' + #quantidadeMinima + '_' + #page + '_' + #size")
-    public Page<Estoque> findEstoquesComQuantidadeBaixa(Integer quantidadeMinima, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "estoques", key = "'quantidadeBaixa_' + #quantidadeMinima + '_' + #page + '_' + #size", sync = true)
+    public Page<EstoqueResumo> findEstoquesComQuantidadeBaixa(Integer quantidadeMinima, int page, int size) {
         log.info("Buscando estoques com quantidade baixa (menor que {}), Página: {}", quantidadeMinima, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método específico no repository se necessário
-        Page<Estoque> estoques = estoqueRepository.findAll(pageable);
+        Page<EstoqueResumo> estoques = estoqueRepository.findComQuantidadeAbaixoDe(quantidadeMinima, pageable);
         
-        logPerformanceInfo("Estoques com Quantidade Baixa", estoques, startTime);
+        registrarConsulta("Estoques com Quantidade Baixa", estoques);
         return estoques;
     }
 
@@ -146,95 +198,213 @@ public class EstoqueService extends BaseService {
      * @param size Tamanho da página
      * @return Página de estoques do lote
      */
-    @Cacheable(value = "estoques", key = "'lote_' + #idLote + '_' + #page + '_' + #size")
-    public Page<Estoque> findByLote(Integer idLote, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "estoques", key = "'lote_' + #idLote + '_' + #page + '_' + #size", sync = true)
+    public Page<EstoqueResumo> findByLote(Integer idLote, int page, int size) {
         log.info("Buscando estoques por lote: {}, Página: {}", idLote, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<Estoque> estoques = estoqueRepository.findAll(pageable);
+        Page<EstoqueResumo> estoques = estoqueRepository.findByIdLote(idLote, pageable);
         
-        logPerformanceInfo("Estoques por Lote", estoques, startTime);
+        registrarConsulta("Estoques por Lote", estoques);
         return estoques;
     }
 
+    /**
+     * Totais por faixa de vencimento de cada almoxarifado
+     * Lidos das faixas mantidas em memória, sem consultar LOTE e ESTOQUE
+     * @return Resumo de cada almoxarifado
+     */
+    public List<ResumoVencimentos> findResumosVencimento() {
+        return vencimentoLotesService.findResumos();
+    }
+
+    /**
+     * Totais por faixa de vencimento de um almoxarifado
+     * @param idAlmoxarifado ID do almoxarifado
+     * @return Resumo do almoxarifado
+     */
+    public ResumoVencimentos findResumoVencimento(Integer idAlmoxarifado) {
+        return vencimentoLotesService.findResumo(idAlmoxarifado);
+    }
+
+    /**
+     * Busca os estoques com saldo de uma faixa de vencimento por cursor, em ordem de vencimento
+     * @param idAlmoxarifado ID do almoxarifado
+     * @param faixa Faixa de vencimento
+     * @param after Token da página anterior (null ou vazio = primeira página)
+     * @param size Tamanho da página
+     * @return Página de estoques com o token da página seguinte
+     * @throws CursorInvalidoException se o token não puder ser lido
+     */
+    public Pagina<LoteVencimento> findByFaixaVencimento(Integer idAlmoxarifado, FaixaVencimento faixa,
+                                                        String after, int size) {
+        log.info("Buscando estoques do almoxarifado {} na faixa {} por cursor - Tamanho: {}", idAlmoxarifado, faixa, size);
+        
+        CursorVencimento cursor;
+        try {
+            cursor = after == null || after.isBlank() ? null : CursorVencimento.decodificar(after);
+        } catch (IllegalArgumentException e) {
+            throw new CursorInvalidoException(after, e);
+        }
+        Pagina<LoteVencimento> lotes = vencimentoLotesService.findByFaixa(idAlmoxarifado, faixa, cursor,
+                tamanhoValido(size));
+        
+        registrarConsulta("Estoques por Faixa de Vencimento", lotes);
+        return lotes;
+    }
+
     /**
      * Salva um novo estoque
      * @param estoque Estoque a ser salvo
      * @return Estoque salvo
      */
     @Transactional
-    @CacheEvict(value = {"estoques", "estoque"}, allEntries = true)
     public Estoque save(Estoque estoque) {
-        long startTime = System.currentTimeMillis();
         log.info("Salvando novo estoque para produto ID: {}", estoque.getProduto().getId());
         
         Estoque estoqueSalvo = estoqueRepository.save(estoque);
+        invalidarCaches("salvar estoque " + estoqueSalvo.getId(), null, EstadoEstoque.de(estoqueSalvo));
+        atualizarSaldos(null, EstadoEstoque.de(estoqueSalvo));
+        movimentacaoService.registrar(estoqueSalvo.getId(), estoqueSalvo.getQuantidadeEstoque(), ContextoMovimentacao.SISTEMA);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Estoque para produto ID {} salvo em {}ms", estoque.getProduto().getId(), endTime - startTime);
+        log.info("Estoque para produto ID {} salvo", estoque.getProduto().getId());
         
         return estoqueSalvo;
     }
 
+    /**
+     * Salva em lote os estoques gerados pelo recebimento de uma ordem de compra
+     * Os inserts de ESTOQUE e MOVIMENTACAO vão em lotes JDBC; as entradas de cache
+     * afetadas são acrescentadas à invalidação do recebimento, executada uma única vez
+     * @param estoques Estoques novos, com produto (e almoxarifado) carregados
+     * @param idUsuario Responsável pelo recebimento (null = usuário do sistema)
+     * @param invalidacao Invalidação do recebimento
+     * @return Estoques salvos
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Estoque> saveAllRecebidos(List<Estoque> estoques, Integer idUsuario, Invalidacao invalidacao) {
+        List<Estoque> salvos = estoqueRepository.saveAll(estoques);
+
+        // O setor de cada linha vem do almoxarifado já carregado com o produto, sem consulta por linha
+        ContextoMovimentacao contexto = new ContextoMovimentacao(idUsuario, null, null);
+        List<Movimentacao> movimentacoes = new ArrayList<>(salvos.size());
+        Map<Integer, Long> variacoes = new HashMap<>();
+        int menorQuantidade = Integer.MAX_VALUE;
+        for (Estoque estoque : salvos) {
+            EstadoEstoque estado = EstadoEstoque.de(estoque);
+            Integer idSetor = estoque.getProduto().getAlmoxarifado() != null
+                    ? estoque.getProduto().getAlmoxarifado().getSetor().getId() : null;
+            movimentacoes.add(movimentacaoService.criar(estado.id(), estado.quantidade(), contexto, idSetor));
+            variacoes.merge(estado.idProduto(), (long) estado.quantidade(), Long::sum);
+            menorQuantidade = Math.min(menorQuantidade, estado.quantidade());
+
+            invalidacao.tags("estoques", "lote_" + estado.idLote(), "produto_" + estado.idProduto())
+                    .chaves("estoque", "exists_" + estado.id());
+            if (estado.idAlmoxarifado() != null) {
+                invalidacao.tags("estoques", "almoxarifado_" + estado.idAlmoxarifado());
+            } else {
+                invalidacao.prefixo("estoques", "almoxarifado_");
+            }
+        }
+        if (!salvos.isEmpty()) {
+            invalidacao.tags("estoques", CacheDependencias.TAG_LISTAGEM)
+                    .chaves("estoque", "count")
+                    .prefixo("estoques", "quantidadeBaixa_", limiarAtravessado(null, menorQuantidade))
+                    .prefixo("estoque", "count_quantidadeBaixa_", limiarAtravessado(null, menorQuantidade));
+        }
+
+        movimentacaoService.registrarTodas(movimentacoes);
+        variacoes.forEach(estoqueBaixoService::registrarVariacao);
+        variacoes.forEach(saldoConsolidadoService::registrarVariacao);
+        variacoes.keySet().forEach(lotesFefoService::invalidar);
+        vencimentoLotesService.registrarEstoques(salvos.stream().map(Estoque::getId).toList());
+
+        log.info("{} estoques recebidos salvos", salvos.size());
+        return salvos;
+    }
+
     /**
      * Atualiza um estoque existente
      * @param estoque Estoque a ser atualizado
      * @return Estoque atualizado
      */
     @Transactional
-    @CachePut(value = "estoque", key = "#estoque.id")
-    @CacheEvict(value = "estoques", allEntries = true)
     public Estoque update(Estoque estoque) {
-        long startTime = System.currentTimeMillis();
         log.info("Atualizando estoque ID: {}", estoque.getId());
         
+        // Estado anterior capturado antes do merge, que altera a instância gerenciada. A linha fica
+        // bloqueada até o commit: uma movimentação concorrente não é sobrescrita nem some do livro
+        EstadoEstoque anterior = estoqueRepository.findByIdParaAtualizacao(estoque.getId())
+                .map(EstadoEstoque::de).orElse(null);
         Estoque estoqueAtualizado = estoqueRepository.save(estoque);
+        invalidarCaches("atualizar estoque " + estoque.getId(), anterior, EstadoEstoque.de(estoqueAtualizado));
+        atualizarSaldos(anterior, EstadoEstoque.de(estoqueAtualizado));
+        if (anterior != null) {
+            movimentacaoService.registrar(estoque.getId(),
+                    estoqueAtualizado.getQuantidadeEstoque() - anterior.quantidade(), ContextoMovimentacao.SISTEMA);
+        }
         
-        long endTime = System.currentTimeMillis();
-        log.info("Estoque ID {} atualizado em {}ms", estoque.getId(), endTime - startTime);
+        log.info("Estoque ID {} atualizado", estoque.getId());
         
         return estoqueAtualizado;
     }
 
     /**
      * Remove um estoque por ID
+     * Só estoques sem movimentações podem ser removidos: o livro MOVIMENTACAO
+     * referencia o estoque (FK_MOVIMENTACAO_ESTOQUE) e suas linhas nunca são apagadas.
+     * O bloqueio da linha impede que uma movimentação seja gravada durante a remoção
      * @param id ID do estoque a ser removido
+     * @throws EstoqueComMovimentacoesException se o estoque tiver movimentações
      */
     @Transactional
-    @CacheEvict(value = {"estoques", "estoque"}, allEntries = true)
     public void deleteById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Removendo estoque ID: {}", id);
         
-        estoqueRepository.deleteById(id);
+        Optional<Estoque> existente = estoqueRepository.findByIdParaAtualizacao(id);
+        if (existente.isPresent() && movimentacaoService.possuiMovimentacoes(id)) {
+            log.warn("Estoque ID {} possui movimentações e não será removido", id);
+            throw new EstoqueComMovimentacoesException(id);
+        }
+        EstadoEstoque anterior = existente.map(EstadoEstoque::de).orElse(null);
+        existente.ifPresent(estoqueRepository::delete);
+        invalidarCaches("remover estoque " + id, anterior, null);
+        atualizarSaldos(anterior, null);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Estoque ID {} removido em {}ms", id, endTime - startTime);
+        log.info("Estoque ID {} removido", id);
     }
 
     /**
      * Atualiza a quantidade de um estoque
+     * A diferença para a quantidade anterior é registrada como movimentação
      * @param id ID do estoque
      * @param novaQuantidade Nova quantidade
+     * @param contexto Responsável e setores da movimentação
      * @return Estoque atualizado
      */
     @Transactional
-    @CachePut(value = "estoque", key = "#id")
-    @CacheEvict(value = "estoques", allEntries = true)
-    public Estoque updateQuantidade(Integer id, Integer novaQuantidade) {
-        long startTime = System.currentTimeMillis();
+    public Estoque updateQuantidade(Integer id, Integer novaQuantidade, ContextoMovimentacao contexto) {
         log.info("Atualizando quantidade do estoque ID: {} para {}", id, novaQuantidade);
         
-        Optional<Estoque> estoqueOpt = estoqueRepository.findById(id);
+        // Bloqueia a linha até o commit: atualizações concorrentes do mesmo estoque são serializadas
+        Optional<Estoque> estoqueOpt = estoqueRepository.findByIdParaAtualizacao(id);
         if (estoqueOpt.isPresent()) {
             Estoque estoque = estoqueOpt.get();
+            Integer quantidadeAnterior = estoque.getQuantidadeEstoque();
             estoque.setQuantidadeEstoque(novaQuantidade);
             Estoque estoqueAtualizado = estoqueRepository.save(estoque);
+            // Produto e lote não mudam: só as entradas com este estoque e os limiares atravessados
+            invalidacaoDeQuantidade("atualizar quantidade estoque " + id, id, quantidadeAnterior, novaQuantidade)
+                    .chaves("estoque", id)
+                    .executar();
+            int variacao = novaQuantidade - (quantidadeAnterior != null ? quantidadeAnterior : 0);
+            estoqueBaixoService.registrarVariacao(estoque.getProduto().getId(), variacao);
+            saldoConsolidadoService.registrarVariacao(estoque.getProduto().getId(), variacao);
+            lotesFefoService.registrarSaldo(estoque.getProduto().getId(), id, novaQuantidade - variacao, novaQuantidade);
+            vencimentoLotesService.registrarSaldo(id, novaQuantidade - variacao, novaQuantidade);
+            movimentacaoService.registrar(id, variacao, contexto);
             
-            long endTime = System.currentTimeMillis();
-            log.info("Quantidade do estoque ID {} atualizada em {}ms", id, endTime - startTime);
+            log.info("Quantidade do estoque ID {} atualizada", id);
             
             return estoqueAtualizado;
         }
@@ -243,12 +413,78 @@ public class EstoqueService extends BaseService {
         return null;
     }
 
+    /**
+     * Registra uma entrada no estoque
+     * @param id ID do estoque
+     * @param quantidade Quantidade recebida (positiva)
+     * @param contexto Responsável e setores da movimentação
+     * @return Optional contendo o novo saldo, vazio se o estoque não existir
+     */
+    @Transactional
+    public Optional<SaldoEstoque> registrarEntrada(Integer id, int quantidade, ContextoMovimentacao contexto) {
+        return movimentar(id, quantidade, contexto);
+    }
+
+    /**
+     * Registra uma saída do estoque
+     * @param id ID do estoque
+     * @param quantidade Quantidade retirada (positiva)
+     * @param contexto Responsável e setores da movimentação
+     * @return Optional contendo o novo saldo, vazio se o estoque não existir
+     * @throws SaldoInsuficienteException se a saída deixaria o saldo negativo
+     */
+    @Transactional
+    public Optional<SaldoEstoque> registrarSaida(Integer id, int quantidade, ContextoMovimentacao contexto) {
+        return movimentar(id, -quantidade, contexto);
+    }
+
+    /**
+     * Aplica uma variação de quantidade com um único UPDATE condicional
+     * Não há leitura prévia: o banco soma a variação sobre o valor atual e recusa
+     * o saldo negativo na mesma instrução, então movimentações concorrentes do
+     * mesmo estoque não perdem atualizações. A movimentação é registrada no
+     * livro MOVIMENTACAO na mesma transação
+     * @param id ID do estoque
+     * @param delta Variação (positiva na entrada, negativa na saída)
+     * @param contexto Responsável e setores da movimentação
+     * @return Optional contendo o novo saldo, vazio se o estoque não existir
+     * @throws SaldoInsuficienteException se a variação deixaria o saldo negativo
+     */
+    @Transactional
+    public Optional<SaldoEstoque> movimentar(Integer id, int delta, ContextoMovimentacao contexto) {
+        log.info("Movimentando estoque ID: {} em {}", id, delta);
+
+        if (estoqueRepository.movimentarQuantidade(id, delta) == 0) {
+            if (!estoqueRepository.existsById(id)) {
+                log.warn("Estoque ID {} não encontrado para movimentação", id);
+                return Optional.empty();
+            }
+            log.warn("Movimentação de {} recusada: saldo insuficiente no estoque ID {}", delta, id);
+            throw new SaldoInsuficienteException(id, -delta);
+        }
+
+        // A linha permanece bloqueada até o commit: o saldo lido é o resultado desta movimentação
+        SaldoEstoque saldo = estoqueRepository.findSaldoById(id).orElseThrow();
+        invalidacaoDeQuantidade("movimentar estoque " + id, id, saldo.quantidade() - delta, saldo.quantidade())
+                .chaves("estoque", id)
+                .executar();
+        estoqueBaixoService.registrarVariacao(saldo.idProduto(), delta);
+        saldoConsolidadoService.registrarVariacao(saldo.idProduto(), delta);
+        lotesFefoService.registrarSaldo(saldo.idProduto(), id, saldo.quantidade() - delta, saldo.quantidade());
+        vencimentoLotesService.registrarSaldo(id, saldo.quantidade() - delta, saldo.quantidade());
+        movimentacaoService.registrar(id, delta, contexto);
+
+        log.info("Estoque ID {} movimentado. Novo saldo: {}", id, saldo.quantidade());
+
+        return Optional.of(saldo);
+    }
+
     /**
      * Verifica se um estoque existe por ID
      * @param id ID do estoque
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "estoque", key = "'exists_' + #id")
+    @Cacheable(value = "estoque", key = "'exists_' + #id", sync = true)
     public boolean existsById(Integer id) {
         return estoqueRepository.existsById(id);
     }
@@ -257,7 +493,7 @@ public class EstoqueService extends BaseService {
      * Conta o total de estoques
      * @return Total de estoques
      */
-    @Cacheable(value = "estoque", key = "'count'")
+    @Cacheable(value = "estoque", key = "'count'", sync = true)
     public long count() {
         return estoqueRepository.count();
     }
@@ -267,9 +503,132 @@ public class EstoqueService extends BaseService {
      * @param quantidadeMinima Quantidade mínima
      * @return Total de estoques com quantidade baixa
      */
-    @Cacheable(value = "estoque", key = "'count_quantidadeBaixa_' + #quantidadeMinima")
+    @Cacheable(value = "estoque", key = "'count_quantidadeBaixa_' + #quantidadeMinima", sync = true)
     public long countComQuantidadeBaixa(Integer quantidadeMinima) {
-        // Implementar método específico no repository se necessário
-        return estoqueRepository.count();
+        return estoqueRepository.countComQuantidadeAbaixoDe(quantidadeMinima);
+    }
+
+    /**
+     * Invalida as entradas de cache afetadas por uma inclusão, alteração ou remoção
+     * Inclusões e remoções mudam os totais das listagens e a composição dos filtros;
+     * alterações só atingem os filtros cujo produto/lote/almoxarifado mudou e as
+     * listagens ordenadas por outro campo que não o ID
+     * @param descricao Descrição da escrita
+     * @param anterior Estado antes da escrita (null em inclusões)
+     * @param atual Estado após a escrita (null em remoções)
+     */
+    private void invalidarCaches(String descricao, EstadoEstoque anterior, EstadoEstoque atual) {
+        EstadoEstoque referencia = atual != null ? atual : anterior;
+        if (referencia == null) {
+            return;
+        }
+        boolean estrutural = anterior == null || atual == null;
+        EstadoEstoque antes = anterior != null ? anterior : EstadoEstoque.VAZIO;
+        EstadoEstoque depois = atual != null ? atual : EstadoEstoque.VAZIO;
+
+        Invalidacao invalidacao = cacheDependencias.invalidacao(descricao)
+                .tags("estoques", "id_" + referencia.id())
+                .prefixo("estoques", "quantidadeBaixa_", limiarAtravessado(antes.quantidade(), depois.quantidade()))
+                .prefixo("estoque", "count_quantidadeBaixa_", limiarAtravessado(antes.quantidade(), depois.quantidade()));
+
+        if (estrutural) {
+            invalidacao.tags("estoques", CacheDependencias.TAG_LISTAGEM)
+                    .chaves("estoque", "count", "exists_" + referencia.id());
+        } else if (!antes.equals(depois)) {
+            invalidacao.listagensOrdenadas("estoques");
+        }
+        if (estrutural || !Objects.equals(antes.idLote(), depois.idLote())) {
+            invalidacao.tagsDeFiltro("estoques", "lote_", antes.idLote(), depois.idLote());
+        }
+        if (estrutural || !Objects.equals(antes.idProduto(), depois.idProduto())) {
+            invalidacao.tagsDeFiltro("estoques", "produto_", antes.idProduto(), depois.idProduto());
+            if ((anterior != null && anterior.idAlmoxarifado() == null) || (atual != null && atual.idAlmoxarifado() == null)) {
+                // Almoxarifado desconhecido (produto não carregado): invalida todos os filtros de almoxarifado
+                invalidacao.prefixo("estoques", "almoxarifado_");
+            } else {
+                invalidacao.tagsDeFiltro("estoques", "almoxarifado_", antes.idAlmoxarifado(), depois.idAlmoxarifado());
+            }
+        }
+        // O detalhe em cache é sempre removido: é recarregado com o plano Estoque.detalhe
+        invalidacao.chaves("estoque", referencia.id())
+                .executar();
+    }
+
+    /**
+     * Monta a invalidação das entradas afetadas por uma mudança apenas de quantidade
+     * Das listagens ordenadas, só as ordenadas pela quantidade podem ganhar o estoque
+     */
+    private Invalidacao invalidacaoDeQuantidade(String descricao, Integer id, Integer quantidadeAnterior, Integer novaQuantidade) {
+        return cacheDependencias.invalidacao(descricao)
+                .tags("estoques", "id_" + id)
+                .tags("estoques", Objects.equals(quantidadeAnterior, novaQuantidade)
+                        ? null : CacheDependencias.TAG_ORDENACAO + "quantidadeEstoque")
+                .prefixo("estoques", "quantidadeBaixa_", limiarAtravessado(quantidadeAnterior, novaQuantidade))
+                .prefixo("estoque", "count_quantidadeBaixa_", limiarAtravessado(quantidadeAnterior, novaQuantidade));
+    }
+
+    /**
+     * Repassa ao motor de estoque baixo a variação do saldo dos produtos envolvidos:
+     * a quantidade anterior sai do produto anterior e a atual entra no produto atual.
+     * A mesma variação é somada aos saldos materializados antes do commit.
+     * O índice FEFO dos produtos envolvidos é descartado (o lote pode ter mudado)
+     * e o estoque é relido para as faixas de vencimento
+     */
+    private void atualizarSaldos(EstadoEstoque anterior, EstadoEstoque atual) {
+        if (anterior != null && anterior.quantidade() != null) {
+            estoqueBaixoService.registrarVariacao(anterior.idProduto(), -anterior.quantidade());
+            saldoConsolidadoService.registrarVariacao(anterior.idProduto(), -anterior.quantidade());
+        }
+        if (atual != null && atual.quantidade() != null) {
+            estoqueBaixoService.registrarVariacao(atual.idProduto(), atual.quantidade());
+            saldoConsolidadoService.registrarVariacao(atual.idProduto(), atual.quantidade());
+        }
+        if (anterior != null) {
+            lotesFefoService.invalidar(anterior.idProduto());
+        }
+        if (atual != null && (anterior == null || !Objects.equals(anterior.idProduto(), atual.idProduto()))) {
+            lotesFefoService.invalidar(atual.idProduto());
+        }
+        EstadoEstoque referencia = atual != null ? atual : anterior;
+        if (referencia != null) {
+            vencimentoLotesService.registrarEstoques(List.of(referencia.id()));
+        }
+    }
+
+    /**
+     * Filtro dos limiares de quantidade baixa cuja pertinência mudou:
+     * um estoque pertence ao filtro quando sua quantidade é menor que o limiar
+     */
+    private static Predicate<String> limiarAtravessado(Integer anterior, Integer atual) {
+        return sufixo -> {
+            try {
+                int limiar = Integer.parseInt(sufixo);
+                boolean antes = anterior != null && anterior < limiar;
+                boolean depois = atual != null && atual < limiar;
+                return antes != depois;
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Atributos de um estoque que determinam em quais entradas de cache ele aparece
+     */
+    private record EstadoEstoque(Integer id, Integer idProduto, Integer idLote, Integer idAlmoxarifado, Integer quantidade) {
+
+        static final EstadoEstoque VAZIO = new EstadoEstoque(null, null, null, null, null);
+
+        static EstadoEstoque de(Estoque estoque) {
+            Produto produto = estoque.getProduto();
+            Integer idAlmoxarifado = produto != null && produto.getAlmoxarifado() != null
+                    ? produto.getAlmoxarifado().getId() : null;
+            return new EstadoEstoque(
+                    estoque.getId(),
+                    produto != null ? produto.getId() : null,
+                    estoque.getLote() != null ? estoque.getLote().getId() : null,
+                    idAlmoxarifado,
+                    estoque.getQuantidadeEstoque());
+        }
     }
 }
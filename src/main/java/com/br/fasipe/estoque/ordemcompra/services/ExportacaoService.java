@@ -0,0 +1,189 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.FormatoExportacao;
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo;
+import com.br.fasipe.estoque.ordemcompra.repository.EstoqueRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.OrdemCompraRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação completa de ESTOQUE, PRODUTO e ORDEMCOMPRA
+ * Cada exportação é uma única consulta somente leitura percorrida linha a linha
+ * (projeções, fora do contexto de persistência) e escrita direto na saída;
+ * a memória usada independe da quantidade de registros
+ * No MySQL, adicionar useCursorFetch=true ao DB_URL para o driver respeitar o
+ * fetch size em vez de trazer o resultado inteiro
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+@Transactional(readOnly = true)
+public class ExportacaoService {
+
+    private static final int BUFFER_SAIDA = 64 * 1024;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private OrdemCompraRepository ordemCompraRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Exporta todos os estoques
+     * @param formato Formato de saída
+     * @param saida Stream de saída (não é fechado)
+     * @return Quantidade de registros escritos
+     */
+    public long exportarEstoques(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<EstoqueResumo> registros = estoqueRepository.streamResumos()) {
+            return exportar("Estoques", EstoqueResumo.class, registros, formato, saida);
+        }
+    }
+
+    /**
+     * Exporta todos os produtos
+     * @param formato Formato de saída
+     * @param saida Stream de saída (não é fechado)
+     * @return Quantidade de registros escritos
+     */
+    public long exportarProdutos(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<ProdutoResumo> registros = produtoRepository.streamResumos()) {
+            return exportar("Produtos", ProdutoResumo.class, registros, formato, saida);
+        }
+    }
+
+    /**
+     * Exporta todas as ordens de compra (sem itens)
+     * @param formato Formato de saída
+     * @param saida Stream de saída (não é fechado)
+     * @return Quantidade de registros escritos
+     */
+    public long exportarOrdensCompra(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<OrdemCompraResumo> registros = ordemCompraRepository.streamResumos()) {
+            return exportar("Ordens de Compra", OrdemCompraResumo.class, registros, formato, saida);
+        }
+    }
+
+    private <T extends Record> long exportar(String descricao, Class<T> tipo, Stream<T> registros,
+                                             FormatoExportacao formato, OutputStream saida) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Iterator<T> iterador = registros.iterator();
+        long total = formato == FormatoExportacao.CSV
+                ? escreverCsv(tipo, iterador, saida)
+                : escreverNdjson(iterador, saida);
+
+        log.info("Exportação de {} ({}) concluída: {} registros em {}ms", descricao, formato, total,
+                System.currentTimeMillis() - startTime);
+        return total;
+    }
+
+    /**
+     * CSV com o nome dos componentes do registro no cabeçalho
+     */
+    private long escreverCsv(Class<? extends Record> tipo, Iterator<? extends Record> registros,
+                             OutputStream saida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), BUFFER_SAIDA);
+        Method[] acessores = acessores(tipo, escritor);
+        long total = 0;
+        while (registros.hasNext()) {
+            Record registro = registros.next();
+            for (int i = 0; i < acessores.length; i++) {
+                if (i > 0) {
+                    escritor.write(',');
+                }
+                escreverCampoCsv(escritor, valor(acessores[i], registro));
+            }
+            escritor.write("\r\n");
+            total++;
+        }
+        escritor.flush();
+        return total;
+    }
+
+    private long escreverNdjson(Iterator<? extends Record> registros, OutputStream saida) throws IOException {
+        ObjectWriter escritor = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long total = 0;
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            // A saída pertence à resposta HTTP
+            gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (registros.hasNext()) {
+                escritor.writeValue(gerador, registros.next());
+                gerador.writeRaw('\n');
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Acessores dos componentes do registro; escreve o cabeçalho do CSV
+     */
+    private static Method[] acessores(Class<?> tipo, Writer escritor) throws IOException {
+        RecordComponent[] componentes = tipo.getRecordComponents();
+        Method[] acessores = new Method[componentes.length];
+        for (int i = 0; i < componentes.length; i++) {
+            acessores[i] = componentes[i].getAccessor();
+            escritor.write(i > 0 ? "," + componentes[i].getName() : componentes[i].getName());
+        }
+        escritor.write("\r\n");
+        return acessores;
+    }
+
+    private static Object valor(Method acessor, Record registro) {
+        try {
+            return acessor.invoke(registro);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Falha ao ler " + acessor.getName() + " de " + registro.getClass(), e);
+        }
+    }
+
+    /**
+     * Campo CSV: vazio para nulos, aspas apenas quando o texto contém separador, aspas ou quebra de linha
+     */
+    private static void escreverCampoCsv(Writer escritor, Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        String texto = valor instanceof BigDecimal decimal ? decimal.toPlainString() : valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            escritor.write(texto);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(texto.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
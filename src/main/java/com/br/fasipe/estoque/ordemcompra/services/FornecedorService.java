@@ -8,11 +8,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 
+import com.br.fasipe.estoque.ordemcompra.dto.FornecedorDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.FornecedorResumo;
 import com.br.fasipe.estoque.ordemcompra.models.Fornecedor;
 import com.br.fasipe.estoque.ordemcompra.repository.FornecedorRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
@@ -24,6 +27,7 @@ import java.util.List;
  */
 @Slf4j
 @Service
+@Timed("fasiclin.servico")
 @Transactional(readOnly = true)
 public class FornecedorService extends BaseService {
 
@@ -38,15 +42,14 @@ public class FornecedorService extends BaseService {
      * @param direction Direção da ordenação
      * @return Página de fornecedores
      */
-    @Cacheable(value = "fornecedores", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction")
-    public Page<Fornecedor> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "fornecedores", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction", sync = true)
+    public Page<FornecedorResumo> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
         log.info("Iniciando busca paginada de fornecedores - Página: {}, Tamanho: {}", page, size);
         
         Pageable pageable = createOptimizedPageable(page, size, sortBy, direction);
-        Page<Fornecedor> fornecedores = fornecedorRepository.findAll(pageable);
+        Page<FornecedorResumo> fornecedores = fornecedorRepository.findResumos(pageable);
         
-        logPerformanceInfo("Fornecedores", fornecedores, startTime);
+        registrarConsulta("Fornecedores", fornecedores);
         return fornecedores;
     }
 
@@ -56,8 +59,8 @@ public class FornecedorService extends BaseService {
      * @param size Tamanho da página
      * @return Página de fornecedores ordenados por ID
      */
-    @Cacheable(value = "fornecedores", key = "#page + '_' + #size + '_default'")
-    public Page<Fornecedor> findAllPaginated(int page, int size) {
+    @Cacheable(value = "fornecedores", key = "#page + '_' + #size + '_default'", sync = true)
+    public Page<FornecedorResumo> findAllPaginated(int page, int size) {
         return findAllPaginated(page, size, "id", Sort.Direction.ASC);
     }
 
@@ -66,15 +69,11 @@ public class FornecedorService extends BaseService {
      * @param id ID do fornecedor
      * @return Optional contendo o fornecedor se encontrado
      */
-    @Cacheable(value = "fornecedor", key = "#id")
-    public Optional<Fornecedor> findById(Integer id) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "fornecedor", key = "#id", sync = true)
+    public Optional<FornecedorDetalhe> findById(Integer id) {
         log.info("Buscando fornecedor por ID: {}", id);
         
-        Optional<Fornecedor> fornecedor = fornecedorRepository.findById(id);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de fornecedor por ID {} executada em {}ms", id, endTime - startTime);
+        Optional<FornecedorDetalhe> fornecedor = fornecedorRepository.findDetalheById(id);
         
         return fornecedor;
     }
@@ -84,15 +83,11 @@ public class FornecedorService extends BaseService {
      * @param representante Nome do representante
      * @return Lista de fornecedores encontrados
      */
-    @Cacheable(value = "fornecedor", key = "'representante_' + #representante")
-    public List<Fornecedor> findByRepresentante(String representante) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "fornecedor", key = "'representante_' + #representante", sync = true)
+    public List<FornecedorResumo> findByRepresentante(String representante) {
         log.info("Buscando fornecedor por representante: {}", representante);
         
-        List<Fornecedor> fornecedores = fornecedorRepository.findAllFornecedoresByRepresentante(representante);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de fornecedor por representante '{}' executada em {}ms", representante, endTime - startTime);
+        List<FornecedorResumo> fornecedores = fornecedorRepository.findResumosByRepresentante(representante);
         
         return fornecedores;
     }
@@ -102,15 +97,11 @@ public class FornecedorService extends BaseService {
      * @param contatoRepresentante Contato do representante
      * @return Lista de fornecedores encontrados
      */
-    @Cacheable(value = "fornecedor", key = "'contatoRepresentante_' + #contatoRepresentante")
-    public List<Fornecedor> findByContatoRepresentante(String contatoRepresentante) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "fornecedor", key = "'contatoRepresentante_' + #contatoRepresentante", sync = true)
+    public List<FornecedorResumo> findByContatoRepresentante(String contatoRepresentante) {
         log.info("Buscando fornecedor por contato do representante: {}", contatoRepresentante);
         
-        List<Fornecedor> fornecedores = fornecedorRepository.findAllFornecedoresByContatoRepresentante(contatoRepresentante);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de fornecedor por contato do representante '{}' executada em {}ms", contatoRepresentante, endTime - startTime);
+        List<FornecedorResumo> fornecedores = fornecedorRepository.findResumosByContatoRepresentante(contatoRepresentante);
         
         return fornecedores;
     }
@@ -122,16 +113,15 @@ public class FornecedorService extends BaseService {
      * @param size Tamanho da página
      * @return Página de fornecedores com o nome fantasia
      */
-    @Cacheable(value = "fornecedores", key = "'nomeFantasia_' + #nomeFantasia + '_' + #page + '_' + #size")
-    public Page<Fornecedor> findByNomeFantasia(String nomeFantasia, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "fornecedores", key = "'nomeFantasia_' + #nomeFantasia + '_' + #page + '_' + #size", sync = true)
+    public Page<FornecedorResumo> findByNomeFantasia(String nomeFantasia, int page, int size) {
         log.info("Buscando fornecedores por nome fantasia: {}, Página: {}", nomeFantasia, page);
         
         Pageable pageable = createDefaultPageable(page, size);
         // Implementar método no repository se necessário
-        Page<Fornecedor> fornecedores = fornecedorRepository.findAll(pageable);
+        Page<FornecedorResumo> fornecedores = fornecedorRepository.findResumos(pageable);
         
-        logPerformanceInfo("Fornecedores por Nome Fantasia", fornecedores, startTime);
+        registrarConsulta("Fornecedores por Nome Fantasia", fornecedores);
         return fornecedores;
     }
 
@@ -141,16 +131,15 @@ public class FornecedorService extends BaseService {
      * @param size Tamanho da página
      * @return Página de fornecedores ativos
      */
-    @Cacheable(value = "fornecedores", key = "'ativos_' + #page + '_' + #size")
-    public Page<Fornecedor> findFornecedoresAtivos(int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "fornecedores", key = "'ativos_' + #page + '_' + #size", sync = true)
+    public Page<FornecedorResumo> findFornecedoresAtivos(int page, int size) {
         log.info("Buscando fornecedores ativos - Página: {}", page);
         
         Pageable pageable = createDefaultPageable(page, size);
         // Implementar método específico no repository se necessário
-        Page<Fornecedor> fornecedores = fornecedorRepository.findAll(pageable);
+        Page<FornecedorResumo> fornecedores = fornecedorRepository.findResumos(pageable);
         
-        logPerformanceInfo("Fornecedores Ativos", fornecedores, startTime);
+        registrarConsulta("Fornecedores Ativos", fornecedores);
         return fornecedores;
     }
 
@@ -162,13 +151,11 @@ public class FornecedorService extends BaseService {
     @Transactional
     @CacheEvict(value = {"fornecedores", "fornecedor"}, allEntries = true)
     public Fornecedor save(Fornecedor fornecedor) {
-        long startTime = System.currentTimeMillis();
         log.info("Salvando novo fornecedor: {}", fornecedor.getRepresentante());
         
         Fornecedor fornecedorSalvo = fornecedorRepository.save(fornecedor);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Fornecedor '{}' salvo em {}ms", fornecedor.getRepresentante(), endTime - startTime);
+        log.info("Fornecedor '{}' salvo", fornecedor.getRepresentante());
         
         return fornecedorSalvo;
     }
@@ -179,16 +166,13 @@ public class FornecedorService extends BaseService {
      * @return Fornecedor atualizado
      */
     @Transactional
-    @CachePut(value = "fornecedor", key = "#fornecedor.id")
-    @CacheEvict(value = "fornecedores", allEntries = true)
+    @CacheEvict(value = {"fornecedores", "fornecedor"}, allEntries = true)
     public Fornecedor update(Fornecedor fornecedor) {
-        long startTime = System.currentTimeMillis();
         log.info("Atualizando fornecedor ID: {}", fornecedor.getId());
         
         Fornecedor fornecedorAtualizado = fornecedorRepository.save(fornecedor);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Fornecedor ID {} atualizado em {}ms", fornecedor.getId(), endTime - startTime);
+        log.info("Fornecedor ID {} atualizado", fornecedor.getId());
         
         return fornecedorAtualizado;
     }
@@ -200,13 +184,11 @@ public class FornecedorService extends BaseService {
     @Transactional
     @CacheEvict(value = {"fornecedores", "fornecedor"}, allEntries = true)
     public void deleteById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Removendo fornecedor ID: {}", id);
         
         fornecedorRepository.deleteById(id);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Fornecedor ID {} removido em {}ms", id, endTime - startTime);
+        log.info("Fornecedor ID {} removido", id);
     }
 
     /**
@@ -214,7 +196,7 @@ public class FornecedorService extends BaseService {
      * @param id ID do fornecedor
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "fornecedor", key = "'exists_' + #id")
+    @Cacheable(value = "fornecedor", key = "'exists_' + #id", sync = true)
     public boolean existsById(Integer id) {
         return fornecedorRepository.existsById(id);
     }
@@ -224,7 +206,7 @@ public class FornecedorService extends BaseService {
      * @param representante Nome do representante
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "fornecedor", key = "'exists_representante_' + #representante")
+    @Cacheable(value = "fornecedor", key = "'exists_representante_' + #representante", sync = true)
     public boolean existsByRepresentante(String representante) {
         return !fornecedorRepository.findAllFornecedoresByRepresentante(representante).isEmpty();
     }
@@ -233,7 +215,7 @@ public class FornecedorService extends BaseService {
      * Conta o total de fornecedores
      * @return Total de fornecedores
      */
-    @Cacheable(value = "fornecedor", key = "'count'")
+    @Cacheable(value = "fornecedor", key = "'count'", sync = true)
     public long count() {
         return fornecedorRepository.count();
     }
@@ -242,7 +224,7 @@ public class FornecedorService extends BaseService {
      * Conta fornecedores ativos
      * @return Total de fornecedores ativos
      */
-    @Cacheable(value = "fornecedor", key = "'count_ativos'")
+    @Cacheable(value = "fornecedor", key = "'count_ativos'", sync = true)
     public long countAtivos() {
         // Implementar método específico no repository se necessário
         return fornecedorRepository.count();
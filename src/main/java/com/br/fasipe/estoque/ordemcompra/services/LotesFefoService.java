@@ -0,0 +1,102 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.cache.AposCommit;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteDisponivel;
+import com.br.fasipe.estoque.ordemcompra.repository.EstoqueRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice FEFO (primeiro a vencer, primeiro a sair)
+ * Mantém em memória, por produto, os estoques com saldo ordenados pelo
+ * vencimento do lote. O índice de um produto é carregado na primeira
+ * dispensação e ajustado após o commit das escritas: estoques zerados saem,
+ * inclusões e trocas de produto/lote descartam o índice para recarga.
+ * O índice só define a ordem de consumo; o saldo de cada lote é sempre
+ * lido e bloqueado no banco pela dispensação
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class LotesFefoService {
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    private final Map<Integer, NavigableSet<LoteDisponivel>> indices = new ConcurrentHashMap<>();
+
+    /**
+     * Lotes com saldo de um produto ainda dentro da validade, em ordem de vencimento
+     * @param idProduto ID do produto
+     * @param hoje Data de referência: lotes vencidos antes dela são ignorados
+     * @return Cópia dos lotes na ordem de consumo
+     */
+    public List<LoteDisponivel> findLotesDisponiveis(Integer idProduto, LocalDate hoje) {
+        return List.copyOf(indice(idProduto).tailSet(new LoteDisponivel(Integer.MIN_VALUE, null, hoje), true));
+    }
+
+    /**
+     * Registra o novo saldo de um estoque após o commit da transação
+     * Saldo zerado retira o estoque do índice; saldo que volta a ser positivo
+     * descarta o índice do produto, recarregado na próxima dispensação
+     * @param idProduto ID do produto
+     * @param idEstoque ID do estoque
+     * @param quantidadeAnterior Saldo antes da escrita
+     * @param quantidadeAtual Saldo após a escrita
+     */
+    public void registrarSaldo(Integer idProduto, Integer idEstoque, int quantidadeAnterior, int quantidadeAtual) {
+        if (idProduto == null) {
+            return;
+        }
+        if (quantidadeAtual <= 0 && quantidadeAnterior > 0) {
+            AposCommit.executar(() -> {
+                NavigableSet<LoteDisponivel> lotes = indices.get(idProduto);
+                if (lotes != null) {
+                    lotes.removeIf(lote -> lote.idEstoque().equals(idEstoque));
+                }
+            });
+        } else if (quantidadeAtual > 0 && quantidadeAnterior <= 0) {
+            invalidar(idProduto);
+        }
+    }
+
+    /**
+     * Descarta o índice de um produto após o commit (estoque incluído, removido ou com lote alterado)
+     * @param idProduto ID do produto
+     */
+    public void invalidar(Integer idProduto) {
+        if (idProduto == null) {
+            return;
+        }
+        AposCommit.executar(() -> indices.remove(idProduto));
+    }
+
+    /**
+     * Índice do produto, carregado por uma única consulta na primeira utilização
+     * A carga ocorre dentro do computeIfAbsent: uma invalidação concorrente
+     * aguarda a carga terminar e a descarta, então o índice nunca guarda um
+     * estado anterior a um commit já notificado
+     */
+    private NavigableSet<LoteDisponivel> indice(Integer idProduto) {
+        return indices.computeIfAbsent(idProduto, id -> {
+            NavigableSet<LoteDisponivel> lotes = new ConcurrentSkipListSet<>(LoteDisponivel.ORDEM_FEFO);
+            lotes.addAll(RoteamentoLeituraEscrita.naPrimaria(() -> estoqueRepository.findLotesDisponiveis(id)));
+
+            log.info("Índice FEFO do produto {} carregado: {} lotes", id, lotes.size());
+            return lotes;
+        });
+    }
+}
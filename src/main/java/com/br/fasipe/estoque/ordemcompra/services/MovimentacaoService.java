@@ -0,0 +1,155 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.models.Movimentacao;
+import com.br.fasipe.estoque.ordemcompra.models.Movimentacao.TipoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.repository.EstoqueRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.MovimentacaoRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service do livro de movimentações de estoque
+ * Cada alteração de quantidade grava uma linha em MOVIMENTACAO na mesma
+ * transação da atualização do estoque; as linhas nunca são alteradas
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+@Transactional(readOnly = true)
+public class MovimentacaoService extends BaseService {
+
+    @Autowired
+    private MovimentacaoRepository movimentacaoRepository;
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    @Value("${fasiclin.movimentacao.id-usuario-sistema:1}")
+    private Integer idUsuarioSistema;
+
+    @Value("${fasiclin.movimentacao.id-setor-sistema:1}")
+    private Integer idSetorSistema;
+
+    /**
+     * Busca as movimentações de um estoque, mais recentes primeiro
+     * @param idEstoque ID do estoque
+     * @param page Número da página
+     * @param size Tamanho da página
+     * @return Página de movimentações
+     */
+    public Page<Movimentacao> findByEstoque(Integer idEstoque, int page, int size) {
+        log.info("Buscando movimentações do estoque: {}, Página: {}", idEstoque, page);
+
+        Pageable pageable = createOptimizedPageable(page, size, "id", Sort.Direction.DESC);
+        Page<Movimentacao> movimentacoes = movimentacaoRepository.findByIdEstoque(idEstoque, pageable);
+
+        registrarConsulta("Movimentações por Estoque", movimentacoes);
+        return movimentacoes;
+    }
+
+    /**
+     * Verifica se o estoque tem movimentações registradas
+     * @param idEstoque ID do estoque
+     * @return true se houver ao menos uma movimentação
+     */
+    public boolean possuiMovimentacoes(Integer idEstoque) {
+        return movimentacaoRepository.existsByIdEstoque(idEstoque);
+    }
+
+    /**
+     * Grava a movimentação correspondente a uma variação de quantidade
+     * Deve ser chamado dentro da transação que alterou o estoque
+     * @param idEstoque ID do estoque
+     * @param delta Variação aplicada (positiva = entrada, negativa = saída)
+     * @param contexto Responsável e setores
+     * @return Movimentação gravada, ou null se a variação for zero
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Movimentacao registrar(Integer idEstoque, int delta, ContextoMovimentacao contexto) {
+        if (delta == 0) {
+            return null;
+        }
+        return movimentacaoRepository.save(criar(idEstoque, delta, contexto));
+    }
+
+    /**
+     * Grava várias movimentações em lote JDBC (hibernate.jdbc.batch_size)
+     * Os IDs vêm da sequência em blocos, sem ida ao banco por linha
+     * @param movimentacoes Movimentações montadas com {@link #criar}
+     * @return Movimentações gravadas
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Movimentacao> registrarTodas(List<Movimentacao> movimentacoes) {
+        List<Movimentacao> gravadas = movimentacaoRepository.saveAll(movimentacoes);
+        log.info("{} movimentações registradas", gravadas.size());
+        return gravadas;
+    }
+
+    /**
+     * Monta uma movimentação sem gravá-la
+     * Setores não informados recebem o setor do almoxarifado do produto do estoque,
+     * ou o setor do sistema quando o produto não tem almoxarifado
+     * @param idEstoque ID do estoque
+     * @param delta Variação aplicada (diferente de zero)
+     * @param contexto Responsável e setores
+     * @return Movimentação a ser gravada
+     */
+    public Movimentacao criar(Integer idEstoque, int delta, ContextoMovimentacao contexto) {
+        ContextoMovimentacao informado = contexto != null ? contexto : ContextoMovimentacao.SISTEMA;
+        Integer idSetorEstoque = null;
+        if (informado.idSetorOrigem() == null || informado.idSetorDestino() == null) {
+            idSetorEstoque = estoqueRepository.findIdSetorById(idEstoque).orElse(null);
+        }
+        return criar(idEstoque, delta, informado, idSetorEstoque);
+    }
+
+    /**
+     * Monta uma movimentação sem gravá-la, com o setor do estoque já conhecido
+     * Usado nas gravações em lote, que têm o almoxarifado do produto carregado
+     * e não consultam o setor de cada linha
+     * @param idEstoque ID do estoque
+     * @param delta Variação aplicada (diferente de zero)
+     * @param contexto Responsável e setores
+     * @param idSetorEstoque Setor do almoxarifado do produto (null = produto sem almoxarifado)
+     * @return Movimentação a ser gravada
+     */
+    public Movimentacao criar(Integer idEstoque, int delta, ContextoMovimentacao contexto, Integer idSetorEstoque) {
+        ContextoMovimentacao informado = contexto != null ? contexto : ContextoMovimentacao.SISTEMA;
+        Integer idSetorOrigem = informado.idSetorOrigem();
+        Integer idSetorDestino = informado.idSetorDestino();
+        if (idSetorOrigem == null || idSetorDestino == null) {
+            Integer idSetor = idSetorEstoque;
+            if (idSetor == null) {
+                log.warn("Estoque {} sem almoxarifado: movimentação registrada no setor {}", idEstoque, idSetorSistema);
+                idSetor = idSetorSistema;
+            }
+            idSetorOrigem = idSetorOrigem != null ? idSetorOrigem : idSetor;
+            idSetorDestino = idSetorDestino != null ? idSetorDestino : idSetor;
+        }
+
+        return Movimentacao.builder()
+                .idEstoque(idEstoque)
+                .idUsuario(informado.idUsuario() != null ? informado.idUsuario() : idUsuarioSistema)
+                .idSetorOrigem(idSetorOrigem)
+                .idSetorDestino(idSetorDestino)
+                .quantidade(Math.abs(delta))
+                .dataMovimentacao(LocalDate.now())
+                .tipo(delta > 0 ? TipoMovimentacao.ENTRADA : TipoMovimentacao.SAIDA)
+                .build();
+    }
+}
@@ -8,17 +8,40 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 
+import com.br.fasipe.estoque.ordemcompra.cache.CacheDependencias;
+import com.br.fasipe.estoque.ordemcompra.cache.Invalidacao;
+import com.br.fasipe.estoque.ordemcompra.dto.ItemRecebido;
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteRecebimento;
+import com.br.fasipe.estoque.ordemcompra.dto.RecebimentoOrdem;
+import com.br.fasipe.estoque.ordemcompra.models.Estoque;
+import com.br.fasipe.estoque.ordemcompra.models.ItemOrdemCompra;
+import com.br.fasipe.estoque.ordemcompra.models.Lote;
 import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra;
 import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.repository.ItemOrdemCompraRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.LoteRepository;
 import com.br.fasipe.estoque.ordemcompra.repository.OrdemCompraRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Service para gerenciamento de ordens de compra com otimizações de performance
@@ -26,12 +49,28 @@ import java.util.Optional;
  */
 @Slf4j
 @Service
+@Timed("fasiclin.servico")
 @Transactional(readOnly = true)
 public class OrdemCompraService extends BaseService {
 
     @Autowired
     private OrdemCompraRepository ordemCompraRepository;
 
+    @Autowired
+    private ItemOrdemCompraRepository itemOrdemCompraRepository;
+
+    @Autowired
+    private LoteRepository loteRepository;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private CacheDependencias cacheDependencias;
+
+    @Autowired
+    private ContagemStatusService contagemStatusService;
+
     /**
      * Busca todas as ordens de compra com paginação otimizada
      * @param page Número da página (0-based)
@@ -40,15 +79,14 @@ public class OrdemCompraService extends BaseService {
      * @param direction Direção da ordenação
      * @return Página de ordens de compra
      */
-    @Cacheable(value = "ordensCompra", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction")
-    public Page<OrdemCompra> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction", sync = true)
+    public Page<OrdemCompraResumo> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
         log.info("Iniciando busca paginada de ordens de compra - Página: {}, Tamanho: {}", page, size);
         
         Pageable pageable = createOptimizedPageable(page, size, sortBy, direction);
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findResumos(pageable);
         
-        logPerformanceInfo("Ordens de Compra", ordens, startTime);
+        registrarConsulta("Ordens de Compra", ordens);
         return ordens;
     }
 
@@ -58,25 +96,45 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra ordenadas por ID
      */
-    @Cacheable(value = "ordensCompra", key = "#page + '_' + #size + '_default'")
-    public Page<OrdemCompra> findAllPaginated(int page, int size) {
+    @Cacheable(value = "ordensCompra", key = "#page + '_' + #size + '_default'", sync = true)
+    public Page<OrdemCompraResumo> findAllPaginated(int page, int size) {
         return findAllPaginated(page, size, "id", Sort.Direction.DESC);
     }
 
+    /**
+     * Busca ordens de compra por cursor (keyset) na ordem do ID
+     * Cada página percorre apenas a faixa da chave primária após o último registro
+     * entregue, então a página N custa o mesmo que a primeira; não é cacheada
+     * porque o custo já é constante e inclusões mudariam o final da varredura
+     * @param after Token da página anterior (null ou vazio = primeira página)
+     * @param size Tamanho da página (máximo 100)
+     * @param direction Direção da primeira página
+     * @param total true para incluir a contagem total (um COUNT adicional)
+     * @return Página com o token da página seguinte
+     */
+    public Pagina<OrdemCompraResumo> findAllPorCursor(String after, int size, Sort.Direction direction, boolean total) {
+        log.info("Iniciando busca de ordens de compra por cursor - Tamanho: {}, Total: {}", size, total);
+
+        Pagina<OrdemCompraResumo> ordens = buscarPorCursor(after, size, direction,
+                (cursor, limite) -> cursor.crescente()
+                        ? ordemCompraRepository.findResumosApos(cursor.ultimoId(), limite)
+                        : ordemCompraRepository.findResumosAntes(cursor.ultimoId(), limite),
+                OrdemCompraResumo::id, total ? ordemCompraRepository::count : null);
+
+        registrarConsulta("Ordens de Compra", ordens);
+        return ordens;
+    }
+
     /**
      * Busca ordem de compra por ID com cache otimizado
      * @param id ID da ordem de compra
      * @return Optional contendo a ordem de compra se encontrada
      */
-    @Cacheable(value = "ordemCompra", key = "#id")
-    public Optional<OrdemCompra> findById(Integer id) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordemCompra", key = "#id", sync = true)
+    public Optional<OrdemCompraDetalhe> findById(Integer id) {
         log.info("Buscando ordem de compra por ID: {}", id);
         
-        Optional<OrdemCompra> ordem = ordemCompraRepository.findByIDORDCOMP(id);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de ordem de compra por ID {} executada em {}ms", id, endTime - startTime);
+        Optional<OrdemCompraDetalhe> ordem = ordemCompraRepository.findByIDORDCOMP(id).map(OrdemCompraDetalhe::de);
         
         return ordem;
     }
@@ -88,16 +146,14 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra com o status especificado
      */
-    @Cacheable(value = "ordensCompra", key = "'status_' + #status + '_' + #page + '_' + #size")
-    public Page<OrdemCompra> findByStatus(StatusOrdem status, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "'status_' + #status + '_' + #page + '_' + #size", sync = true)
+    public Page<OrdemCompraResumo> findByStatus(StatusOrdem status, int page, int size) {
         log.info("Buscando ordens de compra por status: {}, Página: {}", status, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findBySTATUSORD(status, pageable);
         
-        logPerformanceInfo("Ordens de Compra por Status", ordens, startTime);
+        registrarConsulta("Ordens de Compra por Status", ordens);
         return ordens;
     }
 
@@ -108,16 +164,14 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra com o valor especificado
      */
-    @Cacheable(value = "ordensCompra", key = "'valor_' + #valor + '_' + #page + '_' + #size")
-    public Page<OrdemCompra> findByValor(BigDecimal valor, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "'valor_' + #valor + '_' + #page + '_' + #size", sync = true)
+    public Page<OrdemCompraResumo> findByValor(BigDecimal valor, int page, int size) {
         log.info("Buscando ordens de compra por valor: {}, Página: {}", valor, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findByVALOR(valor, pageable);
         
-        logPerformanceInfo("Ordens de Compra por Valor", ordens, startTime);
+        registrarConsulta("Ordens de Compra por Valor", ordens);
         return ordens;
     }
 
@@ -128,16 +182,14 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra com a data de previsão
      */
-    @Cacheable(value = "ordensCompra", key = "'dataPrevisao_' + #dataPrevisao + '_' + #page + '_' + #size")
-    public Page<OrdemCompra> findByDataPrevisao(LocalDate dataPrevisao, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "'dataPrevisao_' + #dataPrevisao + '_' + #page + '_' + #size", sync = true)
+    public Page<OrdemCompraResumo> findByDataPrevisao(LocalDate dataPrevisao, int page, int size) {
         log.info("Buscando ordens de compra por data de previsão: {}, Página: {}", dataPrevisao, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findByDATAPREV(dataPrevisao, pageable);
         
-        logPerformanceInfo("Ordens de Compra por Data de Previsão", ordens, startTime);
+        registrarConsulta("Ordens de Compra por Data de Previsão", ordens);
         return ordens;
     }
 
@@ -148,16 +200,14 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra com a data da ordem
      */
-    @Cacheable(value = "ordensCompra", key = "'dataOrdem_' + #dataOrdem + '_' + #page + '_' + #size")
-    public Page<OrdemCompra> findByDataOrdem(LocalDate dataOrdem, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "'dataOrdem_' + #dataOrdem + '_' + #page + '_' + #size", sync = true)
+    public Page<OrdemCompraResumo> findByDataOrdem(LocalDate dataOrdem, int page, int size) {
         log.info("Buscando ordens de compra por data da ordem: {}, Página: {}", dataOrdem, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findByDATAORDEM(dataOrdem, pageable);
         
-        logPerformanceInfo("Ordens de Compra por Data da Ordem", ordens, startTime);
+        registrarConsulta("Ordens de Compra por Data da Ordem", ordens);
         return ordens;
     }
 
@@ -168,16 +218,14 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra com a data de entrega
      */
-    @Cacheable(value = "ordensCompra", key = "'dataEntrega_' + #dataEntrega + '_' + #page + '_' + #size")
-    public Page<OrdemCompra> findByDataEntrega(LocalDate dataEntrega, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "'dataEntrega_' + #dataEntrega + '_' + #page + '_' + #size", sync = true)
+    public Page<OrdemCompraResumo> findByDataEntrega(LocalDate dataEntrega, int page, int size) {
         log.info("Buscando ordens de compra por data de entrega: {}, Página: {}", dataEntrega, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método no repository se necessário
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findByDATAENTRE(dataEntrega, pageable);
         
-        logPerformanceInfo("Ordens de Compra por Data de Entrega", ordens, startTime);
+        registrarConsulta("Ordens de Compra por Data de Entrega", ordens);
         return ordens;
     }
 
@@ -187,16 +235,14 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra pendentes
      */
-    @Cacheable(value = "ordensCompra", key = "'pendentes_' + #page + '_' + #size")
-    public Page<OrdemCompra> findOrdensPendentes(int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "'pendentes_' + #page + '_' + #size", sync = true)
+    public Page<OrdemCompraResumo> findOrdensPendentes(int page, int size) {
         log.info("Buscando ordens de compra pendentes - Página: {}", page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método específico no repository se necessário
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findBySTATUSORD(StatusOrdem.PEND, pageable);
         
-        logPerformanceInfo("Ordens de Compra Pendentes", ordens, startTime);
+        registrarConsulta("Ordens de Compra Pendentes", ordens);
         return ordens;
     }
 
@@ -208,16 +254,14 @@ public class OrdemCompraService extends BaseService {
      * @param size Tamanho da página
      * @return Página de ordens de compra no período especificado
      */
-    @Cacheable(value = "ordensCompra", key = "'periodo_' + #dataInicio + '_' + #dataFim + '_' + #page + '_' + #size")
-    public Page<OrdemCompra> findOrdensPorPeriodo(LocalDate dataInicio, LocalDate dataFim, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "ordensCompra", key = "'periodo_' + #dataInicio + '_' + #dataFim + '_' + #page + '_' + #size", sync = true)
+    public Page<OrdemCompraResumo> findOrdensPorPeriodo(LocalDate dataInicio, LocalDate dataFim, int page, int size) {
         log.info("Buscando ordens de compra por período: {} a {}, Página: {}", dataInicio, dataFim, page);
         
         Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método específico no repository se necessário
-        Page<OrdemCompra> ordens = ordemCompraRepository.findAll(pageable);
+        Page<OrdemCompraResumo> ordens = ordemCompraRepository.findByDATAORDEMEntre(dataInicio, dataFim, pageable);
         
-        logPerformanceInfo("Ordens de Compra por Período", ordens, startTime);
+        registrarConsulta("Ordens de Compra por Período", ordens);
         return ordens;
     }
 
@@ -227,15 +271,13 @@ public class OrdemCompraService extends BaseService {
      * @return Ordem de compra salva
      */
     @Transactional
-    @CacheEvict(value = {"ordensCompra", "ordemCompra"}, allEntries = true)
     public OrdemCompra save(OrdemCompra ordemCompra) {
-        long startTime = System.currentTimeMillis();
         log.info("Salvando nova ordem de compra ID: {}", ordemCompra.getId());
         
         OrdemCompra ordemSalva = ordemCompraRepository.save(ordemCompra);
+        invalidarCaches("salvar ordem de compra " + ordemSalva.getId(), null, EstadoOrdem.de(ordemSalva));
         
-        long endTime = System.currentTimeMillis();
-        log.info("Ordem de compra ID {} salva em {}ms", ordemCompra.getId(), endTime - startTime);
+        log.info("Ordem de compra ID {} salva", ordemCompra.getId());
         
         return ordemSalva;
     }
@@ -246,16 +288,15 @@ public class OrdemCompraService extends BaseService {
      * @return Ordem de compra atualizada
      */
     @Transactional
-    @CachePut(value = "ordemCompra", key = "#ordemCompra.id")
-    @CacheEvict(value = "ordensCompra", allEntries = true)
     public OrdemCompra update(OrdemCompra ordemCompra) {
-        long startTime = System.currentTimeMillis();
         log.info("Atualizando ordem de compra ID: {}", ordemCompra.getId());
         
+        // Estado anterior capturado antes do merge, que altera a instância gerenciada
+        EstadoOrdem anterior = ordemCompraRepository.findById(ordemCompra.getId()).map(EstadoOrdem::de).orElse(null);
         OrdemCompra ordemAtualizada = ordemCompraRepository.save(ordemCompra);
+        invalidarCaches("atualizar ordem de compra " + ordemCompra.getId(), anterior, EstadoOrdem.de(ordemAtualizada));
         
-        long endTime = System.currentTimeMillis();
-        log.info("Ordem de compra ID {} atualizada em {}ms", ordemCompra.getId(), endTime - startTime);
+        log.info("Ordem de compra ID {} atualizada", ordemCompra.getId());
         
         return ordemAtualizada;
     }
@@ -265,15 +306,15 @@ public class OrdemCompraService extends BaseService {
      * @param id ID da ordem de compra a ser removida
      */
     @Transactional
-    @CacheEvict(value = {"ordensCompra", "ordemCompra"}, allEntries = true)
     public void deleteById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Removendo ordem de compra ID: {}", id);
         
-        ordemCompraRepository.deleteById(id);
+        Optional<OrdemCompra> existente = ordemCompraRepository.findById(id);
+        EstadoOrdem anterior = existente.map(EstadoOrdem::de).orElse(null);
+        existente.ifPresent(ordemCompraRepository::delete);
+        invalidarCaches("remover ordem de compra " + id, anterior, null);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Ordem de compra ID {} removida em {}ms", id, endTime - startTime);
+        log.info("Ordem de compra ID {} removida", id);
     }
 
     /**
@@ -283,20 +324,18 @@ public class OrdemCompraService extends BaseService {
      * @return Ordem de compra atualizada
      */
     @Transactional
-    @CachePut(value = "ordemCompra", key = "#id")
-    @CacheEvict(value = "ordensCompra", allEntries = true)
     public OrdemCompra updateStatus(Integer id, StatusOrdem novoStatus) {
-        long startTime = System.currentTimeMillis();
         log.info("Atualizando status da ordem de compra ID: {} para {}", id, novoStatus);
         
         Optional<OrdemCompra> ordemOpt = ordemCompraRepository.findById(id);
         if (ordemOpt.isPresent()) {
             OrdemCompra ordem = ordemOpt.get();
+            EstadoOrdem anterior = EstadoOrdem.de(ordem);
             ordem.setStatus(novoStatus);
             OrdemCompra ordemAtualizada = ordemCompraRepository.save(ordem);
+            invalidarCaches("atualizar status ordem de compra " + id, anterior, EstadoOrdem.de(ordemAtualizada));
             
-            long endTime = System.currentTimeMillis();
-            log.info("Status da ordem de compra ID {} atualizado em {}ms", id, endTime - startTime);
+            log.info("Status da ordem de compra ID {} atualizado", id);
             
             return ordemAtualizada;
         }
@@ -305,12 +344,93 @@ public class OrdemCompraService extends BaseService {
         return null;
     }
 
+    /**
+     * Recebe uma ordem de compra entregue
+     * Gera um lote e um estoque para cada item (ou para cada lote informado do item),
+     * grava tudo em lotes JDBC numa única transação, registra as entradas no livro
+     * MOVIMENTACAO e conclui a ordem; as entradas de cache afetadas são invalidadas
+     * uma única vez após o commit
+     * @param id ID da ordem de compra
+     * @param lotes Dados dos lotes entregues por item (vazio = todos os itens como pedidos)
+     * @param idUsuario Responsável pelo recebimento (null = usuário do sistema)
+     * @return Optional contendo o resultado, vazio se a ordem não existir
+     */
+    @Transactional
+    public Optional<RecebimentoOrdem> receber(Integer id, List<LoteRecebimento> lotes, Integer idUsuario) {
+        log.info("Recebendo ordem de compra ID: {}", id);
+
+        Optional<OrdemCompra> ordemOpt = ordemCompraRepository.findById(id);
+        if (ordemOpt.isEmpty()) {
+            log.warn("Ordem de compra ID {} não encontrada para recebimento", id);
+            return Optional.empty();
+        }
+        OrdemCompra ordem = ordemOpt.get();
+        EstadoOrdem anterior = EstadoOrdem.de(ordem);
+        LocalDate hoje = LocalDate.now();
+
+        // A conclusão vem antes dos inserts: o bloqueio da linha barra um recebimento concorrente
+        if (ordem.getStatus() == StatusOrdem.CONC || ordemCompraRepository.concluir(id, StatusOrdem.CONC, hoje) == 0) {
+            throw new OrdemJaRecebidaException(id);
+        }
+
+        List<ItemOrdemCompra> itens = itemOrdemCompraRepository.findParaRecebimento(id);
+        if (itens.isEmpty()) {
+            throw new RecebimentoInvalidoException("A ordem de compra " + id + " não possui itens");
+        }
+        Map<Integer, List<LoteRecebimento>> lotesPorItem = agruparPorItem(id, itens, lotes);
+
+        List<ItemOrdemCompra> origens = new ArrayList<>();
+        List<Lote> novosLotes = new ArrayList<>();
+        List<Estoque> novosEstoques = new ArrayList<>();
+        for (ItemOrdemCompra item : itens) {
+            List<LoteRecebimento> entregues = lotesPorItem.getOrDefault(item.getId(),
+                    List.of(new LoteRecebimento(item.getId(), null, null)));
+            for (LoteRecebimento entregue : entregues) {
+                int quantidade = entregue.quantidade() != null ? entregue.quantidade() : item.getQuantidade();
+                LocalDate vencimento = entregue.dataVencimento() != null
+                        ? entregue.dataVencimento() : item.getDataVencimento();
+                if (quantidade <= 0) {
+                    throw new RecebimentoInvalidoException("Quantidade inválida para o item " + item.getId());
+                }
+                if (vencimento == null || !vencimento.isAfter(hoje)) {
+                    throw new RecebimentoInvalidoException("O lote do item " + item.getId() + " deve vencer no futuro");
+                }
+                Lote lote = new Lote(null, ordem, vencimento, quantidade);
+                origens.add(item);
+                novosLotes.add(lote);
+                novosEstoques.add(new Estoque(null, item.getProduto(), lote, quantidade));
+            }
+        }
+
+        EstadoOrdem atual = new EstadoOrdem(id, StatusOrdem.CONC, anterior.valor(), anterior.dataPrevisao(),
+                anterior.dataOrdem(), hoje);
+        Invalidacao invalidacao = invalidacaoDe("receber ordem de compra " + id, anterior, atual)
+                .chaves("ordemCompra", id);
+
+        loteRepository.saveAll(novosLotes);
+        estoqueService.saveAllRecebidos(novosEstoques, idUsuario, invalidacao);
+        contagemStatusService.registrarTransicao(anterior.status(), StatusOrdem.CONC);
+        invalidacao.executar();
+
+        List<ItemRecebido> recebidos = new ArrayList<>(novosEstoques.size());
+        for (int i = 0; i < novosEstoques.size(); i++) {
+            Estoque estoque = novosEstoques.get(i);
+            Lote lote = novosLotes.get(i);
+            recebidos.add(new ItemRecebido(origens.get(i).getId(), estoque.getProduto().getId(), lote.getId(),
+                    estoque.getId(), lote.getDataVencimento(), lote.getQuantidade()));
+        }
+
+        log.info("Ordem de compra ID {} recebida - {} itens, {} lotes", id, itens.size(), recebidos.size());
+
+        return Optional.of(new RecebimentoOrdem(id, StatusOrdem.CONC, hoje, recebidos));
+    }
+
     /**
      * Verifica se uma ordem de compra existe por ID
      * @param id ID da ordem de compra
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "ordemCompra", key = "'exists_' + #id")
+    @Cacheable(value = "ordemCompra", key = "'exists_' + #id", sync = true)
     public boolean existsById(Integer id) {
         return ordemCompraRepository.existsById(id);
     }
@@ -319,7 +439,7 @@ public class OrdemCompraService extends BaseService {
      * Conta o total de ordens de compra
      * @return Total de ordens de compra
      */
-    @Cacheable(value = "ordemCompra", key = "'count'")
+    @Cacheable(value = "ordemCompra", key = "'count'", sync = true)
     public long count() {
         return ordemCompraRepository.count();
     }
@@ -329,9 +449,137 @@ public class OrdemCompraService extends BaseService {
      * @param status Status das ordens
      * @return Total de ordens com o status especificado
      */
-    @Cacheable(value = "ordemCompra", key = "'count_status_' + #status")
     public long countByStatus(StatusOrdem status) {
-        // Implementar método específico no repository se necessário
-        return ordemCompraRepository.count();
+        return contagemStatusService.total(status);
+    }
+
+    /**
+     * Conta as ordens de compra de todos os status
+     * Lido dos contadores em memória, sem acesso ao banco
+     * @return Total de ordens por status
+     */
+    public Map<StatusOrdem, Long> countAgrupadoPorStatus() {
+        return contagemStatusService.totais();
+    }
+
+    /**
+     * Invalida as entradas de cache afetadas por uma inclusão, alteração ou remoção
+     * Alterações só atingem os filtros cujos atributos mudaram
+     * @param descricao Descrição da escrita
+     * @param anterior Estado antes da escrita (null em inclusões)
+     * @param atual Estado após a escrita (null em remoções)
+     */
+    private void invalidarCaches(String descricao, EstadoOrdem anterior, EstadoOrdem atual) {
+        if (anterior != null || atual != null) {
+            contagemStatusService.registrarTransicao(statusDe(anterior), statusDe(atual));
+            invalidacaoDe(descricao, anterior, atual).executar();
+        }
+    }
+
+    /**
+     * Monta, sem executar, a invalidação das entradas afetadas por uma escrita
+     */
+    private Invalidacao invalidacaoDe(String descricao, EstadoOrdem anterior, EstadoOrdem atual) {
+        EstadoOrdem referencia = atual != null ? atual : anterior;
+        boolean estrutural = anterior == null || atual == null;
+        EstadoOrdem antes = anterior != null ? anterior : EstadoOrdem.VAZIO;
+        EstadoOrdem depois = atual != null ? atual : EstadoOrdem.VAZIO;
+
+        Invalidacao invalidacao = cacheDependencias.invalidacao(descricao)
+                .tags("ordensCompra", "id_" + referencia.id());
+
+        if (estrutural) {
+            invalidacao.tags("ordensCompra", CacheDependencias.TAG_LISTAGEM)
+                    .chaves("ordemCompra", "count", "exists_" + referencia.id());
+        } else if (!antes.equals(depois)) {
+            // A entidade muda de posição nas listagens ordenadas pelo campo alterado
+            invalidacao.listagensOrdenadas("ordensCompra");
+        }
+        if (estrutural || antes.status() != depois.status()) {
+            invalidacao.tagsDeFiltro("ordensCompra", "status_", antes.status(), depois.status())
+                    .tags("ordensCompra", "pendentes");
+        }
+        if (estrutural || !Objects.equals(antes.valor(), depois.valor())) {
+            // A chave usa o BigDecimal textual (10 e 10.00 são chaves distintas): invalida por prefixo
+            invalidacao.prefixo("ordensCompra", "valor_");
+        }
+        if (estrutural || !Objects.equals(antes.dataPrevisao(), depois.dataPrevisao())) {
+            invalidacao.tagsDeFiltro("ordensCompra", "dataPrevisao_", antes.dataPrevisao(), depois.dataPrevisao());
+        }
+        if (estrutural || !Objects.equals(antes.dataEntrega(), depois.dataEntrega())) {
+            invalidacao.tagsDeFiltro("ordensCompra", "dataEntrega_", antes.dataEntrega(), depois.dataEntrega());
+        }
+        if (estrutural || !Objects.equals(antes.dataOrdem(), depois.dataOrdem())) {
+            invalidacao.tagsDeFiltro("ordensCompra", "dataOrdem_", antes.dataOrdem(), depois.dataOrdem())
+                    .prefixo("ordensCompra", "periodo_", periodoContendo(antes.dataOrdem(), depois.dataOrdem()));
+        }
+        // O detalhe em cache é sempre removido: é recarregado com o plano OrdemCompra.detalhe
+        return invalidacao.chaves("ordemCompra", referencia.id());
+    }
+
+    /**
+     * Agrupa os lotes informados pelo item de origem, rejeitando itens de outra ordem
+     */
+    private static Map<Integer, List<LoteRecebimento>> agruparPorItem(Integer idOrdem, List<ItemOrdemCompra> itens,
+                                                                      List<LoteRecebimento> lotes) {
+        Map<Integer, List<LoteRecebimento>> lotesPorItem = new HashMap<>();
+        if (lotes == null || lotes.isEmpty()) {
+            return lotesPorItem;
+        }
+        Set<Integer> idsItens = new HashSet<>();
+        itens.forEach(item -> idsItens.add(item.getId()));
+        for (LoteRecebimento lote : lotes) {
+            if (lote == null || !idsItens.contains(lote.idItem())) {
+                throw new RecebimentoInvalidoException("Item " + (lote != null ? lote.idItem() : null)
+                        + " não pertence à ordem de compra " + idOrdem);
+            }
+            lotesPorItem.computeIfAbsent(lote.idItem(), idItem -> new ArrayList<>()).add(lote);
+        }
+        return lotesPorItem;
+    }
+
+    /**
+     * Status de um estado de escrita (null em inclusões e remoções)
+     */
+    private static StatusOrdem statusDe(EstadoOrdem estado) {
+        return estado != null ? estado.status() : null;
+    }
+
+    /**
+     * Filtro dos períodos (sufixo "inicio_fim") que contêm alguma das datas
+     */
+    private static Predicate<String> periodoContendo(LocalDate... datas) {
+        return sufixo -> {
+            String[] limites = sufixo.split("_");
+            if (limites.length != 2) {
+                return true;
+            }
+            try {
+                LocalDate inicio = LocalDate.parse(limites[0]);
+                LocalDate fim = LocalDate.parse(limites[1]);
+                for (LocalDate data : datas) {
+                    if (data != null && !data.isBefore(inicio) && !data.isAfter(fim)) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (DateTimeParseException e) {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Atributos de uma ordem de compra que determinam em quais entradas de cache ela aparece
+     */
+    private record EstadoOrdem(Integer id, StatusOrdem status, BigDecimal valor, LocalDate dataPrevisao,
+                               LocalDate dataOrdem, LocalDate dataEntrega) {
+
+        static final EstadoOrdem VAZIO = new EstadoOrdem(null, null, null, null, null, null);
+
+        static EstadoOrdem de(OrdemCompra ordem) {
+            return new EstadoOrdem(ordem.getId(), ordem.getStatus(), ordem.getValor(),
+                    ordem.getDataPrevisao(), ordem.getDataOrdem(), ordem.getDataEntrega());
+        }
     }
 }
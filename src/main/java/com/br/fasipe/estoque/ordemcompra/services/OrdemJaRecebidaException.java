@@ -0,0 +1,22 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Recebimento rejeitado: a ordem de compra já está concluída
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OrdemJaRecebidaException extends RuntimeException {
+
+    private final Integer idOrdem;
+
+    public OrdemJaRecebidaException(Integer idOrdem) {
+        super("A ordem de compra " + idOrdem + " já foi recebida");
+        this.idOrdem = idOrdem;
+    }
+
+    public Integer getIdOrdem() {
+        return idOrdem;
+    }
+}
@@ -6,16 +6,35 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 
+import com.br.fasipe.estoque.ordemcompra.cache.CacheDependencias;
+import com.br.fasipe.estoque.ordemcompra.cache.Invalidacao;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.dto.LeituraCodigosBarras;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoSugestao;
 import com.br.fasipe.estoque.ordemcompra.models.Produto;
 import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -24,12 +43,31 @@ import java.util.Optional;
  */
 @Slf4j
 @Service
+@Timed("fasiclin.servico")
 @Transactional(readOnly = true)
 public class ProdutoService extends BaseService {
 
     @Autowired
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private CacheDependencias cacheDependencias;
+
+    @Autowired
+    private EstoqueBaixoService estoqueBaixoService;
+
+    @Autowired
+    private SaldoConsolidadoService saldoConsolidadoService;
+
+    @Autowired
+    private CodigoBarrasService codigoBarrasService;
+
+    @Autowired
+    private BuscaProdutosService buscaProdutosService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Busca todos os produtos com paginação otimizada
      * @param page Número da página (0-based)
@@ -38,15 +76,14 @@ public class ProdutoService extends BaseService {
      * @param direction Direção da ordenação
      * @return Página de produtos
      */
-    @Cacheable(value = "produtos", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction")
-    public Page<Produto> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "produtos", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction", sync = true)
+    public Page<ProdutoResumo> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
         log.info("Iniciando busca paginada de produtos - Página: {}, Tamanho: {}", page, size);
         
         Pageable pageable = createOptimizedPageable(page, size, sortBy, direction);
-        Page<Produto> produtos = produtoRepository.findAll(pageable);
+        Page<ProdutoResumo> produtos = produtoRepository.findResumos(pageable);
         
-        logPerformanceInfo("Produtos", produtos, startTime);
+        registrarConsulta("Produtos", produtos);
         return produtos;
     }
 
@@ -56,8 +93,8 @@ public class ProdutoService extends BaseService {
      * @param size Tamanho da página
      * @return Página de produtos ordenados por ID
      */
-    @Cacheable(value = "produtos", key = "#page + '_' + #size + '_default'")
-    public Page<Produto> findAllPaginated(int page, int size) {
+    @Cacheable(value = "produtos", key = "#page + '_' + #size + '_default'", sync = true)
+    public Page<ProdutoResumo> findAllPaginated(int page, int size) {
         return findAllPaginated(page, size, "id", Sort.Direction.ASC);
     }
 
@@ -66,15 +103,11 @@ public class ProdutoService extends BaseService {
      * @param id ID do produto
      * @return Optional contendo o produto se encontrado
      */
-    @Cacheable(value = "produto", key = "#id")
-    public Optional<Produto> findById(Integer id) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "produto", key = "#id", sync = true)
+    public Optional<ProdutoDetalhe> findById(Integer id) {
         log.info("Buscando produto por ID: {}", id);
         
-        Optional<Produto> produto = produtoRepository.findByIdProduto(id);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de produto por ID {} executada em {}ms", id, endTime - startTime);
+        Optional<ProdutoDetalhe> produto = produtoRepository.findByIdProduto(id).map(ProdutoDetalhe::de);
         
         return produto;
     }
@@ -84,15 +117,11 @@ public class ProdutoService extends BaseService {
      * @param nome Nome do produto
      * @return Optional contendo o produto se encontrado
      */
-    @Cacheable(value = "produto", key = "'nome_' + #nome")
-    public Optional<Produto> findByNome(String nome) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "produto", key = "'nome_' + #nome", sync = true)
+    public Optional<ProdutoDetalhe> findByNome(String nome) {
         log.info("Buscando produto por nome: {}", nome);
         
-        Optional<Produto> produto = produtoRepository.findByNome(nome);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de produto por nome '{}' executada em {}ms", nome, endTime - startTime);
+        Optional<ProdutoDetalhe> produto = produtoRepository.findByNome(nome).map(ProdutoDetalhe::de);
         
         return produto;
     }
@@ -104,38 +133,76 @@ public class ProdutoService extends BaseService {
      * @param size Tamanho da página
      * @return Página de produtos do almoxarifado
      */
-    @Cacheable(value = "produtos", key = "'almoxarifado_' + #idAlmoxarifado + '_' + #page + '_' + #size")
-    public Page<Produto> findByAlmoxarifado(Integer idAlmoxarifado, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "produtos", key = "'almoxarifado_' + #idAlmoxarifado + '_' + #page + '_' + #size", sync = true)
+    public Page<ProdutoResumo> findByAlmoxarifado(Integer idAlmoxarifado, int page, int size) {
         log.info("Buscando produtos por almoxarifado: {}, Página: {}", idAlmoxarifado, page);
         
         Pageable pageable = createDefaultPageable(page, size);
         // Implementar método no repository se necessário
         // Por enquanto, busca todos e filtra
-        Page<Produto> produtos = produtoRepository.findAll(pageable);
+        Page<ProdutoResumo> produtos = produtoRepository.findResumos(pageable);
         
-        logPerformanceInfo("Produtos por Almoxarifado", produtos, startTime);
+        registrarConsulta("Produtos por Almoxarifado", produtos);
         return produtos;
     }
 
     /**
      * Busca produto por código de barras
+     * O código é resolvido pelo {@link CodigoBarrasService}; o banco só é lido pela chave primária
      * @param codBarras Código de barras do produto
      * @return Optional contendo o produto se encontrado
      */
-    @Cacheable(value = "produto", key = "'codBarras_' + #codBarras")
-    public Optional<Produto> findByCodBarras(String codBarras) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "produto", key = "'codBarras_' + #codBarras", sync = true)
+    public Optional<ProdutoDetalhe> findByCodBarras(String codBarras) {
         log.info("Buscando produto por código de barras: {}", codBarras);
         
-        Optional<Produto> produto = produtoRepository.findByCodBarras(codBarras);
-        
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de produto por código de barras '{}' executada em {}ms", codBarras, endTime - startTime);
+        Optional<ProdutoDetalhe> produto = codigoBarrasService.findIdProduto(codBarras)
+                .flatMap(produtoRepository::findByIdProduto)
+                .map(ProdutoDetalhe::de);
         
         return produto;
     }
 
+    /**
+     * Busca os produtos de uma leitura em lote de códigos de barras
+     * Os códigos são resolvidos pelo {@link CodigoBarrasService}; os detalhes vêm
+     * do cache "produto" por ID e os que faltam são lidos juntos em uma consulta
+     * @param codigos Códigos lidos, na ordem da leitura
+     * @return Produtos por código e códigos não encontrados
+     */
+    public LeituraCodigosBarras findByCodigosBarras(List<String> codigos) {
+        log.info("Buscando produtos por {} códigos de barras", codigos.size());
+        
+        Map<String, Integer> ids = codigoBarrasService.findIdsProdutos(codigos);
+        Map<Integer, ProdutoDetalhe> detalhes = carregarDetalhes(new LinkedHashSet<>(ids.values()));
+        
+        Map<String, ProdutoDetalhe> produtos = new LinkedHashMap<>();
+        List<String> naoEncontrados = new ArrayList<>();
+        for (String codigo : new LinkedHashSet<>(codigos)) {
+            ProdutoDetalhe detalhe = ids.containsKey(codigo) ? detalhes.get(ids.get(codigo)) : null;
+            if (detalhe != null) {
+                produtos.put(codigo, detalhe);
+            } else {
+                naoEncontrados.add(codigo);
+            }
+        }
+        return new LeituraCodigosBarras(produtos, naoEncontrados);
+    }
+
+    /**
+     * Busca produtos pelo texto digitado (autocompletar), por prefixo e tolerando erros de digitação
+     * Resolvida pelo {@link BuscaProdutosService} sobre nome, descrição e código de barras, sem ir ao banco
+     * @param texto Texto digitado
+     * @param limite Quantidade máxima de sugestões (máximo 50)
+     * @return Sugestões da mais para a menos relevante
+     */
+    public List<ProdutoSugestao> buscar(String texto, int limite) {
+        // Chamada a cada tecla: fica fora do log de informação
+        log.debug("Buscando produtos pelo texto: {}", texto);
+        
+        return buscaProdutosService.buscar(texto, Math.min(Math.max(limite, 1), 50));
+    }
+
     /**
      * Busca produtos por temperatura ideal com paginação
      * @param tempIdeal Temperatura ideal
@@ -143,54 +210,53 @@ public class ProdutoService extends BaseService {
      * @param size Tamanho da página
      * @return Página de produtos com a temperatura ideal
      */
-    @Cacheable(value = "produtos", key = "'tempIdeal_' + #tempIdeal + '_' + #page + '_' + #size")
-    public Page<Produto> findByTempIdeal(BigDecimal tempIdeal, int page, int size) {
-        long startTime = System.currentTimeMillis();
+    @Cacheable(value = "produtos", key = "'tempIdeal_' + #tempIdeal + '_' + #page + '_' + #size", sync = true)
+    public Page<ProdutoResumo> findByTempIdeal(BigDecimal tempIdeal, int page, int size) {
         log.info("Buscando produtos por temperatura ideal: {}, Página: {}", tempIdeal, page);
         
         Pageable pageable = createDefaultPageable(page, size);
         // Implementar método no repository se necessário
-        Page<Produto> produtos = produtoRepository.findAll(pageable);
+        Page<ProdutoResumo> produtos = produtoRepository.findResumos(pageable);
         
-        logPerformanceInfo("Produtos por Temperatura Ideal", produtos, startTime);
+        registrarConsulta("Produtos por Temperatura Ideal", produtos);
         return produtos;
     }
 
     /**
-     * Busca produtos com estoque baixo (abaixo do mínimo) com paginação
-     * @param page Número da página
+     * Busca produtos com estoque baixo (saldo de todos os lotes abaixo do STQMIN) por cursor, na ordem do ID
+     * O conjunto é mantido pelo {@link EstoqueBaixoService}: a página parte do último ID
+     * entregue e só ela é lida do banco; o total vem da contagem mantida pelo conjunto
+     * @param after Token da página anterior (null ou vazio = primeira página)
      * @param size Tamanho da página
-     * @return Página de produtos com estoque baixo
+     * @return Página de produtos com estoque baixo e o token da página seguinte
      */
-    @Cacheable(value = "produtos", key = "'estoqueBaixo_' + #page + '_' + #size")
-    public Page<Produto> findProdutosComEstoqueBaixo(int page, int size) {
-        long startTime = System.currentTimeMillis();
-        log.info("Buscando produtos com estoque baixo - Página: {}", page);
+    public Pagina<ProdutoResumo> findProdutosComEstoqueBaixo(String after, int size) {
+        log.info("Buscando produtos com estoque baixo por cursor - Tamanho: {}", size);
         
-        Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método específico no repository se necessário
-        Page<Produto> produtos = produtoRepository.findAll(pageable);
+        Pagina<ProdutoResumo> produtos = buscarPorCursor(after, size, Sort.Direction.ASC,
+                (cursor, limite) -> carregarResumos(estoqueBaixoService.findIdsAbaixoDoMinimo(cursor, limite)),
+                ProdutoResumo::id, estoqueBaixoService::countAbaixoDoMinimo);
         
-        logPerformanceInfo("Produtos com Estoque Baixo", produtos, startTime);
+        registrarConsulta("Produtos com Estoque Baixo", produtos);
         return produtos;
     }
 
     /**
-     * Busca produtos próximos do ponto de pedido com paginação
-     * @param page Número da página
+     * Busca produtos próximos do ponto de pedido (saldo de todos os lotes até o PNTPEDIDO) por cursor, na ordem do ID
+     * O conjunto é mantido pelo {@link EstoqueBaixoService}: a página parte do último ID
+     * entregue e só ela é lida do banco; o total vem da contagem mantida pelo conjunto
+     * @param after Token da página anterior (null ou vazio = primeira página)
      * @param size Tamanho da página
-     * @return Página de produtos próximos do ponto de pedido
+     * @return Página de produtos próximos do ponto de pedido e o token da página seguinte
      */
-    @Cacheable(value = "produtos", key = "'proximosPedido_' + #page + '_' + #size")
-    public Page<Produto> findProdutosProximosDoPedido(int page, int size) {
-        long startTime = System.currentTimeMillis();
-        log.info("Buscando produtos próximos do ponto de pedido - Página: {}", page);
+    public Pagina<ProdutoResumo> findProdutosProximosDoPedido(String after, int size) {
+        log.info("Buscando produtos próximos do ponto de pedido por cursor - Tamanho: {}", size);
         
-        Pageable pageable = createDefaultPageable(page, size);
-        // Implementar método específico no repository se necessário
-        Page<Produto> produtos = produtoRepository.findAll(pageable);
+        Pagina<ProdutoResumo> produtos = buscarPorCursor(after, size, Sort.Direction.ASC,
+                (cursor, limite) -> carregarResumos(estoqueBaixoService.findIdsNoPontoDePedido(cursor, limite)),
+                ProdutoResumo::id, estoqueBaixoService::countNoPontoDePedido);
         
-        logPerformanceInfo("Produtos Próximos do Pedido", produtos, startTime);
+        registrarConsulta("Produtos Próximos do Pedido", produtos);
         return produtos;
     }
 
@@ -200,15 +266,17 @@ public class ProdutoService extends BaseService {
      * @return Produto salvo
      */
     @Transactional
-    @CacheEvict(value = {"produtos", "produto"}, allEntries = true)
     public Produto save(Produto produto) {
-        long startTime = System.currentTimeMillis();
         log.info("Salvando novo produto: {}", produto.getNome());
         
         Produto produtoSalvo = produtoRepository.save(produto);
+        invalidarCaches("salvar produto " + produtoSalvo.getId(), null, EstadoProduto.de(produtoSalvo));
+        estoqueBaixoService.registrarProduto(produtoSalvo.getId(), produtoSalvo.getStqMin(), produtoSalvo.getPtnPedido());
+        codigoBarrasService.registrar(produtoSalvo.getId(), null, produtoSalvo.getCodBarras());
+        buscaProdutosService.registrar(produtoSalvo.getId(), produtoSalvo.getNome(), produtoSalvo.getDescricao(),
+                produtoSalvo.getCodBarras());
         
-        long endTime = System.currentTimeMillis();
-        log.info("Produto '{}' salvo em {}ms", produto.getNome(), endTime - startTime);
+        log.info("Produto '{}' salvo", produto.getNome());
         
         return produtoSalvo;
     }
@@ -219,16 +287,25 @@ public class ProdutoService extends BaseService {
      * @return Produto atualizado
      */
     @Transactional
-    @CachePut(value = "produto", key = "#produto.id")
-    @CacheEvict(value = "produtos", allEntries = true)
     public Produto update(Produto produto) {
-        long startTime = System.currentTimeMillis();
         log.info("Atualizando produto ID: {}", produto.getId());
         
+        // Estado anterior capturado antes do merge, que altera a instância gerenciada
+        EstadoProduto anterior = produtoRepository.findById(produto.getId()).map(EstadoProduto::de).orElse(null);
         Produto produtoAtualizado = produtoRepository.save(produto);
+        EstadoProduto atual = EstadoProduto.de(produtoAtualizado);
+        invalidarCaches("atualizar produto " + produto.getId(), anterior, atual);
+        estoqueBaixoService.registrarLimites(produtoAtualizado.getId(), produtoAtualizado.getStqMin(),
+                produtoAtualizado.getPtnPedido());
+        codigoBarrasService.registrar(atual.id(), anterior != null ? anterior.codBarras() : null, atual.codBarras());
+        buscaProdutosService.registrar(atual.id(), produtoAtualizado.getNome(), produtoAtualizado.getDescricao(),
+                atual.codBarras());
+        if (anterior != null) {
+            // O saldo materializado por almoxarifado acompanha o produto
+            saldoConsolidadoService.transferirAlmoxarifado(atual.id(), anterior.idAlmoxarifado(), atual.idAlmoxarifado());
+        }
         
-        long endTime = System.currentTimeMillis();
-        log.info("Produto ID {} atualizado em {}ms", produto.getId(), endTime - startTime);
+        log.info("Produto ID {} atualizado", produto.getId());
         
         return produtoAtualizado;
     }
@@ -238,15 +315,20 @@ public class ProdutoService extends BaseService {
      * @param id ID do produto a ser removido
      */
     @Transactional
-    @CacheEvict(value = {"produtos", "produto"}, allEntries = true)
     public void deleteById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Removendo produto ID: {}", id);
         
-        produtoRepository.deleteById(id);
+        Optional<Produto> existente = produtoRepository.findById(id);
+        EstadoProduto anterior = existente.map(EstadoProduto::de).orElse(null);
+        existente.ifPresent(produtoRepository::delete);
+        invalidarCaches("remover produto " + id, anterior, null);
+        if (anterior != null) {
+            estoqueBaixoService.removerProduto(id);
+            codigoBarrasService.remover(id, anterior.codBarras());
+            buscaProdutosService.remover(id);
+        }
         
-        long endTime = System.currentTimeMillis();
-        log.info("Produto ID {} removido em {}ms", id, endTime - startTime);
+        log.info("Produto ID {} removido", id);
     }
 
     /**
@@ -254,7 +336,7 @@ public class ProdutoService extends BaseService {
      * @param id ID do produto
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "produto", key = "'exists_' + #id")
+    @Cacheable(value = "produto", key = "'exists_' + #id", sync = true)
     public boolean existsById(Integer id) {
         return produtoRepository.existsById(id);
     }
@@ -263,8 +345,125 @@ public class ProdutoService extends BaseService {
      * Conta o total de produtos
      * @return Total de produtos
      */
-    @Cacheable(value = "produto", key = "'count'")
+    @Cacheable(value = "produto", key = "'count'", sync = true)
     public long count() {
         return produtoRepository.count();
     }
+
+    /**
+     * Carrega os resumos dos produtos na ordem dos IDs informados (crescente ou decrescente)
+     * @param ids IDs da página
+     * @return Resumos dos produtos existentes
+     */
+    private List<ProdutoResumo> carregarResumos(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ProdutoResumo> produtos = produtoRepository.findResumosByIdIn(ids);
+        if (ids.size() > 1 && ids.get(0) > ids.get(1)) {
+            // A consulta devolve em ordem crescente de ID
+            return produtos.reversed();
+        }
+        return produtos;
+    }
+
+    /**
+     * Detalhes dos produtos pelo cache "produto" (chave ID, a mesma do findById);
+     * os ausentes são lidos em uma única consulta e colocados no cache
+     * @param ids IDs dos produtos
+     * @return Mapa ID -> detalhe dos produtos existentes
+     */
+    private Map<Integer, ProdutoDetalhe> carregarDetalhes(Collection<Integer> ids) {
+        Map<Integer, ProdutoDetalhe> detalhes = new HashMap<>();
+        Cache cache = cacheManager.getCache("produto");
+        List<Integer> ausentes = new ArrayList<>();
+        for (Integer id : ids) {
+            ProdutoDetalhe detalhe = cache != null ? cache.get(id, ProdutoDetalhe.class) : null;
+            if (detalhe != null) {
+                detalhes.put(id, detalhe);
+            } else {
+                ausentes.add(id);
+            }
+        }
+        if (!ausentes.isEmpty()) {
+            // Os detalhes vão para o cache: lidos da primária, como os carregados pelo @Cacheable
+            List<Produto> lidos = RoteamentoLeituraEscrita.naPrimaria(() -> produtoRepository.findDetalhesByIdIn(ausentes));
+            for (Produto produto : lidos) {
+                ProdutoDetalhe detalhe = ProdutoDetalhe.de(produto);
+                detalhes.put(detalhe.id(), detalhe);
+                if (cache != null) {
+                    cache.put(detalhe.id(), detalhe);
+                }
+            }
+        }
+        return detalhes;
+    }
+
+    /**
+     * Invalida as entradas de cache afetadas por uma inclusão, alteração ou remoção
+     * Alterações só atingem os filtros cujos atributos mudaram e as listagens
+     * ordenadas por outro campo que não o ID (qualquer coluna pode ser a ordenação)
+     * @param descricao Descrição da escrita
+     * @param anterior Estado antes da escrita (null em inclusões)
+     * @param atual Estado após a escrita (null em remoções)
+     */
+    private void invalidarCaches(String descricao, EstadoProduto anterior, EstadoProduto atual) {
+        EstadoProduto referencia = atual != null ? atual : anterior;
+        if (referencia == null) {
+            return;
+        }
+        boolean estrutural = anterior == null || atual == null;
+        EstadoProduto antes = anterior != null ? anterior : EstadoProduto.VAZIO;
+        EstadoProduto depois = atual != null ? atual : EstadoProduto.VAZIO;
+
+        Invalidacao invalidacao = cacheDependencias.invalidacao(descricao)
+                .tags("produtos", "id_" + referencia.id());
+
+        if (estrutural) {
+            invalidacao.tags("produtos", CacheDependencias.TAG_LISTAGEM)
+                    .chaves("produto", "count", "exists_" + referencia.id());
+        } else {
+            invalidacao.listagensOrdenadas("produtos");
+        }
+        if (estrutural || !Objects.equals(antes.idAlmoxarifado(), depois.idAlmoxarifado())) {
+            invalidacao.tagsDeFiltro("produtos", "almoxarifado_", antes.idAlmoxarifado(), depois.idAlmoxarifado());
+        }
+        if (estrutural || !Objects.equals(antes.tempIdeal(), depois.tempIdeal())) {
+            // A chave usa o BigDecimal textual (2 e 2.0 são chaves distintas): invalida por prefixo
+            invalidacao.prefixo("produtos", "tempIdeal_");
+        }
+        invalidacao.tagsDeFiltro("produto", "nome_", antes.nome(), depois.nome())
+                .tagsDeFiltro("produto", "codBarras_", antes.codBarras(), depois.codBarras());
+        // Detalhes e listagens de estoque exibem nome, código, unidade e almoxarifado do produto
+        invalidacao.tags("estoque", "produto_" + referencia.id())
+                .tags("estoques", "produto_" + referencia.id());
+        if (!estrutural && !Objects.equals(antes.idAlmoxarifado(), depois.idAlmoxarifado())) {
+            // Os estoques do produto passam para a listagem do novo almoxarifado
+            invalidacao.tagsDeFiltro("estoques", "almoxarifado_", antes.idAlmoxarifado(), depois.idAlmoxarifado());
+        }
+        if (!estrutural && !Objects.equals(antes.nome(), depois.nome())) {
+            invalidacao.prefixo("estoques", CacheDependencias.TAG_ORDENACAO + "produto");
+        }
+        // O detalhe em cache é sempre removido: é recarregado com o plano Produto.detalhe
+        invalidacao.chaves("produto", referencia.id())
+                .executar();
+    }
+
+    /**
+     * Atributos de um produto que determinam em quais entradas de cache ele aparece
+     */
+    private record EstadoProduto(Integer id, String nome, String codBarras, Integer idAlmoxarifado,
+                                 BigDecimal tempIdeal) {
+
+        static final EstadoProduto VAZIO = new EstadoProduto(null, null, null, null, null);
+
+        static EstadoProduto de(Produto produto) {
+            return new EstadoProduto(
+                    produto.getId(),
+                    produto.getNome(),
+                    produto.getCodBarras(),
+                    produto.getAlmoxarifado() != null ? produto.getAlmoxarifado().getId() : null,
+                    produto.getTempIdeal());
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ConsultaLenta;
+import com.br.fasipe.estoque.ordemcompra.dto.SuspeitaNMaisUm;
+import com.br.fasipe.estoque.ordemcompra.sql.RegistroConsultas;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Service para consulta do profiler de SQL
+ * Expõe os comandos lentos e as suspeitas de N+1 guardados pelo
+ * {@link RegistroConsultas}; com o profiler desabilitado as listas ficam vazias
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class ProfiladorSqlService {
+
+    @Autowired
+    private ObjectProvider<RegistroConsultas> registroConsultas;
+
+    /**
+     * Retorna os comandos que passaram do limiar de lentidão
+     * @return Comandos com parâmetros, do mais lento para o mais rápido
+     */
+    public List<ConsultaLenta> getConsultasLentas() {
+        RegistroConsultas registro = registroConsultas.getIfAvailable();
+        return registro != null ? registro.getConsultasLentas() : List.of();
+    }
+
+    /**
+     * Retorna os comandos repetidos dentro de uma mesma requisição
+     * @return Suspeitas de N+1, da mais recente para a mais antiga
+     */
+    public List<SuspeitaNMaisUm> getSuspeitasNMaisUm() {
+        RegistroConsultas registro = registroConsultas.getIfAvailable();
+        return registro != null ? registro.getSuspeitas() : List.of();
+    }
+
+    /**
+     * Descarta os comandos lentos e as suspeitas guardados
+     */
+    public void limpar() {
+        RegistroConsultas registro = registroConsultas.getIfAvailable();
+        if (registro != null) {
+            registro.limpar();
+            log.info("Registro do profiler de SQL esvaziado");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Recebimento rejeitado por dados de lote inconsistentes com os itens da ordem
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class RecebimentoInvalidoException extends RuntimeException {
+
+    public RecebimentoInvalidoException(String mensagem) {
+        super(mensagem);
+    }
+}
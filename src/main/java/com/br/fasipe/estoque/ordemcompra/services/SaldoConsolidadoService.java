@@ -0,0 +1,215 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.models.SaldoAlmoxarifado;
+import com.br.fasipe.estoque.ordemcompra.models.SaldoConsolidado;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.SaldoAlmoxarifadoRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.SaldoConsolidadoRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Service dos saldos materializados (SALDOPRODUTO e SALDOALMOX)
+ * As variações registradas durante uma transação são somadas por produto e
+ * gravadas imediatamente antes do commit, em ordem de ID do produto: as linhas
+ * de saldo são sempre as últimas bloqueadas e na mesma ordem em todas as
+ * transações, então não há deadlock com os bloqueios de ESTOQUE.
+ * A reconstrução recalcula os saldos a partir de ESTOQUE em faixas de produtos
+ * processadas em paralelo, cada uma na sua transação
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+@Transactional(readOnly = true)
+public class SaldoConsolidadoService extends BaseService {
+
+    private static final Object VARIACOES = new Object();
+
+    @Autowired
+    private SaldoConsolidadoRepository saldoConsolidadoRepository;
+
+    @Autowired
+    private SaldoAlmoxarifadoRepository saldoAlmoxarifadoRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Executor de tarefas da aplicação: threads virtuais quando spring.threads.virtual.enabled
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor executor;
+
+    @Value("${fasiclin.saldo.reconstrucao.particoes:4}")
+    private int particoes;
+
+    /**
+     * Busca o saldo materializado de um produto
+     * @param idProduto ID do produto
+     * @return Optional contendo o saldo se o produto já teve estoque
+     */
+    public Optional<SaldoConsolidado> findByProduto(Integer idProduto) {
+        return saldoConsolidadoRepository.findByIdProduto(idProduto);
+    }
+
+    /**
+     * Busca o saldo materializado de um produto em um almoxarifado
+     * @param idAlmoxarifado ID do almoxarifado
+     * @param idProduto ID do produto
+     * @return Optional contendo o saldo se o produto já teve estoque no almoxarifado
+     */
+    public Optional<SaldoAlmoxarifado> findByAlmoxarifadoEProduto(Integer idAlmoxarifado, Integer idProduto) {
+        return saldoAlmoxarifadoRepository.findByChave(idAlmoxarifado, idProduto);
+    }
+
+    /**
+     * Busca os saldos materializados de um almoxarifado com paginação
+     * @param idAlmoxarifado ID do almoxarifado
+     * @param page Número da página (0-based)
+     * @param size Tamanho da página
+     * @return Página de saldos em ordem de ID do produto
+     */
+    public Page<SaldoAlmoxarifado> findByAlmoxarifado(Integer idAlmoxarifado, int page, int size) {
+        return saldoAlmoxarifadoRepository.findByIdAlmoxarifado(idAlmoxarifado,
+                createOptimizedPageable(page, size, "idProduto", Sort.Direction.ASC));
+    }
+
+    /**
+     * Registra a variação de quantidade de um produto na transação atual
+     * A soma é gravada antes do commit, junto com as demais variações da transação
+     * @param idProduto ID do produto
+     * @param variacao Quantidade somada (positiva) ou retirada (negativa)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVariacao(Integer idProduto, long variacao) {
+        if (idProduto == null || variacao == 0) {
+            return;
+        }
+        variacoesDaTransacao().merge(idProduto, variacao, Long::sum);
+    }
+
+    /**
+     * Move o saldo de um produto para o seu novo almoxarifado
+     * @param idProduto ID do produto
+     * @param anterior Almoxarifado anterior
+     * @param novo Almoxarifado atual
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transferirAlmoxarifado(Integer idProduto, Integer anterior, Integer novo) {
+        if (anterior == null || novo == null || anterior.equals(novo)) {
+            return;
+        }
+        saldoAlmoxarifadoRepository.transferir(idProduto, anterior, novo);
+    }
+
+    /**
+     * Recalcula todos os saldos materializados a partir de ESTOQUE
+     * A faixa de IDs de produto é dividida em partições processadas em paralelo;
+     * deve ser executada fora do horário de movimentação
+     * @return Quantidade de saldos por produto gravados
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long reconstruir() {
+        long startTime = System.currentTimeMillis();
+        Optional<Integer> menor = produtoRepository.findMenorId();
+        Optional<Integer> maior = produtoRepository.findMaiorId();
+        if (menor.isEmpty() || maior.isEmpty()) {
+            return 0;
+        }
+
+        int inicio = menor.get();
+        long tamanho = ((long) maior.get() - inicio) / particoes + 1;
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        try {
+            List<Future<Integer>> faixas = new ArrayList<>();
+            for (long faixaInicio = inicio; faixaInicio <= maior.get(); faixaInicio += tamanho) {
+                int de = (int) faixaInicio;
+                int ate = (int) Math.min(faixaInicio + tamanho - 1, maior.get());
+                faixas.add(executor.submit(() -> transacao.execute(status -> reconstruirFaixa(de, ate))));
+            }
+            long total = 0;
+            for (Future<Integer> faixa : faixas) {
+                total += faixa.get();
+            }
+
+            log.info("Saldos materializados de {} produtos reconstruídos em {}ms ({} partições)", total,
+                    System.currentTimeMillis() - startTime, faixas.size());
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconstrução dos saldos interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na reconstrução dos saldos", e.getCause());
+        }
+    }
+
+    private int reconstruirFaixa(int inicio, int fim) {
+        saldoConsolidadoRepository.deleteFaixa(inicio, fim);
+        saldoAlmoxarifadoRepository.deleteFaixa(inicio, fim);
+        saldoAlmoxarifadoRepository.insertFaixa(inicio, fim);
+        return saldoConsolidadoRepository.insertFaixa(inicio, fim);
+    }
+
+    /**
+     * Variações acumuladas na transação atual, em ordem de ID do produto
+     * Na primeira variação registra a gravação antes do commit
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Integer, Long> variacoesDaTransacao() {
+        Map<Integer, Long> variacoes = (Map<Integer, Long>) TransactionSynchronizationManager.getResource(VARIACOES);
+        if (variacoes == null) {
+            Map<Integer, Long> novas = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(VARIACOES, novas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    gravar(novas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(VARIACOES);
+                }
+            });
+            variacoes = novas;
+        }
+        return variacoes;
+    }
+
+    private void gravar(Map<Integer, Long> variacoes) {
+        variacoes.forEach((idProduto, variacao) -> {
+            if (variacao == 0) {
+                return;
+            }
+            saldoConsolidadoRepository.somar(idProduto, variacao);
+            produtoRepository.findIdAlmoxarifadoById(idProduto)
+                    .ifPresent(idAlmoxarifado -> saldoAlmoxarifadoRepository.somar(idAlmoxarifado, idProduto, variacao));
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Saída rejeitada por deixar o estoque com saldo negativo
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SaldoInsuficienteException extends RuntimeException {
+
+    private final Integer idEstoque;
+    private final int quantidade;
+
+    public SaldoInsuficienteException(Integer idEstoque, int quantidade) {
+        super("Saldo insuficiente no estoque " + idEstoque + " para retirar " + quantidade);
+        this.idEstoque = idEstoque;
+        this.quantidade = quantidade;
+    }
+
+    public Integer getIdEstoque() {
+        return idEstoque;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.cache.annotation.CachePut;
 import com.br.fasipe.estoque.ordemcompra.models.Setor;
 import com.br.fasipe.estoque.ordemcompra.repository.SetorRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
@@ -24,6 +26,7 @@ import java.util.List;
  */
 @Slf4j
 @Service
+@Timed("fasiclin.servico")
 @Transactional(readOnly = true)
 public class SetorService extends BaseService {
 
@@ -38,15 +41,14 @@ public class SetorService extends BaseService {
      * @param direction Direção da ordenação
      * @return Página de setores
      */
-    @Cacheable(value = "setores", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction")
+    @Cacheable(value = "setores", key = "#page + '_' + #size + '_' + #sortBy + '_' + #direction", sync = true)
     public Page<Setor> findAllPaginated(int page, int size, String sortBy, Sort.Direction direction) {
-        long startTime = System.currentTimeMillis();
         log.info("Iniciando busca paginada de setores - Página: {}, Tamanho: {}", page, size);
         
         Pageable pageable = createOptimizedPageable(page, size, sortBy, direction);
         Page<Setor> setores = setorRepository.findAll(pageable);
         
-        logPerformanceInfo("Setores", setores, startTime);
+        registrarConsulta("Setores", setores);
         return setores;
     }
 
@@ -56,7 +58,7 @@ public class SetorService extends BaseService {
      * @param size Tamanho da página
      * @return Página de setores ordenados por ID
      */
-    @Cacheable(value = "setores", key = "#page + '_' + #size + '_default'")
+    @Cacheable(value = "setores", key = "#page + '_' + #size + '_default'", sync = true)
     public Page<Setor> findAllPaginated(int page, int size) {
         return findAllPaginated(page, size, "id", Sort.Direction.ASC);
     }
@@ -66,16 +68,12 @@ public class SetorService extends BaseService {
      * @param id ID do setor
      * @return Optional contendo o setor se encontrado
      */
-    @Cacheable(value = "setor", key = "#id")
+    @Cacheable(value = "setor", key = "#id", sync = true)
     public Optional<Setor> findById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Buscando setor por ID: {}", id);
         
         Optional<Setor> setor = setorRepository.findById(id);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de setor por ID {} executada em {}ms", id, endTime - startTime);
-        
         return setor;
     }
 
@@ -84,16 +82,12 @@ public class SetorService extends BaseService {
      * @param nome Nome do setor
      * @return Optional contendo o setor se encontrado
      */
-    @Cacheable(value = "setor", key = "'nome_' + #nome")
+    @Cacheable(value = "setor", key = "'nome_' + #nome", sync = true)
     public Optional<Setor> findByNome(String nome) {
-        long startTime = System.currentTimeMillis();
         log.info("Buscando setor por nome: {}", nome);
         
         Optional<Setor> setor = setorRepository.findByNomeSetor(nome);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Busca de setor por nome '{}' executada em {}ms", nome, endTime - startTime);
-        
         return setor;
     }
 
@@ -105,13 +99,11 @@ public class SetorService extends BaseService {
     @Transactional
     @CacheEvict(value = {"setores", "setor"}, allEntries = true)
     public Setor save(Setor setor) {
-        long startTime = System.currentTimeMillis();
         log.info("Salvando novo setor: {}", setor.getNome());
         
         Setor setorSalvo = setorRepository.save(setor);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Setor '{}' salvo em {}ms", setor.getNome(), endTime - startTime);
+        log.info("Setor '{}' salvo", setor.getNome());
         
         return setorSalvo;
     }
@@ -125,13 +117,11 @@ public class SetorService extends BaseService {
     @CachePut(value = "setor", key = "#setor.id")
     @CacheEvict(value = "setores", allEntries = true)
     public Setor update(Setor setor) {
-        long startTime = System.currentTimeMillis();
         log.info("Atualizando setor ID: {}", setor.getId());
         
         Setor setorAtualizado = setorRepository.save(setor);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Setor ID {} atualizado em {}ms", setor.getId(), endTime - startTime);
+        log.info("Setor ID {} atualizado", setor.getId());
         
         return setorAtualizado;
     }
@@ -143,13 +133,11 @@ public class SetorService extends BaseService {
     @Transactional
     @CacheEvict(value = {"setores", "setor"}, allEntries = true)
     public void deleteById(Integer id) {
-        long startTime = System.currentTimeMillis();
         log.info("Removendo setor ID: {}", id);
         
         setorRepository.deleteById(id);
         
-        long endTime = System.currentTimeMillis();
-        log.info("Setor ID {} removido em {}ms", id, endTime - startTime);
+        log.info("Setor ID {} removido", id);
     }
 
     /**
@@ -157,7 +145,7 @@ public class SetorService extends BaseService {
      * @param id ID do setor
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "setor", key = "'exists_' + #id")
+    @Cacheable(value = "setor", key = "'exists_' + #id", sync = true)
     public boolean existsById(Integer id) {
         return setorRepository.existsById(id);
     }
@@ -167,7 +155,7 @@ public class SetorService extends BaseService {
      * @param nome Nome do setor
      * @return true se existe, false caso contrário
      */
-    @Cacheable(value = "setor", key = "'exists_nome_' + #nome")
+    @Cacheable(value = "setor", key = "'exists_nome_' + #nome", sync = true)
     public boolean existsByNome(String nome) {
         return setorRepository.findByNomeSetor(nome).isPresent();
     }
@@ -176,7 +164,7 @@ public class SetorService extends BaseService {
      * Conta o total de setores
      * @return Total de setores
      */
-    @Cacheable(value = "setor", key = "'count'")
+    @Cacheable(value = "setor", key = "'count'", sync = true)
     public long count() {
         return setorRepository.count();
     }
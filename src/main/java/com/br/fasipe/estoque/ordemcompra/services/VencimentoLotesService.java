@@ -0,0 +1,275 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CargaIndice;
+import com.br.fasipe.estoque.ordemcompra.config.RoteamentoLeituraEscrita;
+import com.br.fasipe.estoque.ordemcompra.dto.CursorVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.FaixaVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.ResumoVencimentos;
+import com.br.fasipe.estoque.ordemcompra.repository.EstoqueRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Motor de vencimento de lotes
+ * Mantém em memória, por almoxarifado, os estoques com saldo distribuídos nas
+ * faixas de vencimento (vencido, até 30, 31 a 60, 61 a 90 e acima de 90 dias).
+ * A distribuição é carregada por uma única consulta, ajustada após o commit
+ * quando estoques são incluídos, zerados ou voltam a ter saldo, e deslocada
+ * na virada do dia: como cada faixa é ordenada pelo vencimento, só os
+ * primeiros registros de cada faixa mudam de faixa. Painéis e alertas de
+ * vencimento leem as faixas prontas em vez de varrer LOTE junto com ESTOQUE
+ */
+@Slf4j
+@Service
+@Timed("fasiclin.servico")
+public class VencimentoLotesService {
+
+    private static final FaixaVencimento[] FAIXAS = FaixaVencimento.values();
+
+    @Autowired
+    private EstoqueRepository estoqueRepository;
+
+    // Todas as leituras e escritas da estrutura sincronizam no próprio service:
+    // os ajustes são raros (saldo zerado ou novo) e as leituras copiam poucos registros.
+    // A exclusão da carga é sempre obtida antes do monitor, nunca com ele
+    private final Map<Integer, Map<FaixaVencimento, NavigableSet<LoteVencimento>>> faixas = new TreeMap<>();
+    private final Map<Integer, LoteVencimento> porEstoque = new HashMap<>();
+    private LocalDate hoje;
+    private final CargaIndice carga = new CargaIndice();
+
+    /**
+     * Carrega as faixas ao iniciar a aplicação
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            recarregar();
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível carregar as faixas de vencimento na inicialização: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Redistribui todos os estoques com saldo a partir do banco
+     */
+    public void recarregar() {
+        long startTime = System.currentTimeMillis();
+        carga.recarregar(() -> {
+            List<LoteVencimento> atuais = RoteamentoLeituraEscrita.naPrimaria(estoqueRepository::findLotesVencimento);
+            synchronized (this) {
+                faixas.clear();
+                porEstoque.clear();
+                hoje = LocalDate.now();
+                atuais.forEach(this::incluir);
+            }
+
+            log.info("Faixas de vencimento de {} estoques carregadas em {}ms", atuais.size(),
+                    System.currentTimeMillis() - startTime);
+        });
+    }
+
+    /**
+     * Desloca as faixas na virada do dia
+     * Cada faixa perde para as anteriores apenas os registros do seu início
+     */
+    @Scheduled(cron = "${fasiclin.vencimento.virada:0 0 0 * * *}")
+    public void virarDia() {
+        virarDia(LocalDate.now());
+    }
+
+    /**
+     * Desloca as faixas para a data informada, se for posterior à atual
+     * @param novoDia Nova data de referência
+     */
+    synchronized void virarDia(LocalDate novoDia) {
+        if (!carga.carregada() || !novoDia.isAfter(hoje)) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        hoje = novoDia;
+        int deslocados = 0;
+        int vencidos = 0;
+        for (Map<FaixaVencimento, NavigableSet<LoteVencimento>> doAlmoxarifado : faixas.values()) {
+            // Da faixa mais próxima para a mais distante: cada registro vai direto para a faixa atual
+            for (int i = 1; i < FAIXAS.length; i++) {
+                NavigableSet<LoteVencimento> faixa = doAlmoxarifado.get(FAIXAS[i]);
+                while (!faixa.isEmpty()) {
+                    FaixaVencimento atual = FaixaVencimento.de(faixa.first().dataVencimento(), hoje);
+                    if (atual == FAIXAS[i]) {
+                        break;
+                    }
+                    doAlmoxarifado.get(atual).add(faixa.pollFirst());
+                    deslocados++;
+                    if (atual == FaixaVencimento.VENCIDO) {
+                        vencidos++;
+                    }
+                }
+            }
+        }
+
+        log.info("Faixas de vencimento deslocadas para {} em {}ms: {} estoques mudaram de faixa", hoje,
+                System.currentTimeMillis() - startTime, deslocados);
+        if (vencidos > 0) {
+            log.warn("{} estoques com saldo venceram em {}", vencidos, hoje);
+        }
+    }
+
+    /**
+     * Registra o novo saldo de um estoque após o commit da transação
+     * Saldo zerado retira o estoque das faixas; saldo que volta a ser positivo o inclui novamente
+     * @param idEstoque ID do estoque
+     * @param quantidadeAnterior Saldo antes da escrita
+     * @param quantidadeAtual Saldo após a escrita
+     */
+    public void registrarSaldo(Integer idEstoque, int quantidadeAnterior, int quantidadeAtual) {
+        if (quantidadeAtual <= 0 && quantidadeAnterior > 0) {
+            carga.aposCommit(() -> {
+                synchronized (this) {
+                    remover(idEstoque);
+                }
+            });
+        } else if (quantidadeAtual > 0 && quantidadeAnterior <= 0) {
+            registrarEstoques(List.of(idEstoque));
+        }
+    }
+
+    /**
+     * Relê do banco, após o commit, os estoques incluídos, alterados ou removidos
+     * Uma única consulta para todos os IDs; os que não têm mais saldo saem das faixas
+     * @param idsEstoque IDs dos estoques
+     */
+    public void registrarEstoques(Collection<Integer> idsEstoque) {
+        if (idsEstoque.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = List.copyOf(idsEstoque);
+        carga.aposCommit(() -> {
+            List<LoteVencimento> atuais = RoteamentoLeituraEscrita.naPrimaria(
+                    () -> estoqueRepository.findLotesVencimentoByIds(ids));
+            synchronized (this) {
+                ids.forEach(this::remover);
+                atuais.forEach(this::incluir);
+            }
+        });
+    }
+
+    /**
+     * Totais por faixa de cada almoxarifado, em ordem de ID do almoxarifado
+     * @return Resumo de cada almoxarifado com estoques com saldo
+     */
+    public List<ResumoVencimentos> findResumos() {
+        garantirCarga();
+        synchronized (this) {
+            return faixas.entrySet().stream()
+                    .map(almoxarifado -> new ResumoVencimentos(almoxarifado.getKey(), totais(almoxarifado.getValue())))
+                    .toList();
+        }
+    }
+
+    /**
+     * Totais por faixa de um almoxarifado
+     * @param idAlmoxarifado ID do almoxarifado
+     * @return Resumo com todas as faixas presentes (zero quando vazias)
+     */
+    public ResumoVencimentos findResumo(Integer idAlmoxarifado) {
+        garantirCarga();
+        synchronized (this) {
+            return new ResumoVencimentos(idAlmoxarifado, totais(faixas.getOrDefault(idAlmoxarifado, Map.of())));
+        }
+    }
+
+    /**
+     * Página dos estoques de uma faixa de um almoxarifado, em ordem de vencimento
+     * A página parte da posição do cursor na faixa ordenada, então qualquer página
+     * custa o mesmo que a primeira
+     * @param idAlmoxarifado ID do almoxarifado
+     * @param faixa Faixa de vencimento
+     * @param cursor Último estoque entregue (null na primeira página)
+     * @param size Tamanho da página
+     * @return Página de estoques com o token da página seguinte e o total da faixa
+     */
+    public Pagina<LoteVencimento> findByFaixa(Integer idAlmoxarifado, FaixaVencimento faixa,
+                                              CursorVencimento cursor, int size) {
+        garantirCarga();
+        List<LoteVencimento> pagina;
+        long total;
+        synchronized (this) {
+            NavigableSet<LoteVencimento> lotes = faixas.getOrDefault(idAlmoxarifado, Map.of()).get(faixa);
+            if (lotes == null) {
+                return Pagina.porCursor(List.of(), size, null, 0L);
+            }
+            NavigableSet<LoteVencimento> restantes = cursor != null ? lotes.tailSet(cursor.chave(), false) : lotes;
+            pagina = restantes.stream().limit(size + 1L).toList();
+            total = lotes.size();
+        }
+        String proximo = null;
+        if (pagina.size() > size) {
+            pagina = pagina.subList(0, size);
+            proximo = CursorVencimento.apos(pagina.getLast()).codificar();
+        }
+        return Pagina.porCursor(List.copyOf(pagina), size, proximo, total);
+    }
+
+    private void garantirCarga() {
+        if (!carga.carregada()) {
+            recarregar();
+        }
+    }
+
+    private void incluir(LoteVencimento lote) {
+        if (lote.idAlmoxarifado() == null || lote.dataVencimento() == null) {
+            return;
+        }
+        faixas.computeIfAbsent(lote.idAlmoxarifado(), id -> novasFaixas())
+                .get(FaixaVencimento.de(lote.dataVencimento(), hoje))
+                .add(lote);
+        porEstoque.put(lote.idEstoque(), lote);
+    }
+
+    private void remover(Integer idEstoque) {
+        LoteVencimento lote = porEstoque.remove(idEstoque);
+        if (lote != null) {
+            faixas.get(lote.idAlmoxarifado())
+                    .get(FaixaVencimento.de(lote.dataVencimento(), hoje))
+                    .remove(lote);
+        }
+    }
+
+    private static Map<FaixaVencimento, NavigableSet<LoteVencimento>> novasFaixas() {
+        Map<FaixaVencimento, NavigableSet<LoteVencimento>> novas = new EnumMap<>(FaixaVencimento.class);
+        for (FaixaVencimento faixa : FAIXAS) {
+            novas.put(faixa, new TreeSet<>(LoteVencimento.ORDEM_VENCIMENTO));
+        }
+        return novas;
+    }
+
+    private static Map<FaixaVencimento, Integer> totais(Map<FaixaVencimento, NavigableSet<LoteVencimento>> doAlmoxarifado) {
+        Map<FaixaVencimento, Integer> totais = new EnumMap<>(FaixaVencimento.class);
+        for (FaixaVencimento faixa : FAIXAS) {
+            NavigableSet<LoteVencimento> lotes = doAlmoxarifado.get(faixa);
+            totais.put(faixa, lotes != null ? lotes.size() : 0);
+        }
+        return totais;
+    }
+}
@@ -0,0 +1,82 @@
+package com.br.fasipe.estoque.ordemcompra.sql;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.br.fasipe.estoque.ordemcompra.dto.SuspeitaNMaisUm;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abre um {@link PerfilRequisicao} para cada requisição e o encerra na resposta
+ * Publica a quantidade de comandos SQL (fasiclin.sql.comandos) e o tempo
+ * somado no banco (fasiclin.sql.tempo) por endpoint, com a mesma tag uri do
+ * http.server.requests, e registra as suspeitas de N+1 da requisição
+ */
+@Slf4j
+public class FiltroPerfilSql extends OncePerRequestFilter {
+
+    private final RegistroConsultas registro;
+    private final MeterRegistry meterRegistry;
+
+    public FiltroPerfilSql(RegistroConsultas registro, MeterRegistry meterRegistry) {
+        this.registro = registro;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PerfilRequisicao perfil = new PerfilRequisicao(request.getMethod() + " " + request.getRequestURI());
+        request.setAttribute(PerfilRequisicao.ATRIBUTO, perfil);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concluir(request, perfil);
+        }
+    }
+
+    private void concluir(HttpServletRequest request, PerfilRequisicao perfil) {
+        if (perfil.getComandos() == 0) {
+            return;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("fasiclin.sql.comandos")
+                .description("Comandos SQL executados por requisição")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(perfil.getComandos());
+        Timer.builder("fasiclin.sql.tempo")
+                .description("Tempo somado dos comandos SQL de cada requisição")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(perfil.getTempoNanos(), TimeUnit.NANOSECONDS);
+
+        for (SuspeitaNMaisUm suspeita : registro.concluir(perfil)) {
+            log.warn("Possível N+1 em {}: comando executado {} vezes ({}ms) - {}",
+                    suspeita.requisicao(), suspeita.execucoes(), suspeita.tempoMs(), suspeita.sql());
+            Counter.builder("fasiclin.sql.n-mais-um")
+                    .description("Comandos SQL repetidos na mesma requisição (suspeitas de N+1)")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        log.debug("{} - {} comandos SQL em {}ms", perfil.getDescricao(), perfil.getComandos(),
+                TimeUnit.NANOSECONDS.toMillis(perfil.getTempoNanos()));
+    }
+}
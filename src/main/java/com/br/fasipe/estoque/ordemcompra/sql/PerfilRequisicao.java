@@ -0,0 +1,78 @@
+package com.br.fasipe.estoque.ordemcompra.sql;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Comandos SQL executados por uma requisição
+ * Guardado como atributo da requisição pelo {@link FiltroPerfilSql}; o
+ * {@link ProfiladorSql} encontra o perfil corrente pelo RequestContextHolder,
+ * como o roteamento entre primária e réplica. Comandos de threads sem
+ * requisição (cargas na inicialização, agendamentos) não entram em nenhum perfil
+ */
+public class PerfilRequisicao {
+
+    static final String ATRIBUTO = PerfilRequisicao.class.getName();
+
+    private final String descricao;
+    private final Map<String, Execucoes> porComando = new LinkedHashMap<>();
+    private int comandos;
+    private long tempoNanos;
+
+    public PerfilRequisicao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    /**
+     * Perfil da requisição da thread corrente
+     * @return Perfil, ou null fora de uma requisição perfilada
+     */
+    public static PerfilRequisicao atual() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        return requisicao != null
+                ? (PerfilRequisicao) requisicao.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST)
+                : null;
+    }
+
+    synchronized void registrar(String sql, long duracaoNanos) {
+        comandos++;
+        tempoNanos += duracaoNanos;
+        Execucoes execucoes = porComando.computeIfAbsent(sql, chave -> new Execucoes());
+        execucoes.quantidade++;
+        execucoes.tempoNanos += duracaoNanos;
+    }
+
+    /**
+     * Comandos com o mesmo texto executados pelo menos o número de vezes informado
+     * @return Mapa SQL -> {execuções, tempo total em nanossegundos}
+     */
+    synchronized Map<String, long[]> repetidos(int limiar) {
+        Map<String, long[]> repetidos = new LinkedHashMap<>();
+        porComando.forEach((sql, execucoes) -> {
+            if (execucoes.quantidade >= limiar) {
+                repetidos.put(sql, new long[] {execucoes.quantidade, execucoes.tempoNanos});
+            }
+        });
+        return repetidos;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public synchronized int getComandos() {
+        return comandos;
+    }
+
+    public synchronized long getTempoNanos() {
+        return tempoNanos;
+    }
+
+    private static final class Execucoes {
+        private int quantidade;
+        private long tempoNanos;
+    }
+}
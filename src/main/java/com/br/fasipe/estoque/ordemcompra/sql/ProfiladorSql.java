@@ -0,0 +1,186 @@
+package com.br.fasipe.estoque.ordemcompra.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+/**
+ * Profiler de comandos SQL na frente do DataSource da aplicação
+ * As conexões e os comandos (Statement, PreparedStatement, CallableStatement)
+ * são envolvidos por proxies que cronometram cada execute*, anotam os
+ * parâmetros vinculados e entregam a execução ao {@link RegistroConsultas}.
+ * Substitui o spring.jpa.show-sql, que imprimia todo comando sem tempo nem
+ * a requisição de origem
+ */
+public class ProfiladorSql extends DelegatingDataSource {
+
+    private static final int TAMANHO_MAXIMO_PARAMETRO = 100;
+
+    private final RegistroConsultas registro;
+
+    /**
+     * @param alvo DataSource usado pela aplicação (pool, limitador ou roteamento)
+     * @param registro Destino das execuções
+     */
+    public ProfiladorSql(DataSource alvo, RegistroConsultas registro) {
+        super(alvo);
+        this.registro = registro;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return perfilar(obterAlvo().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return perfilar(obterAlvo().getConnection(username, password));
+    }
+
+    private DataSource obterAlvo() {
+        DataSource alvo = getTargetDataSource();
+        if (alvo == null) {
+            throw new IllegalStateException("Profiler de SQL sem DataSource alvo");
+        }
+        return alvo;
+    }
+
+    /**
+     * Envolve a conexão para perfilar os comandos criados a partir dela
+     */
+    private Connection perfilar(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(ProfiladorSql.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "Conexão perfilada [" + conexao + "]";
+                        }
+                        default -> {
+                            Object resultado = invocar(conexao, metodo, args);
+                            if (resultado instanceof Statement comando
+                                    && Statement.class.isAssignableFrom(metodo.getReturnType())) {
+                                // prepareStatement/prepareCall recebem o SQL; createStatement o recebe no execute
+                                String sql = metodo.getName().startsWith("prepare") ? (String) args[0] : null;
+                                return perfilar(comando, metodo.getReturnType(), sql);
+                            }
+                            return resultado;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Envolve o comando para cronometrar as execuções e anotar os parâmetros
+     * @param tipo Interface devolvida pela conexão (Statement, PreparedStatement ou CallableStatement)
+     * @param sql SQL preparado, ou null para Statement simples
+     */
+    private Statement perfilar(Statement comando, Class<?> tipo, String sql) {
+        Execucao execucao = new Execucao(sql);
+        return (Statement) Proxy.newProxyInstance(ProfiladorSql.class.getClassLoader(),
+                new Class<?>[] {tipo}, (proxy, metodo, args) -> {
+                    String nome = metodo.getName();
+                    if (nome.startsWith("execute")) {
+                        return executar(comando, metodo, args, execucao);
+                    }
+                    switch (nome) {
+                        case "addBatch" -> {
+                            execucao.lote++;
+                            if (args != null && args.length == 1) {
+                                execucao.sql = (String) args[0];
+                            }
+                        }
+                        case "clearBatch" -> execucao.lote = 0;
+                        case "clearParameters" -> execucao.parametros.clear();
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "Comando perfilado [" + comando + "]";
+                        }
+                        default -> {
+                            // setXxx(índice, valor...) de PreparedStatement; setFetchSize etc. têm um argumento
+                            if (nome.startsWith("set") && args != null && args.length >= 2
+                                    && args[0] instanceof Integer indice) {
+                                execucao.parametros.put(indice, nome.equals("setNull") ? null : args[1]);
+                            }
+                        }
+                    }
+                    return invocar(comando, metodo, args);
+                });
+    }
+
+    private Object executar(Statement comando, Method metodo, Object[] args, Execucao execucao) throws Throwable {
+        String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : execucao.sql;
+        boolean emLote = metodo.getName().contains("Batch");
+        long inicio = System.nanoTime();
+        try {
+            return invocar(comando, metodo, args);
+        } finally {
+            registro.registrar(sql, System.nanoTime() - inicio, emLote ? execucao.lote : 1,
+                    execucao::formatarParametros);
+            if (emLote) {
+                execucao.lote = 0;
+            }
+        }
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Estado de um comando entre as execuções: SQL, parâmetros vinculados e tamanho do lote
+     */
+    private static final class Execucao {
+
+        private final Map<Integer, Object> parametros = new TreeMap<>();
+        private String sql;
+        private int lote;
+
+        private Execucao(String sql) {
+            this.sql = sql;
+        }
+
+        private List<String> formatarParametros() {
+            List<String> formatados = new ArrayList<>(parametros.size());
+            parametros.values().forEach(valor -> formatados.add(formatar(valor)));
+            return formatados;
+        }
+
+        private static String formatar(Object valor) {
+            if (valor == null) {
+                return "NULL";
+            }
+            if (valor instanceof byte[] bytes) {
+                return "<" + bytes.length + " bytes>";
+            }
+            String texto = valor.toString();
+            return texto.length() > TAMANHO_MAXIMO_PARAMETRO
+                    ? texto.substring(0, TAMANHO_MAXIMO_PARAMETRO) + "..." : texto;
+        }
+    }
+}
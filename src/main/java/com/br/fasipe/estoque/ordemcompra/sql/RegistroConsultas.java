@@ -0,0 +1,127 @@
+package com.br.fasipe.estoque.ordemcompra.sql;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ConsultaLenta;
+import com.br.fasipe.estoque.ordemcompra.dto.SuspeitaNMaisUm;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Registro dos comandos SQL observados pelo {@link ProfiladorSql}
+ * Mantém dois buffers circulares de capacidade fixa: os comandos que passaram
+ * do limiar de lentidão (com os parâmetros vinculados apenas quando habilitado,
+ * pois podem conter dados sensíveis) e as suspeitas de N+1
+ * (o mesmo comando repetido na mesma requisição). Quando um buffer enche, a
+ * entrada mais antiga dá lugar à nova
+ */
+public class RegistroConsultas {
+
+    private final long limiarLentoNanos;
+    private final int limiarRepeticoes;
+    private final int capacidade;
+    private final boolean guardarParametros;
+
+    private final Deque<ConsultaLenta> consultasLentas = new ArrayDeque<>();
+    private final Deque<SuspeitaNMaisUm> suspeitas = new ArrayDeque<>();
+
+    /**
+     * @param limiarLento Duração a partir da qual um comando é guardado como lento
+     * @param limiarRepeticoes Execuções do mesmo comando numa requisição para apontar N+1
+     * @param capacidade Entradas de cada buffer
+     * @param guardarParametros true para guardar os parâmetros dos comandos lentos
+     */
+    public RegistroConsultas(Duration limiarLento, int limiarRepeticoes, int capacidade, boolean guardarParametros) {
+        this.limiarLentoNanos = limiarLento.toNanos();
+        this.limiarRepeticoes = limiarRepeticoes;
+        this.capacidade = Math.max(1, capacidade);
+        this.guardarParametros = guardarParametros;
+    }
+
+    /**
+     * Registra a execução de um comando no perfil da requisição corrente e,
+     * se passou do limiar, no buffer de consultas lentas
+     * @param parametros Parâmetros vinculados, formatados só quando o comando é lento e os parâmetros são guardados
+     */
+    void registrar(String sql, long duracaoNanos, int lote, Supplier<List<String>> parametros) {
+        PerfilRequisicao perfil = PerfilRequisicao.atual();
+        if (perfil != null) {
+            perfil.registrar(sql, duracaoNanos);
+        }
+        if (duracaoNanos < limiarLentoNanos) {
+            return;
+        }
+        ConsultaLenta consulta = new ConsultaLenta(LocalDateTime.now(), milissegundos(duracaoNanos), sql,
+                guardarParametros ? parametros.get() : List.of(), lote, perfil != null ? perfil.getDescricao() : null);
+        synchronized (consultasLentas) {
+            adicionar(consultasLentas, consulta);
+        }
+    }
+
+    /**
+     * Encerra o perfil de uma requisição, guardando os comandos repetidos como suspeitas de N+1
+     * @return Suspeitas encontradas na requisição
+     */
+    public List<SuspeitaNMaisUm> concluir(PerfilRequisicao perfil) {
+        List<SuspeitaNMaisUm> encontradas = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+        perfil.repetidos(limiarRepeticoes).forEach((sql, execucoes) -> encontradas.add(new SuspeitaNMaisUm(
+                agora, perfil.getDescricao(), sql, (int) execucoes[0], milissegundos(execucoes[1]))));
+        if (!encontradas.isEmpty()) {
+            synchronized (suspeitas) {
+                encontradas.forEach(suspeita -> adicionar(suspeitas, suspeita));
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * Consultas lentas guardadas, da mais lenta para a mais rápida
+     */
+    public List<ConsultaLenta> getConsultasLentas() {
+        List<ConsultaLenta> copia;
+        synchronized (consultasLentas) {
+            copia = new ArrayList<>(consultasLentas);
+        }
+        copia.sort(Comparator.comparingDouble(ConsultaLenta::duracaoMs).reversed());
+        return copia;
+    }
+
+    /**
+     * Suspeitas de N+1 guardadas, da mais recente para a mais antiga
+     */
+    public List<SuspeitaNMaisUm> getSuspeitas() {
+        synchronized (suspeitas) {
+            List<SuspeitaNMaisUm> copia = new ArrayList<>(suspeitas);
+            return copia.reversed();
+        }
+    }
+
+    /**
+     * Esvazia os dois buffers
+     */
+    public void limpar() {
+        synchronized (consultasLentas) {
+            consultasLentas.clear();
+        }
+        synchronized (suspeitas) {
+            suspeitas.clear();
+        }
+    }
+
+    private <T> void adicionar(Deque<T> buffer, T entrada) {
+        if (buffer.size() >= capacidade) {
+            buffer.removeFirst();
+        }
+        buffer.addLast(entrada);
+    }
+
+    private static double milissegundos(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
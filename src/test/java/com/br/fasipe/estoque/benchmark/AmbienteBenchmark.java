@@ -0,0 +1,99 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.fasipe.estoque.EstoqueApplication;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ambiente dos benchmarks JMH
+ * Sobe o contexto Spring sem servidor web sobre um H2 em memória (modo MySQL)
+ * e popula as tabelas com o {@link GeradorDados}, sem passar pelo Hibernate
+ */
+final class AmbienteBenchmark {
+
+    private static final long SEMENTE = 42;
+    private static final double ZIPF = 1.0;
+    // O pool padrão do Hikari tem 10 conexões
+    private static final int PARALELISMO = 4;
+
+    private AmbienteBenchmark() {
+    }
+
+    /**
+     * Inicia o contexto da aplicação com um banco H2 próprio
+     * As propriedades são passadas como argumentos para prevalecer sobre o application.properties
+     * As FKs não são geradas para que apenas os índices declarados
+     * nas entidades influenciem os planos de execução medidos
+     * @param nomeBanco Nome do banco em memória
+     * @param propriedades Propriedades adicionais (--chave=valor)
+     * @return Contexto iniciado
+     */
+    static ConfigurableApplicationContext iniciar(String nomeBanco, String... propriedades) {
+        List<String> argumentos = new ArrayList<>(List.of(argumentos(nomeBanco)));
+        argumentos.addAll(List.of(propriedades));
+        return new SpringApplicationBuilder(EstoqueApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(argumentos.toArray(String[]::new));
+    }
+
+    /**
+     * Inicia a aplicação com o servidor web em uma porta livre
+     * @param nomeBanco Nome do banco em memória
+     * @param propriedades Propriedades adicionais (--chave=valor)
+     * @return Contexto iniciado; a porta está em local.server.port
+     */
+    static ConfigurableApplicationContext iniciarServidor(String nomeBanco, String... propriedades) {
+        List<String> argumentos = new ArrayList<>(List.of(argumentos(nomeBanco)));
+        argumentos.add("--server.port=0");
+        argumentos.addAll(List.of(propriedades));
+        return new SpringApplicationBuilder(EstoqueApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .logStartupInfo(false)
+                .run(argumentos.toArray(String[]::new));
+    }
+
+    private static String[] argumentos(String nomeBanco) {
+        return new String[] {
+                "--spring.datasource.url=jdbc:h2:mem:" + nomeBanco + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.hbm2ddl.default_constraint_mode=NO_CONSTRAINT",
+                "--spring.jpa.show-sql=false",
+                "--spring.output.ansi.enabled=never",
+                "--logging.level.root=WARN"};
+    }
+
+    /**
+     * Popula o banco com o {@link GeradorDados}: semente fixa, popularidade Zipf
+     * dos produtos e datas relativas a hoje, já com os saldos materializados
+     * @param jdbc JdbcTemplate do contexto
+     * @param volumes Quantidade de linhas de cada tabela
+     */
+    static void gerar(JdbcTemplate jdbc, GeradorDados.Volumes volumes) {
+        new GeradorDados(jdbc, SEMENTE, ZIPF, PARALELISMO, LocalDate.now()).gerar(volumes);
+    }
+
+    /**
+     * Remove os índices de ESTOQUE, PRODUTO e ORDEMCOMPRA criados a partir das entidades
+     * para medir as consultas sobre varredura completa
+     * @param jdbc JdbcTemplate do contexto
+     */
+    static void removerIndices(JdbcTemplate jdbc) {
+        for (String indice : new String[] {"IDX_ESTOQUE_PRODUTO", "IDX_ESTOQUE_LOTE", "IDX_PRODUTO_ALMOX",
+                "IDX_ORDEMCOMPRA_STATUS_DATA", "IDX_ORDEMCOMPRA_DATAORDEM", "IDX_ORDEMCOMPRA_DATAPREV"}) {
+            jdbc.execute("DROP INDEX IF EXISTS " + indice);
+        }
+        jdbc.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,69 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoSugestao;
+import com.br.fasipe.estoque.ordemcompra.services.BuscaProdutosService;
+import com.br.fasipe.estoque.ordemcompra.services.ProdutoService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência do autocompletar de produtos sobre 100 mil produtos: cada texto é
+ * uma tecla da digitação, dos prefixos curtos (que cobrem muitos produtos) às
+ * palavras completas e com erro de digitação. A meta é ficar abaixo de 5ms
+ * Execução: mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=BuscaProdutosBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuscaProdutosBenchmark {
+
+    private static final int PRODUTOS = 100_000;
+    private static final int LIMITE = 10;
+
+    @Param({"di", "dip", "dipir", "dipirona s", "dipriona", "paracetmol", "amoxicilna 500", "seringa desc"})
+    private String texto;
+
+    private ConfigurableApplicationContext contexto;
+    private ProdutoService produtoService;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = AmbienteBenchmark.iniciar("busca_produtos");
+        AmbienteBenchmark.gerar(contexto.getBean(JdbcTemplate.class),
+                new GeradorDados.Volumes(1, 1, 1, PRODUTOS, 1, 1, 1, 1, 1));
+
+        // O índice em memória reflete a massa inserida via JDBC
+        contexto.getBean(BuscaProdutosService.class).recarregar();
+        produtoService = contexto.getBean(ProdutoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ProdutoSugestao> buscar() {
+        return produtoService.buscar(texto, LIMITE);
+    }
+}
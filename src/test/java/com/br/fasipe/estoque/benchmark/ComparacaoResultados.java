@@ -0,0 +1,76 @@
+package com.br.fasipe.estoque.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dois arquivos de resultado JSON do JMH (-rf json), por exemplo de
+ * dois commits, e imprime a variação de cada benchmark com os mesmos parâmetros
+ * A variação só é destacada quando as diferenças passam da soma dos erros
+ * (intervalo de 99,9%) das duas medições
+ * Execução: mvn -Pbenchmark test-compile exec:exec@comparar -Djmh.base=base.json -Djmh.atual=atual.json
+ */
+public final class ComparacaoResultados {
+
+    private ComparacaoResultados() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: ComparacaoResultados <base.json> <atual.json>");
+            System.exit(2);
+        }
+        Map<String, Medicao> base = ler(Path.of(args[0]));
+        Map<String, Medicao> atual = ler(Path.of(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Base", "Atual", "Variação");
+        atual.forEach((chave, medicao) -> {
+            Medicao anterior = base.get(chave);
+            if (anterior == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", chave, "-", medicao.score(), "novo");
+                return;
+            }
+            double variacao = (medicao.score() - anterior.score()) / anterior.score() * 100;
+            boolean significativa = Math.abs(medicao.score() - anterior.score())
+                    > medicao.erro() + anterior.erro();
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s%n", chave, anterior.score(), medicao.score(),
+                    variacao, significativa ? " *" : "");
+        });
+        base.keySet().stream()
+                .filter(chave -> !atual.containsKey(chave))
+                .forEach(chave -> System.out.printf("%-90s %14.3f %14s %9s%n",
+                        chave, base.get(chave).score(), "-", "removido"));
+        System.out.println("* diferença maior que a soma dos erros; unidades conforme o modo de cada benchmark");
+    }
+
+    /**
+     * Lê as medições de um arquivo, indexadas por benchmark, modo e parâmetros
+     */
+    private static Map<String, Medicao> ler(Path arquivo) throws IOException {
+        Map<String, Medicao> medicoes = new LinkedHashMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(arquivo.toFile())) {
+            StringBuilder chave = new StringBuilder(resultado.path("benchmark").asText()
+                    .replace("com.br.fasipe.estoque.benchmark.", ""))
+                    .append(" [").append(resultado.path("mode").asText()).append(']');
+            Map<String, String> parametros = new TreeMap<>();
+            resultado.path("params").properties()
+                    .forEach(parametro -> parametros.put(parametro.getKey(), parametro.getValue().asText()));
+            parametros.forEach((nome, valor) -> chave.append(' ').append(nome).append('=').append(valor));
+
+            JsonNode metrica = resultado.path("primaryMetric");
+            double erro = metrica.path("scoreError").asDouble(0);
+            medicoes.put(chave.toString(), new Medicao(metrica.path("score").asDouble(),
+                    Double.isNaN(erro) ? 0 : erro));
+        }
+        return medicoes;
+    }
+
+    private record Medicao(double score, double erro) {
+    }
+}
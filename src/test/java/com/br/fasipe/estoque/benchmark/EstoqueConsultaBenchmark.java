@@ -0,0 +1,95 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+import com.br.fasipe.estoque.ordemcompra.repository.EstoqueRepository;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência das consultas paginadas de ESTOQUE por produto, lote e almoxarifado
+ * sobre uma tabela de um milhão de linhas, com e sem os índices de cobertura
+ * Execução: mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=EstoqueConsultaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EstoqueConsultaBenchmark {
+
+    private static final int PRODUTOS = 10_000;
+    private static final int LOTES = 100_000;
+    private static final int ALMOXARIFADOS = 50;
+
+    @Param({"1000000"})
+    private int registros;
+
+    @Param({"true", "false"})
+    private boolean comIndices;
+
+    private ConfigurableApplicationContext contexto;
+    private EstoqueRepository estoqueRepository;
+    private final Pageable pagina = PageRequest.of(0, 20);
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = AmbienteBenchmark.iniciar("consulta_" + comIndices);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        AmbienteBenchmark.gerar(jdbc, new GeradorDados.Volumes(1, ALMOXARIFADOS, 1, PRODUTOS, LOTES / 10, 1, LOTES,
+                registros, 1));
+        if (!comIndices) {
+            AmbienteBenchmark.removerIndices(jdbc);
+        }
+        estoqueRepository = contexto.getBean(EstoqueRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Page<EstoqueResumo> porProduto() {
+        return estoqueRepository.findByIdProduto(random.nextInt(1, PRODUTOS + 1), pagina);
+    }
+
+    @Benchmark
+    public Page<EstoqueResumo> porLote() {
+        return estoqueRepository.findByIdLote(random.nextInt(1, LOTES + 1), pagina);
+    }
+
+    @Benchmark
+    public Page<EstoqueResumo> porAlmoxarifado() {
+        return estoqueRepository.findByIdAlmoxarifado(random.nextInt(1, ALMOXARIFADOS + 1), pagina);
+    }
+
+    /**
+     * Referência: página sem filtro, como as listagens faziam antes das consultas dedicadas
+     */
+    @Benchmark
+    public Page<EstoqueResumo> listagemCompleta() {
+        return estoqueRepository.findResumos(pagina);
+    }
+}
@@ -0,0 +1,142 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.SaldoEstoque;
+import com.br.fasipe.estoque.ordemcompra.models.Estoque;
+import com.br.fasipe.estoque.ordemcompra.services.EstoqueBaixoService;
+import com.br.fasipe.estoque.ordemcompra.services.EstoqueService;
+import com.br.fasipe.estoque.ordemcompra.services.ProdutoService;
+import com.br.fasipe.estoque.ordemcompra.services.VencimentoLotesService;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência dos caminhos mais usados dos services de estoque e produto: busca
+ * por ID, listagem paginada (createOptimizedPageable), busca por código de
+ * barras, atualização de quantidade e movimentação
+ * Com cache=false os caches da aplicação ficam com peso máximo zero e toda
+ * chamada vai ao banco; com cache=true os IDs sorteados se repetem o bastante
+ * para medir a mistura de acertos e faltas da configuração padrão
+ * Execução: mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=EstoqueServicoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EstoqueServicoBenchmark {
+
+    private static final int PRODUTOS = 10_000;
+    private static final int LOTES = 100_000;
+    private static final int ALMOXARIFADOS = 50;
+    private static final int TAMANHO_PAGINA = 20;
+    private static final int PAGINAS = 500;
+
+    @Param({"1000000"})
+    private int registros;
+
+    @Param({"true", "false"})
+    private boolean cache;
+
+    private ConfigurableApplicationContext contexto;
+    private EstoqueService estoqueService;
+    private ProdutoService produtoService;
+    private String[] codigosBarras;
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = cache
+                ? AmbienteBenchmark.iniciar("servico_cache")
+                : AmbienteBenchmark.iniciar("servico_sem_cache",
+                        "--fasiclin.cache.padrao.maximum-weight=0",
+                        "--fasiclin.cache.specs.estoque.maximum-weight=0",
+                        "--fasiclin.cache.specs.estoques.maximum-weight=0",
+                        "--fasiclin.cache.specs.produto.maximum-weight=0",
+                        "--fasiclin.cache.specs.produtos.maximum-weight=0");
+        AmbienteBenchmark.gerar(contexto.getBean(JdbcTemplate.class), new GeradorDados.Volumes(1, ALMOXARIFADOS, 1,
+                PRODUTOS, LOTES / 10, 1, LOTES, registros, 1));
+
+        // Índices em memória refletem a massa inserida via JDBC
+        contexto.getBean(EstoqueBaixoService.class).recarregar();
+        contexto.getBean(VencimentoLotesService.class).recarregar();
+
+        estoqueService = contexto.getBean(EstoqueService.class);
+        produtoService = contexto.getBean(ProdutoService.class);
+        codigosBarras = new String[PRODUTOS + 1];
+        for (int i = 1; i <= PRODUTOS; i++) {
+            codigosBarras[i] = GeradorDados.codigoBarras(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<EstoqueDetalhe> estoquePorId() {
+        return estoqueService.findById(random.nextInt(1, registros + 1));
+    }
+
+    @Benchmark
+    public Optional<ProdutoDetalhe> produtoPorId() {
+        return produtoService.findById(random.nextInt(1, PRODUTOS + 1));
+    }
+
+    @Benchmark
+    public Page<EstoqueResumo> listagemPaginada() {
+        return estoqueService.findAllPaginated(random.nextInt(PAGINAS), TAMANHO_PAGINA, "id", Sort.Direction.ASC);
+    }
+
+    @Benchmark
+    public Page<EstoqueResumo> estoquesDoProduto() {
+        return estoqueService.findByProduto(random.nextInt(1, PRODUTOS + 1), 0, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public Optional<ProdutoDetalhe> produtoPorCodigoBarras() {
+        return produtoService.findByCodBarras(codigosBarras[random.nextInt(1, PRODUTOS + 1)]);
+    }
+
+    /**
+     * Caminho do PUT de quantidade: bloqueio da linha, UPDATE e registro da movimentação
+     */
+    @Benchmark
+    public Estoque atualizarQuantidade() {
+        return estoqueService.updateQuantidade(random.nextInt(1, registros + 1), random.nextInt(0, 500),
+                ContextoMovimentacao.SISTEMA);
+    }
+
+    /**
+     * Entrada de uma unidade pelo UPDATE condicional (nunca recusada por saldo insuficiente)
+     */
+    @Benchmark
+    public Optional<SaldoEstoque> movimentar() {
+        return estoqueService.movimentar(random.nextInt(1, registros + 1), 1, ContextoMovimentacao.SISTEMA);
+    }
+}
@@ -0,0 +1,450 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Gerador determinístico de massa de dados para o esquema do estoque
+ * Popula todas as tabelas mapeadas no pacote models, na ordem das chaves
+ * estrangeiras, via JDBC em lote. A popularidade dos produtos segue uma
+ * distribuição de Zipf: poucos produtos concentram a maior parte dos itens
+ * de ordem e dos registros de estoque (e, por consequência, das movimentações).
+ * Cada tabela é dividida em blocos com gerador pseudoaleatório próprio,
+ * derivado da semente, da tabela e do número do bloco: os blocos são inseridos
+ * em paralelo e a mesma semente produz sempre as mesmas linhas. As datas são
+ * relativas à data de referência. O esquema deve existir e estar vazio
+ * Execução (banco externo): mvn -Pbenchmark test-compile exec:exec@gerar -Dgerador.url=jdbc:mysql://...
+ */
+public final class GeradorDados {
+
+    private static final int BLOCO = 10_000;
+    private static final int DIAS_HISTORICO = 3 * 365;
+    private static final int USUARIOS = 50;
+
+    private static final String[][] UNIDADES = {
+            {"Unidade", "UN"}, {"Caixa", "CX"}, {"Frasco", "FR"}, {"Ampola", "AMP"}, {"Mililitro", "ML"},
+            {"Miligrama", "MG"}, {"Grama", "G"}, {"Litro", "L"}, {"Pacote", "PCT"}, {"Rolo", "RL"}};
+    private static final String[] SUBSTANCIAS = {
+            "Dipirona Sódica", "Paracetamol", "Ibuprofeno", "Amoxicilina", "Azitromicina", "Cefalexina",
+            "Omeprazol", "Losartana Potássica", "Metformina", "Captopril", "Enalapril", "Sinvastatina",
+            "Atenolol", "Hidroclorotiazida", "Prednisona", "Dexametasona", "Loratadina", "Ondansetrona",
+            "Metoclopramida", "Diclofenaco Sódico", "Cetoprofeno", "Tramadol", "Ciprofloxacino", "Fluconazol",
+            "Nistatina", "Clonazepam", "Diazepam", "Fluoxetina", "Sertralina", "Soro Fisiológico", "Glicose",
+            "Heparina", "Insulina NPH", "Lidocaína", "Luva de Procedimento", "Seringa Descartável",
+            "Agulha Hipodérmica", "Gaze Estéril", "Atadura de Crepom", "Esparadrapo", "Álcool Etílico",
+            "Clorexidina"};
+    private static final String[] CONCENTRACOES = {
+            "500mg", "250mg", "50mg", "20mg", "10mg", "1g", "5mg/ml", "0,9%", "2%", "100UI/ml"};
+    private static final String[] FORMAS = {
+            "Comprimido", "Cápsula", "Solução Oral", "Suspensão", "Injetável", "Ampola", "Frasco", "Pomada",
+            "Gotas", "Caixa"};
+    private static final String[] CNAES = {"4644301", "4645101", "4664800", "2121101", "4771701"};
+
+    /**
+     * Quantidade de linhas de cada tabela
+     * As unidades de medida são um cadastro fixo; os saldos materializados
+     * são derivados do estoque gerado
+     */
+    public record Volumes(int setores, int almoxarifados, int fornecedores, int produtos, int ordens, int itens,
+                          int lotes, int estoques, int movimentacoes) {
+
+        /**
+         * Volumes de produção: cerca de 10 milhões de linhas
+         */
+        public static Volumes producao() {
+            return new Volumes(20, 50, 500, 20_000, 2_000_000, 5_000_000, 300_000, 500_000, 2_000_000);
+        }
+
+        /**
+         * Volumes de produção multiplicados por um fator (mínimo de uma linha por tabela)
+         */
+        public static Volumes escala(double fator) {
+            Volumes base = producao();
+            return new Volumes(escalar(base.setores, fator), escalar(base.almoxarifados, fator),
+                    escalar(base.fornecedores, fator), escalar(base.produtos, fator), escalar(base.ordens, fator),
+                    escalar(base.itens, fator), escalar(base.lotes, fator), escalar(base.estoques, fator),
+                    escalar(base.movimentacoes, fator));
+        }
+
+        private static int escalar(int valor, double fator) {
+            return (int) Math.max(1, Math.round(valor * fator));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Linha {
+        /**
+         * @return Valores da linha com o ID informado, ou null para não inserir
+         */
+        Object[] gerar(int id, SplittableRandom random);
+    }
+
+    private final JdbcTemplate jdbc;
+    private final long semente;
+    private final double expoenteZipf;
+    private final int paralelismo;
+    private final LocalDate referencia;
+
+    /**
+     * @param jdbc JdbcTemplate do banco de destino (com conexões para o paralelismo informado)
+     * @param semente Semente da geração
+     * @param expoenteZipf Expoente da distribuição de popularidade dos produtos (0 = uniforme)
+     * @param paralelismo Blocos inseridos ao mesmo tempo
+     * @param referencia Data de referência ("hoje") das datas geradas
+     */
+    public GeradorDados(JdbcTemplate jdbc, long semente, double expoenteZipf, int paralelismo, LocalDate referencia) {
+        this.jdbc = jdbc;
+        this.semente = semente;
+        this.expoenteZipf = expoenteZipf;
+        this.paralelismo = paralelismo;
+        this.referencia = referencia;
+    }
+
+    /**
+     * Gera todas as tabelas e ajusta as sequências e colunas IDENTITY para
+     * depois do maior ID inserido
+     * @param volumes Quantidade de linhas de cada tabela
+     * @return Linhas inseridas por tabela, na ordem de geração
+     */
+    public Map<String, Long> gerar(Volumes volumes) {
+        Map<String, Long> inseridas = new LinkedHashMap<>();
+        int[] almoxarifadoDoProduto = new int[volumes.produtos() + 1];
+        int[] produtoDoEstoque = new int[volumes.estoques() + 1];
+        AtomicLongArray saldoDoProduto = new AtomicLongArray(volumes.produtos() + 1);
+        AtomicIntegerArray estoquesDoProduto = new AtomicIntegerArray(volumes.produtos() + 1);
+        Popularidade popularidade = new Popularidade(volumes.produtos(), expoenteZipf, semente);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(paralelismo)) {
+            inseridas.put("SETOR", inserir(executor, "SETOR", volumes.setores(),
+                    "INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (?, ?, ?)",
+                    (id, random) -> new Object[] {id, random.nextInt(1, 1_000), "Setor " + id}));
+
+            inseridas.put("UNIMEDIDA", inserir(executor, "UNIMEDIDA", UNIDADES.length,
+                    "INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (?, ?, ?)",
+                    (id, random) -> new Object[] {id, UNIDADES[id - 1][0], UNIDADES[id - 1][1]}));
+
+            inseridas.put("ALMOXARIFADO", inserir(executor, "ALMOXARIFADO", volumes.almoxarifados(),
+                    "INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (?, ?, ?)",
+                    (id, random) -> new Object[] {id, setorDoAlmoxarifado(id, volumes), "Almoxarifado " + id}));
+
+            inseridas.put("PESSOAJUR", inserir(executor, "PESSOAJUR", volumes.fornecedores(),
+                    "INSERT INTO PESSOAJUR (IDPESSOAJUR, ID_PESSOA, CNPJ, RAZSOCIAL, NOMEFAN, CNAE) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    (id, random) -> new Object[] {id, id, cnpj(id), "Distribuidora " + id + " Ltda",
+                            "Distribuidora " + id, CNAES[random.nextInt(CNAES.length)]}));
+
+            inseridas.put("FORNECEDOR", inserir(executor, "FORNECEDOR", volumes.fornecedores(),
+                    "INSERT INTO FORNECEDOR (IDFORNECEDOR, ID_PESSOA, REPRESENT, CONTREPRE, DECRICAO) "
+                            + "VALUES (?, ?, ?, ?, ?)",
+                    (id, random) -> new Object[] {id, id, "Representante " + id,
+                            "659" + (90_000_000 + random.nextInt(10_000_000)),
+                            "Fornecedor de medicamentos e materiais hospitalares " + id}));
+
+            inseridas.put("PRODUTO", inserir(executor, "PRODUTO", volumes.produtos(),
+                    "INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, TEMPIDEAL, "
+                            + "STQMAX, STQMIN, PNTPEDIDO) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    (id, random) -> {
+                        // 2% dos produtos ainda sem almoxarifado definido
+                        int almoxarifado = random.nextInt(100) < 2 ? 0 : random.nextInt(1, volumes.almoxarifados() + 1);
+                        almoxarifadoDoProduto[id] = almoxarifado;
+                        String nome = nomeProduto(id, random);
+                        int stqMin = random.nextInt(5, 100);
+                        // 15% de refrigerados, entre 2 e 8 graus
+                        BigDecimal temperatura = random.nextInt(100) < 15
+                                ? BigDecimal.valueOf(random.nextInt(20, 81), 1) : null;
+                        return new Object[] {id, nome, nome + " - apresentação com " + random.nextInt(1, 101)
+                                + " unidades", almoxarifado == 0 ? null : almoxarifado,
+                                random.nextInt(1, UNIDADES.length + 1), codigoBarras(id), temperatura,
+                                stqMin * random.nextInt(5, 20), stqMin, stqMin * 2};
+                    }));
+
+            inseridas.put("ORDEMCOMPRA", inserir(executor, "ORDEMCOMPRA", volumes.ordens(),
+                    "INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    (id, random) -> {
+                        int sorteio = random.nextInt(100);
+                        String status = sorteio < 5 ? "PEND" : sorteio < 15 ? "ANDA" : "CONC";
+                        LocalDate dataOrdem = referencia.minusDays(random.nextInt(1, DIAS_HISTORICO));
+                        return new Object[] {id, status, BigDecimal.valueOf(random.nextLong(10_000, 10_000_000), 2),
+                                Date.valueOf(dataOrdem.plusDays(random.nextInt(1, 60))), Date.valueOf(dataOrdem),
+                                Date.valueOf(dataOrdem.plusDays(random.nextInt(1, 90)))};
+                    }));
+
+            inseridas.put("ITEM_ORDCOMP", inserir(executor, "ITEM_ORDCOMP", volumes.itens(),
+                    "INSERT INTO ITEM_ORDCOMP (IDITEMORD, ID_ORDCOMP, ID_PRODUTO, QNTD, VALOR, DATAVENC) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    (id, random) -> new Object[] {id, random.nextInt(1, volumes.ordens() + 1),
+                            popularidade.sortear(random), random.nextInt(1, 500),
+                            BigDecimal.valueOf(random.nextLong(100, 500_000), 2),
+                            Date.valueOf(referencia.plusDays(random.nextInt(30, 720)))}));
+
+            inseridas.put("LOTE", inserir(executor, "LOTE", volumes.lotes(),
+                    "INSERT INTO LOTE (IDLOTE, ID_ORDCOMP, DATAVENC, QNTD) VALUES (?, ?, ?, ?)",
+                    // Parte dos lotes já vencida, o restante espalhado pelos próximos dois anos
+                    (id, random) -> new Object[] {id, random.nextInt(1, volumes.ordens() + 1),
+                            Date.valueOf(referencia.plusDays(random.nextInt(-90, 730))), random.nextInt(1, 1_000)}));
+
+            inseridas.put("ESTOQUE", inserir(executor, "ESTOQUE", volumes.estoques(),
+                    "INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, ?, ?, ?)",
+                    (id, random) -> {
+                        int produto = popularidade.sortear(random);
+                        // 10% dos estoques zerados
+                        int quantidade = random.nextInt(10) == 0 ? 0 : random.nextInt(1, 500);
+                        produtoDoEstoque[id] = produto;
+                        saldoDoProduto.addAndGet(produto, quantidade);
+                        estoquesDoProduto.incrementAndGet(produto);
+                        return new Object[] {id, produto, random.nextInt(1, volumes.lotes() + 1), quantidade};
+                    }));
+
+            inseridas.put("MOVIMENTACAO", inserir(executor, "MOVIMENTACAO", volumes.movimentacoes(),
+                    "INSERT INTO MOVIMENTACAO (IDMOVIMENTACAO, ID_ESTOQUE, ID_USUARIO, ID_SETOR_ORIGEM, "
+                            + "ID_SETOR_DESTINO, QTDMOVIM, DATAMOVIM, TIPOMOVIM) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    (id, random) -> {
+                        int estoque = random.nextInt(1, volumes.estoques() + 1);
+                        int almoxarifado = almoxarifadoDoProduto[produtoDoEstoque[estoque]];
+                        int setor = almoxarifado != 0 ? setorDoAlmoxarifado(almoxarifado, volumes)
+                                : random.nextInt(1, volumes.setores() + 1);
+                        // Saídas são dispensações para outro setor; entradas ficam no setor do almoxarifado
+                        boolean saida = random.nextInt(100) < 70;
+                        return new Object[] {id, estoque, random.nextInt(1, USUARIOS + 1), setor,
+                                saida ? random.nextInt(1, volumes.setores() + 1) : setor, random.nextInt(1, 50),
+                                Date.valueOf(referencia.minusDays(random.nextInt(0, 365))),
+                                saida ? "SAIDA" : "ENTRADA"};
+                    }));
+
+            inseridas.put("SALDOPRODUTO", inserir(executor, "SALDOPRODUTO", volumes.produtos(),
+                    "INSERT INTO SALDOPRODUTO (ID_PRODUTO, QTDTOTAL) VALUES (?, ?)",
+                    (id, random) -> estoquesDoProduto.get(id) == 0 ? null
+                            : new Object[] {id, saldoDoProduto.get(id)}));
+
+            inseridas.put("SALDOALMOX", inserir(executor, "SALDOALMOX", volumes.produtos(),
+                    "INSERT INTO SALDOALMOX (ID_ALMOX, ID_PRODUTO, QTDTOTAL) VALUES (?, ?, ?)",
+                    (id, random) -> estoquesDoProduto.get(id) == 0 || almoxarifadoDoProduto[id] == 0 ? null
+                            : new Object[] {almoxarifadoDoProduto[id], id, saldoDoProduto.get(id)}));
+        }
+
+        ajustarGeradoresDeId(volumes);
+        return inseridas;
+    }
+
+    /**
+     * Código de barras EAN-13 do produto (prefixo 789 e dígito verificador)
+     * @param idProduto ID do produto
+     * @return Código de 13 dígitos
+     */
+    public static String codigoBarras(int idProduto) {
+        String corpo = "789" + String.format("%09d", idProduto);
+        int soma = 0;
+        for (int i = 0; i < corpo.length(); i++) {
+            soma += (corpo.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return corpo + (10 - soma % 10) % 10;
+    }
+
+    /**
+     * Insere as linhas de uma tabela em blocos paralelos
+     * @return Quantidade de linhas inseridas
+     */
+    private long inserir(ExecutorService executor, String tabela, int total, String sql, Linha linha) {
+        long inicio = System.currentTimeMillis();
+        List<Callable<Integer>> blocos = new ArrayList<>();
+        for (int primeiro = 1; primeiro <= total; primeiro += BLOCO) {
+            int de = primeiro;
+            int ate = Math.min(total, primeiro + BLOCO - 1);
+            SplittableRandom random = new SplittableRandom(sementeDoBloco(tabela, de));
+            blocos.add(() -> {
+                List<Object[]> linhas = new ArrayList<>(ate - de + 1);
+                for (int id = de; id <= ate; id++) {
+                    Object[] valores = linha.gerar(id, random);
+                    if (valores != null) {
+                        linhas.add(valores);
+                    }
+                }
+                if (!linhas.isEmpty()) {
+                    jdbc.batchUpdate(sql, linhas);
+                }
+                return linhas.size();
+            });
+        }
+
+        long inseridas = 0;
+        try {
+            for (Future<Integer> bloco : executor.invokeAll(blocos)) {
+                inseridas += bloco.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração de " + tabela + " interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao gerar " + tabela, e.getCause());
+        }
+        System.out.printf("%-14s %,12d linhas em %,8d ms%n", tabela, inseridas, System.currentTimeMillis() - inicio);
+        return inseridas;
+    }
+
+    /**
+     * Semente de um bloco (SplitMix64 sobre a semente, a tabela e o primeiro ID)
+     */
+    private long sementeDoBloco(String tabela, int primeiroId) {
+        long z = semente + 0x9E3779B97F4A7C15L * (tabela.hashCode() * 1_000_003L + primeiroId);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Leva as sequências (ESTOQUE_SEQ, LOTE_SEQ, MOVIMENTACAO_SEQ) e as colunas
+     * IDENTITY para depois dos IDs gerados, para que as inclusões feitas pela
+     * aplicação durante o teste de carga não colidam com a massa
+     */
+    private void ajustarGeradoresDeId(Volumes volumes) {
+        String banco = jdbc.execute(
+                (ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        // Folga de um bloco de alocação (allocationSize = 50) do otimizador pooled do Hibernate
+        Map<String, Integer> sequencias = Map.of("ESTOQUE_SEQ", volumes.estoques() + 51,
+                "LOTE_SEQ", volumes.lotes() + 51, "MOVIMENTACAO_SEQ", volumes.movimentacoes() + 51);
+        if (banco.equalsIgnoreCase("H2")) {
+            sequencias.forEach((sequencia, proximo) ->
+                    jdbc.execute("ALTER SEQUENCE " + sequencia + " RESTART WITH " + proximo));
+            Map<String, String[]> identidades = Map.of(
+                    "SETOR", new String[] {"IDSETOR", String.valueOf(volumes.setores() + 1)},
+                    "UNIMEDIDA", new String[] {"IDUNMEDI", String.valueOf(UNIDADES.length + 1)},
+                    "ALMOXARIFADO", new String[] {"IDALMOX", String.valueOf(volumes.almoxarifados() + 1)},
+                    "PESSOAJUR", new String[] {"IDPESSOAJUR", String.valueOf(volumes.fornecedores() + 1)},
+                    "FORNECEDOR", new String[] {"IDFORNECEDOR", String.valueOf(volumes.fornecedores() + 1)},
+                    "PRODUTO", new String[] {"IDPRODUTO", String.valueOf(volumes.produtos() + 1)},
+                    "ORDEMCOMPRA", new String[] {"IDORDCOMP", String.valueOf(volumes.ordens() + 1)},
+                    "ITEM_ORDCOMP", new String[] {"IDITEMORD", String.valueOf(volumes.itens() + 1)});
+            identidades.forEach((tabela, coluna) -> jdbc.execute(
+                    "ALTER TABLE " + tabela + " ALTER COLUMN " + coluna[0] + " RESTART WITH " + coluna[1]));
+            jdbc.execute("ANALYZE");
+        } else {
+            // MySQL: as sequências em tabela (fasiclin_db.sql) avançam para depois da massa;
+            // as colunas AUTO_INCREMENT das demais tabelas já acompanham os IDs inseridos
+            sequencias.forEach((sequencia, proximo) -> jdbc.update("UPDATE " + sequencia + " SET next_val = ?", proximo));
+            jdbc.execute("ANALYZE TABLE PRODUTO, ORDEMCOMPRA, ITEM_ORDCOMP, LOTE, ESTOQUE, MOVIMENTACAO");
+        }
+    }
+
+    private static int setorDoAlmoxarifado(int idAlmoxarifado, Volumes volumes) {
+        return 1 + (idAlmoxarifado - 1) % volumes.setores();
+    }
+
+    private static String nomeProduto(int id, SplittableRandom random) {
+        String nome = SUBSTANCIAS[random.nextInt(SUBSTANCIAS.length)] + " "
+                + CONCENTRACOES[random.nextInt(CONCENTRACOES.length)] + " " + FORMAS[random.nextInt(FORMAS.length)];
+        String sufixo = " " + id;
+        return (nome.length() + sufixo.length() > 50 ? nome.substring(0, 50 - sufixo.length()) : nome) + sufixo;
+    }
+
+    /**
+     * CNPJ válido: raiz de 8 dígitos a partir do ID, filial 0001 e dígitos verificadores
+     */
+    private static String cnpj(int id) {
+        String base = String.format("%08d", id) + "0001";
+        base += digitoCnpj(base);
+        return base + digitoCnpj(base);
+    }
+
+    private static int digitoCnpj(String numeros) {
+        int soma = 0;
+        int peso = numeros.length() - 7;
+        for (int i = 0; i < numeros.length(); i++) {
+            soma += (numeros.charAt(i) - '0') * peso;
+            peso = peso == 2 ? 9 : peso - 1;
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    /**
+     * Sorteio de produtos com popularidade Zipf
+     * A posição k no ranking tem peso 1/k^s; o ranking é uma permutação
+     * embaralhada dos IDs para que os produtos populares não sejam os de ID baixo
+     */
+    private static final class Popularidade {
+
+        private final double[] acumulada;
+        private final int[] produtoNaPosicao;
+
+        Popularidade(int produtos, double expoente, long semente) {
+            acumulada = new double[produtos];
+            double soma = 0;
+            for (int k = 1; k <= produtos; k++) {
+                soma += 1 / Math.pow(k, expoente);
+                acumulada[k - 1] = soma;
+            }
+            for (int i = 0; i < produtos; i++) {
+                acumulada[i] /= soma;
+            }
+
+            produtoNaPosicao = new int[produtos];
+            for (int i = 0; i < produtos; i++) {
+                produtoNaPosicao[i] = i + 1;
+            }
+            SplittableRandom random = new SplittableRandom(semente);
+            for (int i = produtos - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int troca = produtoNaPosicao[i];
+                produtoNaPosicao[i] = produtoNaPosicao[j];
+                produtoNaPosicao[j] = troca;
+            }
+        }
+
+        int sortear(SplittableRandom random) {
+            int posicao = Arrays.binarySearch(acumulada, random.nextDouble());
+            posicao = posicao >= 0 ? posicao : -posicao - 1;
+            return produtoNaPosicao[Math.min(posicao, produtoNaPosicao.length - 1)];
+        }
+    }
+
+    /**
+     * Popula um banco externo (o esquema deve ter sido criado e estar vazio)
+     * Argumentos: URL JDBC, usuário e senha. Propriedades: gerador.fator (1.0 =
+     * produção), gerador.semente, gerador.zipf e gerador.paralelismo. No MySQL,
+     * rewriteBatchedStatements=true na URL acelera bastante as inserções em lote
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Uso: GeradorDados <url-jdbc> <usuario> <senha>");
+            System.exit(2);
+        }
+        double fator = Double.parseDouble(System.getProperty("gerador.fator", "1.0"));
+        long semente = Long.getLong("gerador.semente", 42L);
+        double zipf = Double.parseDouble(System.getProperty("gerador.zipf", "1.0"));
+        int paralelismo = Integer.getInteger("gerador.paralelismo", Runtime.getRuntime().availableProcessors());
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl(args[0]);
+            dataSource.setUsername(args[1]);
+            dataSource.setPassword(args[2]);
+            dataSource.setMaximumPoolSize(paralelismo);
+            dataSource.setPoolName("GeradorDados");
+
+            long inicio = System.currentTimeMillis();
+            Map<String, Long> inseridas = new GeradorDados(new JdbcTemplate(dataSource), semente, zipf, paralelismo,
+                    LocalDate.now()).gerar(Volumes.escala(fator));
+            System.out.printf("Total: %,d linhas em %,d s%n", inseridas.values().stream().mapToLong(Long::longValue).sum(),
+                    (System.currentTimeMillis() - inicio) / 1000);
+        }
+    }
+}
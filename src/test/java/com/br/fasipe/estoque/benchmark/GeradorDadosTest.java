@@ -0,0 +1,126 @@
+package com.br.fasipe.estoque.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teste do gerador de massa de dados em escala reduzida
+ * A massa precisa manter a integridade referencial, saldos materializados
+ * iguais ao estoque, popularidade concentrada em poucos produtos e ser
+ * idêntica a cada geração com a mesma semente
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GeradorDadosTest {
+
+    private static final GeradorDados.Volumes VOLUMES = GeradorDados.Volumes.escala(0.01);
+    private static final LocalDate REFERENCIA = LocalDate.of(2026, 1, 1);
+
+    private static final List<String> TABELAS = List.of("SALDOALMOX", "SALDOPRODUTO", "MOVIMENTACAO", "ESTOQUE",
+            "LOTE", "ITEM_ORDCOMP", "ORDEMCOMPRA", "PRODUTO", "FORNECEDOR", "PESSOAJUR", "ALMOXARIFADO",
+            "UNIMEDIDA", "SETOR");
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void limpar() {
+        TABELAS.forEach(tabela -> jdbc.update("DELETE FROM " + tabela));
+    }
+
+    @Test
+    void geraOsVolumesComIntegridadeReferencial() {
+        Map<String, Long> inseridas = gerar(42);
+
+        assertEquals(VOLUMES.produtos(), inseridas.get("PRODUTO").longValue());
+        assertEquals(VOLUMES.estoques(), inseridas.get("ESTOQUE").longValue());
+        assertEquals(VOLUMES.movimentacoes(), inseridas.get("MOVIMENTACAO").longValue());
+        inseridas.forEach((tabela, linhas) ->
+                assertEquals(linhas.longValue(), contar("SELECT COUNT(*) FROM " + tabela), tabela));
+
+        assertEquals(0, contar("SELECT COUNT(*) FROM ALMOXARIFADO a LEFT JOIN SETOR s ON s.IDSETOR = a.ID_SETOR "
+                + "WHERE s.IDSETOR IS NULL"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM FORNECEDOR f LEFT JOIN PESSOAJUR p ON p.IDPESSOAJUR = f.ID_PESSOA "
+                + "WHERE p.IDPESSOAJUR IS NULL"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM PRODUTO p LEFT JOIN ALMOXARIFADO a ON a.IDALMOX = p.ID_ALMOX "
+                + "LEFT JOIN UNIMEDIDA u ON u.IDUNMEDI = p.ID_UNMEDI "
+                + "WHERE (p.ID_ALMOX IS NOT NULL AND a.IDALMOX IS NULL) OR u.IDUNMEDI IS NULL"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM ITEM_ORDCOMP i LEFT JOIN ORDEMCOMPRA o ON o.IDORDCOMP = i.ID_ORDCOMP "
+                + "LEFT JOIN PRODUTO p ON p.IDPRODUTO = i.ID_PRODUTO WHERE o.IDORDCOMP IS NULL OR p.IDPRODUTO IS NULL"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM LOTE l LEFT JOIN ORDEMCOMPRA o ON o.IDORDCOMP = l.ID_ORDCOMP "
+                + "WHERE o.IDORDCOMP IS NULL"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM ESTOQUE e LEFT JOIN PRODUTO p ON p.IDPRODUTO = e.ID_PRODUTO "
+                + "LEFT JOIN LOTE l ON l.IDLOTE = e.ID_LOTE WHERE p.IDPRODUTO IS NULL OR l.IDLOTE IS NULL"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM MOVIMENTACAO m LEFT JOIN ESTOQUE e ON e.IDESTOQUE = m.ID_ESTOQUE "
+                + "LEFT JOIN SETOR o ON o.IDSETOR = m.ID_SETOR_ORIGEM LEFT JOIN SETOR d ON d.IDSETOR = m.ID_SETOR_DESTINO "
+                + "WHERE e.IDESTOQUE IS NULL OR o.IDSETOR IS NULL OR d.IDSETOR IS NULL"));
+    }
+
+    @Test
+    void saldosMaterializadosConferemComOEstoque() {
+        gerar(42);
+
+        assertEquals(0, contar("SELECT COUNT(*) FROM SALDOPRODUTO s LEFT JOIN "
+                + "(SELECT ID_PRODUTO, SUM(QTDESTOQUE) TOTAL FROM ESTOQUE GROUP BY ID_PRODUTO) e "
+                + "ON e.ID_PRODUTO = s.ID_PRODUTO WHERE e.TOTAL IS NULL OR e.TOTAL <> s.QTDTOTAL"));
+        assertEquals(contar("SELECT COUNT(DISTINCT ID_PRODUTO) FROM ESTOQUE"), contar("SELECT COUNT(*) FROM SALDOPRODUTO"));
+        assertEquals(0, contar("SELECT COUNT(*) FROM SALDOALMOX s JOIN PRODUTO p ON p.IDPRODUTO = s.ID_PRODUTO "
+                + "JOIN SALDOPRODUTO t ON t.ID_PRODUTO = s.ID_PRODUTO "
+                + "WHERE p.ID_ALMOX <> s.ID_ALMOX OR t.QTDTOTAL <> s.QTDTOTAL"));
+    }
+
+    @Test
+    void popularidadeDosProdutosEConcentrada() {
+        gerar(42);
+
+        // Com Zipf (s = 1) os 10% de produtos mais populares concentram bem mais da metade dos estoques
+        long maisPopulares = contar("SELECT COALESCE(SUM(TOTAL), 0) FROM (SELECT COUNT(*) TOTAL FROM ESTOQUE "
+                + "GROUP BY ID_PRODUTO ORDER BY TOTAL DESC LIMIT " + VOLUMES.produtos() / 10 + ") t");
+        assertTrue(maisPopulares > VOLUMES.estoques() / 2,
+                "Os 10% mais populares têm " + maisPopulares + " de " + VOLUMES.estoques() + " estoques");
+    }
+
+    @Test
+    void mesmaSementeGeraAMesmaMassa() {
+        gerar(42);
+        long primeira = assinatura();
+        limpar();
+        gerar(42);
+        assertEquals(primeira, assinatura());
+
+        limpar();
+        gerar(7);
+        assertTrue(primeira != assinatura());
+    }
+
+    private Map<String, Long> gerar(long semente) {
+        return new GeradorDados(jdbc, semente, 1.0, 4, REFERENCIA).gerar(VOLUMES);
+    }
+
+    /**
+     * Resumo numérico do conteúdo das tabelas geradas
+     */
+    private long assinatura() {
+        return contar("SELECT SUM(CAST(IDESTOQUE AS BIGINT) * ID_PRODUTO + ID_LOTE * 31 + QTDESTOQUE) FROM ESTOQUE")
+                + contar("SELECT SUM(CAST(IDMOVIMENTACAO AS BIGINT) * ID_ESTOQUE + QTDMOVIM * 7 + ID_SETOR_DESTINO) "
+                        + "FROM MOVIMENTACAO")
+                + contar("SELECT SUM(CAST(IDITEMORD AS BIGINT) * ID_PRODUTO + ID_ORDCOMP + QNTD) FROM ITEM_ORDCOMP")
+                + contar("SELECT SUM(CAST(IDPRODUTO AS BIGINT) * COALESCE(ID_ALMOX, 0) + LENGTH(NOME) + STQMAX) "
+                        + "FROM PRODUTO");
+    }
+
+    private long contar(String sql) {
+        return jdbc.queryForObject(sql, Long.class);
+    }
+}
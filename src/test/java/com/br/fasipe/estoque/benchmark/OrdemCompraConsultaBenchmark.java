@@ -0,0 +1,112 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo;
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.repository.OrdemCompraRepository;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência dos filtros paginados de ORDEMCOMPRA (status, data de previsão,
+ * data da ordem e período) sobre alguns milhões de ordens, com e sem os
+ * índices IDX_ORDEMCOMPRA_*
+ * Execução: mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=OrdemCompraConsultaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrdemCompraConsultaBenchmark {
+
+    // Histórico gerado pelo GeradorDados
+    private static final int DIAS = 3 * 365;
+
+    @Param({"3000000"})
+    private int ordens;
+
+    @Param({"true", "false"})
+    private boolean comIndices;
+
+    private ConfigurableApplicationContext contexto;
+    private OrdemCompraRepository ordemCompraRepository;
+    private final Pageable pagina = PageRequest.of(0, 20, Sort.by("id"));
+    private final SplittableRandom random = new SplittableRandom(7);
+    private LocalDate inicio;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = AmbienteBenchmark.iniciar("ordens_" + comIndices);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        AmbienteBenchmark.gerar(jdbc, new GeradorDados.Volumes(1, 1, 1, 1, ordens, 1, 1, 1, 1));
+        if (!comIndices) {
+            AmbienteBenchmark.removerIndices(jdbc);
+        }
+        ordemCompraRepository = contexto.getBean(OrdemCompraRepository.class);
+        inicio = LocalDate.now().minusDays(DIAS);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    /**
+     * Painel de acompanhamento: primeira página das ordens pendentes
+     */
+    @Benchmark
+    public Page<OrdemCompraResumo> pendentes() {
+        return ordemCompraRepository.findBySTATUSORD(StatusOrdem.PEND, pagina);
+    }
+
+    @Benchmark
+    public long contagemPorStatus() {
+        return ordemCompraRepository.countBySTATUSORD(StatusOrdem.ANDA);
+    }
+
+    @Benchmark
+    public Page<OrdemCompraResumo> porDataPrevisao() {
+        return ordemCompraRepository.findByDATAPREV(diaAleatorio(), pagina);
+    }
+
+    @Benchmark
+    public Page<OrdemCompraResumo> porDataOrdem() {
+        return ordemCompraRepository.findByDATAORDEM(diaAleatorio(), pagina);
+    }
+
+    /**
+     * Relatório mensal: período de 30 dias dentro do histórico
+     */
+    @Benchmark
+    public Page<OrdemCompraResumo> porPeriodo() {
+        LocalDate dataInicio = diaAleatorio();
+        return ordemCompraRepository.findByDATAORDEMEntre(dataInicio, dataInicio.plusDays(30), pagina);
+    }
+
+    private LocalDate diaAleatorio() {
+        return inicio.plusDays(random.nextInt(DIAS - 30));
+    }
+}
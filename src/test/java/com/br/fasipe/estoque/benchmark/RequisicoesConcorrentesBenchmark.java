@@ -0,0 +1,109 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão e latência (SampleTime: p99) da API com 2.000 clientes simultâneos
+ * Compara o Tomcat com threads de plataforma, com threads virtuais e com
+ * threads virtuais atrás do limitador de conexões; o pool HikariCP tem as
+ * mesmas 10 conexões nos três casos. Cada cliente lê o saldo materializado
+ * e a página de estoques de um produto sorteado (esta sem o cache da aplicação)
+ * Execução: mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=RequisicoesConcorrentesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(2_000)
+@Fork(value = 1, jvmArgsAppend = {"-Xss256k"})
+public class RequisicoesConcorrentesBenchmark {
+
+    private static final int PRODUTOS = 10_000;
+    private static final int LOTES = 20_000;
+    private static final int ESTOQUES = 100_000;
+    private static final int ALMOXARIFADOS = 50;
+
+    @Param({"plataforma", "virtuais", "virtuaisComLimitador"})
+    private String execucao;
+
+    private ConfigurableApplicationContext contexto;
+    private HttpClient cliente;
+    private String base;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        boolean virtuais = !execucao.equals("plataforma");
+        contexto = AmbienteBenchmark.iniciarServidor("requisicoes_" + execucao,
+                "--spring.threads.virtual.enabled=" + virtuais,
+                "--fasiclin.limitador.habilitado=" + execucao.equals("virtuaisComLimitador"),
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                // A listagem por produto vai ao banco em toda requisição
+                "--fasiclin.cache.specs.estoques.maximum-weight=0");
+        AmbienteBenchmark.gerar(contexto.getBean(JdbcTemplate.class), new GeradorDados.Volumes(1, ALMOXARIFADOS, 1,
+                PRODUTOS, LOTES / 10, 1, LOTES, ESTOQUES, 1));
+
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        cliente = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        cliente.close();
+        contexto.close();
+    }
+
+    @Benchmark
+    public int saldoDoProduto() throws IOException, InterruptedException {
+        return get("/api/estoque/saldos/produto/" + produtoSorteado());
+    }
+
+    @Benchmark
+    public int estoquesDoProduto() throws IOException, InterruptedException {
+        return get("/api/estoque/produto/" + produtoSorteado() + "?size=20");
+    }
+
+    private static int produtoSorteado() {
+        return ThreadLocalRandom.current().nextInt(1, PRODUTOS + 1);
+    }
+
+    /**
+     * GET bloqueante; respostas de erro (ex.: tempo esgotado no pool) também entram na medição
+     * @return Status HTTP da resposta
+     */
+    private int get(String caminho) throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(Duration.ofMinutes(2))
+                .GET()
+                .build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,151 @@
+package com.br.fasipe.estoque.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.OrdemCompraResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoDetalhe;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo;
+import com.br.fasipe.estoque.ordemcompra.dto.SaldoEstoque;
+import com.br.fasipe.estoque.ordemcompra.models.Estoque;
+import com.br.fasipe.estoque.ordemcompra.services.EstoqueService;
+import com.br.fasipe.estoque.ordemcompra.services.OrdemCompraService;
+import com.br.fasipe.estoque.ordemcompra.services.ProdutoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da serialização JSON de cada tipo de resposta da API com o ObjectMapper
+ * da aplicação (JacksonConfig, Hibernate6Module)
+ * As respostas são obtidas uma vez pelos services, como os controllers fazem;
+ * só a escrita do JSON é medida. A Page do Spring Data entra como referência
+ * para o formato {@link Pagina} devolvido pelas listagens
+ * Execução: mvn -Pbenchmark test-compile exec:exec -Djmh.filtro=SerializacaoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    private static final int PRODUTOS = 10_000;
+    private static final int LOTES = 20_000;
+    private static final int ESTOQUES = 100_000;
+    private static final int ALMOXARIFADOS = 50;
+
+    @Param({"20", "100"})
+    private int tamanhoPagina;
+
+    private ConfigurableApplicationContext contexto;
+    private ObjectMapper objectMapper;
+
+    private EstoqueDetalhe estoqueDetalhe;
+    private Page<EstoqueResumo> paginaEstoquesSpring;
+    private Pagina<EstoqueResumo> paginaEstoques;
+    private Estoque estoqueAtualizado;
+    private SaldoEstoque saldoEstoque;
+    private ProdutoDetalhe produtoDetalhe;
+    private Pagina<ProdutoResumo> paginaProdutos;
+    private OrdemCompraDetalhe ordemCompraDetalhe;
+    private Pagina<OrdemCompraResumo> paginaOrdens;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = AmbienteBenchmark.iniciar("serializacao_" + tamanhoPagina);
+        AmbienteBenchmark.gerar(contexto.getBean(JdbcTemplate.class), new GeradorDados.Volumes(1, ALMOXARIFADOS, 1,
+                PRODUTOS, LOTES / 10, 1, LOTES, ESTOQUES, 1));
+        objectMapper = contexto.getBean(ObjectMapper.class);
+
+        EstoqueService estoqueService = contexto.getBean(EstoqueService.class);
+        ProdutoService produtoService = contexto.getBean(ProdutoService.class);
+        OrdemCompraService ordemCompraService = contexto.getBean(OrdemCompraService.class);
+
+        estoqueDetalhe = estoqueService.findById(1).orElseThrow();
+        paginaEstoquesSpring = estoqueService.findAllPaginated(0, tamanhoPagina, "id", Sort.Direction.ASC);
+        paginaEstoques = Pagina.de(paginaEstoquesSpring);
+        // Entidade devolvida pelo PUT de quantidade, com as associações LAZY não inicializadas
+        estoqueAtualizado = estoqueService.updateQuantidade(1, 10, ContextoMovimentacao.SISTEMA);
+        saldoEstoque = estoqueService.movimentar(1, 1, ContextoMovimentacao.SISTEMA).orElseThrow();
+        produtoDetalhe = produtoService.findById(1).orElseThrow();
+        paginaProdutos = Pagina.de(produtoService.findAllPaginated(0, tamanhoPagina));
+        ordemCompraDetalhe = ordemCompraService.findById(1).orElseThrow();
+        paginaOrdens = Pagina.de(ordemCompraService.findAllPaginated(0, tamanhoPagina));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public byte[] estoqueDetalhe() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(estoqueDetalhe);
+    }
+
+    @Benchmark
+    public byte[] paginaEstoques() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginaEstoques);
+    }
+
+    /**
+     * Referência: a mesma página serializada diretamente como Page (PageImpl)
+     */
+    @Benchmark
+    public byte[] paginaEstoquesSpring() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginaEstoquesSpring);
+    }
+
+    @Benchmark
+    public byte[] estoqueEntidade() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(estoqueAtualizado);
+    }
+
+    @Benchmark
+    public byte[] saldoEstoque() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(saldoEstoque);
+    }
+
+    @Benchmark
+    public byte[] produtoDetalhe() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(produtoDetalhe);
+    }
+
+    @Benchmark
+    public byte[] paginaProdutos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginaProdutos);
+    }
+
+    @Benchmark
+    public byte[] ordemCompraDetalhe() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ordemCompraDetalhe);
+    }
+
+    @Benchmark
+    public byte[] paginaOrdens() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(paginaOrdens);
+    }
+}
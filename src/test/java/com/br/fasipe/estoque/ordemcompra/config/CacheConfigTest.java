@@ -0,0 +1,130 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.br.fasipe.estoque.ordemcompra.cache.RastreadorCache;
+import com.br.fasipe.estoque.ordemcompra.services.CacheService;
+import com.br.fasipe.estoque.ordemcompra.services.ProdutoService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Teste da configuração do cache
+ * Os caches declarados nas specs existem desde a inicialização com o peso máximo
+ * e a expiração configurados e são rastreados para a invalidação direcionada;
+ * os demais usam a especificação padrão. A segunda leitura de uma chave é um
+ * acerto registrado nas estatísticas do CacheService
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheConfigTest {
+
+    private static final Set<String> DECLARADOS = Set.of("estoque", "estoques", "produto", "produtos",
+            "ordemCompra", "ordensCompra");
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheSpecProperties properties;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (1, 'Dipirona', 'Dipirona 500mg', 1, 1, '789', 1000, 10, 20)");
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (2, 'Amoxicilina', 'Amoxicilina 500mg', 1, 1, '790', 1000, 10, 20)");
+        // Os dados foram trocados por fora da aplicação
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @Test
+    void cachesDeclaradosExistemComAsSuasSpecs() {
+        assertEquals(DECLARADOS, properties.getSpecs().keySet());
+        assertTrue(cacheManager.getCacheNames().containsAll(DECLARADOS));
+
+        properties.getSpecs().forEach((nome, spec) -> {
+            Cache<Object, Object> nativo = assertInstanceOf(RastreadorCache.class, cacheManager.getCache(nome))
+                    .getNativeCache();
+            assertEquals(spec.getMaximumWeight(), nativo.policy().eviction().orElseThrow().getMaximum(), nome);
+            assertEquals(spec.getExpireAfterWrite(), expiracao(nativo.policy()), nome);
+        });
+        assertEquals(50_000, properties.getSpecs().get("estoques").getMaximumWeight());
+        assertEquals(Duration.ofMinutes(2), properties.getSpecs().get("estoques").getExpireAfterWrite());
+    }
+
+    @Test
+    void cacheNaoDeclaradoUsaAEspecificacaoPadrao() {
+        CaffeineCache outro = assertInstanceOf(CaffeineCache.class, cacheManager.getCache("naoDeclarado"));
+
+        assertFalse(outro instanceof RastreadorCache);
+        assertEquals(properties.getPadrao().getMaximumWeight(),
+                outro.getNativeCache().policy().eviction().orElseThrow().getMaximum());
+        assertEquals(properties.getPadrao().getExpireAfterWrite(), expiracao(outro.getNativeCache().policy()));
+    }
+
+    @Test
+    void segundaLeituraEhUmAcerto() {
+        Map<String, Object> antes = cacheService.getEstatisticas("produto").orElseThrow();
+
+        assertEquals("Dipirona", produtoService.findById(1).orElseThrow().nome());
+        // O registro muda por fora: a segunda leitura vem do cache, sem ir ao banco
+        jdbc.update("UPDATE PRODUTO SET NOME = 'Alterado' WHERE IDPRODUTO = 1");
+        assertEquals("Dipirona", produtoService.findById(1).orElseThrow().nome());
+
+        Map<String, Object> depois = cacheService.getEstatisticas("produto").orElseThrow();
+        assertEquals(1L, (Long) depois.get("falhas") - (Long) antes.get("falhas"));
+        assertEquals(1L, (Long) depois.get("acertos") - (Long) antes.get("acertos"));
+        assertEquals(1L, (Long) depois.get("carregamentos") - (Long) antes.get("carregamentos"));
+        assertEquals(1L, depois.get("entradas"));
+    }
+
+    @Test
+    void pesoDaEntradaEhAQuantidadeDeRegistros() {
+        produtoService.findAllPaginated(0, 20);
+
+        assertEquals(2L, cacheService.getEstatisticas("produtos").orElseThrow().get("pesoAtual"));
+        assertEquals(3, CacheConfig.PESO_POR_REGISTROS.weigh("chave", List.of(1, 2, 3)));
+        assertEquals(1, CacheConfig.PESO_POR_REGISTROS.weigh("chave", new PageImpl<>(List.of())));
+        assertEquals(1, CacheConfig.PESO_POR_REGISTROS.weigh("chave", "valor"));
+    }
+
+    private static Duration expiracao(Policy<Object, Object> politica) {
+        return politica.expireAfterWrite().orElseThrow().getExpiresAfter();
+    }
+}
@@ -0,0 +1,108 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Teste da superfície de métricas
+ * Uma requisição ao detalhe do produto precisa aparecer no timer do endpoint,
+ * do método do service e da consulta do repositório; a segunda requisição é
+ * um acerto do cache "produto". Tudo é publicado em /actuator/prometheus com percentis
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (1, 'Dipirona', 'Dipirona 500mg', 1, 1, '789', 1000, 10, 20)");
+        cacheManager.getCache("produto").clear();
+    }
+
+    @Test
+    void requisicaoMedidaNoEndpointNoServiceENoRepositorio() throws Exception {
+        double acertosAntes = contador("cache.gets", "produto", "hit");
+
+        mockMvc.perform(get("/api/produtos/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/produtos/1")).andExpect(status().isOk());
+
+        Timer endpoint = registry.find("http.server.requests").tag("uri", "/api/produtos/{id}").timer();
+        assertNotNull(endpoint);
+        assertTrue(endpoint.count() >= 2);
+
+        Timer servico = registry.find("fasiclin.servico")
+                .tags("class", "ProdutoService", "method", "findById").timer();
+        assertNotNull(servico);
+        assertTrue(servico.count() >= 1);
+
+        // A segunda chamada é atendida pelo cache: uma única consulta ao banco
+        Timer repositorio = registry.find("spring.data.repository.invocations")
+                .tags("repository", "ProdutoRepository", "method", "findByIdProduto").timer();
+        assertNotNull(repositorio);
+        assertEquals(1, repositorio.count());
+
+        assertEquals(acertosAntes + 1, contador("cache.gets", "produto", "hit"));
+    }
+
+    @Test
+    void pontoDeColetaPublicaPercentisECaches() throws Exception {
+        mockMvc.perform(get("/api/produtos/1")).andExpect(status().isOk());
+
+        String coleta = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(coleta.contains("http_server_requests_seconds_bucket"));
+        assertTrue(coleta.contains("fasiclin_servico_seconds{"));
+        assertTrue(coleta.contains("quantile=\"0.99\""));
+        assertTrue(coleta.contains("spring_data_repository_invocations_seconds_bucket"));
+        assertTrue(coleta.contains("cache_gets_total{"));
+        assertTrue(coleta.contains("hikaricp_connections_active"));
+        assertTrue(coleta.contains("fasiclin_limitador_disponiveis"));
+    }
+
+    private double contador(String nome, String cache, String resultado) {
+        FunctionCounter contador = registry.find(nome).tags("cache", cache, "result", resultado).functionCounter();
+        return contador != null ? contador.count() : 0;
+    }
+}
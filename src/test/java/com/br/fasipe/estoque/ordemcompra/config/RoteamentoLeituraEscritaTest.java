@@ -0,0 +1,113 @@
+package com.br.fasipe.estoque.ordemcompra.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.services.ContagemStatusService;
+import com.br.fasipe.estoque.ordemcompra.services.EstoqueService;
+
+/**
+ * Teste do roteamento entre primária e réplica
+ * Dois bancos H2 em memória fazem o papel da primária e da réplica; o nome
+ * do banco da conexão mostra qual pool atendeu cada transação. O esquema só
+ * existe na primária, então uma leitura de tabela feita na réplica falha
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "fasiclin.datasource.replica.jdbc-url=jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "fasiclin.datasource.replica.driver-class-name=org.h2.Driver",
+        "fasiclin.datasource.replica.username=sa",
+        "fasiclin.datasource.replica.password="
+})
+@ActiveProfiles("test")
+class RoteamentoLeituraEscritaTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private ContagemStatusService contagemStatusService;
+
+    @AfterEach
+    void encerrarRequisicao() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void leiturasVaoParaAReplicaEEscritasParaAPrimaria() {
+        assertEquals("REPLICA", banco(true));
+        assertEquals("PRIMARIA", banco(false));
+        // Sem requisição não há leitura da própria escrita a proteger
+        assertEquals("REPLICA", banco(true));
+        // Sem transação: primária
+        assertEquals("PRIMARIA", jdbc.queryForObject("SELECT DATABASE()", String.class).toUpperCase());
+    }
+
+    @Test
+    void leiturasAposEscritaNaMesmaRequisicaoFicamNaPrimaria() {
+        iniciarRequisicao();
+        assertEquals("REPLICA", banco(true));
+        assertEquals("PRIMARIA", banco(false));
+        assertEquals("PRIMARIA", banco(true));
+
+        // A requisição seguinte volta a ler da réplica
+        iniciarRequisicao();
+        assertEquals("REPLICA", banco(true));
+    }
+
+    @Test
+    void leiturasQuePreenchemCachesEIndicesUsamAPrimaria() {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        assertEquals("PRIMARIA", leitura.execute(status -> RoteamentoLeituraEscrita.naPrimaria(
+                () -> jdbc.queryForObject("SELECT DATABASE()", String.class)).toUpperCase()));
+        // Fora do escopo a leitura volta para a réplica
+        assertEquals("REPLICA", banco(true));
+
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM ORDEMCOMPRA");
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (1, 1, 1, 10)");
+        jdbc.update("INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                + "VALUES (1, 'PEND', 100.00, CURRENT_DATE, CURRENT_DATE, CURRENT_DATE)");
+        cacheManager.getCache("estoque").clear();
+
+        assertEquals(1, estoqueService.count());
+        contagemStatusService.recarregar();
+        assertEquals(1, contagemStatusService.total(StatusOrdem.PEND));
+    }
+
+    private void iniciarRequisicao() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    /**
+     * Nome do banco que atendeu uma transação somente leitura ou de escrita
+     */
+    private String banco(boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> jdbc.queryForObject("SELECT DATABASE()", String.class)).toUpperCase();
+    }
+}
@@ -0,0 +1,271 @@
+package com.br.fasipe.estoque.ordemcompra.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import com.br.fasipe.estoque.ordemcompra.repository.AlmoxarifadoRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.SetorRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.UnidadeMedidaRepository;
+import com.br.fasipe.estoque.ordemcompra.services.ContagemStatusService;
+import com.jayway.jsonpath.JsonPath;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Quantidade de comandos SQL por requisição das listagens e detalhes
+ * Com as projeções das listagens cada página custa a consulta dos registros
+ * mais a contagem, independentemente do tamanho da página; os detalhes usam
+ * os planos de busca (entity graphs) e nenhum acesso dispara consultas por linha (N+1).
+ * As entidades de referência vêm do cache de segundo nível após a primeira leitura
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlanosDeBuscaTest {
+
+    private static final int REGISTROS = 60;
+    private static final int ITENS_POR_ORDEM = 3;
+    private static final int[] TAMANHOS_PAGINA = {5, 20, 50};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ContagemStatusService contagemStatusService;
+
+    @Autowired
+    private SetorRepository setorRepository;
+
+    @Autowired
+    private AlmoxarifadoRepository almoxarifadoRepository;
+
+    @Autowired
+    private UnidadeMedidaRepository unidadeMedidaRepository;
+
+    private Statistics estatisticas;
+
+    @BeforeAll
+    void popular() {
+        LocalDate hoje = LocalDate.now();
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        for (int i = 1; i <= REGISTROS; i++) {
+            jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                    + "STQMIN, PNTPEDIDO) VALUES (?, ?, 'Produto de teste', 1, 1, ?, 100, 10, 20)", i, "Produto " + i, "cb" + i);
+            jdbc.update("INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                    + "VALUES (?, 'PEND', 100, ?, ?, ?)", i, hoje.plusDays(5), hoje, hoje.plusDays(5));
+            for (int j = 0; j < ITENS_POR_ORDEM; j++) {
+                jdbc.update("INSERT INTO ITEM_ORDCOMP (ID_ORDCOMP, ID_PRODUTO, QNTD, VALOR, DATAVENC) "
+                        + "VALUES (?, ?, 10, 5, ?)", i, 1 + (i + j) % REGISTROS, hoje.plusDays(90));
+            }
+            jdbc.update("INSERT INTO LOTE (IDLOTE, ID_ORDCOMP, DATAVENC, QNTD) VALUES (?, ?, ?, 10)", i, i, hoje.plusDays(90));
+            jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, ?, ?, 10)", i, i, i);
+        }
+        // Massa inserida por JDBC após a carga dos contadores na inicialização
+        contagemStatusService.recarregar();
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void limparCaches() {
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @Test
+    void listagemDeEstoquesUsaConsultaEContagem() throws Exception {
+        for (int tamanho : TAMANHOS_PAGINA) {
+            assertEquals(2, comandosSql("/api/estoque?size=" + tamanho,
+                    jsonPath("$.content[0].nomeProduto").value("Produto 1"),
+                    jsonPath("$.content[0].dataVencimento").exists(),
+                    jsonPath("$.totalElements").value(REGISTROS)), "tamanho " + tamanho);
+        }
+    }
+
+    @Test
+    void listagemDeProdutosUsaConsultaEContagem() throws Exception {
+        for (int tamanho : TAMANHOS_PAGINA) {
+            assertEquals(2, comandosSql("/api/produtos?size=" + tamanho,
+                    jsonPath("$.content[0].nomeAlmoxarifado").value("Central"),
+                    jsonPath("$.content[0].unidadeMedida").value("UN")), "tamanho " + tamanho);
+        }
+    }
+
+    @Test
+    void listagemDeOrdensNaoCarregaItens() throws Exception {
+        for (int tamanho : TAMANHOS_PAGINA) {
+            assertEquals(2, comandosSql("/api/ordens-compra?size=" + tamanho,
+                    jsonPath("$.content[0].status").value("PEND")), "tamanho " + tamanho);
+        }
+    }
+
+    @Test
+    void filtrosDeOrdensConsultamApenasAsLinhasDoFiltro() throws Exception {
+        LocalDate hoje = LocalDate.now();
+        for (String url : List.of("/api/ordens-compra/status/PEND", "/api/ordens-compra/pendentes",
+                "/api/ordens-compra/previsao/" + hoje.plusDays(5), "/api/ordens-compra/data-ordem/" + hoje,
+                "/api/ordens-compra/periodo?dataInicio=" + hoje.minusDays(1) + "&dataFim=" + hoje)) {
+            assertEquals(2, comandosSql(url + (url.contains("?") ? "&" : "?") + "size=7",
+                    jsonPath("$.content.length()").value(7),
+                    jsonPath("$.content[0].id").value(1),
+                    jsonPath("$.totalElements").value(REGISTROS)), url);
+        }
+        comandosSql("/api/ordens-compra/status/ANDA", jsonPath("$.totalElements").value(0));
+        comandosSql("/api/ordens-compra/periodo?dataInicio=" + hoje.plusDays(1) + "&dataFim=" + hoje.plusDays(9),
+                jsonPath("$.totalElements").value(0));
+        // Contadores por status vêm da memória
+        assertEquals(0, comandosSql("/api/ordens-compra/total-status",
+                jsonPath("$.PEND").value(REGISTROS),
+                jsonPath("$.ANDA").value(0),
+                jsonPath("$.CONC").value(0)));
+        assertEquals(0, comandosSql("/api/ordens-compra/total-status/PEND", jsonPath("$").value(REGISTROS)));
+
+        // Trocas de status ajustam os contadores após o commit
+        mockMvc.perform(put("/api/ordens-compra/" + REGISTROS + "/status").param("novoStatus", "ANDA"))
+                .andExpect(status().isOk());
+        comandosSql("/api/ordens-compra/total-status",
+                jsonPath("$.PEND").value(REGISTROS - 1),
+                jsonPath("$.ANDA").value(1));
+        mockMvc.perform(put("/api/ordens-compra/" + REGISTROS + "/status").param("novoStatus", "PEND"))
+                .andExpect(status().isOk());
+        comandosSql("/api/ordens-compra/total-status", jsonPath("$.PEND").value(REGISTROS));
+    }
+
+    @Test
+    void detalhesUsamUmaUnicaConsulta() throws Exception {
+        assertEquals(1, comandosSql("/api/ordens-compra/1",
+                jsonPath("$.itens.length()").value(ITENS_POR_ORDEM),
+                jsonPath("$.itens[0].nomeProduto").exists()));
+        assertEquals(1, comandosSql("/api/estoque/1",
+                jsonPath("$.unidadeMedida").value("UN"),
+                jsonPath("$.statusOrdemCompra").value("PEND")));
+        assertEquals(1, comandosSql("/api/produtos/1",
+                jsonPath("$.nomeSetor").value("Farmácia")));
+    }
+
+    @Test
+    void paginacaoPorCursorCustaUmaConsultaPorPagina() throws Exception {
+        assertEquals(REGISTROS, percorrerPorCursor("/api/estoque?size=7", 1).size());
+
+        List<Integer> ordens = percorrerPorCursor("/api/ordens-compra?size=20&direction=DESC", 1);
+        assertEquals(REGISTROS, ordens.get(0));
+        assertEquals(1, ordens.get(REGISTROS - 1));
+
+        // Total opcional: apenas a contagem é acrescentada
+        assertEquals(2, comandosSql("/api/estoque?size=20&after=&total=true",
+                jsonPath("$.totalElements").value(REGISTROS),
+                jsonPath("$.totalPages").value(3)));
+
+        mockMvc.perform(get("/api/estoque?after=inv%40lido")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportacaoUsaUmaUnicaConsultaSemContagem() throws Exception {
+        for (String recurso : List.of("/api/estoque", "/api/produtos", "/api/ordens-compra")) {
+            estatisticas.clear();
+            String csv = mockMvc.perform(get(recurso + "/exportacao"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals(1, estatisticas.getPrepareStatementCount(), recurso);
+            String[] linhas = csv.split("\r\n");
+            assertEquals(REGISTROS + 1, linhas.length, recurso);
+            assertTrue(linhas[0].startsWith("id,"), linhas[0]);
+            assertTrue(linhas[1].startsWith("1,"), linhas[1]);
+
+            estatisticas.clear();
+            String ndjson = mockMvc.perform(get(recurso + "/exportacao").param("formato", "NDJSON"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals(1, estatisticas.getPrepareStatementCount(), recurso);
+            String[] objetos = ndjson.split("\n");
+            assertEquals(REGISTROS, objetos.length, recurso);
+            assertEquals(REGISTROS, (Integer) JsonPath.read(objetos[REGISTROS - 1], "$.id"));
+        }
+    }
+
+    @Test
+    void entidadesDeReferenciaVemDoCacheDeSegundoNivel() {
+        setorRepository.findById(1);
+        almoxarifadoRepository.findById(1);
+        unidadeMedidaRepository.findById(1);
+
+        estatisticas.clear();
+        assertEquals("Farmácia", setorRepository.findById(1).orElseThrow().getNome());
+        assertEquals("Central", almoxarifadoRepository.findById(1).orElseThrow().getNome());
+        assertEquals("UN", unidadeMedidaRepository.findById(1).orElseThrow().getAbreviacao());
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+        assertEquals(3, estatisticas.getSecondLevelCacheHitCount());
+    }
+
+    /**
+     * Percorre uma listagem pelos tokens "proximo" verificando a quantidade de
+     * comandos SQL de cada página; retorna os IDs na ordem entregue, sem repetições
+     */
+    private List<Integer> percorrerPorCursor(String url, long comandosPorPagina) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String proximo = "";
+        do {
+            estatisticas.clear();
+            String corpo = mockMvc.perform(get(url).param("after", proximo))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals(comandosPorPagina, estatisticas.getPrepareStatementCount(), url + " após " + proximo);
+            ids.addAll(JsonPath.read(corpo, "$.content[*].id"));
+            proximo = JsonPath.<List<String>>read(corpo, "$..proximo").stream().findFirst().orElse(null);
+        } while (proximo != null);
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        return ids;
+    }
+
+    /**
+     * Executa o GET e retorna a quantidade de comandos SQL preparados na requisição,
+     * incluindo a serialização da resposta
+     */
+    private long comandosSql(String url, ResultMatcher... verificacoes) throws Exception {
+        estatisticas.clear();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpectAll(verificacoes);
+        return estatisticas.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,118 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoSugestao;
+import com.br.fasipe.estoque.ordemcompra.models.Produto;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+
+import java.util.List;
+
+/**
+ * Teste da busca de produtos por prefixo
+ * As sugestões vêm do índice em memória: prefixos e palavras com erro de
+ * digitação encontram o produto, o nome pesa mais que a descrição e o índice
+ * acompanha as alterações e remoções de produtos
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class BuscaProdutosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private BuscaProdutosService buscaProdutosService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        criarProduto(1, "Dipirona Sódica 500mg", "Analgésico e antitérmico", "7891000000011");
+        criarProduto(2, "Paracetamol 750mg", "Analgésico", "7891000000028");
+        criarProduto(3, "Dipiridamol 75mg", "Antiagregante plaquetário", "7891000000035");
+        criarProduto(4, "Soro Fisiológico", "Diluente para dipirona injetável", "7891000000042");
+        // Os dados foram trocados por fora da aplicação
+        cacheManager.getCache("produto").clear();
+        buscaProdutosService.recarregar();
+    }
+
+    @Test
+    void prefixoSugereOsNomesAntesDaDescricao() throws Exception {
+        assertEquals(List.of(1, 3, 4), ids("dipi"));
+        // Sem acento, em qualquer ordem, e todas as palavras precisam corresponder
+        assertEquals(List.of(1), ids("sodica DIP"));
+        assertEquals(List.of(2), ids("789100000002"));
+        assertTrue(ids("d").isEmpty());
+
+        mockMvc.perform(get("/api/produtos/busca").param("q", "parac").param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].nome").value("Paracetamol 750mg"));
+    }
+
+    @Test
+    void palavrasComErroDeDigitacaoEncontramOProduto() {
+        assertEquals(1, ids("dipriona").get(0));
+        assertEquals(List.of(2), ids("paracetmol"));
+        // Erro no início do que ainda está sendo digitado
+        assertEquals(2, ids("parec").get(0));
+        // Palavra curta demais para tolerar erro
+        assertTrue(ids("xip").isEmpty());
+    }
+
+    @Test
+    void indiceAcompanhaAlteracaoERemocao() {
+        Produto produto = produtoRepository.findById(2).orElseThrow();
+        produto.setNome("Paracetamol Gotas");
+        produtoService.update(produto);
+        assertEquals(List.of(2), ids("gotas"));
+        assertTrue(ids("750").isEmpty());
+
+        produtoService.deleteById(3);
+        assertTrue(ids("dipiridamol").isEmpty());
+        assertEquals(List.of(1, 4), ids("dipi"));
+    }
+
+    private List<Integer> ids(String texto) {
+        return buscaProdutosService.buscar(texto, 10).stream().map(ProdutoSugestao::id).toList();
+    }
+
+    private void criarProduto(int id, String nome, String descricao, String codBarras) {
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (?, ?, ?, 1, 1, ?, 1000, 10, 20)", id, nome, descricao, codBarras);
+    }
+}
@@ -0,0 +1,121 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.br.fasipe.estoque.ordemcompra.dto.LeituraCodigosBarras;
+import com.br.fasipe.estoque.ordemcompra.models.Produto;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Teste do índice de códigos de barras
+ * A leitura no balcão, unitária ou em lote, é resolvida pelo índice em memória,
+ * que acompanha as inclusões, trocas de código e remoções de produtos
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class CodigoBarrasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private CodigoBarrasService codigoBarrasService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        criarProduto(1, "Dipirona", "7891000000011");
+        criarProduto(2, "Paracetamol", "7891000000028");
+        criarProduto(3, "Ibuprofeno", "7891000000035");
+        // Os dados foram trocados por fora da aplicação
+        cacheManager.getCache("produto").clear();
+        codigoBarrasService.recarregar();
+    }
+
+    @Test
+    void leituraUnitariaResolvidaPeloIndice() throws Exception {
+        mockMvc.perform(get("/api/produtos/codigo-barras/7891000000028"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(2))
+                .andExpect(jsonPath("$.nomeAlmoxarifado").value("Central"));
+        mockMvc.perform(get("/api/produtos/codigo-barras/0000000000000"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void leituraEmLoteMantemAOrdemESeparaOsNaoEncontrados() throws Exception {
+        mockMvc.perform(post("/api/produtos/codigo-barras/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"7891000000028\", \"0000000000000\", \"7891000000011\", \"7891000000028\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.produtos['7891000000028'].nome").value("Paracetamol"))
+                .andExpect(jsonPath("$.produtos['7891000000011'].nome").value("Dipirona"))
+                .andExpect(jsonPath("$.naoEncontrados").value(List.of("0000000000000")));
+
+        // Segunda leitura: detalhes já no cache por ID, o mesmo usado pelo findById
+        LeituraCodigosBarras leitura = produtoService.findByCodigosBarras(List.of("7891000000011", "7891000000028"));
+        assertEquals(List.of("7891000000011", "7891000000028"), List.copyOf(leitura.produtos().keySet()));
+        assertEquals("Dipirona", produtoService.findById(1).orElseThrow().nome());
+    }
+
+    @Test
+    void indiceAcompanhaInclusaoTrocaDeCodigoERemocao() {
+        Produto produto = produtoRepository.findById(3).orElseThrow();
+        produto.setCodBarras("7891000000059");
+        produtoService.update(produto);
+        assertEquals(Optional.of(3), codigoBarrasService.findIdProduto("7891000000059"));
+        assertEquals(Optional.empty(), codigoBarrasService.findIdProduto("7891000000035"));
+
+        produto = produtoRepository.findById(1).orElseThrow();
+        produto.setCodBarras("7891000000042");
+        produtoService.update(produto);
+        assertTrue(produtoService.findByCodBarras("7891000000011").isEmpty());
+        assertEquals("Dipirona", produtoService.findByCodBarras(" 7891000000042 ").orElseThrow().nome());
+
+        produtoService.deleteById(2);
+        assertTrue(produtoService.findByCodBarras("7891000000028").isEmpty());
+    }
+
+    private void criarProduto(int id, String nome, String codBarras) {
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (?, ?, ?, 1, 1, ?, 1000, 10, 20)", id, nome, nome, codBarras);
+    }
+}
@@ -0,0 +1,177 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra;
+import com.br.fasipe.estoque.ordemcompra.models.OrdemCompra.StatusOrdem;
+import com.br.fasipe.estoque.ordemcompra.repository.OrdemCompraRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste dos contadores de ordens de compra por status
+ * Depois de cada inclusão, remoção, troca de status e recebimento os totais
+ * em memória (GET /total-status) são iguais a uma contagem agrupada nova;
+ * escritas desfeitas não mudam os totais e recargas concorrentes com as
+ * trocas de status não contam nenhuma transição duas vezes
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContagemStatusTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDENS_POR_THREAD = 4;
+
+    @Autowired
+    private OrdemCompraService ordemCompraService;
+
+    @Autowired
+    private ContagemStatusService contagemStatusService;
+
+    @Autowired
+    private OrdemCompraRepository ordemCompraRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM SALDOPRODUTO");
+        jdbc.update("DELETE FROM SALDOALMOX");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM LOTE");
+        jdbc.update("DELETE FROM ITEM_ORDCOMP");
+        jdbc.update("DELETE FROM ORDEMCOMPRA");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (1, 'Dipirona', 'Dipirona 500mg', 1, 1, '789', 1000, 10, 20)");
+        // Os dados foram trocados por fora da aplicação
+        contagemStatusService.recarregar();
+    }
+
+    @Test
+    void totaisAcompanhamAContagemEmCadaTransicao() {
+        // As ordens são incluídas pelo service: o ID é gerado pelo banco
+        List<Integer> pendentes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            pendentes.add(criarOrdem(StatusOrdem.PEND));
+        }
+        Integer andamento = criarOrdem(StatusOrdem.ANDA);
+        criarOrdem(StatusOrdem.ANDA);
+        criarOrdem(StatusOrdem.CONC);
+        verificarTotais(Map.of(StatusOrdem.PEND, 3L, StatusOrdem.ANDA, 2L, StatusOrdem.CONC, 1L));
+
+        ordemCompraService.updateStatus(pendentes.get(0), StatusOrdem.ANDA);
+        verificarTotais(Map.of(StatusOrdem.PEND, 2L, StatusOrdem.ANDA, 3L, StatusOrdem.CONC, 1L));
+
+        // Troca para o mesmo status não é uma transição
+        ordemCompraService.updateStatus(pendentes.get(0), StatusOrdem.ANDA);
+        verificarTotais(Map.of(StatusOrdem.PEND, 2L, StatusOrdem.ANDA, 3L, StatusOrdem.CONC, 1L));
+
+        OrdemCompra alterada = ordemCompraRepository.findById(andamento).orElseThrow();
+        alterada.setStatus(StatusOrdem.CONC);
+        alterada.setValor(new BigDecimal("250.00"));
+        ordemCompraService.update(alterada);
+        verificarTotais(Map.of(StatusOrdem.PEND, 2L, StatusOrdem.ANDA, 2L, StatusOrdem.CONC, 2L));
+
+        ordemCompraService.deleteById(pendentes.get(1));
+        verificarTotais(Map.of(StatusOrdem.PEND, 1L, StatusOrdem.ANDA, 2L, StatusOrdem.CONC, 2L));
+
+        jdbc.update("INSERT INTO ITEM_ORDCOMP (IDITEMORD, ID_ORDCOMP, ID_PRODUTO, QNTD, VALOR, DATAVENC) "
+                + "VALUES (1, ?, 1, 10, 5, ?)", pendentes.get(2), LocalDate.now().plusDays(90));
+        ordemCompraService.receber(pendentes.get(2), List.of(), null);
+        verificarTotais(Map.of(StatusOrdem.PEND, 0L, StatusOrdem.ANDA, 2L, StatusOrdem.CONC, 3L));
+
+        // Escritas recusadas ou desfeitas não ajustam os contadores
+        assertThrows(OrdemJaRecebidaException.class, () -> ordemCompraService.receber(pendentes.get(2), List.of(), null));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ordemCompraService.updateStatus(pendentes.get(0), StatusOrdem.PEND);
+            status.setRollbackOnly();
+        });
+        verificarTotais(Map.of(StatusOrdem.PEND, 0L, StatusOrdem.ANDA, 2L, StatusOrdem.CONC, 3L));
+    }
+
+    @Test
+    void recargasConcorrentesNaoContamTransicoesDuasVezes() throws Exception {
+        // Cada thread troca o status só das próprias ordens: as transições não disputam a mesma linha
+        List<Integer> ordens = new ArrayList<>();
+        for (int i = 0; i < THREADS * ORDENS_POR_THREAD; i++) {
+            ordens.add(criarOrdem(StatusOrdem.PEND));
+        }
+        AtomicInteger proximaThread = new AtomicInteger();
+        ThreadLocal<List<Integer>> daThread = ThreadLocal.withInitial(() -> {
+            int inicio = proximaThread.getAndIncrement() * ORDENS_POR_THREAD;
+            return ordens.subList(inicio, inicio + ORDENS_POR_THREAD);
+        });
+        StatusOrdem[] status = StatusOrdem.values();
+
+        ExecucaoParalela.executar(THREADS, 25, () -> {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            if (aleatorio.nextInt(5) == 0) {
+                contagemStatusService.recarregar();
+            } else {
+                List<Integer> minhas = daThread.get();
+                ordemCompraService.updateStatus(minhas.get(aleatorio.nextInt(minhas.size())),
+                        status[aleatorio.nextInt(status.length)]);
+            }
+        });
+
+        assertEquals(contagem(), ordemCompraService.countAgrupadoPorStatus());
+        assertEquals((long) THREADS * ORDENS_POR_THREAD,
+                ordemCompraService.countAgrupadoPorStatus().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * Compara os totais em memória com os esperados e com uma contagem agrupada nova
+     */
+    private void verificarTotais(Map<StatusOrdem, Long> esperados) {
+        assertEquals(new EnumMap<>(esperados), ordemCompraService.countAgrupadoPorStatus());
+        assertEquals(contagem(), ordemCompraService.countAgrupadoPorStatus());
+        for (StatusOrdem status : StatusOrdem.values()) {
+            assertEquals(esperados.get(status), ordemCompraService.countByStatus(status));
+        }
+    }
+
+    private Map<StatusOrdem, Long> contagem() {
+        Map<StatusOrdem, Long> contagem = new EnumMap<>(StatusOrdem.class);
+        for (StatusOrdem status : StatusOrdem.values()) {
+            contagem.put(status, 0L);
+        }
+        ordemCompraRepository.countAgrupadoPorStatus().forEach(total -> contagem.put(total.status(), total.total()));
+        return contagem;
+    }
+
+    private Integer criarOrdem(StatusOrdem status) {
+        LocalDate hoje = LocalDate.now();
+        OrdemCompra ordem = new OrdemCompra(null, status, new BigDecimal("100.00"), hoje.plusDays(5), hoje,
+                hoje.plusDays(5), new ArrayList<>());
+        return ordemCompraService.save(ordem).getId();
+    }
+}
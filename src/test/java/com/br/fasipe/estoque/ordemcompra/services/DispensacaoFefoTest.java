@@ -0,0 +1,139 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.br.fasipe.estoque.ordemcompra.dto.AlocacaoLote;
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.Dispensacao;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste da dispensação FEFO
+ * Os lotes são consumidos em ordem de vencimento, lotes vencidos são ignorados,
+ * uma dispensação sem saldo suficiente não retira nada e dispensações
+ * concorrentes nunca retiram o mesmo saldo
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DispensacaoFefoTest {
+
+    private static final int THREADS = 16;
+    private static final int ID_PRODUTO = 1;
+
+    @Autowired
+    private DispensacaoService dispensacaoService;
+
+    @Autowired
+    private LotesFefoService lotesFefoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void limpar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM LOTE");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (1, 'Dipirona', 'Dipirona 500mg', 1, 1, '789', 1000, 10, 20)");
+        // Os dados foram trocados por fora da aplicação
+        lotesFefoService.invalidar(ID_PRODUTO);
+    }
+
+    @Test
+    void consomeOsLotesEmOrdemDeVencimentoIgnorandoVencidos() {
+        LocalDate hoje = LocalDate.now();
+        criarLote(1, hoje.plusDays(90), 10);
+        criarLote(2, hoje.minusDays(1), 50);
+        criarLote(3, hoje.plusDays(10), 5);
+        criarLote(4, hoje.plusDays(30), 8);
+
+        Dispensacao dispensacao = dispensacaoService.dispensar(ID_PRODUTO, 15, ContextoMovimentacao.SISTEMA);
+
+        assertEquals(List.of(3, 4, 1), dispensacao.lotes().stream().map(AlocacaoLote::idLote).toList());
+        assertEquals(List.of(5, 8, 2), dispensacao.lotes().stream().map(AlocacaoLote::quantidade).toList());
+        assertEquals(0, quantidade(3));
+        assertEquals(0, quantidade(4));
+        assertEquals(8, quantidade(1));
+        assertEquals(50, quantidade(2));
+        assertEquals(3, movimentacoes());
+    }
+
+    @Test
+    void dispensacaoSemSaldoSuficienteNaoRetiraNada() {
+        LocalDate hoje = LocalDate.now();
+        criarLote(1, hoje.plusDays(10), 5);
+        criarLote(2, hoje.plusDays(20), 5);
+
+        EstoqueInsuficienteException erro = assertThrows(EstoqueInsuficienteException.class,
+                () -> dispensacaoService.dispensar(ID_PRODUTO, 11, ContextoMovimentacao.SISTEMA));
+
+        assertEquals(10, erro.getDisponivel());
+        assertEquals(5, quantidade(1));
+        assertEquals(5, quantidade(2));
+        assertEquals(0, movimentacoes());
+    }
+
+    @Test
+    void dispensacoesConcorrentesNuncaRetiramOMesmoSaldo() throws Exception {
+        LocalDate hoje = LocalDate.now();
+        int lotes = 10;
+        int saldoPorLote = 40;
+        for (int i = 1; i <= lotes; i++) {
+            criarLote(i, hoje.plusDays(i), saldoPorLote);
+        }
+
+        AtomicInteger aceitas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        ExecucaoParalela.executar(THREADS, 20, () -> {
+            try {
+                dispensacaoService.dispensar(ID_PRODUTO, 3, ContextoMovimentacao.SISTEMA);
+                aceitas.incrementAndGet();
+            } catch (EstoqueInsuficienteException e) {
+                recusadas.incrementAndGet();
+            }
+        });
+
+        int saldoInicial = lotes * saldoPorLote;
+        assertEquals(saldoInicial / 3, aceitas.get());
+        assertEquals(THREADS * 20 - saldoInicial / 3, recusadas.get());
+        assertEquals(saldoInicial % 3, jdbc.queryForObject("SELECT SUM(QTDESTOQUE) FROM ESTOQUE", Integer.class));
+        assertEquals(aceitas.get() * 3,
+                jdbc.queryForObject("SELECT SUM(QTDMOVIM) FROM MOVIMENTACAO WHERE TIPOMOVIM = 'SAIDA'", Integer.class));
+    }
+
+    /**
+     * Cria um lote e o estoque correspondente com o mesmo ID
+     */
+    private void criarLote(int id, LocalDate vencimento, int quantidade) {
+        jdbc.update("INSERT INTO LOTE (IDLOTE, ID_ORDCOMP, DATAVENC, QNTD) VALUES (?, 1, ?, ?)",
+                id, Date.valueOf(vencimento), quantidade);
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, ?, ?, ?)",
+                id, ID_PRODUTO, id, quantidade);
+    }
+
+    private int quantidade(int idEstoque) {
+        return jdbc.queryForObject("SELECT QTDESTOQUE FROM ESTOQUE WHERE IDESTOQUE = ?", Integer.class, idEstoque);
+    }
+
+    private int movimentacoes() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM MOVIMENTACAO", Integer.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+import com.br.fasipe.estoque.ordemcompra.dto.ProdutoResumo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Teste da listagem de produtos com estoque baixo
+ * As páginas seguem o cursor do último ID entregue, cobrem o conjunto inteiro
+ * sem repetir produtos e o total acompanha as movimentações confirmadas.
+ * Uma recarga disparada entre o commit e o ajuste do saldo não conta a
+ * mesma movimentação duas vezes
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EstoqueBaixoTest {
+
+    private static final int PRODUTOS = 25;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private EstoqueBaixoService estoqueBaixoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        for (int id = 1; id <= PRODUTOS; id++) {
+            jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                    + "STQMIN, PNTPEDIDO) VALUES (?, ?, 'Produto de teste', 1, 1, ?, 1000, 10, 20)",
+                    id, "Produto " + id, "789" + id);
+            // Produtos pares ficam com saldo acima do mínimo
+            jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, ?, 1, ?)",
+                    id, id, id % 2 == 0 ? 50 : 5);
+        }
+        // Os dados foram trocados por fora da aplicação
+        estoqueBaixoService.recarregar();
+    }
+
+    @Test
+    void paginasPorCursorCobremOConjuntoSemRepetir() {
+        List<Integer> impares = IntStream.rangeClosed(1, PRODUTOS).filter(id -> id % 2 == 1).boxed().toList();
+
+        assertEquals(impares, percorrer());
+
+        // Produto 2 cai abaixo do mínimo; produto 1 volta a ficar acima
+        estoqueService.registrarSaida(2, 45, ContextoMovimentacao.SISTEMA);
+        estoqueService.registrarEntrada(1, 30, ContextoMovimentacao.SISTEMA);
+
+        List<Integer> esperados = new ArrayList<>(impares.subList(1, impares.size()));
+        esperados.add(0, 2);
+        assertEquals(esperados, percorrer());
+        assertEquals(esperados.size(), estoqueBaixoService.countAbaixoDoMinimo());
+    }
+
+    @Test
+    void recargaEntreOCommitEOAjusteNaoContaAVariacaoDuasVezes() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicReference<Future<?>> recarga = new AtomicReference<>();
+        AtomicBoolean recarregouAntesDoAjuste = new AtomicBoolean();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbc.update("UPDATE ESTOQUE SET QTDESTOQUE = QTDESTOQUE + 100 WHERE IDESTOQUE = 1");
+                // Registrada antes da variação: roda depois do commit e antes do ajuste do saldo
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recarga.set(executor.submit(estoqueBaixoService::recarregar));
+                        try {
+                            recarga.get().get(500, TimeUnit.MILLISECONDS);
+                            recarregouAntesDoAjuste.set(true);
+                        } catch (TimeoutException e) {
+                            // A recarga espera o ajuste deste commit
+                        } catch (InterruptedException | ExecutionException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                });
+                estoqueBaixoService.registrarVariacao(1, 100);
+            });
+            recarga.get().get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertFalse(recarregouAntesDoAjuste.get());
+        assertEquals(105L, estoqueBaixoService.findSaldo(1).orElseThrow().quantidadeTotal());
+    }
+
+    private List<Integer> percorrer() {
+        List<Integer> ids = new ArrayList<>();
+        String after = "";
+        int paginas = 0;
+        do {
+            Pagina<ProdutoResumo> pagina = produtoService.findProdutosComEstoqueBaixo(after, 5);
+            pagina.content().forEach(produto -> ids.add(produto.id()));
+            assertNull(pagina.number());
+            assertEquals(estoqueBaixoService.countAbaixoDoMinimo(), (long) pagina.totalElements());
+            after = pagina.proximo();
+            paginas++;
+        } while (after != null && paginas < PRODUTOS);
+        return ids;
+    }
+}
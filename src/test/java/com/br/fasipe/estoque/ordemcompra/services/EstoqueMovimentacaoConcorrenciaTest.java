@@ -0,0 +1,148 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste de estresse da movimentação atômica de estoque
+ * Muitas threads movimentam o mesmo estoque ao mesmo tempo; nenhuma
+ * atualização pode ser perdida, nenhuma saída pode deixar saldo negativo
+ * e o livro MOVIMENTACAO recebe exatamente uma linha por movimentação aceita.
+ * Os saldos materializados terminam iguais ao saldo do estoque
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EstoqueMovimentacaoConcorrenciaTest {
+
+    private static final int THREADS = 32;
+    private static final int ID_ESTOQUE = 1;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private SaldoConsolidadoService saldoConsolidadoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void limpar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM SALDOPRODUTO");
+        jdbc.update("DELETE FROM SALDOALMOX");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (1, 'Dipirona', 'Dipirona 500mg', 1, 1, '789', 1000, 10, 20)");
+    }
+
+    @Test
+    void saidasConcorrentesNuncaDeixamSaldoNegativo() throws Exception {
+        int saldoInicial = 500;
+        int tentativasPorThread = 50;
+        criarEstoque(saldoInicial);
+
+        AtomicInteger aceitas = new AtomicInteger();
+        AtomicInteger recusadas = new AtomicInteger();
+        ExecucaoParalela.executar(THREADS, tentativasPorThread, () -> {
+            try {
+                estoqueService.registrarSaida(ID_ESTOQUE, 1, ContextoMovimentacao.SISTEMA);
+                aceitas.incrementAndGet();
+            } catch (SaldoInsuficienteException e) {
+                recusadas.incrementAndGet();
+            }
+        });
+
+        assertEquals(saldoInicial, aceitas.get());
+        assertEquals(THREADS * tentativasPorThread - saldoInicial, recusadas.get());
+        assertEquals(0, quantidadeAtual());
+        assertEquals(saldoInicial, movimentacoes("SAIDA"));
+    }
+
+    @Test
+    void entradasESaidasConcorrentesNaoPerdemAtualizacoes() throws Exception {
+        int saldoInicial = 1_000;
+        int paresPorThread = 100;
+        criarEstoque(saldoInicial);
+
+        ExecucaoParalela.executar(THREADS, paresPorThread, () -> {
+            estoqueService.registrarEntrada(ID_ESTOQUE, 3, ContextoMovimentacao.SISTEMA);
+            estoqueService.registrarSaida(ID_ESTOQUE, 2, ContextoMovimentacao.SISTEMA);
+        });
+
+        assertEquals(saldoInicial + THREADS * paresPorThread, quantidadeAtual());
+        assertEquals(THREADS * paresPorThread, movimentacoes("ENTRADA"));
+        assertEquals(THREADS * paresPorThread, movimentacoes("SAIDA"));
+    }
+
+    @Test
+    void saldosMaterializadosAcompanhamAsMovimentacoesConcorrentes() throws Exception {
+        int saldoInicial = 1_000;
+        int paresPorThread = 50;
+        criarEstoque(saldoInicial);
+        assertEquals(1, saldoConsolidadoService.reconstruir());
+
+        ExecucaoParalela.executar(THREADS, paresPorThread, () -> {
+            estoqueService.registrarEntrada(ID_ESTOQUE, 5, ContextoMovimentacao.SISTEMA);
+            try {
+                estoqueService.registrarSaida(ID_ESTOQUE, 4, ContextoMovimentacao.SISTEMA);
+            } catch (SaldoInsuficienteException e) {
+                // Saída recusada não altera nenhum saldo
+            }
+        });
+
+        long esperado = quantidadeAtual();
+        assertEquals(saldoInicial + THREADS * paresPorThread, esperado);
+        assertEquals(esperado, saldoConsolidadoService.findByProduto(1).orElseThrow().getQuantidade());
+        assertEquals(esperado, saldoConsolidadoService.findByAlmoxarifadoEProduto(1, 1).orElseThrow().getQuantidade());
+
+        // A reconstrução a partir de ESTOQUE chega ao mesmo resultado
+        saldoConsolidadoService.reconstruir();
+        assertEquals(esperado, saldoConsolidadoService.findByProduto(1).orElseThrow().getQuantidade());
+    }
+
+    @Test
+    void movimentacaoDeEstoqueInexistenteRetornaVazio() {
+        assertTrue(estoqueService.registrarEntrada(999, 1, ContextoMovimentacao.SISTEMA).isEmpty());
+    }
+
+    @Test
+    void produtoSemAlmoxarifadoMovimentaNoSetorDoSistema() {
+        jdbc.update("UPDATE PRODUTO SET ID_ALMOX = NULL WHERE IDPRODUTO = 1");
+        criarEstoque(10);
+
+        assertTrue(estoqueService.registrarEntrada(ID_ESTOQUE, 1, ContextoMovimentacao.SISTEMA).isPresent());
+        assertEquals(1, jdbc.queryForObject("SELECT ID_SETOR_ORIGEM FROM MOVIMENTACAO WHERE ID_ESTOQUE = ?",
+                Integer.class, ID_ESTOQUE));
+    }
+
+    private void criarEstoque(int quantidade) {
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, 1, 1, ?)",
+                ID_ESTOQUE, quantidade);
+    }
+
+    private int quantidadeAtual() {
+        return jdbc.queryForObject("SELECT QTDESTOQUE FROM ESTOQUE WHERE IDESTOQUE = ?", Integer.class, ID_ESTOQUE);
+    }
+
+    private int movimentacoes(String tipo) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM MOVIMENTACAO WHERE ID_ESTOQUE = ? AND TIPOMOVIM = ?",
+                Integer.class, ID_ESTOQUE, tipo);
+    }
+}
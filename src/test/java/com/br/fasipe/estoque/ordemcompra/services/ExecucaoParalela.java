@@ -0,0 +1,48 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução concorrente dos testes de estresse
+ */
+final class ExecucaoParalela {
+
+    private ExecucaoParalela() {
+    }
+
+    /**
+     * Executa a operação repetidas vezes em cada thread, liberando todas ao mesmo tempo
+     * @param threads Quantidade de threads
+     * @param repeticoes Execuções da operação por thread
+     * @param operacao Operação executada
+     */
+    static void executar(int threads, int repeticoes, Runnable operacao) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < repeticoes; i++) {
+                        operacao.run();
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                // Propaga qualquer falha inesperada (timeout de bloqueio, deadlock etc.)
+                tarefa.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
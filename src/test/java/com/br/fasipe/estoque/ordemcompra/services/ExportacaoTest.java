@@ -0,0 +1,151 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.br.fasipe.estoque.ordemcompra.dto.FormatoExportacao;
+
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+/**
+ * Teste da exportação linha a linha
+ * O comando da exportação chega ao driver com o fetch size da consulta (no MySQL,
+ * com useCursorFetch=true, o tamanho do bloco lido do cursor do servidor) e as
+ * linhas são lidas sob demanda: a saída começa a ser escrita muito antes do fim
+ * do resultado, então a memória usada não depende da quantidade de registros
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(ExportacaoTest.MonitorJdbc.class)
+class ExportacaoTest {
+
+    private static final int ESTOQUES = 20_000;
+    private static final int FETCH_SIZE_EXPORTACAO = 1000;
+
+    private static final AtomicInteger linhasLidas = new AtomicInteger();
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM ESTOQUE");
+        List<Object[]> linhas = new ArrayList<>(ESTOQUES);
+        for (int id = 1; id <= ESTOQUES; id++) {
+            linhas.add(new Object[] {id, id % 50 + 1, id % 20 + 1, id % 500});
+        }
+        jdbc.batchUpdate("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, ?, ?, ?)", linhas);
+        linhasLidas.set(0);
+    }
+
+    @Test
+    void exportacaoLeOResultadoSobDemanda() throws Exception {
+        AtomicInteger lidasNaPrimeiraEscrita = new AtomicInteger(-1);
+        OutputStream saida = new OutputStream() {
+            @Override
+            public void write(int b) {
+                lidasNaPrimeiraEscrita.compareAndSet(-1, linhasLidas.get());
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                lidasNaPrimeiraEscrita.compareAndSet(-1, linhasLidas.get());
+            }
+        };
+
+        assertEquals(ESTOQUES, exportacaoService.exportarEstoques(FormatoExportacao.NDJSON, saida));
+        assertEquals(ESTOQUES, linhasLidas.get());
+        assertTrue(lidasNaPrimeiraEscrita.get() > 0);
+        assertTrue(lidasNaPrimeiraEscrita.get() < FETCH_SIZE_EXPORTACAO,
+                "Linhas lidas antes da primeira escrita: " + lidasNaPrimeiraEscrita.get());
+    }
+
+    /**
+     * Conta as linhas lidas dos comandos executados com o fetch size da exportação
+     */
+    @TestConfiguration
+    static class MonitorJdbc {
+
+        @Bean
+        static BeanPostProcessor monitorJdbcPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return proxy(DataSource.class, dataSource, (alvo, metodo, args) -> {
+                        Object resultado = metodo.invoke(alvo, args);
+                        return resultado instanceof Connection conexao ? monitorar(conexao) : resultado;
+                    });
+                }
+            };
+        }
+
+        private static Connection monitorar(Connection conexao) {
+            return proxy(Connection.class, conexao, (alvo, metodo, args) -> {
+                Object resultado = metodo.invoke(alvo, args);
+                return resultado instanceof PreparedStatement comando ? monitorar(comando) : resultado;
+            });
+        }
+
+        private static PreparedStatement monitorar(PreparedStatement comando) {
+            return proxy(PreparedStatement.class, comando, (alvo, metodo, args) -> {
+                Object resultado = metodo.invoke(alvo, args);
+                if (resultado instanceof ResultSet linhas && alvo.getFetchSize() == FETCH_SIZE_EXPORTACAO) {
+                    return proxy(ResultSet.class, linhas, (rs, metodoRs, argsRs) -> {
+                        Object lido = metodoRs.invoke(rs, argsRs);
+                        if (metodoRs.getName().equals("next") && Boolean.TRUE.equals(lido)) {
+                            linhasLidas.incrementAndGet();
+                        }
+                        return lido;
+                    });
+                }
+                return resultado;
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> tipo, T alvo, Chamada<T> chamada) {
+            InvocationHandler handler = (p, metodo, args) -> {
+                try {
+                    return chamada.executar(alvo, metodo, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, handler);
+        }
+
+        @FunctionalInterface
+        private interface Chamada<T> {
+            Object executar(T alvo, Method metodo, Object[] args) throws Throwable;
+        }
+    }
+}
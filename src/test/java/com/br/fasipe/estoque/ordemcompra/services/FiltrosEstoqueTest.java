@@ -0,0 +1,153 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.br.fasipe.estoque.ordemcompra.dto.EstoqueResumo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Teste das listagens filtradas de estoque (produto, almoxarifado do produto, lote
+ * e quantidade baixa) no H2: cada página traz só os registros do filtro em ordem
+ * de ID e o total vem da consulta de contagem do mesmo filtro
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FiltrosEstoqueTest {
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private LocalDate hoje;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM LOTE");
+        jdbc.update("DELETE FROM ORDEMCOMPRA");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (2, 1, 'Satélite')");
+        jdbc.update("INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                + "VALUES (1, 'CONC', 100, CURRENT_DATE, CURRENT_DATE, CURRENT_DATE)");
+        criarProduto(1, "Dipirona", 1);
+        criarProduto(2, "Amoxicilina", 1);
+        criarProduto(3, "Paracetamol", 2);
+        // Sem almoxarifado: fora de qualquer filtro por almoxarifado
+        criarProduto(4, "Ibuprofeno", null);
+
+        hoje = LocalDate.now();
+        for (int lote = 1; lote <= 3; lote++) {
+            jdbc.update("INSERT INTO LOTE (IDLOTE, ID_ORDCOMP, DATAVENC, QNTD) VALUES (?, 1, ?, 100)",
+                    lote, hoje.plusDays(30L * lote));
+        }
+        criarEstoque(1, 1, 1, 10);
+        criarEstoque(2, 1, 2, 3);
+        criarEstoque(3, 2, 1, 8);
+        criarEstoque(4, 3, 2, 2);
+        criarEstoque(5, 3, 3, 50);
+        criarEstoque(6, 4, 3, 7);
+        criarEstoque(7, 1, 3, 1);
+        // Os dados foram trocados por fora da aplicação
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @Test
+    void filtroPorProduto() {
+        Page<EstoqueResumo> primeira = estoqueService.findByProduto(1, 0, 2);
+
+        assertEquals(List.of(1, 2), ids(primeira));
+        assertEquals(3, primeira.getTotalElements());
+        assertEquals(2, primeira.getTotalPages());
+        assertEquals(List.of("Dipirona", "Dipirona"), primeira.getContent().stream().map(EstoqueResumo::nomeProduto).toList());
+        assertEquals(List.of(7), ids(estoqueService.findByProduto(1, 1, 2)));
+        assertEquals(List.of(2, 50), estoqueService.findByProduto(3, 0, 20).getContent().stream()
+                .map(EstoqueResumo::quantidadeEstoque).toList());
+        assertVazio(estoqueService.findByProduto(99, 0, 20));
+    }
+
+    @Test
+    void filtroPorAlmoxarifadoDoProduto() {
+        Page<EstoqueResumo> central = estoqueService.findByAlmoxarifado(1, 0, 3);
+
+        assertEquals(List.of(1, 2, 3), ids(central));
+        assertEquals(4, central.getTotalElements());
+        assertEquals(List.of(7), ids(estoqueService.findByAlmoxarifado(1, 1, 3)));
+
+        Page<EstoqueResumo> satelite = estoqueService.findByAlmoxarifado(2, 0, 20);
+        assertEquals(List.of(4, 5), ids(satelite));
+        assertEquals(2, satelite.getTotalElements());
+        assertEquals(List.of(3, 3), satelite.getContent().stream().map(EstoqueResumo::idProduto).toList());
+        assertVazio(estoqueService.findByAlmoxarifado(99, 0, 20));
+    }
+
+    @Test
+    void filtroPorLote() {
+        Page<EstoqueResumo> terceiro = estoqueService.findByLote(3, 0, 20);
+
+        assertEquals(List.of(5, 6, 7), ids(terceiro));
+        assertEquals(3, terceiro.getTotalElements());
+        assertEquals(List.of("Paracetamol", "Ibuprofeno", "Dipirona"),
+                terceiro.getContent().stream().map(EstoqueResumo::nomeProduto).toList());
+        assertEquals(List.of(hoje.plusDays(90)), terceiro.getContent().stream()
+                .map(EstoqueResumo::dataVencimento).distinct().toList());
+
+        Page<EstoqueResumo> primeiroLote = estoqueService.findByLote(1, 0, 1);
+        assertEquals(List.of(1), ids(primeiroLote));
+        assertEquals(2, primeiroLote.getTotalElements());
+        assertEquals(2, primeiroLote.getTotalPages());
+        assertVazio(estoqueService.findByLote(99, 0, 20));
+    }
+
+    @Test
+    void filtroPorQuantidadeBaixa() {
+        Page<EstoqueResumo> baixos = estoqueService.findEstoquesComQuantidadeBaixa(5, 0, 2);
+
+        assertEquals(List.of(2, 4), ids(baixos));
+        assertEquals(3, baixos.getTotalElements());
+        assertEquals(List.of(7), ids(estoqueService.findEstoquesComQuantidadeBaixa(5, 1, 2)));
+        assertVazio(estoqueService.findEstoquesComQuantidadeBaixa(1, 0, 20));
+    }
+
+    private static void assertVazio(Page<EstoqueResumo> pagina) {
+        assertEquals(List.of(), pagina.getContent());
+        assertEquals(0, pagina.getTotalElements());
+    }
+
+    private static List<Integer> ids(Page<EstoqueResumo> pagina) {
+        return pagina.getContent().stream().map(EstoqueResumo::id).toList();
+    }
+
+    private void criarProduto(int id, String nome, Integer idAlmoxarifado) {
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (?, ?, ?, ?, 1, ?, 1000, 10, 20)",
+                id, nome, nome, idAlmoxarifado, "789100000000" + id);
+    }
+
+    private void criarEstoque(int id, int idProduto, int idLote, int quantidade) {
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, ?, ?, ?)",
+                id, idProduto, idLote, quantidade);
+    }
+}
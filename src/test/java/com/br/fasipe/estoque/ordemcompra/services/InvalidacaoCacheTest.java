@@ -0,0 +1,194 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CacheDependencias;
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.models.Produto;
+import com.br.fasipe.estoque.ordemcompra.repository.AlmoxarifadoRepository;
+import com.br.fasipe.estoque.ordemcompra.repository.ProdutoRepository;
+
+/**
+ * Teste da invalidação de caches por dependência
+ * Cada escrita remove só as entradas ligadas às tags que afeta: a tag de filtro
+ * derivada da chave, as listagens (inclusões e remoções) e as ordenadas pelo
+ * campo alterado, as entradas de estoque que exibem o produto alterado.
+ * A remoção acontece após o commit e não acontece se a transação for desfeita
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InvalidacaoCacheTest {
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private AlmoxarifadoRepository almoxarifadoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheDependencias cacheDependencias;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM LOTE");
+        jdbc.update("DELETE FROM ORDEMCOMPRA");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (2, 1, 'Satélite')");
+        jdbc.update("INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                + "VALUES (1, 'CONC', 100, CURRENT_DATE, CURRENT_DATE, CURRENT_DATE)");
+        jdbc.update("INSERT INTO LOTE (IDLOTE, ID_ORDCOMP, DATAVENC, QNTD) VALUES (1, 1, DATEADD('DAY', 200, CURRENT_DATE), 100)");
+        criarProduto(1, "Amoxicilina", "7891000000011");
+        criarProduto(2, "Dipirona", "7891000000028");
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (1, 1, 1, 50)");
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (2, 2, 1, 50)");
+        // Os dados foram trocados por fora da aplicação
+        cacheManager.getCacheNames().forEach(nome -> cacheManager.getCache(nome).clear());
+    }
+
+    @Test
+    void tagsDerivadasDaChave() {
+        Cache estoques = cacheManager.getCache("estoques");
+        estoques.put("produto_9_0_20", Page.empty());
+        estoques.put("produto_90_0_20", Page.empty());
+        estoques.put("0_20_produto.nome_ASC", Page.empty());
+        estoques.put("0_20_default", Page.empty());
+
+        assertEquals(1, cacheDependencias.invalidacao("filtro").tags("estoques", "produto_9").aplicar());
+        assertFalse(emCache("estoques", "produto_9_0_20"));
+        assertTrue(emCache("estoques", "produto_90_0_20"));
+
+        // A listagem padrão é ordenada pelo ID e não depende de outros campos
+        assertEquals(1, cacheDependencias.invalidacao("ordenacao").listagensOrdenadas("estoques").aplicar());
+        assertFalse(emCache("estoques", "0_20_produto.nome_ASC"));
+        assertTrue(emCache("estoques", "0_20_default"));
+
+        assertEquals(1, cacheDependencias.invalidacao("listagem")
+                .tags("estoques", CacheDependencias.TAG_LISTAGEM).aplicar());
+        assertFalse(emCache("estoques", "0_20_default"));
+        assertTrue(emCache("estoques", "produto_90_0_20"));
+    }
+
+    @Test
+    void escritaAtingeSoAsEntradasComOEstoque() {
+        estoqueService.findByProduto(1, 0, 20);
+        estoqueService.findByProduto(2, 0, 20);
+
+        estoqueService.updateQuantidade(1, 40, ContextoMovimentacao.SISTEMA);
+
+        assertFalse(emCache("estoques", "produto_1_0_20"));
+        assertTrue(emCache("estoques", "produto_2_0_20"));
+        assertEquals(40, estoqueService.findByProduto(1, 0, 20).getContent().getFirst().quantidadeEstoque());
+    }
+
+    @Test
+    void alteracaoAtingeListagensOrdenadasPeloCampoERemocaoTodasAsListagens() {
+        // Páginas de um produto: nenhuma contém o produto 2
+        produtoService.findAllPaginated(0, 1);
+        produtoService.findAllPaginated(0, 1, "nome", Sort.Direction.ASC);
+
+        Produto dipirona = produtoRepository.findById(2).orElseThrow();
+        dipirona.setNome("Aciclovir");
+        produtoService.update(dipirona);
+
+        // Só a listagem por nome pode mudar: o produto 2 passa a ser o primeiro por nome
+        assertTrue(emCache("produtos", "0_1_default"));
+        assertFalse(emCache("produtos", "0_1_nome_ASC"));
+        assertEquals("Aciclovir", produtoService.findAllPaginated(0, 1, "nome", Sort.Direction.ASC)
+                .getContent().getFirst().nome());
+
+        // Remoção muda todas as listagens, mesmo as páginas que não contêm o produto
+        produtoService.deleteById(2);
+
+        assertFalse(emCache("produtos", "0_1_default"));
+        assertFalse(emCache("produtos", "0_1_nome_ASC"));
+    }
+
+    @Test
+    void alteracaoDoProdutoAtingeOsEstoquesQueOExibem() {
+        estoqueService.findById(1);
+        estoqueService.findById(2);
+        estoqueService.findAllPaginated(0, 20, "id", Sort.Direction.ASC);
+        estoqueService.findByAlmoxarifado(2, 0, 20);
+
+        Produto amoxicilina = produtoRepository.findById(1).orElseThrow();
+        amoxicilina.setNome("Amoxicilina 500mg");
+        amoxicilina.setAlmoxarifado(almoxarifadoRepository.findById(2).orElseThrow());
+        produtoService.update(amoxicilina);
+
+        assertFalse(emCache("estoque", 1));
+        assertTrue(emCache("estoque", 2));
+        assertFalse(emCache("estoques", "0_20_id_ASC"));
+        assertFalse(emCache("estoques", "almoxarifado_2_0_20"));
+        assertEquals("Amoxicilina 500mg", estoqueService.findById(1).orElseThrow().nomeProduto());
+        assertEquals(2, estoqueService.findById(1).orElseThrow().idAlmoxarifado());
+        assertEquals(1, estoqueService.findByAlmoxarifado(2, 0, 20).getTotalElements());
+    }
+
+    @Test
+    void invalidacaoAconteceAposOCommitENaoNoRollback() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        estoqueService.findById(1);
+
+        transacao.executeWithoutResult(status -> {
+            estoqueService.updateQuantidade(1, 30, ContextoMovimentacao.SISTEMA);
+            // Uma leitura concorrente ainda recolocaria o estado confirmado anterior
+            assertTrue(emCache("estoque", 1));
+        });
+        assertFalse(emCache("estoque", 1));
+
+        estoqueService.findById(1);
+        transacao.executeWithoutResult(status -> {
+            estoqueService.updateQuantidade(1, 20, ContextoMovimentacao.SISTEMA);
+            status.setRollbackOnly();
+        });
+        assertTrue(emCache("estoque", 1));
+        assertEquals(30, estoqueService.findById(1).orElseThrow().quantidadeEstoque());
+    }
+
+    private boolean emCache(String cache, Object chave) {
+        return cacheManager.getCache(cache).get(chave) != null;
+    }
+
+    private void criarProduto(int id, String nome, String codBarras) {
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (?, ?, ?, 1, 1, ?, 1000, 10, 20)", id, nome, nome, codBarras);
+    }
+}
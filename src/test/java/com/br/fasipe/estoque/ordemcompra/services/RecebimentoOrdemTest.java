@@ -0,0 +1,231 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import com.br.fasipe.estoque.ordemcompra.cache.CacheDependencias;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteRecebimento;
+import com.br.fasipe.estoque.ordemcompra.dto.RecebimentoOrdem;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teste do recebimento de ordens de compra
+ * Cada item (ou lote informado do item) gera um lote, um estoque e uma entrada no
+ * livro de movimentações gravados em lotes JDBC; a ordem é concluída uma única vez,
+ * dados inválidos desfazem tudo e o cache é invalidado uma única vez por recebimento.
+ * A quantidade de comandos não depende da quantidade de itens, mesmo para produtos
+ * sem almoxarifado
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class RecebimentoOrdemTest {
+
+    // Setor do almoxarifado dos produtos 1 e 2; o produto 3 não tem almoxarifado
+    private static final int SETOR_ALMOXARIFADO = 2;
+    private static final int SETOR_SISTEMA = 1;
+    private static final int ITENS_ORDEM_GRANDE = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrdemCompraService ordemCompraService;
+
+    @Autowired
+    private CacheDependencias cacheDependencias;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private LocalDate hoje;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM SALDOPRODUTO");
+        jdbc.update("DELETE FROM SALDOALMOX");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM LOTE");
+        jdbc.update("DELETE FROM ITEM_ORDCOMP");
+        jdbc.update("DELETE FROM ORDEMCOMPRA");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Administração')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (2, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 2, 'Central')");
+        criarProduto(1, 1, "7891000000011");
+        criarProduto(2, 1, "7891000000028");
+        criarProduto(3, null, "7891000000035");
+
+        hoje = LocalDate.now();
+        criarOrdem(1);
+        criarItem(1, 1, 1, 10, 90);
+        criarItem(2, 1, 2, 20, 120);
+        criarItem(3, 1, 3, 5, 60);
+        criarOrdem(2);
+        criarItem(4, 2, 1, 10, 90);
+        criarItem(5, 2, 3, 10, 90);
+        criarOrdem(3);
+        for (int i = 0; i < ITENS_ORDEM_GRANDE; i++) {
+            criarItem(10 + i, 3, i % 2 == 0 ? 1 : 3, 10, 90);
+        }
+        criarOrdem(4);
+        criarItem(30, 4, 1, 10, 90);
+    }
+
+    @Test
+    void recebimentoGeraUmLoteUmEstoqueEUmaMovimentacaoPorLoteEntregue() throws Exception {
+        // O item 1 chega em dois lotes; os demais como pedidos
+        String lotes = "[{\"idItem\": 1, \"dataVencimento\": \"" + hoje.plusDays(200) + "\", \"quantidade\": 4},"
+                + " {\"idItem\": 1, \"quantidade\": 6}]";
+
+        mockMvc.perform(post("/api/ordens-compra/1/recebimento").param("idUsuario", "7")
+                        .contentType(MediaType.APPLICATION_JSON).content(lotes))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONC"))
+                .andExpect(jsonPath("$.dataEntrega").value(hoje.toString()))
+                .andExpect(jsonPath("$.itens.length()").value(4));
+
+        assertEquals(List.of(4, 6, 20, 5), jdbc.queryForList("SELECT L.QNTD FROM LOTE L JOIN ESTOQUE E "
+                + "ON E.ID_LOTE = L.IDLOTE WHERE L.ID_ORDCOMP = 1 ORDER BY E.IDESTOQUE", Integer.class));
+        assertEquals(List.of(hoje.plusDays(200), hoje.plusDays(90), hoje.plusDays(120), hoje.plusDays(60)),
+                jdbc.queryForList("SELECT DATAVENC FROM LOTE WHERE ID_ORDCOMP = 1 ORDER BY IDLOTE", LocalDate.class));
+        assertEquals(35, jdbc.queryForObject("SELECT SUM(QTDESTOQUE) FROM ESTOQUE", Integer.class));
+        assertEquals("CONC", jdbc.queryForObject("SELECT STATUSORD FROM ORDEMCOMPRA WHERE IDORDCOMP = 1", String.class));
+
+        // Entradas no livro com o responsável informado e o setor do almoxarifado do produto
+        assertEquals(List.of(SETOR_ALMOXARIFADO, SETOR_ALMOXARIFADO, SETOR_ALMOXARIFADO, SETOR_SISTEMA),
+                jdbc.queryForList("SELECT ID_SETOR_DESTINO FROM MOVIMENTACAO ORDER BY ID_ESTOQUE", Integer.class));
+        assertEquals(4, jdbc.queryForObject("SELECT COUNT(*) FROM MOVIMENTACAO WHERE ID_USUARIO = 7 "
+                + "AND TIPOMOVIM = 'ENTRADA'", Integer.class));
+        assertEquals(35, jdbc.queryForObject("SELECT SUM(QTDMOVIM) FROM MOVIMENTACAO", Integer.class));
+    }
+
+    @Test
+    void segundoRecebimentoEhRecusado() throws Exception {
+        ordemCompraService.receber(2, List.of(), null);
+
+        assertThrows(OrdemJaRecebidaException.class, () -> ordemCompraService.receber(2, List.of(), null));
+        mockMvc.perform(post("/api/ordens-compra/2/recebimento")).andExpect(status().isConflict());
+        mockMvc.perform(post("/api/ordens-compra/99/recebimento")).andExpect(status().isNotFound());
+
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM LOTE WHERE ID_ORDCOMP = 2", Integer.class));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM MOVIMENTACAO", Integer.class));
+    }
+
+    @Test
+    void recebimentoInvalidoNaoGravaNada() throws Exception {
+        assertThrows(RecebimentoInvalidoException.class, () -> ordemCompraService.receber(1,
+                List.of(new LoteRecebimento(2, null, 0)), null));
+        assertThrows(RecebimentoInvalidoException.class, () -> ordemCompraService.receber(1,
+                List.of(new LoteRecebimento(2, null, -3)), null));
+        // O lote deve vencer depois de hoje
+        assertThrows(RecebimentoInvalidoException.class, () -> ordemCompraService.receber(1,
+                List.of(new LoteRecebimento(3, hoje, null)), null));
+        assertThrows(RecebimentoInvalidoException.class, () -> ordemCompraService.receber(1,
+                List.of(new LoteRecebimento(3, hoje.minusDays(10), null)), null));
+        // Item de outra ordem
+        assertThrows(RecebimentoInvalidoException.class, () -> ordemCompraService.receber(1,
+                List.of(new LoteRecebimento(4, null, null)), null));
+        mockMvc.perform(post("/api/ordens-compra/1/recebimento").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"idItem\": 2, \"quantidade\": 0}]"))
+                .andExpect(status().isBadRequest());
+
+        // A conclusão da ordem foi desfeita junto com os inserts
+        assertEquals("PEND", jdbc.queryForObject("SELECT STATUSORD FROM ORDEMCOMPRA WHERE IDORDCOMP = 1", String.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM LOTE", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM ESTOQUE", Integer.class));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM MOVIMENTACAO", Integer.class));
+
+        // Corrigidos os dados, a mesma ordem é recebida
+        assertEquals(3, ordemCompraService.receber(1, List.of(), null).orElseThrow().itens().size());
+    }
+
+    @Test
+    void comandosEInvalidacaoNaoDependemDaQuantidadeDeItens() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Aquecimento: a primeira gravação reserva os blocos de IDs das sequências
+        ordemCompraService.receber(4, List.of(), null);
+
+        long invalidacoes = invalidacoes();
+        estatisticas.clear();
+        RecebimentoOrdem pequena = ordemCompraService.receber(2, List.of(), null).orElseThrow();
+        long consultasPequena = estatisticas.getQueryExecutionCount();
+        long comandosPequena = estatisticas.getPrepareStatementCount();
+
+        assertEquals(invalidacoes + 1, invalidacoes());
+        assertEquals("receber ordem de compra 2", ultimaInvalidacao());
+
+        estatisticas.clear();
+        RecebimentoOrdem grande = ordemCompraService.receber(3, List.of(), null).orElseThrow();
+        long consultasGrande = estatisticas.getQueryExecutionCount();
+        long comandosGrande = estatisticas.getPrepareStatementCount();
+
+        assertEquals(invalidacoes + 2, invalidacoes());
+        assertEquals("receber ordem de compra 3", ultimaInvalidacao());
+        assertEquals(2, pequena.itens().size());
+        assertEquals(ITENS_ORDEM_GRANDE, grande.itens().size());
+        assertEquals(ITENS_ORDEM_GRANDE * 3L, estatisticas.getEntityInsertCount());
+        // Nenhuma consulta por linha, nem para o setor dos produtos sem almoxarifado
+        assertEquals(consultasPequena, consultasGrande);
+        // Inserts em lote; cada sequência pode buscar no máximo um novo bloco de IDs
+        assertTrue(comandosGrande - comandosPequena <= 3, comandosPequena + " -> " + comandosGrande);
+        assertEquals(ITENS_ORDEM_GRANDE / 2, jdbc.queryForObject("SELECT COUNT(*) FROM MOVIMENTACAO M "
+                + "JOIN ESTOQUE E ON E.IDESTOQUE = M.ID_ESTOQUE JOIN LOTE L ON L.IDLOTE = E.ID_LOTE "
+                + "WHERE L.ID_ORDCOMP = 3 AND M.ID_SETOR_DESTINO = " + SETOR_SISTEMA, Integer.class));
+    }
+
+    private long invalidacoes() {
+        return (Long) cacheDependencias.getEstatisticas().get("invalidacoes");
+    }
+
+    @SuppressWarnings("unchecked")
+    private String ultimaInvalidacao() {
+        List<Map<String, Object>> ultimas = (List<Map<String, Object>>) cacheDependencias.getEstatisticas().get("ultimas");
+        return (String) ultimas.getFirst().get("descricao");
+    }
+
+    private void criarProduto(int id, Integer idAlmoxarifado, String codBarras) {
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (?, ?, 'Produto de teste', ?, 1, ?, 1000, 10, 20)",
+                id, "Produto " + id, idAlmoxarifado, codBarras);
+    }
+
+    private void criarOrdem(int id) {
+        jdbc.update("INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                + "VALUES (?, 'PEND', 100, ?, ?, ?)", id, hoje.plusDays(5), hoje, hoje.plusDays(5));
+    }
+
+    private void criarItem(int id, int idOrdem, int idProduto, int quantidade, int diasParaVencer) {
+        jdbc.update("INSERT INTO ITEM_ORDCOMP (IDITEMORD, ID_ORDCOMP, ID_PRODUTO, QNTD, VALOR, DATAVENC) "
+                + "VALUES (?, ?, ?, ?, 5, ?)", id, idOrdem, idProduto, quantidade, hoje.plusDays(diasParaVencer));
+    }
+}
@@ -0,0 +1,84 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+
+/**
+ * Teste da remoção de estoque com as chaves estrangeiras ativas, como no MySQL
+ * Um estoque com movimentações no livro não pode ser removido (409);
+ * um estoque sem movimentações é removido normalmente
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.hbm2ddl.default_constraint_mode=CONSTRAINT")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class RemocaoEstoqueTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void preparar() {
+        // MOVIMENTACAO guarda só o ID do estoque: a chave do script MySQL é criada aqui
+        jdbc.execute("ALTER TABLE MOVIMENTACAO ADD CONSTRAINT IF NOT EXISTS FK_MOVIMENTACAO_ESTOQUE "
+                + "FOREIGN KEY (ID_ESTOQUE) REFERENCES ESTOQUE(IDESTOQUE)");
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM SALDOPRODUTO");
+        jdbc.update("DELETE FROM SALDOALMOX");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM LOTE");
+        jdbc.update("DELETE FROM ORDEMCOMPRA");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (1, 'Dipirona', 'Dipirona 500mg', 1, 1, '789', 1000, 10, 20)");
+        jdbc.update("INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                + "VALUES (1, 'CONC', 100.00, CURRENT_DATE, CURRENT_DATE, CURRENT_DATE)");
+        jdbc.update("INSERT INTO LOTE (IDLOTE, ID_ORDCOMP, DATAVENC, QNTD) VALUES (1, 1, CURRENT_DATE + 365, 100)");
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (1, 1, 1, 10)");
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (2, 1, 1, 0)");
+    }
+
+    @Test
+    void estoqueComMovimentacoesNaoPodeSerRemovido() throws Exception {
+        estoqueService.registrarEntrada(1, 5, ContextoMovimentacao.SISTEMA);
+
+        mockMvc.perform(delete("/api/estoque/1")).andExpect(status().isConflict());
+
+        assertEquals(1, contar("SELECT COUNT(*) FROM ESTOQUE WHERE IDESTOQUE = 1"));
+        assertEquals(1, contar("SELECT COUNT(*) FROM MOVIMENTACAO WHERE ID_ESTOQUE = 1"));
+    }
+
+    @Test
+    void estoqueSemMovimentacoesERemovido() throws Exception {
+        mockMvc.perform(delete("/api/estoque/2")).andExpect(status().isNoContent());
+
+        assertEquals(0, contar("SELECT COUNT(*) FROM ESTOQUE WHERE IDESTOQUE = 2"));
+    }
+
+    private int contar(String sql) {
+        return jdbc.queryForObject(sql, Integer.class);
+    }
+}
@@ -0,0 +1,210 @@
+package com.br.fasipe.estoque.ordemcompra.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ContextoMovimentacao;
+import com.br.fasipe.estoque.ordemcompra.dto.CursorVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.FaixaVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.LoteVencimento;
+import com.br.fasipe.estoque.ordemcompra.dto.Pagina;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teste do motor de vencimento de lotes
+ * A virada do dia desloca cada estoque direto para a sua faixa atual, os ajustes
+ * de saldo incluem e retiram estoques das faixas e a paginação por cursor
+ * percorre a faixa em ordem de vencimento sem repetir nem pular registros
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class VencimentoLotesTest {
+
+    private static final int ALMOXARIFADO = 1;
+
+    @Autowired
+    private VencimentoLotesService vencimentoLotesService;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private LocalDate hoje;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM MOVIMENTACAO");
+        jdbc.update("DELETE FROM ESTOQUE");
+        jdbc.update("DELETE FROM LOTE");
+        jdbc.update("DELETE FROM ORDEMCOMPRA");
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (2, 1, 'Satélite')");
+        jdbc.update("INSERT INTO ORDEMCOMPRA (IDORDCOMP, STATUSORD, VALOR, DATAPREV, DATAORDEM, DATAENTRE) "
+                + "VALUES (1, 'CONC', 100, CURRENT_DATE, CURRENT_DATE, CURRENT_DATE)");
+        criarProduto(1, 1, "7891000000011");
+        criarProduto(2, 2, "7891000000028");
+
+        hoje = LocalDate.now();
+        criarEstoque(1, 1, -1, 5);
+        criarEstoque(2, 1, 0, 5);
+        criarEstoque(3, 1, 30, 5);
+        criarEstoque(4, 1, 31, 5);
+        criarEstoque(5, 1, 61, 5);
+        criarEstoque(6, 1, 91, 5);
+        criarEstoque(7, 1, 200, 5);
+        // Sem saldo: fora das faixas
+        criarEstoque(8, 1, 10, 0);
+        criarEstoque(9, 2, 45, 5);
+        // Os dados foram trocados por fora da aplicação
+        vencimentoLotesService.recarregar();
+    }
+
+    @AfterEach
+    void restaurar() {
+        // Volta a data de referência para hoje
+        vencimentoLotesService.recarregar();
+    }
+
+    @Test
+    void viradaDoDiaDeslocaCadaEstoqueParaASuaFaixa() {
+        assertEquals(totais(1, 2, 1, 1, 2), totais(ALMOXARIFADO));
+        assertEquals(totais(0, 0, 1, 0, 0), totais(2));
+
+        vencimentoLotesService.virarDia(hoje.plusDays(1));
+
+        assertEquals(totais(2, 2, 1, 1, 1), totais(ALMOXARIFADO));
+        assertEquals(List.of(1, 2), ids(FaixaVencimento.VENCIDO));
+        assertEquals(List.of(3, 4), ids(FaixaVencimento.ATE_30_DIAS));
+        assertEquals(List.of(5), ids(FaixaVencimento.DE_31_A_60_DIAS));
+        assertEquals(List.of(6), ids(FaixaVencimento.DE_61_A_90_DIAS));
+
+        // Vários dias de uma vez: cada estoque pula direto para a faixa atual
+        vencimentoLotesService.virarDia(hoje.plusDays(40));
+
+        assertEquals(totais(4, 1, 1, 0, 1), totais(ALMOXARIFADO));
+        assertEquals(List.of(1, 2, 3, 4), ids(FaixaVencimento.VENCIDO));
+        assertEquals(List.of(5), ids(FaixaVencimento.ATE_30_DIAS));
+        assertEquals(List.of(6), ids(FaixaVencimento.DE_31_A_60_DIAS));
+        assertEquals(totais(0, 0, 1, 0, 0), totais(2));
+
+        // Uma data que não é posterior à atual não desloca nada
+        vencimentoLotesService.virarDia(hoje.plusDays(10));
+
+        assertEquals(totais(4, 1, 1, 0, 1), totais(ALMOXARIFADO));
+    }
+
+    @Test
+    void ajustesDeSaldoIncluemERetiramEstoquesDasFaixas() {
+        // Saldo zerado sai da faixa
+        estoqueService.updateQuantidade(1, 0, ContextoMovimentacao.SISTEMA);
+        // Saldo que volta a ser positivo entra na faixa do vencimento
+        estoqueService.updateQuantidade(8, 7, ContextoMovimentacao.SISTEMA);
+        // Saldo que continua positivo não muda nada
+        estoqueService.updateQuantidade(3, 4, ContextoMovimentacao.SISTEMA);
+
+        assertEquals(totais(0, 3, 1, 1, 2), totais(ALMOXARIFADO));
+        assertEquals(List.of(2, 8, 3), ids(FaixaVencimento.ATE_30_DIAS));
+
+        // Produto trocado de almoxarifado e estoque novo: relidos do banco numa única consulta
+        jdbc.update("UPDATE PRODUTO SET ID_ALMOX = 1 WHERE IDPRODUTO = 2");
+        criarEstoque(10, 2, 120, 3);
+        vencimentoLotesService.registrarEstoques(List.of(9, 10));
+
+        assertEquals(totais(0, 3, 2, 1, 3), totais(ALMOXARIFADO));
+        assertEquals(List.of(4, 9), ids(FaixaVencimento.DE_31_A_60_DIAS));
+        assertEquals(totais(0, 0, 0, 0, 0), totais(2));
+
+        // O ajuste usa a data de referência atual das faixas
+        vencimentoLotesService.virarDia(hoje.plusDays(1));
+        jdbc.update("UPDATE ESTOQUE SET QTDESTOQUE = 2 WHERE IDESTOQUE = 1");
+        vencimentoLotesService.registrarSaldo(1, 0, 2);
+
+        assertEquals(List.of(1, 2), ids(FaixaVencimento.VENCIDO));
+    }
+
+    @Test
+    void paginacaoPorCursorPercorreAFaixaEmOrdemDeVencimento() {
+        // Mesmo vencimento do estoque 3: o empate é desfeito pelo ID
+        criarEstoque(11, 1, 30, 5);
+        criarEstoque(12, 1, 15, 5);
+        vencimentoLotesService.registrarEstoques(List.of(11, 12));
+
+        Pagina<LoteVencimento> primeira = estoqueService.findByFaixaVencimento(ALMOXARIFADO,
+                FaixaVencimento.ATE_30_DIAS, null, 2);
+
+        assertEquals(List.of(2, 12), idsEstoque(primeira));
+        assertEquals(4L, primeira.totalElements());
+        assertEquals(2, primeira.totalPages());
+        CursorVencimento cursor = CursorVencimento.decodificar(primeira.proximo());
+        assertEquals(new CursorVencimento(hoje.plusDays(15), 12), cursor);
+        assertEquals(primeira.proximo(), cursor.codificar());
+
+        // Um estoque da página já entregue sai da faixa: a página seguinte não pula ninguém
+        estoqueService.updateQuantidade(12, 0, ContextoMovimentacao.SISTEMA);
+        Pagina<LoteVencimento> segunda = estoqueService.findByFaixaVencimento(ALMOXARIFADO,
+                FaixaVencimento.ATE_30_DIAS, primeira.proximo(), 2);
+
+        assertEquals(List.of(3, 11), idsEstoque(segunda));
+        assertNull(segunda.proximo());
+        assertEquals(3L, segunda.totalElements());
+
+        Pagina<LoteVencimento> vazia = estoqueService.findByFaixaVencimento(2,
+                FaixaVencimento.VENCIDO, null, 2);
+
+        assertEquals(List.of(), vazia.content());
+        assertNull(vazia.proximo());
+    }
+
+    private Map<FaixaVencimento, Integer> totais(int idAlmoxarifado) {
+        return vencimentoLotesService.findResumo(idAlmoxarifado).totais();
+    }
+
+    private static Map<FaixaVencimento, Integer> totais(int vencido, int ate30, int de31a60, int de61a90,
+                                                        int acimaDe90) {
+        return Map.of(FaixaVencimento.VENCIDO, vencido, FaixaVencimento.ATE_30_DIAS, ate30,
+                FaixaVencimento.DE_31_A_60_DIAS, de31a60, FaixaVencimento.DE_61_A_90_DIAS, de61a90,
+                FaixaVencimento.ACIMA_DE_90_DIAS, acimaDe90);
+    }
+
+    private List<Integer> ids(FaixaVencimento faixa) {
+        return idsEstoque(vencimentoLotesService.findByFaixa(ALMOXARIFADO, faixa, null, 100));
+    }
+
+    private static List<Integer> idsEstoque(Pagina<LoteVencimento> pagina) {
+        return pagina.content().stream().map(LoteVencimento::idEstoque).toList();
+    }
+
+    private void criarProduto(int id, int idAlmoxarifado, String codBarras) {
+        jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                + "STQMIN, PNTPEDIDO) VALUES (?, 'Dipirona', 'Dipirona 500mg', ?, 1, ?, 1000, 10, 20)",
+                id, idAlmoxarifado, codBarras);
+    }
+
+    // Um lote por estoque, com o mesmo ID
+    private void criarEstoque(int id, int idProduto, int diasParaVencer, int quantidade) {
+        jdbc.update("INSERT INTO LOTE (IDLOTE, ID_ORDCOMP, DATAVENC, QNTD) VALUES (?, 1, ?, ?)",
+                id, Date.valueOf(hoje.plusDays(diasParaVencer)), quantidade);
+        jdbc.update("INSERT INTO ESTOQUE (IDESTOQUE, ID_PRODUTO, ID_LOTE, QTDESTOQUE) VALUES (?, ?, ?, ?)",
+                id, idProduto, id, quantidade);
+    }
+}
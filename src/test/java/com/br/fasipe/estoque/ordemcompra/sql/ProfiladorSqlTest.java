@@ -0,0 +1,149 @@
+package com.br.fasipe.estoque.ordemcompra.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.br.fasipe.estoque.ordemcompra.dto.ConsultaLenta;
+import com.br.fasipe.estoque.ordemcompra.dto.SuspeitaNMaisUm;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+
+/**
+ * Teste do profiler de SQL
+ * Com limiar de lentidão zero todo comando entra no buffer de consultas lentas,
+ * o que permite verificar os parâmetros guardados e o descarte pela capacidade
+ */
+@SpringBootTest(properties = {
+        "fasiclin.sql.profiler.habilitado=true",
+        "fasiclin.sql.profiler.parametros=true",
+        "management.endpoints.web.exposure.include=sql",
+        "fasiclin.sql.profiler.limiar-lento=0ms",
+        "fasiclin.sql.profiler.limiar-repeticoes=3",
+        "fasiclin.sql.profiler.capacidade=5"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class ProfiladorSqlTest {
+
+    private static final String POR_ID = "SELECT NOME FROM PRODUTO WHERE IDPRODUTO = ?";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private RegistroConsultas registro;
+
+    @Autowired
+    private FiltroPerfilSql filtro;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void preparar() {
+        jdbc.update("DELETE FROM PRODUTO");
+        jdbc.update("DELETE FROM ALMOXARIFADO");
+        jdbc.update("DELETE FROM SETOR");
+        jdbc.update("DELETE FROM UNIMEDIDA");
+        jdbc.update("INSERT INTO UNIMEDIDA (IDUNMEDI, DESCRICAO, UNIABREV) VALUES (1, 'Unidade', 'UN')");
+        jdbc.update("INSERT INTO SETOR (IDSETOR, ID_PROFISSIO, NOMESETOR) VALUES (1, 1, 'Farmácia')");
+        jdbc.update("INSERT INTO ALMOXARIFADO (IDALMOX, ID_SETOR, NOMEALMO) VALUES (1, 1, 'Central')");
+        for (int id = 1; id <= 3; id++) {
+            jdbc.update("INSERT INTO PRODUTO (IDPRODUTO, NOME, DESCRICAO, ID_ALMOX, ID_UNMEDI, CODBARRAS, STQMAX, "
+                    + "STQMIN, PNTPEDIDO) VALUES (?, ?, 'Descrição', 1, 1, ?, 1000, 10, 20)",
+                    id, "Produto " + id, "789" + id);
+        }
+        cacheManager.getCache("produto").clear();
+        registro.limpar();
+    }
+
+    @AfterEach
+    void encerrarRequisicao() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void comandoRepetidoNaRequisicaoESuspeitaDeNMaisUm() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produtos");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        filtro.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            for (int id = 1; id <= 3; id++) {
+                jdbc.queryForObject(POR_ID, String.class, id);
+            }
+            jdbc.queryForObject("SELECT COUNT(*) FROM PRODUTO", Long.class);
+        });
+
+        List<SuspeitaNMaisUm> suspeitas = registro.getSuspeitas();
+        assertEquals(1, suspeitas.size());
+        assertEquals(POR_ID, suspeitas.get(0).sql());
+        assertEquals(3, suspeitas.get(0).execucoes());
+        assertEquals("GET /api/produtos", suspeitas.get(0).requisicao());
+    }
+
+    @Test
+    void consultasLentasGuardamOsParametrosNoBufferCircular() throws Exception {
+        for (int id = 1; id <= 3; id++) {
+            jdbc.queryForObject(POR_ID, String.class, id);
+        }
+        for (int i = 0; i < 4; i++) {
+            jdbc.queryForObject(POR_ID, String.class, 2);
+        }
+
+        // Capacidade 5: as duas primeiras execuções foram descartadas
+        List<ConsultaLenta> lentas = registro.getConsultasLentas();
+        assertEquals(5, lentas.size());
+        assertTrue(lentas.stream().allMatch(consulta -> POR_ID.equals(consulta.sql())));
+        assertEquals(4, lentas.stream().filter(consulta -> consulta.parametros().equals(List.of("2"))).count());
+        assertEquals(1, lentas.stream().filter(consulta -> consulta.parametros().equals(List.of("3"))).count());
+        // Fora de uma requisição HTTP
+        assertNull(lentas.get(0).requisicao());
+
+        mockMvc.perform(get("/actuator/sql/lentas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].sql").value(POR_ID));
+    }
+
+    @Test
+    void requisicaoPublicaOsComandosDoEndpoint() throws Exception {
+        mockMvc.perform(get("/api/produtos/1")).andExpect(status().isOk());
+
+        DistributionSummary comandos = meterRegistry.find("fasiclin.sql.comandos")
+                .tag("uri", "/api/produtos/{id}").summary();
+        assertNotNull(comandos);
+        assertTrue(comandos.totalAmount() >= 1);
+        assertTrue(registro.getConsultasLentas().stream()
+                .anyMatch(consulta -> "GET /api/produtos/1".equals(consulta.requisicao())
+                        && consulta.parametros().equals(List.of("1"))));
+    }
+}